@@ -0,0 +1,36 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+/**
+ * Defines the CPU-bound inner loops used when confirming duplicates: the fingerprint function and a comparator that
+ * checks several buffers against a reference buffer in lockstep. Implementations differ only in speed; for the same
+ * input every implementation must return the same results, since fingerprints are persisted by a FingerprintStore.
+ * This interface has package-private access.
+ */
+interface ByteKernel {
+
+    /**
+     * Calculates a 64-bit fingerprint over a range of a byte array, as specified by FileFingerprinter.fingerprint.
+     *
+     * @param seed      starting value for the fingerprint
+     * @param bytes     array containing the bytes to fingerprint
+     * @param offset    index of the first byte to fingerprint
+     * @param length    number of bytes to fingerprint
+     * @return          a 64-bit fingerprint
+     */
+    public long fingerprint(long seed, byte[] bytes, int offset, int length);
+
+    /**
+     * Compares the first "length" bytes of each of several buffers with those of a reference buffer. Buffers already
+     * marked as not matching are skipped, so that members of a group which have diverged cost nothing further.
+     *
+     * @param reference     buffer holding the reference bytes
+     * @param buffers       buffers to compare with the reference
+     * @param matches       one flag per buffer; on entry, true for buffers to be compared; on return, true only for
+     *                      those buffers which were compared and found equal to the reference
+     * @param count         number of buffers, starting at index 0, to consider
+     * @param length        number of bytes to compare, which must not exceed the length of any compared buffer
+     * @return              number of buffers found equal to the reference
+     */
+    public int matchReference(byte[] reference, byte[][] buffers, boolean[] matches, int count, int length);
+
+} // interface ByteKernel
@@ -0,0 +1,199 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import FileSieve.BusinessLogic.FileEnumeration.DiscoveredPath;
+
+import com.sun.nio.file.ExtendedOpenOption;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming calculator of the full content fingerprint of a file, for code which reads the file anyway, such as a
+ * copy, and wants its fingerprint without reading it a second time. Bytes may be supplied in chunks of any size; they
+ * are folded in blocks of the size used by full fingerprints, so the value is that which an IntegrityVerifier records
+ * for the same content and may be stored in a FingerprintStore. Instances are not thread-safe.
+ */
+public final class ContentFingerprint {
+
+    private final long fileSize;
+    private final byte[] pendingBlock = new byte[FileFingerprinter.FULL_BLOCK_SIZE];
+    private int pendingLength = 0;
+    private long hash;
+    private long bytesDigested = 0L;
+
+    /**
+     * Constructs a calculator for the content of a file of the given length, which seeds the fingerprint.
+     *
+     * @param fileSize  byte length of the file whose content is to be supplied
+     */
+    public ContentFingerprint(long fileSize) {
+        if (fileSize < 0L) {
+            throw new IllegalArgumentException("file size cannot be negative");
+        }
+
+        this.fileSize = fileSize;
+        this.hash = fileSize;
+    }
+
+    /**
+     * Folds the next bytes of the file's content into the fingerprint.
+     *
+     * @param bytes     array holding the bytes
+     * @param offset    index of the first byte
+     * @param length    number of bytes
+     */
+    public void update(byte[] bytes, int offset, int length) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("null reference passed for \"bytes\" parameter");
+        }
+        if ((offset < 0) || (length < 0) || (offset + length > bytes.length)) {
+            throw new IndexOutOfBoundsException("range lies outside the array");
+        }
+
+        bytesDigested += length;
+
+        // Complete a block left partly filled by the previous call
+        if (pendingLength > 0) {
+            int taken = Math.min(length, pendingBlock.length - pendingLength);
+            System.arraycopy(bytes, offset, pendingBlock, pendingLength, taken);
+            pendingLength += taken;
+            offset += taken;
+            length -= taken;
+
+            if (pendingLength < pendingBlock.length) {
+                return;
+            }
+            hash = FileFingerprinter.fingerprint(hash, pendingBlock, 0, pendingLength);
+            pendingLength = 0;
+        }
+
+        // Whole blocks are fingerprinted where they lie, without being copied
+        while (length >= pendingBlock.length) {
+            hash = FileFingerprinter.fingerprint(hash, bytes, offset, pendingBlock.length);
+            offset += pendingBlock.length;
+            length -= pendingBlock.length;
+        }
+
+        System.arraycopy(bytes, offset, pendingBlock, 0, length);
+        pendingLength = length;
+    }
+
+    /**
+     * Returns the number of bytes supplied so far.
+     *
+     * @return  bytes folded into the fingerprint
+     */
+    public long getBytesDigested() {
+        return bytesDigested;
+    }
+
+    /**
+     * Returns true once exactly as many bytes as the file's length have been supplied.
+     *
+     * @return  boolean true if the fingerprint covers the whole file
+     */
+    public boolean isComplete() {
+        return bytesDigested == fileSize;
+    }
+
+    /**
+     * Returns the fingerprint of the bytes supplied so far. More bytes may still be supplied afterwards.
+     *
+     * @return  the 64-bit fingerprint
+     */
+    public long getValue() {
+        return (pendingLength > 0) ? FileFingerprinter.fingerprint(hash, pendingBlock, 0, pendingLength) : hash;
+    }
+
+    /**
+     * Returns the fingerprint formatted as 16 hexadecimal digits.
+     *
+     * @return  the fingerprint as a hexadecimal string
+     */
+    public String getValueString() {
+        return FileFingerprinter.toHexString(getValue());
+    }
+
+    /**
+     * Calculates the full fingerprint of a file, optionally reading it with direct I/O so that the bytes come from
+     * the storage device rather than the page cache, as when checking that a file just written reads back correctly.
+     * Where the platform or file system does not support direct I/O the file is read normally.
+     *
+     * @param path              file to fingerprint
+     * @param bypassCache       true if the file is to be read around the page cache where possible
+     * @return                  the 64-bit fingerprint of the file's content
+     * @throws IOException      thrown if the file could not be read
+     */
+    public static long ofFile(Path path, boolean bypassCache) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("null reference passed for \"path\" parameter");
+        }
+
+        if (bypassCache) {
+            try {
+                return ofFileDirect(extractPath(path));
+            } catch (UnsupportedOperationException | IOException e) {
+                // Direct I/O unavailable here, as on tmpfs; a genuine read failure recurs below
+            }
+        }
+
+        return FileFingerprinter.fullFingerprint(path, null);
+    }
+
+    /**
+     * Reads a file with the O_DIRECT flag, which requires buffers, positions and lengths aligned to the block size of
+     * the file's store. The last read may return fewer bytes than requested.
+     */
+    private static long ofFileDirect(Path path) throws IOException {
+        int alignment = (int) Math.max(512L, Files.getFileStore(path).getBlockSize());
+        int bufferSize = ((FileFingerprinter.FULL_BLOCK_SIZE + alignment - 1) / alignment) * alignment;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, ExtendedOpenOption.DIRECT)) {
+            long fileSize = channel.size();
+            ContentFingerprint fingerprint = new ContentFingerprint(fileSize);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize + alignment).alignedSlice(alignment);
+            byte[] bytes = new byte[bufferSize];
+            long position = 0L;
+
+            while (position < fileSize) {
+                buffer.clear();
+                while (buffer.hasRemaining() && (position + buffer.position() < fileSize)) {
+                    if (channel.read(buffer, position + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+
+                int length = (int) Math.min(buffer.position(), fileSize - position);
+                if (length == 0) {
+                    throw new IOException("file was shorter than expected; it may have changed since it was opened");
+                }
+
+                buffer.flip();
+                buffer.get(bytes, 0, length);
+                fingerprint.update(bytes, 0, length);
+                position += length;
+            }
+
+            return fingerprint.getValue();
+        }
+    }
+
+    /**
+     * Extracts the decorated (wrapped) Path from a DiscoveredPath instance.
+     *
+     * @param path  a Path instance
+     * @return      the Path decorated by a DiscoveredPath instance, or the same Path as that provided
+     */
+    private static Path extractPath(Path path) {
+        if (path instanceof DiscoveredPath) {
+            return ((DiscoveredPath) path).getPath();
+        } else {
+            return path;
+        }
+    }
+
+} // class ContentFingerprint
@@ -5,9 +5,12 @@ import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 
 /**
  * Implementation of a FileDifferentiator for identifying duplicate files amongst a passed list (Map) of Path objects.
@@ -86,6 +89,99 @@ class DuplicateFileFinder implements FileDifferentiator, FileHashCalculator {
         return result;
     }
 
+    @Override
+    public List<SimpleImmutableEntry<String, List<File>>> getLargestDuplicatedFiles(Map<Path, BasicFileAttributes> pathnames, int maxGroups) {
+        if ((pathnames == null) || (pathnames.size() == 0)) {
+            throw new IllegalArgumentException("no pathnames provided");
+        }
+        if (maxGroups < 1) {
+            throw new IllegalArgumentException("maxGroups must be at least 1");
+        }
+
+        // Bucket regular files by byte length. Only files within the same bucket can be duplicates of each other.
+        Map<Long, List<Path>> sizeBuckets = new HashMap<>(pathnames.size());
+
+        synchronized(pathnames) {
+            for (Map.Entry<Path, BasicFileAttributes> entry : pathnames.entrySet()) {
+                BasicFileAttributes value = entry.getValue();
+
+                if ((entry.getKey() != null) && (value != null) && (value.isRegularFile())) {
+                    List<Path> bucket = sizeBuckets.get(value.size());
+                    if (bucket == null) {
+                        bucket = new ArrayList<>(2);
+                        sizeBuckets.put(value.size(), bucket);
+                    }
+                    bucket.add(entry.getKey());
+                }
+            }
+        }
+
+        /* Order candidate buckets by the most space they could possibly waste, which is reached when every file in
+           the bucket is a duplicate of every other */
+        List<DuplicateGroup> candidateBuckets = new ArrayList<>(sizeBuckets.size() / 2);
+        for (Map.Entry<Long, List<Path>> bucket : sizeBuckets.entrySet()) {
+            if (bucket.getValue().size() > 1) {
+                candidateBuckets.add(new DuplicateGroup(bucket.getKey(), bucket.getValue()));
+            }
+        }
+        Collections.sort(candidateBuckets, Collections.reverseOrder(DuplicateGroup.BY_RECLAIMABLE_BYTES));
+
+        // Bounded min-heap holding the largest groups found so far; its head is the smallest of them
+        PriorityQueue<DuplicateGroup> largestGroups = new PriorityQueue<>(maxGroups + 1, DuplicateGroup.BY_RECLAIMABLE_BYTES);
+
+        for (DuplicateGroup bucket : candidateBuckets) {
+            /* Buckets are visited in order of decreasing upper bound, so once a bucket cannot beat the smallest group
+               held by a full heap, neither can any of the remaining buckets */
+            if ((largestGroups.size() == maxGroups) && (bucket.reclaimableBytes <= largestGroups.peek().reclaimableBytes)) {
+                break;
+            }
+
+            Map<Integer, List<Path>> hashGroups = new HashMap<>(bucket.paths.size());
+            for (Path path : bucket.paths) {
+                int hash;
+                if (fileHashCalculator == null) {
+                    hash = calculateHash(path, pathnames.get(path));
+                } else {
+                    hash = fileHashCalculator.calculateHash(path, pathnames.get(path));
+                }
+
+                List<Path> hashGroup = hashGroups.get(hash);
+                if (hashGroup == null) {
+                    hashGroup = new ArrayList<>(2);
+                    hashGroups.put(hash, hashGroup);
+                }
+                hashGroup.add(path);
+            }
+
+            for (List<Path> hashGroup : hashGroups.values()) {
+                if (hashGroup.size() > 1) {
+                    DuplicateGroup group = new DuplicateGroup(bucket.fileSize, hashGroup);
+
+                    if (largestGroups.size() < maxGroups) {
+                        largestGroups.add(group);
+                    } else if (group.reclaimableBytes > largestGroups.peek().reclaimableBytes) {
+                        largestGroups.poll();
+                        largestGroups.add(group);
+                    }
+                }
+            }
+        }
+
+        // Drain the heap, smallest first, and reverse into descending order
+        List<SimpleImmutableEntry<String, List<File>>> result = new ArrayList<>(largestGroups.size());
+        DuplicateGroup group;
+        while ((group = largestGroups.poll()) != null) {
+            List<File> files = new ArrayList<>(group.paths.size());
+            for (Path path : group.paths) {
+                files.add(path.toFile());
+            }
+            result.add(new SimpleImmutableEntry<String, List<File>>(group.paths.get(0).getFileName().toString(), files));
+        }
+        Collections.reverse(result);
+
+        return result;
+    }
+
     @Override
     public void setFileHashCalculator(FileHashCalculator fileHashCalculator) {
         this.fileHashCalculator = fileHashCalculator;
@@ -109,4 +205,29 @@ class DuplicateFileFinder implements FileDifferentiator, FileHashCalculator {
         return result;
     }
 
+    /**
+     * A set of equally sized files, either known or presumed to be duplicates of each other, together with the number
+     * of bytes that deleting all but one of them would reclaim.
+     */
+    private static class DuplicateGroup {
+
+        static final Comparator<DuplicateGroup> BY_RECLAIMABLE_BYTES = new Comparator<DuplicateGroup>() {
+            @Override
+            public int compare(DuplicateGroup group1, DuplicateGroup group2) {
+                return Long.compare(group1.reclaimableBytes, group2.reclaimableBytes);
+            }
+        };
+
+        final long fileSize;
+        final long reclaimableBytes;
+        final List<Path> paths;
+
+        DuplicateGroup(long fileSize, List<Path> paths) {
+            this.fileSize = fileSize;
+            this.reclaimableBytes = (paths.size() - 1) * fileSize;
+            this.paths = paths;
+        }
+
+    } // class DuplicateGroup
+
 } // class DuplicateFileFinder implements FileDifferentiator, FileHashCalculator
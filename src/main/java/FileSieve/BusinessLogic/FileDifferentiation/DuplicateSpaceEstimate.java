@@ -0,0 +1,88 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+/**
+ * Immutable result of a DuplicateSpaceEstimator run. Holds the extrapolated number of bytes wasted by duplicated
+ * files together with the bounds of a confidence interval for that figure.
+ */
+public final class DuplicateSpaceEstimate {
+
+    private final long estimatedDuplicateBytes;
+    private final long lowerBoundBytes;
+    private final long upperBoundBytes;
+    private final double confidenceLevel;
+    private final int filesConsidered;
+    private final long bytesConsidered;
+    private final int candidateGroups;
+    private final int sampledGroups;
+
+    /**
+     * Constructs a DuplicateSpaceEstimate. Instances are normally created by a DuplicateSpaceEstimator.
+     *
+     * @param estimatedDuplicateBytes   point estimate of the bytes occupied by redundant copies of files
+     * @param lowerBoundBytes           lower bound of the confidence interval
+     * @param upperBoundBytes           upper bound of the confidence interval
+     * @param confidenceLevel           confidence level of the interval (e.g. 0.95)
+     * @param filesConsidered           number of regular files taken into account
+     * @param bytesConsidered           total byte length of the files taken into account
+     * @param candidateGroups           number of groups of equally sized files which could contain duplicates
+     * @param sampledGroups             number of candidate groups whose files were partially hashed
+     */
+    public DuplicateSpaceEstimate(long estimatedDuplicateBytes, long lowerBoundBytes, long upperBoundBytes, double confidenceLevel,
+                                  int filesConsidered, long bytesConsidered, int candidateGroups, int sampledGroups) {
+        if ((lowerBoundBytes > estimatedDuplicateBytes) || (upperBoundBytes < estimatedDuplicateBytes)) {
+            throw new IllegalArgumentException("estimate must lie within its confidence interval");
+        }
+
+        this.estimatedDuplicateBytes = estimatedDuplicateBytes;
+        this.lowerBoundBytes = lowerBoundBytes;
+        this.upperBoundBytes = upperBoundBytes;
+        this.confidenceLevel = confidenceLevel;
+        this.filesConsidered = filesConsidered;
+        this.bytesConsidered = bytesConsidered;
+        this.candidateGroups = candidateGroups;
+        this.sampledGroups = sampledGroups;
+    }
+
+    public long getEstimatedDuplicateBytes() {
+        return estimatedDuplicateBytes;
+    }
+
+    public long getLowerBoundBytes() {
+        return lowerBoundBytes;
+    }
+
+    public long getUpperBoundBytes() {
+        return upperBoundBytes;
+    }
+
+    public double getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    public int getFilesConsidered() {
+        return filesConsidered;
+    }
+
+    public long getBytesConsidered() {
+        return bytesConsidered;
+    }
+
+    public int getCandidateGroups() {
+        return candidateGroups;
+    }
+
+    public int getSampledGroups() {
+        return sampledGroups;
+    }
+
+    /**
+     * Returns true if every candidate group was hashed, in which case the estimate is exact up to the accuracy of
+     * partial fingerprints and the confidence interval collapses to a single value.
+     *
+     * @return  boolean true if no extrapolation was necessary
+     */
+    public boolean isExhaustive() {
+        return sampledGroups == candidateGroups;
+    }
+
+} // class DuplicateSpaceEstimate
@@ -0,0 +1,24 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+
+/**
+ * Defines a type specializing in quickly estimating how much space is wasted by duplicated files, without reading
+ * every candidate file in full.
+ */
+public interface DuplicateSpaceEstimator {
+
+    /**
+     * Estimates the number of bytes occupied by redundant copies of files amongst a given list of files. For each set
+     * of identical files, all but one copy are counted as wasted space.
+     *
+     * @param pathnames     a Map containing paths and basic file attributes of files to be analyzed, as returned by a FileEnumerator
+     * @return              an estimate of the wasted bytes together with a confidence interval
+     * @throws IOException  thrown if a sampled file could not be read
+     */
+    public DuplicateSpaceEstimate estimateDuplicateBytes(Map<Path, BasicFileAttributes> pathnames) throws IOException;
+
+} // interface DuplicateSpaceEstimator
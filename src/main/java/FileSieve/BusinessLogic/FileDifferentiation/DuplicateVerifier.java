@@ -0,0 +1,34 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Defines a type specializing in the final, byte for byte, confirmation of a group of files believed to be duplicates
+ * of each other. Unlike hash comparison, whose result is only probable, a verified group is certain to be identical
+ * at the time it was read.
+ */
+public interface DuplicateVerifier {
+
+    /**
+     * Compares the content of a group of candidate duplicates and splits it into groups of files with identical
+     * content. Files with no identical counterpart in the group are left out of the result.
+     *
+     * @param candidates    files believed to be duplicates of each other, such as the value of an entry returned by a
+     *                      FileDifferentiator
+     * @return              groups, each of at least two files, whose members are byte for byte identical; the members
+     *                      of each group, and the groups themselves, keep the order in which they were provided
+     * @throws IOException  thrown if a file could not be read
+     */
+    public List<List<File>> verifyDuplicates(List<File> candidates) throws IOException;
+
+    /**
+     * Limits the rates at which files are opened and read with a throttle which may be shared with other verifiers
+     * and copy jobs. The throttle's limits may be changed while a verification is in progress.
+     *
+     * @param throttle      throttle to be charged for the bytes read and files opened, or null for no limit
+     */
+    public void setThrottle(IoThrottle throttle);
+
+} // interface DuplicateVerifier
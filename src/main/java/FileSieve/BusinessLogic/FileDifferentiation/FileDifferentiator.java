@@ -21,6 +21,21 @@ public interface FileDifferentiator {
      */
     public List<SimpleImmutableEntry<String, List<File>>> getDuplicatedFiles(Map<Path, BasicFileAttributes> pathnames);
 
+    /**
+     * Returns the duplicated files which waste the most space within a given list of files, without building the
+     * complete list of duplicates. The space reclaimable from a set of duplicates is the byte length of its files
+     * multiplied by the number of redundant copies (the size of the set minus one). Files are only compared with files
+     * of the same byte length, so sets of files whose total reclaimable space can no longer rank amongst the largest
+     * are skipped before their hash codes are calculated.
+     *
+     * @param pathnames     a Map containing paths and basic file attributes of files to be analyzed for duplicates
+     * @param maxGroups     the maximum number of sets of duplicates to return
+     * @return              a list, ordered by descending reclaimable space, containing key-value pairs with the name
+     *                      of a file found to have at least one duplicate as the keys and lists of pathnames of the
+     *                      duplicated files as values
+     */
+    public List<SimpleImmutableEntry<String, List<File>>> getLargestDuplicatedFiles(Map<Path, BasicFileAttributes> pathnames, int maxGroups);
+
     /**
      * Enables the provision of a function object to be used in calculating a hash from one or more attributes of
      * a file's Path or BasicFileAttributes objects. The hash defines how two or more files are checked for equality.
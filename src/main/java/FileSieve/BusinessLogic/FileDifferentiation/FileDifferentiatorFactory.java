@@ -1,5 +1,7 @@
 package FileSieve.BusinessLogic.FileDifferentiation;
 
+import java.util.Random;
+
 /**
  * Static factory class for acquiring FileDifferentiator instances.
  */
@@ -30,7 +32,62 @@ public class FileDifferentiatorFactory {
      * @return                      instance of a FileDifferentiator
      */
     public static FileDifferentiator getFileDifferentiator(FileHashCalculator fileHashCalculator) {
-        return new DuplicateFileFinder();
+        return new DuplicateFileFinder(fileHashCalculator);
+    }
+
+    /**
+     * Acquires an instance of a DuplicateSpaceEstimator which partially hashes a random sample of the candidate
+     * groups of equally sized files and extrapolates the space wasted by duplicates from that sample.
+     *
+     * @return                      instance of a DuplicateSpaceEstimator
+     */
+    public static DuplicateSpaceEstimator getDuplicateSpaceEstimator() {
+        return new SamplingDuplicateSpaceEstimator();
+    }
+
+    /**
+     * Acquires an instance of a DuplicateSpaceEstimator which hashes candidate groups with the given probability.
+     * Higher rates narrow the confidence interval of the estimate at the cost of reading more files; a rate of 1.0
+     * hashes every candidate group.
+     *
+     * @param sampleRate            probability, greater than 0 and no greater than 1, with which a candidate group is hashed
+     * @return                      instance of a DuplicateSpaceEstimator
+     */
+    public static DuplicateSpaceEstimator getDuplicateSpaceEstimator(double sampleRate) {
+        return new SamplingDuplicateSpaceEstimator(sampleRate, new Random());
+    }
+
+    /**
+     * Acquires an instance of an IntegrityVerifier which records and checks content fingerprints in the given
+     * FingerprintStore. Files are read without a rate limit until one is set on the returned instance.
+     *
+     * @param fingerprintStore      store holding previously recorded fingerprints
+     * @return                      instance of an IntegrityVerifier
+     */
+    public static IntegrityVerifier getIntegrityVerifier(FingerprintStore fingerprintStore) {
+        return new FingerprintVerifier(fingerprintStore);
+    }
+
+    /**
+     * Acquires an instance of a DuplicateVerifier which confirms candidate duplicates byte for byte, reading the
+     * members of a group in lockstep and ceasing to read a file as soon as it is found to differ from all others.
+     *
+     * @return                      instance of a DuplicateVerifier
+     */
+    public static DuplicateVerifier getDuplicateVerifier() {
+        return new LockstepDuplicateVerifier();
+    }
+
+    /**
+     * Acquires an instance of a DuplicateVerifier which takes files whose full fingerprints are recorded in the given
+     * FingerprintStore, and which are unchanged since, to be identical if their fingerprints are equal, and reads only
+     * the remaining files. Copy jobs given the same store record the fingerprint of each file they copy.
+     *
+     * @param fingerprintStore      store holding previously recorded fingerprints
+     * @return                      instance of a DuplicateVerifier
+     */
+    public static DuplicateVerifier getDuplicateVerifier(FingerprintStore fingerprintStore) {
+        return new StoredFingerprintDuplicateVerifier(fingerprintStore);
     }
 
 } // class FileDifferentiatorFactory
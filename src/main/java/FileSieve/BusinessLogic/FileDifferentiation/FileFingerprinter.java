@@ -0,0 +1,285 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import FileSieve.BusinessLogic.FileEnumeration.DiscoveredPath;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Static utility class for calculating 64-bit content fingerprints of files. A partial fingerprint samples only the
+ * head and tail of a file and is cheap enough to be used as a pre-filter before files are read in full. This class
+ * has package-private access.
+ * <p>
+ * The fingerprint function folds input into four independent 64-bit lanes, 32 bytes (one stripe) at a time, so that
+ * the lanes can be processed in parallel by SIMD hardware or by independent multiply chains. The work is delegated to
+ * the ByteKernel selected by ByteKernels; all kernels produce identical results.
+ */
+final class FileFingerprinter {
+
+    /** Number of bytes read from each of the head and tail of a file when calculating a partial fingerprint */
+    static final int PARTIAL_BLOCK_SIZE = 4096;
+
+    /** Size of the blocks a file is streamed in when calculating a full fingerprint; changing it changes all fingerprints */
+    static final int FULL_BLOCK_SIZE = 64 * 1024;
+
+    /** Number of bytes folded into the four lanes of a fingerprint per step */
+    static final int STRIPE_SIZE = 32;
+
+    static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    static final long PRIME64_3 = 0x165667B19E3779F9L;
+
+    private static final VarHandle LONG_LITTLE_ENDIAN = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final ByteKernel kernel = ByteKernels.getFingerprintInstance();
+
+    /**
+     * Private constructor - static utility class
+     */
+    private FileFingerprinter() { }
+
+    /**
+     * Calculates a partial fingerprint for a file from its byte length and the content of its first and last
+     * PARTIAL_BLOCK_SIZE bytes. Files shorter than twice the block size are fingerprinted in full. Two files with
+     * different partial fingerprints are certain to differ in content, whereas two files with equal partial
+     * fingerprints are only likely to be the same.
+     *
+     * @param path              path of the file to fingerprint
+     * @param fileSize          byte length of the file, as previously read from its BasicFileAttributes
+     * @return                  a 64-bit partial fingerprint
+     * @throws IOException      thrown if the file could not be read
+     */
+    static long partialFingerprint(Path path, long fileSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(extractPath(path), StandardOpenOption.READ)) {
+            int headLength = (int) Math.min(fileSize, 2L * PARTIAL_BLOCK_SIZE);
+            ByteBuffer buffer = ByteBuffer.allocate(2 * PARTIAL_BLOCK_SIZE);
+
+            readFully(channel, buffer, 0L, (fileSize <= 2L * PARTIAL_BLOCK_SIZE) ? headLength : PARTIAL_BLOCK_SIZE);
+            if (fileSize > 2L * PARTIAL_BLOCK_SIZE) {
+                readFully(channel, buffer, fileSize - PARTIAL_BLOCK_SIZE, PARTIAL_BLOCK_SIZE);
+            }
+
+            return fingerprint(fileSize, buffer.array(), 0, buffer.position());
+        }
+    }
+
+    /**
+     * Calculates a fingerprint over the entire content of a file by streaming it in blocks of FULL_BLOCK_SIZE bytes and
+     * chaining the fingerprint of each block into that of the next. Unlike a partial fingerprint, a full fingerprint
+     * changes if any byte of the file changes.
+     *
+     * @param path              path of the file to fingerprint
+     * @param throttle          throttle to be charged for the open and the bytes read, or null if reads are not to
+     *                          be limited
+     * @return                  a 64-bit fingerprint of the file's content
+     * @throws IOException      thrown if the file could not be read
+     */
+    static long fullFingerprint(Path path, IoThrottle throttle) throws IOException {
+        if (throttle != null) {
+            throttle.acquireOperations(1);
+        }
+
+        try (FileChannel channel = FileChannel.open(extractPath(path), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long hash = fileSize;
+            long position = 0L;
+            ByteBuffer buffer = ByteBuffer.allocate(FULL_BLOCK_SIZE);
+
+            while (position < fileSize) {
+                int blockLength = (int) Math.min(FULL_BLOCK_SIZE, fileSize - position);
+
+                if (throttle != null) {
+                    throttle.acquire(blockLength);
+                }
+
+                buffer.clear();
+                readFully(channel, buffer, position, blockLength);
+                hash = fingerprint(hash, buffer.array(), 0, blockLength);
+                position += blockLength;
+            }
+
+            return hash;
+        }
+    }
+
+    /**
+     * Formats a fingerprint as a fixed-width hexadecimal string.
+     *
+     * @param fingerprint   a fingerprint
+     * @return              the fingerprint as 16 lowercase hexadecimal digits
+     */
+    static String toHexString(long fingerprint) {
+        return String.format("%016x", fingerprint);
+    }
+
+    /**
+     * Calculates a 64-bit fingerprint over a range of a byte array. The function consumes 32-byte stripes across four
+     * lanes, folds the lanes together, consumes any remaining bytes eight at a time and finishes with an avalanche
+     * step so that single-bit differences in the input spread over the whole result.
+     *
+     * @param seed      starting value for the fingerprint; passing the previous result allows fingerprints to be chained
+     * @param bytes     array containing the bytes to fingerprint
+     * @param offset    index of the first byte to fingerprint
+     * @param length    number of bytes to fingerprint
+     * @return          a 64-bit fingerprint
+     */
+    static long fingerprint(long seed, byte[] bytes, int offset, int length) {
+        return kernel.fingerprint(seed, bytes, offset, length);
+    }
+
+    /**
+     * Returns the initial value of one of the four lanes of a fingerprint.
+     *
+     * @param seed  starting value for the fingerprint
+     * @param lane  index of the lane, from 0 to 3
+     * @return      initial value of the lane
+     */
+    static long initialLane(long seed, int lane) {
+        switch (lane) {
+            case 0:  return seed + PRIME64_1 + PRIME64_2;
+            case 1:  return seed + PRIME64_2;
+            case 2:  return seed;
+            default: return seed - PRIME64_1;
+        }
+    }
+
+    /**
+     * Folds one 64-bit word into a lane of a fingerprint. Vector kernels must apply the same arithmetic lane-wise.
+     *
+     * @param lane  current value of the lane
+     * @param word  word to fold in
+     * @return      the updated value of the lane
+     */
+    static long mixLane(long lane, long word) {
+        return Long.rotateLeft(lane + word * PRIME64_2, 31) * PRIME64_1;
+    }
+
+    /**
+     * Folds the four lanes of a fingerprint into a single running fingerprint.
+     *
+     * @param lane0     final value of the first lane
+     * @param lane1     final value of the second lane
+     * @param lane2     final value of the third lane
+     * @param lane3     final value of the fourth lane
+     * @return          the running fingerprint
+     */
+    static long mergeLanes(long lane0, long lane1, long lane2, long lane3) {
+        long hash = Long.rotateLeft(lane0, 1) + Long.rotateLeft(lane1, 7) + Long.rotateLeft(lane2, 12) + Long.rotateLeft(lane3, 18);
+        hash = mixWord(hash, lane0);
+        hash = mixWord(hash, lane1);
+        hash = mixWord(hash, lane2);
+        return mixWord(hash, lane3);
+    }
+
+    /**
+     * Completes a fingerprint once all whole stripes have been consumed, by folding in the total length and the
+     * remaining (fewer than STRIPE_SIZE) bytes and applying the avalanche step.
+     *
+     * @param hash      running fingerprint, as returned by mergeLanes, or the seed plus PRIME64_3 if the input was
+     *                  shorter than a stripe
+     * @param bytes     array containing the bytes being fingerprinted
+     * @param index     index of the first byte not yet consumed
+     * @param limit     index one past the last byte to fingerprint
+     * @param length    total number of bytes being fingerprinted
+     * @return          the finished fingerprint
+     */
+    static long finish(long hash, byte[] bytes, int index, int limit, int length) {
+        hash += length;
+
+        while (index + 8 <= limit) {
+            hash = mixWord(hash, readLong(bytes, index));
+            index += 8;
+        }
+
+        while (index < limit) {
+            hash ^= (bytes[index] & 0xFFL) * PRIME64_3;
+            hash = Long.rotateLeft(hash, 11) * PRIME64_1;
+            ++index;
+        }
+
+        return avalanche(hash);
+    }
+
+    /**
+     * Reads eight bytes of an array as a little-endian long.
+     *
+     * @param bytes     array from which to read
+     * @param index     index of the first byte of the word
+     * @return          the word
+     */
+    static long readLong(byte[] bytes, int index) {
+        return (long) LONG_LITTLE_ENDIAN.get(bytes, index);
+    }
+
+    /**
+     * Folds one 64-bit word into a running fingerprint.
+     *
+     * @param hash  running fingerprint
+     * @param word  word to fold in
+     * @return      the updated running fingerprint
+     */
+    static long mixWord(long hash, long word) {
+        hash ^= mixLane(0L, word);
+        return Long.rotateLeft(hash, 27) * PRIME64_1 + PRIME64_2;
+    }
+
+    /**
+     * Final mixing step applied to a running fingerprint.
+     *
+     * @param hash  running fingerprint
+     * @return      the finished fingerprint
+     */
+    static long avalanche(long hash) {
+        hash ^= hash >>> 33;
+        hash *= PRIME64_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME64_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    /**
+     * Reads a number of bytes from a given position of a channel into a buffer, looping until all bytes are read.
+     *
+     * @param channel           channel from which to read
+     * @param buffer            buffer into which bytes are read, starting at its current position
+     * @param position          file position at which to start reading
+     * @param length            number of bytes to read
+     * @throws IOException      thrown if the channel could not be read or ended prematurely
+     */
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position, int length) throws IOException {
+        int limit = buffer.position() + length;
+        buffer.limit(limit);
+
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("file was shorter than expected; it may have changed since it was enumerated");
+            }
+            position += read;
+        }
+
+        buffer.limit(buffer.capacity());
+    }
+
+    /**
+     * Extracts the decorated (wrapped) Path from a DiscoveredPath instance.
+     *
+     * @param path  a Path instance
+     * @return      the Path decorated by a DiscoveredPath instance, or the same Path as that provided
+     */
+    static Path extractPath(Path path) {
+        if (path instanceof DiscoveredPath) {
+            return ((DiscoveredPath) path).getPath();
+        } else {
+            return path;
+        }
+    }
+
+} // class FileFingerprinter
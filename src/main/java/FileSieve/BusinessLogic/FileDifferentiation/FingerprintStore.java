@@ -0,0 +1,220 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import FileSieve.BusinessLogic.FileEnumeration.DiscoveredPath;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * File-backed store of content fingerprints, keyed by the absolute pathname of the fingerprinted file. The store is
+ * held in memory and written out as a whole by its save method; the previous copy on disk is replaced atomically
+ * where the file system allows, so a crash during a save leaves the last saved copy intact. The store also remembers
+ * when an integrity verification run was started and not yet finished, which allows such a run to be resumed.
+ * Instances are thread-safe.
+ */
+public final class FingerprintStore {
+
+    /** Version 2 adopted the four-lane fingerprint function; fingerprints stored by version 1 are not comparable */
+    private static final int FINGERPRINT_FUNCTION_VERSION = 2;
+
+    /** Version 3 added the outcome of each file's last verification */
+    private static final int FORMAT_VERSION = 3;
+
+    private final Path storeFile;
+    private final Map<String, StoredFingerprint> fingerprints = new HashMap<>(1000);
+    private long runStartedAtMillis = 0L;
+
+    /**
+     * Opens a fingerprint store, loading its content if the given file exists.
+     *
+     * @param storeFile         file in which the store is kept
+     * @return                  the opened store
+     * @throws IOException      thrown if an existing store file could not be read
+     */
+    public static FingerprintStore open(Path storeFile) throws IOException {
+        if (storeFile == null) {
+            throw new IllegalArgumentException("null reference passed for \"storeFile\" parameter");
+        }
+
+        FingerprintStore store = new FingerprintStore(storeFile);
+        if (Files.exists(storeFile)) {
+            store.load();
+        }
+
+        return store;
+    }
+
+    private FingerprintStore(Path storeFile) {
+        this.storeFile = storeFile;
+    }
+
+    public Path getStoreFile() {
+        return storeFile;
+    }
+
+    /**
+     * Returns the fingerprint recorded for a file.
+     *
+     * @param file  path of the file
+     * @return      the recorded fingerprint, or null if the file has not been fingerprinted
+     */
+    public synchronized StoredFingerprint get(Path file) {
+        return fingerprints.get(keyFor(file));
+    }
+
+    /**
+     * Records the fingerprint of a file, replacing any previous record. The file is marked as verified now.
+     *
+     * @param file                  path of the file
+     * @param size                  byte length of the file when it was fingerprinted
+     * @param lastModifiedMillis    last-modified time of the file when it was fingerprinted
+     * @param fingerprint           64-bit fingerprint of the file's full content
+     */
+    public synchronized void put(Path file, long size, long lastModifiedMillis, long fingerprint) {
+        fingerprints.put(keyFor(file), new StoredFingerprint(size, lastModifiedMillis, fingerprint, System.currentTimeMillis()));
+    }
+
+    /**
+     * Marks a previously recorded file as verified now and found to match its fingerprint, leaving its recorded
+     * fingerprint and attributes unchanged.
+     *
+     * @param file  path of the file
+     */
+    public synchronized void markVerified(Path file) {
+        markVerified(file, false);
+    }
+
+    /**
+     * Marks a previously recorded file as verified now and found not to match its fingerprint, leaving its recorded
+     * fingerprint and attributes unchanged, so that a resumed verification run still reports the file.
+     *
+     * @param file  path of the file
+     */
+    public synchronized void markCorrupted(Path file) {
+        markVerified(file, true);
+    }
+
+    private void markVerified(Path file, boolean corrupted) {
+        String key = keyFor(file);
+        StoredFingerprint stored = fingerprints.get(key);
+
+        if (stored != null) {
+            fingerprints.put(key, new StoredFingerprint(stored.getSize(), stored.getLastModifiedMillis(), stored.getFingerprint(), System.currentTimeMillis(), corrupted));
+        }
+    }
+
+    /**
+     * Removes the record for a file.
+     *
+     * @param file  path of the file
+     */
+    public synchronized void remove(Path file) {
+        fingerprints.remove(keyFor(file));
+    }
+
+    public synchronized int size() {
+        return fingerprints.size();
+    }
+
+    /**
+     * Returns the time at which an unfinished verification run was started.
+     *
+     * @return  start time in milliseconds since the epoch, or 0 if no verification run is in progress
+     */
+    public synchronized long getRunStartedAtMillis() {
+        return runStartedAtMillis;
+    }
+
+    public synchronized void setRunStartedAtMillis(long runStartedAtMillis) {
+        this.runStartedAtMillis = runStartedAtMillis;
+    }
+
+    /**
+     * Writes the store to its file. The content is written to a temporary file in the same folder which then replaces
+     * the previous store file.
+     *
+     * @throws IOException      thrown if the store could not be written
+     */
+    public synchronized void save() throws IOException {
+        Path folder = storeFile.toAbsolutePath().getParent();
+        if (folder != null) {
+            Files.createDirectories(folder);
+        }
+
+        Path tempFile = storeFile.resolveSibling(storeFile.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(runStartedAtMillis);
+            out.writeInt(fingerprints.size());
+
+            for (Map.Entry<String, StoredFingerprint> entry : fingerprints.entrySet()) {
+                StoredFingerprint stored = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeLong(stored.getSize());
+                out.writeLong(stored.getLastModifiedMillis());
+                out.writeLong(stored.getFingerprint());
+                out.writeLong(stored.getVerifiedAtMillis());
+                out.writeBoolean(stored.isCorrupted());
+            }
+        }
+
+        try {
+            Files.move(tempFile, storeFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, storeFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(storeFile)))) {
+            int version = in.readInt();
+            if (version < FINGERPRINT_FUNCTION_VERSION) {
+                // Stored fingerprints were calculated by an earlier fingerprint function; start afresh
+                return;
+            } else if (version > FORMAT_VERSION) {
+                throw new IOException("unsupported fingerprint store format version " + version + " in \"" + storeFile + "\"");
+            }
+
+            runStartedAtMillis = in.readLong();
+            int count = in.readInt();
+
+            for (int i = 0; i < count; ++i) {
+                String key = in.readUTF();
+                long size = in.readLong();
+                long lastModifiedMillis = in.readLong();
+                long fingerprint = in.readLong();
+                long verifiedAtMillis = in.readLong();
+                boolean corrupted = (version >= FORMAT_VERSION) && in.readBoolean();
+                fingerprints.put(key, new StoredFingerprint(size, lastModifiedMillis, fingerprint, verifiedAtMillis, corrupted));
+            }
+        }
+    }
+
+    /**
+     * Returns the key under which a file's record is held: its absolute, normalized pathname.
+     *
+     * @param file  path of the file
+     * @return      key for the file
+     */
+    private static String keyFor(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("null reference passed for \"file\" parameter");
+        }
+        if (file instanceof DiscoveredPath) {
+            file = ((DiscoveredPath) file).getPath();
+        }
+
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+} // class FingerprintStore
@@ -0,0 +1,139 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of an IntegrityVerifier which stream-hashes files with the full fingerprint function of the
+ * FileFingerprinter and checks the results against a FingerprintStore. The store is saved periodically during a run
+ * so that an interrupted run, including one cut short by the process dying, can be resumed without reading the
+ * already verified files again. Files found corrupted are marked as such in the store, so that a resumed run reports
+ * them although it does not read them again. This class has package-private access.
+ */
+class FingerprintVerifier implements IntegrityVerifier {
+
+    /** Minimum interval between saves of the FingerprintStore during a run */
+    private static final long CHECKPOINT_INTERVAL_MILLIS = 10000L;
+
+    private final FingerprintStore fingerprintStore;
+    private volatile IoThrottle throttle = new IoThrottle(0L);
+
+    protected FingerprintVerifier(FingerprintStore fingerprintStore) {
+        if (fingerprintStore == null) {
+            throw new IllegalArgumentException("null reference passed for \"fingerprintStore\" parameter");
+        }
+
+        this.fingerprintStore = fingerprintStore;
+    }
+
+    @Override
+    public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+        throttle.setMaxBytesPerSecond(maxBytesPerSecond);
+    }
+
+    @Override
+    public void setThrottle(IoThrottle throttle) {
+        if (throttle == null) {
+            throw new IllegalArgumentException("null reference passed for \"throttle\" parameter");
+        }
+
+        this.throttle = throttle;
+    }
+
+    @Override
+    public VerificationReport verify(Map<Path, BasicFileAttributes> pathnames) throws IOException {
+        if ((pathnames == null) || (pathnames.size() == 0)) {
+            throw new IllegalArgumentException("no pathnames provided");
+        }
+
+        VerificationReport report = new VerificationReport();
+
+        // Take a snapshot of the regular files to verify so that the passed Map isn't locked for the length of the run
+        List<Map.Entry<Path, BasicFileAttributes>> files = new ArrayList<>(pathnames.size());
+        synchronized (pathnames) {
+            for (Map.Entry<Path, BasicFileAttributes> entry : pathnames.entrySet()) {
+                if ((entry.getKey() != null) && (entry.getValue() != null) && (entry.getValue().isRegularFile())) {
+                    files.add(entry);
+                }
+            }
+        }
+
+        /* Files verified at or after the start of the current run need not be read again. A run left unfinished by an
+           earlier call is continued rather than started afresh. */
+        long runStartedAt = fingerprintStore.getRunStartedAtMillis();
+        if (runStartedAt == 0L) {
+            runStartedAt = System.currentTimeMillis();
+            fingerprintStore.setRunStartedAtMillis(runStartedAt);
+            fingerprintStore.save();
+        }
+
+        long lastCheckpoint = System.currentTimeMillis();
+
+        for (Map.Entry<Path, BasicFileAttributes> file : files) {
+            if (Thread.currentThread().isInterrupted()) {
+                fingerprintStore.save();
+                return report;
+            }
+
+            Path path = file.getKey();
+            BasicFileAttributes attributes = file.getValue();
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            StoredFingerprint stored = fingerprintStore.get(path);
+
+            if ((stored != null) && (stored.getVerifiedAtMillis() >= runStartedAt)) {
+                report.fileSkipped();
+                if (stored.isCorrupted()) {
+                    report.addCorruptedFile(path);
+                }
+                continue;
+            }
+
+            long fingerprint;
+            try {
+                fingerprint = FileFingerprinter.fullFingerprint(path, throttle);
+            } catch (IOException e) {
+                report.addUnreadableFile(path, e.getMessage());
+                continue;
+            }
+
+            // An interrupt during a throttled read may have cut the read short; the result can't be trusted
+            if (Thread.currentThread().isInterrupted()) {
+                fingerprintStore.save();
+                return report;
+            }
+
+            report.fileVerified(size);
+
+            if (stored == null) {
+                fingerprintStore.put(path, size, lastModified, fingerprint);
+                report.addNewFile(path);
+            } else if (!stored.matchesAttributes(size, lastModified)) {
+                fingerprintStore.put(path, size, lastModified, fingerprint);
+                report.addModifiedFile(path);
+            } else if (stored.getFingerprint() != fingerprint) {
+                // Keep the original fingerprint so the file continues to be reported until it is repaired
+                fingerprintStore.markCorrupted(path);
+                report.addCorruptedFile(path);
+            } else {
+                fingerprintStore.markVerified(path);
+            }
+
+            if (System.currentTimeMillis() - lastCheckpoint >= CHECKPOINT_INTERVAL_MILLIS) {
+                fingerprintStore.save();
+                lastCheckpoint = System.currentTimeMillis();
+            }
+        }
+
+        fingerprintStore.setRunStartedAtMillis(0L);
+        fingerprintStore.save();
+        report.setComplete(true);
+
+        return report;
+    }
+
+} // class FingerprintVerifier implements IntegrityVerifier
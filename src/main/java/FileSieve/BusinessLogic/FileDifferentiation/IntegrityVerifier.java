@@ -0,0 +1,42 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+
+/**
+ * Defines a type specializing in the periodic re-verification of file content against previously recorded content
+ * fingerprints, for the detection of silent data corruption.
+ */
+public interface IntegrityVerifier {
+
+    /**
+     * Reads every regular file amongst the given list of files in full and compares its fingerprint with the one
+     * recorded in the verifier's FingerprintStore. Files without a recorded fingerprint, or whose size or last-modified
+     * time changed, have their fingerprint (re)recorded. The run stops early, with its progress saved, if the calling
+     * thread is interrupted; calling this method again with the same files then resumes the run where it stopped.
+     *
+     * @param pathnames     a Map containing paths and basic file attributes of files to be verified, as returned by a FileEnumerator
+     * @return              a report listing corrupted, modified, new and unreadable files
+     * @throws IOException  thrown if the FingerprintStore could not be saved
+     */
+    public VerificationReport verify(Map<Path, BasicFileAttributes> pathnames) throws IOException;
+
+    /**
+     * Limits the rate at which file content is read, so that verification can run alongside other workloads. May be
+     * called while a verification run is in progress.
+     *
+     * @param maxBytesPerSecond     maximum average number of bytes read per second, or 0 for no limit
+     */
+    public void setMaxBytesPerSecond(long maxBytesPerSecond);
+
+    /**
+     * Replaces the verifier's own throttle with one which may be shared with other verifiers and copy jobs, so that
+     * they read within a common budget. setMaxBytesPerSecond then changes the limit of the shared throttle.
+     *
+     * @param throttle      throttle to be charged for the bytes read and files opened
+     */
+    public void setThrottle(IoThrottle throttle);
+
+} // interface IntegrityVerifier
@@ -0,0 +1,145 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+/**
+ * Limits the average rates at which bytes are transferred and file operations (opens, creations and deletions) are
+ * carried out by callers of its acquire methods, with separate budgets for each. Callers are put to sleep for as long
+ * as it takes to keep the average rates at or below the configured limits. A single instance may be shared by any
+ * number of copy jobs, verifiers and deletions, which then share its budgets. Charges are granted in quanta of at most
+ * QUANTUM_BYTES, in the order they are made, so that concurrent callers share the byte budget evenly however large the
+ * chunks each of them transfers. Limits may be changed at any time, and apply from the next quantum granted.
+ */
+public final class IoThrottle {
+
+    /** Largest number of bytes granted at once, and so the granularity at which concurrent callers are interleaved */
+    static final long QUANTUM_BYTES = 256L * 1024L;
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    private volatile long maxBytesPerSecond;
+    private volatile long maxOperationsPerSecond;
+    private long nextBytesAvailableNanos = System.nanoTime();
+    private long nextOperationAvailableNanos = nextBytesAvailableNanos;
+
+    /**
+     * Constructs a throttle with the given byte limit and no limit on operations.
+     *
+     * @param maxBytesPerSecond     maximum average number of bytes per second, or 0 for no limit
+     */
+    public IoThrottle(long maxBytesPerSecond) {
+        this(maxBytesPerSecond, 0L);
+    }
+
+    /**
+     * Constructs a throttle with the given limits.
+     *
+     * @param maxBytesPerSecond         maximum average number of bytes per second, or 0 for no limit
+     * @param maxOperationsPerSecond    maximum average number of file operations per second, or 0 for no limit
+     */
+    public IoThrottle(long maxBytesPerSecond, long maxOperationsPerSecond) {
+        setMaxBytesPerSecond(maxBytesPerSecond);
+        setMaxOperationsPerSecond(maxOperationsPerSecond);
+    }
+
+    /**
+     * Changes the byte limit of the throttle. The new limit applies from the next quantum granted.
+     *
+     * @param maxBytesPerSecond             maximum average number of bytes per second, or 0 for no limit
+     * @throws IllegalArgumentException     thrown if a negative limit is passed
+     */
+    public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+        if (maxBytesPerSecond < 0L) {
+            throw new IllegalArgumentException("maxBytesPerSecond cannot be negative");
+        }
+
+        this.maxBytesPerSecond = maxBytesPerSecond;
+    }
+
+    public long getMaxBytesPerSecond() {
+        return maxBytesPerSecond;
+    }
+
+    /**
+     * Changes the operation limit of the throttle. The new limit applies from the next operation charged.
+     *
+     * @param maxOperationsPerSecond        maximum average number of file operations per second, or 0 for no limit
+     * @throws IllegalArgumentException     thrown if a negative limit is passed
+     */
+    public void setMaxOperationsPerSecond(long maxOperationsPerSecond) {
+        if (maxOperationsPerSecond < 0L) {
+            throw new IllegalArgumentException("maxOperationsPerSecond cannot be negative");
+        }
+
+        this.maxOperationsPerSecond = maxOperationsPerSecond;
+    }
+
+    public long getMaxOperationsPerSecond() {
+        return maxOperationsPerSecond;
+    }
+
+    /**
+     * Charges the throttle for a number of bytes read or written, sleeping if the limit has been reached. If the
+     * calling thread is interrupted while sleeping then the method returns early with the thread's interrupt status set.
+     *
+     * @param bytes     number of bytes about to be, or just, transferred
+     */
+    public void acquire(long bytes) {
+        // Each quantum is queued behind those already granted, so other callers' quanta interleave with this caller's
+        while ((bytes > 0L) && (!Thread.currentThread().isInterrupted())) {
+            long limit = maxBytesPerSecond;
+            if (limit == 0L) {
+                return;
+            }
+
+            long quantum = Math.min(bytes, QUANTUM_BYTES);
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                if (nextBytesAvailableNanos < now) {
+                    nextBytesAvailableNanos = now;
+                }
+                waitNanos = nextBytesAvailableNanos - now;
+                nextBytesAvailableNanos += quantum * NANOS_PER_SECOND / limit;
+            }
+
+            sleep(waitNanos);
+            bytes -= quantum;
+        }
+    }
+
+    /**
+     * Charges the throttle for a number of file operations, such as opening, creating or deleting a file, sleeping if
+     * the limit has been reached. If the calling thread is interrupted while sleeping then the method returns early
+     * with the thread's interrupt status set.
+     *
+     * @param operations    number of file operations about to be carried out
+     */
+    public void acquireOperations(int operations) {
+        long limit = maxOperationsPerSecond;
+        if ((limit == 0L) || (operations <= 0)) {
+            return;
+        }
+
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (nextOperationAvailableNanos < now) {
+                nextOperationAvailableNanos = now;
+            }
+            waitNanos = nextOperationAvailableNanos - now;
+            nextOperationAvailableNanos += operations * NANOS_PER_SECOND / limit;
+        }
+
+        sleep(waitNanos);
+    }
+
+    private static void sleep(long waitNanos) {
+        if (waitNanos > 0L) {
+            try {
+                Thread.sleep(waitNanos / 1000000L, (int) (waitNanos % 1000000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+} // class IoThrottle
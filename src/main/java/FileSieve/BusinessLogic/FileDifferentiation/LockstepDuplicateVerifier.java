@@ -0,0 +1,298 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of a DuplicateVerifier which reads all members of a group in lockstep, one block at a time, with one
+ * buffer window per file. After each block the members are partitioned by the content of that block; the group is
+ * split at the first block in which its members diverge, and each part of two or more members carries on from the
+ * following block. A member left without any counterpart is closed at once, so files which differ early cost little
+ * more than their first block. Groups of more than MAX_OPEN_FILES members are verified in batches, each reading a
+ * representative member alongside up to MAX_OPEN_FILES - 1 others, so that no more than MAX_OPEN_FILES files are open
+ * at once. Each file of a group of up to MAX_OPEN_FILES members is read at most once; in larger groups the
+ * representative is read again for every batch, and members it does not match are read again in the next round. The
+ * block comparison is delegated to the ByteKernel selected by ByteKernels. This class has package-private access.
+ */
+class LockstepDuplicateVerifier implements DuplicateVerifier {
+
+    /** Size of the buffer window kept for each member of a group */
+    static final int BLOCK_SIZE = 64 * 1024;
+
+    /** Number of members of a group read in lockstep, and so kept open, at once */
+    static final int MAX_OPEN_FILES = 64;
+
+    private final ByteKernel kernel;
+    private volatile IoThrottle throttle = null;
+
+    protected LockstepDuplicateVerifier() {
+        this(ByteKernels.getComparisonInstance());
+    }
+
+    protected LockstepDuplicateVerifier(ByteKernel kernel) {
+        if (kernel == null) {
+            throw new IllegalArgumentException("null reference passed for \"kernel\" parameter");
+        }
+
+        this.kernel = kernel;
+    }
+
+    @Override
+    public void setThrottle(IoThrottle throttle) {
+        this.throttle = throttle;
+    }
+
+    @Override
+    public List<List<File>> verifyDuplicates(List<File> candidates) throws IOException {
+        if (candidates == null) {
+            throw new IllegalArgumentException("null reference passed for \"candidates\" parameter");
+        }
+
+        // Files of different byte length cannot be identical, so only members of equal length are read in lockstep
+        Map<Long, List<File>> sizeGroups = new LinkedHashMap<>();
+        for (File file : candidates) {
+            if (file == null) {
+                throw new IllegalArgumentException("candidates list contains a null reference");
+            }
+
+            List<File> group = sizeGroups.get(file.length());
+            if (group == null) {
+                group = new ArrayList<>(2);
+                sizeGroups.put(file.length(), group);
+            }
+            group.add(file);
+        }
+
+        List<List<File>> verifiedGroups = new ArrayList<>();
+        for (Map.Entry<Long, List<File>> sizeGroup : sizeGroups.entrySet()) {
+            if (sizeGroup.getValue().size() > 1) {
+                verifyGroup(sizeGroup.getValue(), sizeGroup.getKey(), verifiedGroups);
+            }
+        }
+
+        // Groups are found in no particular order; restore the order of their first members amongst the candidates
+        final Map<File, Integer> order = new HashMap<>();
+        for (int i = candidates.size() - 1; i >= 0; --i) {
+            order.put(candidates.get(i), i);
+        }
+        Collections.sort(verifiedGroups, new Comparator<List<File>>() {
+            @Override
+            public int compare(List<File> group1, List<File> group2) {
+                return Integer.compare(order.get(group1.get(0)), order.get(group2.get(0)));
+            }
+        });
+
+        return verifiedGroups;
+    }
+
+    /**
+     * Verifies a group of equally sized files, adding each set of identical members to the verified groups. While the
+     * group has more than MAX_OPEN_FILES members, its first member is read in batches alongside the others, and
+     * forms a set with those matching it in full; the members left over make up the group for the next round.
+     *
+     * @param files             members of the group
+     * @param fileSize          byte length shared by all members
+     * @param verifiedGroups    list to which groups of identical files are added
+     * @throws IOException      thrown if a member could not be read
+     */
+    private void verifyGroup(List<File> files, long fileSize, List<List<File>> verifiedGroups) throws IOException {
+        List<File> remaining = files;
+
+        while (remaining.size() > MAX_OPEN_FILES) {
+            File representative = remaining.get(0);
+            List<File> identicalFiles = new ArrayList<>();
+            List<File> unmatched = new ArrayList<>();
+            identicalFiles.add(representative);
+
+            for (int start = 1; start < remaining.size(); start += MAX_OPEN_FILES - 1) {
+                List<File> batch = new ArrayList<>(MAX_OPEN_FILES);
+                batch.add(representative);
+                batch.addAll(remaining.subList(start, Math.min(remaining.size(), start + MAX_OPEN_FILES - 1)));
+
+                // Only the set holding the representative is kept; any other set in the batch is found again later
+                List<List<File>> batchGroups = new ArrayList<>();
+                verifyInLockstep(batch, fileSize, batchGroups);
+                Set<File> matched = new HashSet<>();
+                for (List<File> batchGroup : batchGroups) {
+                    if (batchGroup.get(0) == representative) {
+                        matched.addAll(batchGroup);
+                    }
+                }
+
+                for (File file : batch.subList(1, batch.size())) {
+                    if (matched.contains(file)) {
+                        identicalFiles.add(file);
+                    } else {
+                        unmatched.add(file);
+                    }
+                }
+            }
+
+            if (identicalFiles.size() > 1) {
+                verifiedGroups.add(identicalFiles);
+            }
+            remaining = unmatched;
+        }
+
+        if (remaining.size() > 1) {
+            verifyInLockstep(remaining, fileSize, verifiedGroups);
+        }
+    }
+
+    /**
+     * Reads the members of a group of equally sized files in lockstep, adding each set of identical members to the
+     * verified groups.
+     *
+     * @param files             members of the group, at most MAX_OPEN_FILES
+     * @param fileSize          byte length shared by all members
+     * @param verifiedGroups    list to which groups of identical files are added
+     * @throws IOException      thrown if a member could not be read
+     */
+    private void verifyInLockstep(List<File> files, long fileSize, List<List<File>> verifiedGroups) throws IOException {
+        int memberCount = files.size();
+        FileChannel[] channels = new FileChannel[memberCount];
+        ByteBuffer[] windows = new ByteBuffer[memberCount];
+        IoThrottle groupThrottle = throttle;
+
+        try {
+            if (groupThrottle != null) {
+                groupThrottle.acquireOperations(memberCount);
+            }
+            for (int i = 0; i < memberCount; ++i) {
+                channels[i] = FileChannel.open(files.get(i).toPath(), StandardOpenOption.READ);
+                windows[i] = ByteBuffer.allocate((int) Math.min(BLOCK_SIZE, Math.max(fileSize, 1L)));
+            }
+
+            // Parts of the group still to be read, each with the file position from which it continues
+            Deque<PendingPart> pending = new ArrayDeque<>();
+            int[] allMembers = new int[memberCount];
+            for (int i = 0; i < memberCount; ++i) {
+                allMembers[i] = i;
+            }
+            pending.push(new PendingPart(allMembers, 0L));
+
+            while (!pending.isEmpty()) {
+                PendingPart part = pending.pop();
+                int[] members = part.members;
+                long position = part.position;
+                boolean split = false;
+
+                while ((position < fileSize) && !split) {
+                    int blockLength = (int) Math.min(BLOCK_SIZE, fileSize - position);
+
+                    if (groupThrottle != null) {
+                        groupThrottle.acquire((long) blockLength * members.length);
+                    }
+                    for (int member : members) {
+                        windows[member].clear();
+                        FileFingerprinter.readFully(channels[member], windows[member], position, blockLength);
+                    }
+                    position += blockLength;
+
+                    List<int[]> partition = partition(members, windows, blockLength);
+                    if (partition.size() > 1) {
+                        split = true;
+
+                        for (int[] subpart : partition) {
+                            if (subpart.length > 1) {
+                                pending.push(new PendingPart(subpart, position));
+                            } else {
+                                // Diverged from every other member; nothing further needs to be read
+                                channels[subpart[0]].close();
+                                windows[subpart[0]] = null;
+                            }
+                        }
+                    }
+                }
+
+                if (!split) {
+                    List<File> identicalFiles = new ArrayList<>(members.length);
+                    for (int member : members) {
+                        identicalFiles.add(files.get(member));
+                    }
+                    verifiedGroups.add(identicalFiles);
+                }
+            }
+        } finally {
+            for (FileChannel channel : channels) {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Partitions members by the content of their current buffer windows. Each part is headed by its lowest member,
+     * against which the remaining members are compared in a single lockstep pass.
+     *
+     * @param members       indexes of the members to partition, in ascending order
+     * @param windows       buffer windows, indexed by member
+     * @param length        number of bytes held by each window
+     * @return              parts of the partition, each listing members in ascending order
+     */
+    private List<int[]> partition(int[] members, ByteBuffer[] windows, int length) {
+        List<int[]> parts = new ArrayList<>(1);
+        int[] remaining = members;
+
+        while (remaining.length > 0) {
+            int otherCount = remaining.length - 1;
+            byte[][] others = new byte[otherCount][];
+            boolean[] matches = new boolean[otherCount];
+
+            for (int i = 0; i < otherCount; ++i) {
+                others[i] = windows[remaining[i + 1]].array();
+                matches[i] = true;
+            }
+
+            int matching = kernel.matchReference(windows[remaining[0]].array(), others, matches, otherCount, length);
+
+            int[] part = new int[matching + 1];
+            int[] unmatched = new int[otherCount - matching];
+            int partIndex = 0;
+            int unmatchedIndex = 0;
+
+            part[partIndex++] = remaining[0];
+            for (int i = 0; i < otherCount; ++i) {
+                if (matches[i]) {
+                    part[partIndex++] = remaining[i + 1];
+                } else {
+                    unmatched[unmatchedIndex++] = remaining[i + 1];
+                }
+            }
+
+            parts.add(part);
+            remaining = unmatched;
+        }
+
+        return parts;
+    }
+
+    /**
+     * Members of a group still to be read in lockstep, starting at a given file position.
+     */
+    private static final class PendingPart {
+        private final int[] members;
+        private final long position;
+
+        private PendingPart(int[] members, long position) {
+            this.members = members;
+            this.position = position;
+        }
+    }
+
+} // class LockstepDuplicateVerifier implements DuplicateVerifier
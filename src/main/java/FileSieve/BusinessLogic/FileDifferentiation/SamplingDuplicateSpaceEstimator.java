@@ -0,0 +1,176 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Implementation of a DuplicateSpaceEstimator which groups files by byte length and partially hashes only a random
+ * sample of the resulting size groups. Size groups are the sampling units: each group is selected independently with
+ * a fixed probability, except for groups large enough to dominate the result, which are always hashed. The wasted
+ * bytes found in sampled groups are extrapolated to the unsampled groups using a Horvitz-Thompson estimator, whose
+ * variance yields the reported confidence interval. Since partial fingerprints only sample the head and tail of a
+ * file, the estimate leans towards overstating duplication for files that differ only in their middle portion.
+ * This class has package-private access.
+ */
+class SamplingDuplicateSpaceEstimator implements DuplicateSpaceEstimator {
+
+    /** Default probability with which a size group is selected for hashing */
+    static final double DEFAULT_SAMPLE_RATE = 0.05;
+
+    /** Groups whose potential waste reaches this fraction of the total potential waste are always hashed */
+    private static final double CERTAINTY_FRACTION = 0.01;
+
+    /** Two-sided 95% quantile of the standard normal distribution */
+    private static final double Z_95 = 1.959964;
+
+    private final double sampleRate;
+    private final Random random;
+
+    protected SamplingDuplicateSpaceEstimator() {
+        this(DEFAULT_SAMPLE_RATE, new Random());
+    }
+
+    /**
+     * Constructs an estimator with a given sampling rate and source of randomness.
+     *
+     * @param sampleRate                    probability, greater than 0 and no greater than 1, with which a size group is hashed
+     * @param random                        source of randomness used in selecting groups; pass a seeded instance for reproducible results
+     * @throws IllegalArgumentException     thrown if the sample rate is out of range or the Random is null
+     */
+    protected SamplingDuplicateSpaceEstimator(double sampleRate, Random random) {
+        if ((sampleRate <= 0.0) || (sampleRate > 1.0)) {
+            throw new IllegalArgumentException("sample rate must be greater than 0 and no greater than 1");
+        }
+        if (random == null) {
+            throw new IllegalArgumentException("\"random\" parameter cannot be null");
+        }
+
+        this.sampleRate = sampleRate;
+        this.random = random;
+    }
+
+    @Override
+    public DuplicateSpaceEstimate estimateDuplicateBytes(Map<Path, BasicFileAttributes> pathnames) throws IOException {
+        if ((pathnames == null) || (pathnames.size() == 0)) {
+            throw new IllegalArgumentException("no pathnames provided");
+        }
+
+        int filesConsidered = 0;
+        long bytesConsidered = 0L;
+
+        // Group regular files by byte length. Empty files waste no space and are left out.
+        Map<Long, List<Path>> sizeGroups = new HashMap<>(pathnames.size());
+
+        synchronized (pathnames) {
+            for (Map.Entry<Path, BasicFileAttributes> entry : pathnames.entrySet()) {
+                BasicFileAttributes attributes = entry.getValue();
+
+                if ((entry.getKey() != null) && (attributes != null) && (attributes.isRegularFile())) {
+                    ++filesConsidered;
+                    bytesConsidered += attributes.size();
+
+                    if (attributes.size() > 0L) {
+                        List<Path> group = sizeGroups.get(attributes.size());
+                        if (group == null) {
+                            group = new ArrayList<>(2);
+                            sizeGroups.put(attributes.size(), group);
+                        }
+                        group.add(entry.getKey());
+                    }
+                }
+            }
+        }
+
+        // The potential waste of a group assumes all of its members are identical, which is a hard upper bound
+        long totalPotentialBytes = 0L;
+        int candidateGroups = 0;
+        for (Map.Entry<Long, List<Path>> group : sizeGroups.entrySet()) {
+            if (group.getValue().size() > 1) {
+                totalPotentialBytes += (group.getValue().size() - 1) * group.getKey();
+                ++candidateGroups;
+            }
+        }
+
+        long certaintyThreshold = (long) (totalPotentialBytes * CERTAINTY_FRACTION);
+        long certainBytes = 0L;             // wasted bytes found in groups that were always hashed
+        long sampledBytes = 0L;             // wasted bytes found in randomly selected groups
+        double sampledBytesSquared = 0.0;   // sum of squares of the above, for the variance estimate
+        long unsampledPotentialBytes = 0L;  // potential waste of groups which were not hashed
+        int sampledGroups = 0;
+
+        for (Map.Entry<Long, List<Path>> group : sizeGroups.entrySet()) {
+            List<Path> paths = group.getValue();
+            if (paths.size() < 2) {
+                continue;
+            }
+
+            long fileSize = group.getKey();
+            long potentialBytes = (paths.size() - 1) * fileSize;
+
+            if ((potentialBytes >= certaintyThreshold) || (sampleRate >= 1.0)) {
+                certainBytes += wastedBytes(paths, fileSize);
+                ++sampledGroups;
+            } else if (random.nextDouble() < sampleRate) {
+                long wasted = wastedBytes(paths, fileSize);
+                sampledBytes += wasted;
+                sampledBytesSquared += (double) wasted * wasted;
+                ++sampledGroups;
+            } else {
+                unsampledPotentialBytes += potentialBytes;
+            }
+        }
+
+        // Wasted bytes actually observed are a hard lower bound; nothing can exceed the observed plus the unsampled potential
+        long hardLowerBound = certainBytes + sampledBytes;
+        long hardUpperBound = hardLowerBound + unsampledPotentialBytes;
+
+        double estimate = certainBytes + (sampledBytes / sampleRate);
+        double variance = ((1.0 - sampleRate) / (sampleRate * sampleRate)) * sampledBytesSquared;
+        double halfWidth = Z_95 * Math.sqrt(variance);
+
+        long estimatedBytes = clamp(Math.round(estimate), hardLowerBound, hardUpperBound);
+        long lowerBound = clamp(Math.round(estimate - halfWidth), hardLowerBound, estimatedBytes);
+        long upperBound = clamp(Math.round(estimate + halfWidth), estimatedBytes, hardUpperBound);
+
+        return new DuplicateSpaceEstimate(estimatedBytes, lowerBound, upperBound, 0.95, filesConsidered, bytesConsidered, candidateGroups, sampledGroups);
+    }
+
+    /**
+     * Partially hashes all members of a group of equally sized files and returns the number of bytes occupied by
+     * redundant copies, i.e. all but one member of each set of files sharing a partial fingerprint.
+     *
+     * @param paths             files of the group
+     * @param fileSize          byte length shared by all files of the group
+     * @return                  bytes occupied by redundant copies within the group
+     * @throws IOException      thrown if a file could not be read
+     */
+    private static long wastedBytes(List<Path> paths, long fileSize) throws IOException {
+        Map<Long, Integer> fingerprintCounts = new HashMap<>(paths.size());
+        long wasted = 0L;
+
+        for (Path path : paths) {
+            long fingerprint = FileFingerprinter.partialFingerprint(path, fileSize);
+            Integer count = fingerprintCounts.get(fingerprint);
+
+            if (count == null) {
+                fingerprintCounts.put(fingerprint, 1);
+            } else {
+                fingerprintCounts.put(fingerprint, count + 1);
+                wasted += fileSize;
+            }
+        }
+
+        return wasted;
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+} // class SamplingDuplicateSpaceEstimator implements DuplicateSpaceEstimator
@@ -0,0 +1,55 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import java.util.Arrays;
+
+/**
+ * Portable ByteKernel implementation using plain Java arithmetic. It is used wherever the Vector API is unavailable
+ * and serves as the reference against which other kernels are checked. This class has package-private access.
+ */
+final class ScalarByteKernel implements ByteKernel {
+
+    @Override
+    public long fingerprint(long seed, byte[] bytes, int offset, int length) {
+        int index = offset;
+        int limit = offset + length;
+        long hash;
+
+        if (length >= FileFingerprinter.STRIPE_SIZE) {
+            long lane0 = FileFingerprinter.initialLane(seed, 0);
+            long lane1 = FileFingerprinter.initialLane(seed, 1);
+            long lane2 = FileFingerprinter.initialLane(seed, 2);
+            long lane3 = FileFingerprinter.initialLane(seed, 3);
+
+            while (index + FileFingerprinter.STRIPE_SIZE <= limit) {
+                lane0 = FileFingerprinter.mixLane(lane0, FileFingerprinter.readLong(bytes, index));
+                lane1 = FileFingerprinter.mixLane(lane1, FileFingerprinter.readLong(bytes, index + 8));
+                lane2 = FileFingerprinter.mixLane(lane2, FileFingerprinter.readLong(bytes, index + 16));
+                lane3 = FileFingerprinter.mixLane(lane3, FileFingerprinter.readLong(bytes, index + 24));
+                index += FileFingerprinter.STRIPE_SIZE;
+            }
+
+            hash = FileFingerprinter.mergeLanes(lane0, lane1, lane2, lane3);
+        } else {
+            hash = seed + FileFingerprinter.PRIME64_3;
+        }
+
+        return FileFingerprinter.finish(hash, bytes, index, limit, length);
+    }
+
+    @Override
+    public int matchReference(byte[] reference, byte[][] buffers, boolean[] matches, int count, int length) {
+        int matching = 0;
+
+        for (int i = 0; i < count; ++i) {
+            if (matches[i]) {
+                matches[i] = Arrays.equals(reference, 0, length, buffers[i], 0, length);
+                if (matches[i]) {
+                    ++matching;
+                }
+            }
+        }
+
+        return matching;
+    }
+
+} // class ScalarByteKernel implements ByteKernel
@@ -0,0 +1,87 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+/**
+ * Immutable record of a file's content fingerprint, as held by a FingerprintStore, together with the file attributes
+ * observed when the fingerprint was calculated.
+ */
+public final class StoredFingerprint {
+
+    private final long size;
+    private final long lastModifiedMillis;
+    private final long fingerprint;
+    private final long verifiedAtMillis;
+    private final boolean corrupted;
+
+    /**
+     * @param size                  byte length of the file when it was fingerprinted
+     * @param lastModifiedMillis    last-modified time of the file, in milliseconds since the epoch, when it was fingerprinted
+     * @param fingerprint           64-bit fingerprint of the file's full content
+     * @param verifiedAtMillis      time, in milliseconds since the epoch, at which the file was last read to check its fingerprint
+     */
+    public StoredFingerprint(long size, long lastModifiedMillis, long fingerprint, long verifiedAtMillis) {
+        this(size, lastModifiedMillis, fingerprint, verifiedAtMillis, false);
+    }
+
+    /**
+     * @param size                  byte length of the file when it was fingerprinted
+     * @param lastModifiedMillis    last-modified time of the file, in milliseconds since the epoch, when it was fingerprinted
+     * @param fingerprint           64-bit fingerprint of the file's full content
+     * @param verifiedAtMillis      time, in milliseconds since the epoch, at which the file was last read to check its fingerprint
+     * @param corrupted             true if the content read at verifiedAtMillis did not match the fingerprint
+     */
+    public StoredFingerprint(long size, long lastModifiedMillis, long fingerprint, long verifiedAtMillis, boolean corrupted) {
+        this.size = size;
+        this.lastModifiedMillis = lastModifiedMillis;
+        this.fingerprint = fingerprint;
+        this.verifiedAtMillis = verifiedAtMillis;
+        this.corrupted = corrupted;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModifiedMillis() {
+        return lastModifiedMillis;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getVerifiedAtMillis() {
+        return verifiedAtMillis;
+    }
+
+    /**
+     * Returns true if the file's content did not match the fingerprint when it was last verified, although its
+     * attributes did.
+     *
+     * @return  boolean true if the file was found corrupted by its last verification
+     */
+    public boolean isCorrupted() {
+        return corrupted;
+    }
+
+    /**
+     * Returns true if the record was made for a file with the given size and last-modified time, which is taken to
+     * mean that the file has not been legitimately modified since it was fingerprinted.
+     *
+     * @param size                  current byte length of the file
+     * @param lastModifiedMillis    current last-modified time of the file
+     * @return                      boolean true if both attributes match those recorded
+     */
+    public boolean matchesAttributes(long size, long lastModifiedMillis) {
+        return (this.size == size) && (this.lastModifiedMillis == lastModifiedMillis);
+    }
+
+    /**
+     * Returns the fingerprint formatted as 16 hexadecimal digits.
+     *
+     * @return  the fingerprint as a hexadecimal string
+     */
+    public String getFingerprintString() {
+        return FileFingerprinter.toHexString(fingerprint);
+    }
+
+} // class StoredFingerprint
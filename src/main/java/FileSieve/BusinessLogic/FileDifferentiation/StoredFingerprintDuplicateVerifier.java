@@ -0,0 +1,142 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of a DuplicateVerifier which draws on the full fingerprints recorded in a FingerprintStore, such as
+ * those recorded by copy jobs as they copy files, to avoid reading files again. A recorded fingerprint is used only if
+ * the file's size and last-modified time still match those recorded. Members of a group whose fingerprints are all
+ * usable are grouped by fingerprint without being read. Otherwise one member of each set of equally fingerprinted
+ * files stands for the set and is read in lockstep, by a LockstepDuplicateVerifier, with the members lacking a usable
+ * fingerprint; each set joins the group its representative was verified into.
+ *
+ * Unlike a LockstepDuplicateVerifier, this verifier takes equal full fingerprints of unchanged files as proof of
+ * identical content rather than comparing the files byte for byte, which is as certain as the 64-bit fingerprint and
+ * the attributes by which changes are detected. This class has package-private access.
+ */
+final class StoredFingerprintDuplicateVerifier implements DuplicateVerifier {
+
+    private final FingerprintStore fingerprintStore;
+    private final DuplicateVerifier lockstepVerifier;
+
+    StoredFingerprintDuplicateVerifier(FingerprintStore fingerprintStore) {
+        this(fingerprintStore, new LockstepDuplicateVerifier());
+    }
+
+    StoredFingerprintDuplicateVerifier(FingerprintStore fingerprintStore, DuplicateVerifier lockstepVerifier) {
+        if (fingerprintStore == null) {
+            throw new IllegalArgumentException("null reference passed for \"fingerprintStore\" parameter");
+        }
+        if (lockstepVerifier == null) {
+            throw new IllegalArgumentException("null reference passed for \"lockstepVerifier\" parameter");
+        }
+
+        this.fingerprintStore = fingerprintStore;
+        this.lockstepVerifier = lockstepVerifier;
+    }
+
+    @Override
+    public void setThrottle(IoThrottle throttle) {
+        // Only the members without usable fingerprints are read, and they are read by the lockstep verifier
+        lockstepVerifier.setThrottle(throttle);
+    }
+
+    @Override
+    public List<List<File>> verifyDuplicates(List<File> candidates) throws IOException {
+        if (candidates == null) {
+            throw new IllegalArgumentException("null reference passed for \"candidates\" parameter");
+        }
+
+        // Sets of members with equal usable fingerprints, in the order of their first members, and the remainder
+        Map<Long, List<File>> fingerprintSets = new LinkedHashMap<>();
+        List<File> unfingerprinted = new ArrayList<>();
+        for (File file : candidates) {
+            if (file == null) {
+                throw new IllegalArgumentException("candidates list contains a null reference");
+            }
+
+            StoredFingerprint stored = fingerprintStore.get(file.toPath());
+            if ((stored != null) && stored.matchesAttributes(file.length(), file.lastModified())) {
+                List<File> fingerprintSet = fingerprintSets.get(stored.getFingerprint());
+                if (fingerprintSet == null) {
+                    fingerprintSet = new ArrayList<>(2);
+                    fingerprintSets.put(stored.getFingerprint(), fingerprintSet);
+                }
+                fingerprintSet.add(file);
+            } else {
+                unfingerprinted.add(file);
+            }
+        }
+
+        List<List<File>> verifiedGroups = new ArrayList<>();
+
+        if (unfingerprinted.isEmpty()) {
+            for (List<File> fingerprintSet : fingerprintSets.values()) {
+                if (fingerprintSet.size() > 1) {
+                    verifiedGroups.add(fingerprintSet);
+                }
+            }
+            return verifiedGroups;
+        }
+
+        // Read one representative of each set alongside the members which could only be compared by reading them
+        Map<File, List<File>> setsByRepresentative = new HashMap<>();
+        List<File> toRead = new ArrayList<>(unfingerprinted);
+        for (List<File> fingerprintSet : fingerprintSets.values()) {
+            setsByRepresentative.put(fingerprintSet.get(0), fingerprintSet);
+            toRead.add(fingerprintSet.get(0));
+        }
+
+        for (List<File> readGroup : lockstepVerifier.verifyDuplicates(toRead)) {
+            List<File> group = new ArrayList<>(readGroup.size());
+            for (File file : readGroup) {
+                List<File> fingerprintSet = setsByRepresentative.remove(file);
+                if (fingerprintSet != null) {
+                    group.addAll(fingerprintSet);
+                } else {
+                    group.add(file);
+                }
+            }
+            verifiedGroups.add(group);
+        }
+
+        // Sets whose representative matched no file read are still groups of duplicates of one another
+        for (List<File> fingerprintSet : setsByRepresentative.values()) {
+            if (fingerprintSet.size() > 1) {
+                verifiedGroups.add(fingerprintSet);
+            }
+        }
+
+        // Restore the order of the candidates, within and between groups
+        final Map<File, Integer> order = new HashMap<>();
+        for (int i = candidates.size() - 1; i >= 0; --i) {
+            order.put(candidates.get(i), i);
+        }
+        Comparator<File> candidateOrder = new Comparator<File>() {
+            @Override
+            public int compare(File file1, File file2) {
+                return Integer.compare(order.get(file1), order.get(file2));
+            }
+        };
+        for (List<File> group : verifiedGroups) {
+            Collections.sort(group, candidateOrder);
+        }
+        Collections.sort(verifiedGroups, new Comparator<List<File>>() {
+            @Override
+            public int compare(List<File> group1, List<File> group2) {
+                return Integer.compare(order.get(group1.get(0)), order.get(group2.get(0)));
+            }
+        });
+
+        return verifiedGroups;
+    }
+
+} // class StoredFingerprintDuplicateVerifier implements DuplicateVerifier
@@ -0,0 +1,98 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteOrder;
+
+/**
+ * ByteKernel implementation using the incubating Vector API (jdk.incubator.vector). The four fingerprint lanes are
+ * held in a single 256-bit vector, so one stripe is folded in with a handful of SIMD instructions, and the lockstep
+ * comparator loads each vector-sized slice of the reference buffer once and tests it against every buffer still
+ * matching. Results are identical to those of ScalarByteKernel.
+ * <p>
+ * This class links against an incubator module and must only be loaded via ByteKernels, which checks that the module
+ * is present. This class has package-private access.
+ */
+final class VectorByteKernel implements ByteKernel {
+
+    private static final VectorSpecies<Long> LANE_SPECIES = LongVector.SPECIES_256;
+    private static final VectorSpecies<Byte> BYTE_SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    VectorByteKernel() {
+        if (LANE_SPECIES.length() != 4) {
+            throw new IllegalStateException("fingerprint lanes do not fit a 256-bit vector");
+        }
+    }
+
+    @Override
+    public long fingerprint(long seed, byte[] bytes, int offset, int length) {
+        int index = offset;
+        int limit = offset + length;
+        long hash;
+
+        if (length >= FileFingerprinter.STRIPE_SIZE) {
+            long[] initialLanes = {
+                    FileFingerprinter.initialLane(seed, 0),
+                    FileFingerprinter.initialLane(seed, 1),
+                    FileFingerprinter.initialLane(seed, 2),
+                    FileFingerprinter.initialLane(seed, 3) };
+            LongVector lanes = LongVector.fromArray(LANE_SPECIES, initialLanes, 0);
+
+            while (index + FileFingerprinter.STRIPE_SIZE <= limit) {
+                LongVector words = LongVector.fromByteArray(LANE_SPECIES, bytes, index, ByteOrder.LITTLE_ENDIAN);
+                lanes = lanes.add(words.mul(FileFingerprinter.PRIME64_2))
+                        .lanewise(VectorOperators.ROL, 31)
+                        .mul(FileFingerprinter.PRIME64_1);
+                index += FileFingerprinter.STRIPE_SIZE;
+            }
+
+            hash = FileFingerprinter.mergeLanes(lanes.lane(0), lanes.lane(1), lanes.lane(2), lanes.lane(3));
+        } else {
+            hash = seed + FileFingerprinter.PRIME64_3;
+        }
+
+        return FileFingerprinter.finish(hash, bytes, index, limit, length);
+    }
+
+    @Override
+    public int matchReference(byte[] reference, byte[][] buffers, boolean[] matches, int count, int length) {
+        int matching = 0;
+        for (int i = 0; i < count; ++i) {
+            if (matches[i]) {
+                ++matching;
+            }
+        }
+
+        int vectorLimit = BYTE_SPECIES.loopBound(length);
+        int index = 0;
+
+        // Walk the buffers in lockstep so that each slice of the reference is loaded only once
+        while ((index < vectorLimit) && (matching > 0)) {
+            ByteVector slice = ByteVector.fromArray(BYTE_SPECIES, reference, index);
+
+            for (int i = 0; i < count; ++i) {
+                if (matches[i] && !slice.eq(ByteVector.fromArray(BYTE_SPECIES, buffers[i], index)).allTrue()) {
+                    matches[i] = false;
+                    --matching;
+                }
+            }
+
+            index += BYTE_SPECIES.length();
+        }
+
+        for (; (index < length) && (matching > 0); ++index) {
+            for (int i = 0; i < count; ++i) {
+                if (matches[i] && (buffers[i][index] != reference[index])) {
+                    matches[i] = false;
+                    --matching;
+                }
+            }
+        }
+
+        return matching;
+    }
+
+} // class VectorByteKernel implements ByteKernel
@@ -0,0 +1,126 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of an integrity verification run. The principal content of the report is the list of corrupted files:
+ * files whose content no longer matches their stored fingerprint although their size and last-modified time are
+ * unchanged, which points to silent data corruption ("bit rot") rather than a legitimate modification.
+ */
+public final class VerificationReport {
+
+    private final List<Path> corruptedFiles = new ArrayList<>();
+    private final List<Path> modifiedFiles = new ArrayList<>();
+    private final List<Path> newFiles = new ArrayList<>();
+    private final Map<Path, String> unreadableFiles = new LinkedHashMap<>();
+    private int verifiedFiles = 0;
+    private int skippedFiles = 0;
+    private long bytesRead = 0L;
+    private boolean complete = false;
+
+    VerificationReport() { }
+
+    /**
+     * Returns the files whose content changed while their size and last-modified time did not.
+     *
+     * @return  unmodifiable list of corrupted files
+     */
+    public List<Path> getCorruptedFiles() {
+        return Collections.unmodifiableList(corruptedFiles);
+    }
+
+    /**
+     * Returns the files whose size or last-modified time changed since they were fingerprinted. Their stored
+     * fingerprints have been replaced.
+     *
+     * @return  unmodifiable list of modified files
+     */
+    public List<Path> getModifiedFiles() {
+        return Collections.unmodifiableList(modifiedFiles);
+    }
+
+    /**
+     * Returns the files for which no fingerprint had been stored. Their fingerprints have been recorded.
+     *
+     * @return  unmodifiable list of newly fingerprinted files
+     */
+    public List<Path> getNewFiles() {
+        return Collections.unmodifiableList(newFiles);
+    }
+
+    /**
+     * Returns the files that could not be read, with the message of the exception encountered.
+     *
+     * @return  unmodifiable map of unreadable files to error messages
+     */
+    public Map<Path, String> getUnreadableFiles() {
+        return Collections.unmodifiableMap(unreadableFiles);
+    }
+
+    /**
+     * Returns the number of files read and compared with their stored fingerprint during this run.
+     *
+     * @return  number of verified files
+     */
+    public int getVerifiedFiles() {
+        return verifiedFiles;
+    }
+
+    /**
+     * Returns the number of files skipped because an earlier, interrupted attempt of the same run had verified them.
+     *
+     * @return  number of skipped files
+     */
+    public int getSkippedFiles() {
+        return skippedFiles;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Returns false if the run was interrupted before all files were verified. Verifying the same files again with
+     * the same FingerprintStore resumes the run.
+     *
+     * @return  boolean true if all files were verified
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    void addCorruptedFile(Path path) {
+        corruptedFiles.add(path);
+    }
+
+    void addModifiedFile(Path path) {
+        modifiedFiles.add(path);
+    }
+
+    void addNewFile(Path path) {
+        newFiles.add(path);
+    }
+
+    void addUnreadableFile(Path path, String message) {
+        unreadableFiles.put(path, message);
+    }
+
+    void fileVerified(long bytes) {
+        ++verifiedFiles;
+        bytesRead += bytes;
+    }
+
+    void fileSkipped() {
+        ++skippedFiles;
+    }
+
+    void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+} // class VerificationReport
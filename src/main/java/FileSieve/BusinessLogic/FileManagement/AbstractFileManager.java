@@ -1,5 +1,7 @@
 package FileSieve.BusinessLogic.FileManagement;
 
+import FileSieve.BusinessLogic.FileDifferentiation.IoThrottle;
+
 import java.awt.Desktop;
 import java.awt.GraphicsEnvironment;
 import java.io.IOException;
@@ -23,6 +25,7 @@ import java.nio.file.attribute.BasicFileAttributes;
 abstract class AbstractFileManager<T, L, C> implements FileOpener, FileDeleter, FileCopier<T, L, C> {
 
     private boolean disableDesktopOpenMethod = false;
+    private volatile IoThrottle deletionThrottle = null;
 
     /**
      * Prevents the Desktop.open method from being called within the class' openPathname method during JUnit testing.
@@ -35,6 +38,15 @@ abstract class AbstractFileManager<T, L, C> implements FileOpener, FileDeleter,
         disableDesktopOpenMethod = disableFileOpen;
     }
 
+    /**
+     * Sets the throttle charged one operation for each file and folder deleted by the deletePathname method.
+     *
+     * @param throttle      throttle to be charged, or null if deletions are not to be limited
+     */
+    protected void setDeletionThrottle(IoThrottle throttle) {
+        deletionThrottle = throttle;
+    }
+
     /**
      * Deletes a given file or folder
      *
@@ -51,13 +63,15 @@ abstract class AbstractFileManager<T, L, C> implements FileOpener, FileDeleter,
         }
 
         boolean result = false;
+        IoThrottle throttle = deletionThrottle;
 
         if (Files.exists(pathname)) {
             if (! Files.isDirectory(pathname)) {
+                acquireDeletion(throttle);
                 Files.delete(pathname);
                 result = true;
             } else {
-                deleteRecursively(pathname);
+                deleteRecursively(pathname, throttle);
                 result = true;
             }
         }
@@ -108,12 +122,14 @@ abstract class AbstractFileManager<T, L, C> implements FileOpener, FileDeleter,
      * http://stackoverflow.com/questions/779519/delete-files-recursively-in-java/8685959#8685959
      *
      * @param path              pathname of folder to be deleted recursively (all content will be deleted)
+     * @param throttle          throttle to be charged for each deletion, or null
      * @throws IOException      thrown if the folder could not be deleted
      */
-    private static void deleteRecursively(Path path) throws IOException {
+    private static void deleteRecursively(Path path, final IoThrottle throttle) throws IOException {
         Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
             @Override
             public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                acquireDeletion(throttle);
                 Files.delete(file);
                 return FileVisitResult.CONTINUE;
             }
@@ -122,6 +138,7 @@ abstract class AbstractFileManager<T, L, C> implements FileOpener, FileDeleter,
             public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
                 /* try to delete the file anyway, even if its attributes could not be read, since delete-only access is
                    theoretically possible */
+                acquireDeletion(throttle);
                 Files.delete(file);
                 return FileVisitResult.CONTINUE;
             }
@@ -129,6 +146,7 @@ abstract class AbstractFileManager<T, L, C> implements FileOpener, FileDeleter,
             @Override
             public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
                 if (exc == null) {
+                    acquireDeletion(throttle);
                     Files.delete(dir);
                     return FileVisitResult.CONTINUE;
                 } else {
@@ -139,4 +157,10 @@ abstract class AbstractFileManager<T, L, C> implements FileOpener, FileDeleter,
         });
     }
 
+    private static void acquireDeletion(IoThrottle throttle) {
+        if (throttle != null) {
+            throttle.acquireOperations(1);
+        }
+    }
+
 } // abstract class AbstractFileManager<T, L, C> implements FileOpener, FileDeleter, FileCopier<T, L, C>
@@ -0,0 +1,460 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import FileSieve.BusinessLogic.FileDifferentiation.IoThrottle;
+import FileSieve.BusinessLogic.FileEnumeration.DiscoveredPath;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Handles the work of a CopyJob whose destination is an archive file rather than a folder: the job's folders and
+ * files are written, as a stream, to a gzip-compressed tar archive. Entries are listed before anything is written,
+ * the children of each folder in order of name, so that the same sources always make the same archive. The tar stream
+ * is cut into blocks of BLOCK_SIZE bytes, each of which is compressed as a gzip member of its own by a task run on the
+ * job's Executor, with up to twice the job's compressor limit in flight, and the compressed blocks are written in the
+ * order they were cut; a sequence of gzip members is itself a gzip file, which any gzip reader decompresses whole.
+ * Blocks are cut and written on the thread running the delegate, which compresses a block itself if no task has taken
+ * it by the time it is due to be written. Progress is reported per entry, reaching 100 percent once the block holding
+ * its end is written, and for the job as a whole against the total length of the files. An archive which is not
+ * completed is deleted. This class has package-private access.
+ */
+final class ArchiveWorkDelegate implements CopyWork {
+
+    /** Number of bytes of the tar stream compressed as one gzip member */
+    static final int BLOCK_SIZE = 1024 * 1024;
+
+    private static final int ONE_HUNDRED_PERCENT = 100;
+    private static final int ZERO_PERCENT = 0;
+
+    private final CopyWorkResultsReceiver copyWorkDispatcher;
+    private final Set<Path> pathsBeingArchived;
+    private final Path archiveFile;
+    private final boolean recursiveArchive;
+    private final Executor executor;
+    private final int compressorLimit;
+    private final IoThrottle throttle;
+    private final AtomicBoolean jobCancelled = new AtomicBoolean(false);
+    private final ArrayDeque<CompressedBlock> blocksInFlight = new ArrayDeque<>();
+    private FileChannel archiveChannel;
+    private byte[] block = new byte[BLOCK_SIZE];
+    private int blockLength = 0;
+    private long blockSourceBytes = 0L;
+    private List<Path> blockCompletedEntries = new ArrayList<>();
+    private long tarLength = 0L;
+    private long totalBytes = 0L;
+    private long archivedBytes = 0L;
+    private int totalPercentArchived = 0;
+
+    /**
+     * @param copyWorkDispatcher    receiver of the work's progress and outcome
+     * @param pathsBeingArchived    folders and/or files to archive
+     * @param archiveFile           archive file to create or overwrite
+     * @param recursiveArchive      true if the contents of subfolders of folders being archived are archived
+     * @param settings              settings governing how the job is carried out; its worker limit, where greater
+     *                              than 1, limits the blocks compressed at once, which is otherwise the number of
+     *                              available processors
+     */
+    ArchiveWorkDelegate(CopyWorkResultsReceiver copyWorkDispatcher, Set<Path> pathsBeingArchived, Path archiveFile, boolean recursiveArchive, CopyJobSettings settings) {
+        if (copyWorkDispatcher == null) {
+            throw new IllegalArgumentException("\"copyWorkDispatcher\" parameter cannot be null");
+        }
+        if (pathsBeingArchived == null) {
+            throw new IllegalArgumentException("\"pathsBeingArchived\" parameter cannot be null");
+        }
+        if (archiveFile == null) {
+            throw new IllegalArgumentException("\"archiveFile\" parameter cannot be null");
+        }
+        if (settings == null) {
+            throw new IllegalArgumentException("\"settings\" parameter cannot be null");
+        }
+
+        this.copyWorkDispatcher = copyWorkDispatcher;
+        this.pathsBeingArchived = pathsBeingArchived;
+        this.archiveFile = archiveFile;
+        this.recursiveArchive = recursiveArchive;
+        this.executor = settings.getExecutor();
+        this.compressorLimit = (settings.getWorkerLimit() > 1) ? settings.getWorkerLimit() : Runtime.getRuntime().availableProcessors();
+        this.throttle = settings.getThrottle();
+    }
+
+    @Override
+    public void cancelWork() {
+        jobCancelled.set(true);
+    }
+
+    @Override
+    public Map<Path, Long> getCopyDigests() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public void run() {
+        List<Entry> entries = new ArrayList<>();
+        boolean jobCompleted = false;
+
+        try {
+            for (Path path : pathsBeingArchived) {
+                if (!jobCancelled.get()) {
+                    listEntries(extractPath(path), entryName(path), entries);
+                }
+            }
+
+            if ((archiveFile.getParent() != null) && (!Files.isDirectory(archiveFile.getParent()))) {
+                Files.createDirectories(archiveFile.getParent());
+            }
+
+            try (FileChannel channel = FileChannel.open(archiveFile, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                archiveChannel = channel;
+                publishWork(archiveFile, ZERO_PERCENT);
+
+                for (Entry entry : entries) {
+                    if (jobCancelled.get()) {
+                        break;
+                    }
+                    archiveEntry(entry);
+                }
+
+                if (!jobCancelled.get()) {
+                    appendBytes(TarHeaders.endOfArchive(tarLength));
+                    submitBlock();
+                    while ((!blocksInFlight.isEmpty()) && (!jobCancelled.get())) {
+                        writeBlock();
+                    }
+                }
+            }
+            jobCompleted = !jobCancelled.get();
+        } catch (SecurityException e) {
+            copyWorkDispatcher.workerException(new SecurityException("SecurityException while reading files/folders in the source or writing the archive", e));
+        } catch (IOException e) {
+            copyWorkDispatcher.workerException(new IOException("IOException while reading files/folders in the source or writing the archive", e));
+        } catch (Exception e) {
+            copyWorkDispatcher.workerException(new Exception(e.getClass().getSimpleName() + " while reading files/folders in the source or writing the archive", e));
+        }
+
+        if (!jobCompleted) {
+            abandonArchive();
+        }
+        copyWorkDispatcher.workCompleted();
+    }
+
+    /**
+     * Adds the entries for a folder or file, and for the contents of a folder if the job is recursive, to a list.
+     * Entries other than folders and regular files, such as symbolic links, are left out, as copies leave them out.
+     *
+     * @param source            folder or file to list
+     * @param name              name of its entry in the archive
+     * @param entries           list to add the entries to
+     * @throws IOException      thrown if the source could not be examined or a folder could not be listed
+     */
+    private void listEntries(Path source, String name, List<Entry> entries) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+        if (attributes.isDirectory()) {
+            entries.add(new Entry(source, name + "/", true, 0L, attributes.lastModifiedTime().toMillis()));
+
+            if (recursiveArchive) {
+                List<Path> children = new ArrayList<>();
+                try (DirectoryStream<Path> dirStream = Files.newDirectoryStream(source)) {
+                    for (Path child : dirStream) {
+                        // An archive written within a folder being archived is not archived into itself
+                        if (!child.equals(archiveFile)) {
+                            children.add(child);
+                        }
+                    }
+                }
+                Collections.sort(children);
+
+                for (Path child : children) {
+                    if (!jobCancelled.get()) {
+                        listEntries(child, name + "/" + child.getFileName(), entries);
+                    }
+                }
+            }
+        } else if (attributes.isRegularFile()) {
+            entries.add(new Entry(source, name, false, attributes.size(), attributes.lastModifiedTime().toMillis()));
+            totalBytes += attributes.size();
+        }
+    }
+
+    /**
+     * Writes an entry's headers, and a file's content, into the tar stream.
+     *
+     * @param entry             entry to write
+     * @throws IOException      thrown if a file could not be read, or changed length while being read
+     */
+    private void archiveEntry(Entry entry) throws IOException {
+        Path progressPath = archiveFile.resolve(entry.name);
+        appendBytes(TarHeaders.entryHeaders(entry.name, entry.folder, entry.size, entry.modifiedMillis));
+
+        if (!entry.folder) {
+            if (throttle != null) {
+                throttle.acquireOperations(1);
+            }
+
+            try (FileChannel sourceChannel = FileChannel.open(entry.source, StandardOpenOption.READ)) {
+                long remaining = entry.size;
+                int entryPercent = ZERO_PERCENT;
+
+                while ((remaining > 0L) && (!jobCancelled.get())) {
+                    if (blockLength == BLOCK_SIZE) {
+                        submitBlock();
+                    }
+
+                    ByteBuffer buffer = ByteBuffer.wrap(block, blockLength, (int) Math.min(BLOCK_SIZE - blockLength, remaining));
+                    int read = sourceChannel.read(buffer);
+                    if (read < 0) {
+                        // The header already gives the length the file had when listed
+                        throw new IOException("\"" + entry.source + "\" became shorter while it was being archived");
+                    }
+
+                    blockLength += read;
+                    blockSourceBytes += read;
+                    tarLength += read;
+                    remaining -= read;
+                    if (throttle != null) {
+                        throttle.acquire(read);
+                    }
+
+                    int percent = (int) ((entry.size - remaining) * ONE_HUNDRED_PERCENT / entry.size);
+                    if ((percent != entryPercent) && (percent < ONE_HUNDRED_PERCENT)) {
+                        entryPercent = percent;
+                        publishWork(progressPath, entryPercent);
+                    }
+                }
+            }
+
+            appendBytes(new byte[TarHeaders.padding(entry.size)]);
+        }
+
+        blockCompletedEntries.add(progressPath);
+    }
+
+    /**
+     * Appends bytes to the tar stream, cutting blocks as they fill.
+     *
+     * @param bytes             bytes to append
+     * @throws IOException      thrown if a block due to be written could not be compressed or written
+     */
+    private void appendBytes(byte[] bytes) throws IOException {
+        int offset = 0;
+
+        while (offset < bytes.length) {
+            if (blockLength == BLOCK_SIZE) {
+                submitBlock();
+            }
+
+            int length = Math.min(BLOCK_SIZE - blockLength, bytes.length - offset);
+            System.arraycopy(bytes, offset, block, blockLength, length);
+            blockLength += length;
+            tarLength += length;
+            offset += length;
+        }
+    }
+
+    /**
+     * Hands the current block to the Executor for compression, and starts a new one. Once the blocks in flight reach
+     * their limit, the oldest is written first.
+     *
+     * @throws IOException      thrown if a block due to be written could not be compressed or written
+     */
+    private void submitBlock() throws IOException {
+        if (blockLength == 0) {
+            return;
+        }
+
+        final byte[] data = block;
+        final int length = blockLength;
+        FutureTask<byte[]> compression = new FutureTask<>(new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws IOException {
+                return compress(data, length);
+            }
+        });
+
+        blocksInFlight.add(new CompressedBlock(compression, blockCompletedEntries, blockSourceBytes));
+        try {
+            executor.execute(compression);
+        } catch (RejectedExecutionException e) {
+            // Compressed by this thread when the block is due to be written
+        }
+
+        block = new byte[BLOCK_SIZE];
+        blockLength = 0;
+        blockSourceBytes = 0L;
+        blockCompletedEntries = new ArrayList<>();
+
+        if (blocksInFlight.size() >= compressorLimit * 2) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Writes the oldest block in flight to the archive, compressing it on this thread if no task has taken it, and
+     * reports the progress it completes.
+     *
+     * @throws IOException      thrown if the block could not be compressed or written
+     */
+    private void writeBlock() throws IOException {
+        CompressedBlock head = blocksInFlight.poll();
+
+        // Does nothing if a task has already run, or is running, the compression
+        head.compression.run();
+
+        byte[] compressed;
+        try {
+            compressed = head.compression.get();
+        } catch (InterruptedException e) {
+            cancelWork();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a block to be compressed");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("unable to compress a block of the archive", e.getCause());
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(compressed);
+        while (buffer.hasRemaining()) {
+            archiveChannel.write(buffer);
+        }
+
+        for (Path entry : head.completedEntries) {
+            publishWork(entry, ONE_HUNDRED_PERCENT);
+        }
+        if (totalBytes > 0L) {
+            archivedBytes += head.sourceBytes;
+            int previousPercentArchived = totalPercentArchived;
+            totalPercentArchived = (int) (archivedBytes * ONE_HUNDRED_PERCENT / totalBytes);
+            if ((totalPercentArchived != previousPercentArchived) && (totalPercentArchived < ONE_HUNDRED_PERCENT)) {
+                publishWork(archiveFile, totalPercentArchived);
+            }
+        }
+    }
+
+    /**
+     * Compresses a block of the tar stream as a gzip member of its own. The member's header carries no name or time,
+     * so that its bytes depend on the block's content alone.
+     */
+    private static byte[] compress(byte[] data, int length) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, 64 * 1024)) {
+            gzip.write(data, 0, length);
+        }
+
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Discards the blocks in flight and deletes the incomplete archive.
+     */
+    private void abandonArchive() {
+        for (CompressedBlock inFlight : blocksInFlight) {
+            inFlight.compression.cancel(false);
+        }
+        blocksInFlight.clear();
+
+        try {
+            Files.deleteIfExists(archiveFile);
+        } catch (IOException e) {
+            copyWorkDispatcher.workerException(new IOException("Unable to delete incomplete archive \"" + archiveFile + "\"", e));
+        }
+    }
+
+    /**
+     * Returns the name of the entry for a source path: its file name or, for a DiscoveredPath within its source
+     * folder, its path relative to the parent of that folder, so that the source folder heads the entry's name.
+     *
+     * @param path  source path, which may be a DiscoveredPath
+     * @return      name of the entry, with "/" separators
+     */
+    private static String entryName(Path path) {
+        Path source = extractPath(path);
+
+        if (path instanceof DiscoveredPath) {
+            Path sourceFolder = ((DiscoveredPath) path).getSourceFolder();
+            if ((sourceFolder.getFileName() != null) && source.startsWith(sourceFolder) && (!source.equals(sourceFolder))) {
+                return (sourceFolder.getFileName() + "/" + sourceFolder.relativize(source)).replace(File.separatorChar, '/');
+            }
+        }
+
+        return source.getFileName().toString();
+    }
+
+    private void publishWork(Path path, int percentProgressed) {
+        copyWorkDispatcher.receiveWorkResults(path, percentProgressed);
+    }
+
+    /**
+     * Extracts the decorated (wrapped) Path from a DiscoveredPath instance.
+     *
+     * @param path  a Path instance
+     * @return      the Path decorated by a DiscoveredPath instance, or the same Path as that provided
+     */
+    private static Path extractPath(Path path) {
+        if (path instanceof DiscoveredPath) {
+            return ((DiscoveredPath) path).getPath();
+        } else {
+            return path;
+        }
+    }
+
+    /**
+     * Folder or file to be archived, with the attributes it had when listed.
+     */
+    private static final class Entry {
+        private final Path source;
+        private final String name;
+        private final boolean folder;
+        private final long size;
+        private final long modifiedMillis;
+
+        private Entry(Path source, String name, boolean folder, long size, long modifiedMillis) {
+            this.source = source;
+            this.name = name;
+            this.folder = folder;
+            this.size = size;
+            this.modifiedMillis = modifiedMillis;
+        }
+    }
+
+    /**
+     * Block of the tar stream being compressed, with the progress its writing completes.
+     */
+    private static final class CompressedBlock {
+        private final FutureTask<byte[]> compression;
+        private final List<Path> completedEntries;
+        private final long sourceBytes;
+
+        private CompressedBlock(FutureTask<byte[]> compression, List<Path> completedEntries, long sourceBytes) {
+            this.compression = compression;
+            this.completedEntries = completedEntries;
+            this.sourceBytes = sourceBytes;
+        }
+    }
+
+} // class ArchiveWorkDelegate implements CopyWork
@@ -0,0 +1,470 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CopyEngine built on AsynchronousFileChannel, which keeps up to "outstandingRequests" reads and writes of each file in
+ * flight at once. Each request is issued from the completion handler of the one before it in its slot: a completed read
+ * issues the write of its buffer, and a completed write hands its bytes to the progress side of the copy, which reports
+ * them to the monitor and issues the read of the next unclaimed block, so that no thread waits on the storage between
+ * requests. The completion handlers of every file copied by the engine run on one small pool of "completionThreads"
+ * threads and never call the monitor, so that a monitor which charges a throttle, and sleeps, holds back only its own
+ * file. Where the platform has no asynchronous file I/O, as on Linux, the JDK carries each request out on a thread of
+ * that pool, whose size then bounds the requests the storage sees at once. Writes complete out of order, so the written
+ * prefix of the target is reported as the blocks before it are completed. Direct buffers are pooled by the engine.
+ * <p>
+ * The progress side of a copy made by copyFile runs on the calling thread, which otherwise waits for the last request
+ * of its file. The progress side of a copy started by copyFileAsync runs on a thread of the engine's own, taken only
+ * while the copy has completed writes to report, so that a few threads can keep many files in flight. Calls to a
+ * copy's monitor are never concurrent. This class has package-private access.
+ */
+final class AsynchronousCopyEngine implements CopyEngine {
+
+    /** Default number of requests kept in flight for each file */
+    static final int DEFAULT_OUTSTANDING_REQUESTS = 4;
+
+    /** Default size of each read and write request */
+    static final int DEFAULT_REQUEST_SIZE = 256 * 1024;
+
+    /** Default number of threads on which the requests of all files complete */
+    static final int DEFAULT_COMPLETION_THREADS = 4;
+
+    private static final Set<StandardOpenOption> READ_OPTIONS = EnumSet.of(StandardOpenOption.READ);
+    private static final Set<StandardOpenOption> CREATE_OPTIONS = EnumSet.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    private static final Set<StandardOpenOption> RESUME_OPTIONS = EnumSet.of(StandardOpenOption.WRITE);
+
+    private final int outstandingRequests;
+    private final int requestSize;
+    private final ExecutorService completionExecutor;
+    private final ExecutorService progressExecutor;
+    private final ConcurrentLinkedQueue<ByteBuffer> bufferPool = new ConcurrentLinkedQueue<>();
+
+    AsynchronousCopyEngine() {
+        this(DEFAULT_OUTSTANDING_REQUESTS, DEFAULT_REQUEST_SIZE, DEFAULT_COMPLETION_THREADS);
+    }
+
+    /**
+     * Constructs an engine with the given request policy.
+     *
+     * @param outstandingRequests   number of requests kept in flight for each file
+     * @param requestSize           byte length of each read and write request
+     * @param completionThreads     number of threads on which requests complete, shared by all files
+     */
+    AsynchronousCopyEngine(int outstandingRequests, int requestSize, int completionThreads) {
+        if ((outstandingRequests < 1) || (requestSize < 1) || (completionThreads < 1)) {
+            throw new IllegalArgumentException("outstanding requests, request size and completion thread count must be positive");
+        }
+
+        this.outstandingRequests = outstandingRequests;
+        this.requestSize = requestSize;
+
+        final AtomicInteger threadNumber = new AtomicInteger(0);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(completionThreads, completionThreads, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "AsynchronousCopyWorker-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        completionExecutor = executor;
+
+        // Unbounded, as a copy whose monitor is sleeping off a throttle must not hold back the progress of another
+        final AtomicInteger progressThreadNumber = new AtomicInteger(0);
+        progressExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 30L, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "AsynchronousCopyProgress-" + progressThreadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, CopyProgressMonitor monitor) throws IOException {
+        return copyFile(source, target, 0L, monitor);
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, long offset, CopyProgressMonitor monitor) throws IOException {
+        // The progress side of the copy is run by this thread, which has nothing else to do until the copy is done
+        final LinkedBlockingQueue<Runnable> progressTasks = new LinkedBlockingQueue<>();
+        Transfer transfer = startTransfer(source, target, offset, monitor, new Executor() {
+            @Override
+            public void execute(Runnable task) {
+                progressTasks.add(task);
+            }
+        });
+
+        // Requests already issued cannot be withdrawn, so an interrupted caller stops the transfer and still waits for
+        // them, as the channels are closed and the buffers reused once it is done
+        boolean interrupted = false;
+        while (!transfer.result.isDone()) {
+            try {
+                progressTasks.take().run();
+            } catch (InterruptedException e) {
+                interrupted = true;
+                transfer.stop();
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a file to be copied");
+        }
+
+        try {
+            return transfer.result.join();
+        } catch (CompletionException e) {
+            Throwable failure = e.getCause();
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            } else if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw new IOException("unable to copy \"" + source + "\"", failure);
+        }
+    }
+
+    /**
+     * Starts copying a file as copyFile does, without waiting for the copy. The monitor is called on a thread of the
+     * engine, never by two threads at once, and not at all once the returned future is completed.
+     *
+     * @param source            file to copy
+     * @param target            file to create or complete
+     * @param offset            number of leading bytes of the target already copied
+     * @param monitor           monitor to be informed of bytes copied and polled for cancellation
+     * @return                  future completed with the number of bytes copied, excluding the first "offset" bytes,
+     *                          or exceptionally with the failure which stopped the copy
+     * @throws IOException      thrown if the source or target could not be opened
+     */
+    CompletableFuture<Long> copyFileAsync(Path source, Path target, long offset, CopyProgressMonitor monitor) throws IOException {
+        return startTransfer(source, target, offset, monitor, progressExecutor).result;
+    }
+
+    private Transfer startTransfer(Path source, Path target, long offset, CopyProgressMonitor monitor, Executor progressTaskExecutor) throws IOException {
+        AsynchronousFileChannel sourceChannel = AsynchronousFileChannel.open(source, READ_OPTIONS, completionExecutor);
+        AsynchronousFileChannel targetChannel = null;
+        try {
+            targetChannel = AsynchronousFileChannel.open(target, (offset > 0L) ? RESUME_OPTIONS : CREATE_OPTIONS, completionExecutor);
+            long fileSize = sourceChannel.size();
+
+            if (offset > 0L) {
+                // Drop anything beyond the bytes already copied, such as the rest of a preallocated target
+                targetChannel.truncate(offset);
+            }
+
+            Transfer transfer = new Transfer(sourceChannel, targetChannel, offset, Math.max(offset, fileSize), monitor, progressTaskExecutor);
+            transfer.start();
+            return transfer;
+        } catch (IOException | RuntimeException e) {
+            try {
+                sourceChannel.close();
+                if (targetChannel != null) {
+                    targetChannel.close();
+                }
+            } catch (IOException ex) {
+                e.addSuppressed(ex);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Copy of one file, whose slots each carry one request at a time. Completion handlers only issue requests and
+     * hand completed writes, and slots that have finished, to the progress side, which runs one task at a time on its
+     * executor and alone calls the monitor. Fields are guarded by the transfer's lock.
+     */
+    private final class Transfer {
+        private final AsynchronousFileChannel sourceChannel;
+        private final AsynchronousFileChannel targetChannel;
+        private final long fileSize;
+        private final CopyProgressMonitor monitor;
+        private final Executor progressTaskExecutor;
+        private final TreeSet<Long> blocksInFlight = new TreeSet<>();
+        private final AtomicInteger activeSlots;
+        private final ConcurrentLinkedQueue<Runnable> progressTasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingProgressTasks = new AtomicInteger(0);
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+        private long nextBlock;
+        private long copied = 0L;
+        private long reportedPrefix;
+        private boolean stopped = false;
+        private Throwable failure = null;
+
+        /** Runs the transfer's progress tasks in order, until none is left */
+        private final Runnable progressDrainer = new Runnable() {
+            @Override
+            public void run() {
+                do {
+                    progressTasks.poll().run();
+                } while (pendingProgressTasks.decrementAndGet() != 0);
+            }
+        };
+
+        private Transfer(AsynchronousFileChannel sourceChannel, AsynchronousFileChannel targetChannel, long offset, long fileSize, CopyProgressMonitor monitor, Executor progressTaskExecutor) {
+            this.sourceChannel = sourceChannel;
+            this.targetChannel = targetChannel;
+            this.fileSize = fileSize;
+            this.monitor = monitor;
+            this.progressTaskExecutor = progressTaskExecutor;
+            this.nextBlock = offset;
+            this.reportedPrefix = offset;
+            this.activeSlots = new AtomicInteger((int) Math.min(outstandingRequests, (fileSize - offset + requestSize - 1) / requestSize));
+        }
+
+        /**
+         * Issues the first read of each slot. Called before any request has been issued, and so before the progress
+         * side can run, which leaves the thread starting the copy free to consult the monitor.
+         */
+        private void start() {
+            if (activeSlots.get() == 0) {
+                post(finishTask());
+                return;
+            }
+
+            try {
+                if (monitor.isCancelled()) {
+                    stop();
+                }
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    failure = e;
+                    stopped = true;
+                }
+            }
+
+            for (int slot = activeSlots.get(); slot > 0; --slot) {
+                ByteBuffer buffer = bufferPool.poll();
+                if (buffer == null) {
+                    buffer = ByteBuffer.allocateDirect(requestSize);
+                }
+                claimAndRead(buffer);
+            }
+        }
+
+        private void stop() {
+            synchronized (this) {
+                stopped = true;
+            }
+        }
+
+        /**
+         * Claims the next block of the file and issues its read, or finishes the slot if there is none or the copy
+         * has stopped.
+         */
+        private void claimAndRead(ByteBuffer buffer) {
+            long blockStart;
+
+            synchronized (this) {
+                if (stopped || (nextBlock >= fileSize)) {
+                    blockStart = -1L;
+                } else {
+                    blockStart = nextBlock;
+                    nextBlock = Math.min(fileSize, nextBlock + requestSize);
+                    blocksInFlight.add(blockStart);
+                }
+            }
+
+            if (blockStart < 0L) {
+                finishSlot(buffer);
+                return;
+            }
+
+            buffer.clear();
+            buffer.limit((int) Math.min(requestSize, fileSize - blockStart));
+            read(buffer, blockStart);
+        }
+
+        private void read(final ByteBuffer buffer, long blockStart) {
+            try {
+                sourceChannel.read(buffer, blockStart + buffer.position(), blockStart, new CompletionHandler<Integer, Long>() {
+                    @Override
+                    public void completed(Integer bytesRead, Long blockStart) {
+                        readCompleted(buffer, blockStart, bytesRead);
+                    }
+
+                    @Override
+                    public void failed(Throwable exception, Long blockStart) {
+                        fail(exception, buffer);
+                    }
+                });
+            } catch (RuntimeException e) {
+                fail(e, buffer);
+            }
+        }
+
+        private void readCompleted(ByteBuffer buffer, long blockStart, int bytesRead) {
+            if (bytesRead < 0) {
+                fail(new IOException("source file was shorter than expected; it may have changed since the copy began"), buffer);
+            } else if (buffer.hasRemaining()) {
+                read(buffer, blockStart);
+            } else {
+                buffer.flip();
+                write(buffer, blockStart);
+            }
+        }
+
+        private void write(final ByteBuffer buffer, long blockStart) {
+            try {
+                targetChannel.write(buffer, blockStart + buffer.position(), blockStart, new CompletionHandler<Integer, Long>() {
+                    @Override
+                    public void completed(Integer bytesWritten, final Long blockStart) {
+                        if (buffer.hasRemaining()) {
+                            write(buffer, blockStart);
+                        } else {
+                            post(new Runnable() {
+                                @Override
+                                public void run() {
+                                    writeCompleted(buffer, blockStart);
+                                }
+                            });
+                        }
+                    }
+
+                    @Override
+                    public void failed(Throwable exception, Long blockStart) {
+                        fail(exception, buffer);
+                    }
+                });
+            } catch (RuntimeException e) {
+                fail(e, buffer);
+            }
+        }
+
+        /**
+         * Progress task of a completed write: reports its bytes, and any growth of the written prefix, to the monitor
+         * outside the transfer's lock, and reuses the slot for the next block unless the copy has stopped. A monitor
+         * which throws stops the copy, and the exception becomes its failure.
+         */
+        private void writeCompleted(ByteBuffer buffer, long blockStart) {
+            int bytes = buffer.limit();
+            long prefix = -1L;
+            boolean report;
+
+            synchronized (this) {
+                report = (failure == null);
+                copied += bytes;
+                blocksInFlight.remove(blockStart);
+                long writtenPrefix = (blocksInFlight.isEmpty()) ? nextBlock : blocksInFlight.first();
+                if (writtenPrefix > reportedPrefix) {
+                    reportedPrefix = writtenPrefix;
+                    prefix = writtenPrefix;
+                }
+            }
+
+            if (report) {
+                try {
+                    monitor.bytesCopied(bytes);
+                    if (prefix >= 0L) {
+                        monitor.prefixCopied(prefix);
+                    }
+                    if (monitor.isCancelled()) {
+                        stop();
+                    }
+                } catch (IOException | RuntimeException | Error e) {
+                    fail(e, buffer);
+                    return;
+                }
+            }
+
+            claimAndRead(buffer);
+        }
+
+        private void fail(Throwable exception, ByteBuffer buffer) {
+            synchronized (this) {
+                if (failure == null) {
+                    failure = exception;
+                }
+                stopped = true;
+            }
+
+            finishSlot(buffer);
+        }
+
+        private void finishSlot(ByteBuffer buffer) {
+            bufferPool.add(buffer);
+            if (activeSlots.decrementAndGet() == 0) {
+                post(finishTask());
+            }
+        }
+
+        /**
+         * Returns the progress task run once every slot has finished, which closes the channels and completes the
+         * transfer's result.
+         */
+        private Runnable finishTask() {
+            return new Runnable() {
+                @Override
+                public void run() {
+                    Throwable transferFailure;
+                    long transferred;
+                    synchronized (Transfer.this) {
+                        transferFailure = failure;
+                        transferred = copied;
+                    }
+
+                    try {
+                        sourceChannel.close();
+                        targetChannel.close();
+                    } catch (IOException e) {
+                        if (transferFailure == null) {
+                            transferFailure = e;
+                        }
+                    }
+
+                    if (transferFailure != null) {
+                        result.completeExceptionally(transferFailure);
+                    } else {
+                        result.complete(transferred);
+                    }
+                }
+            };
+        }
+
+        /**
+         * Queues a task for the progress side, starting a drainer for the transfer if none is running.
+         */
+        private void post(Runnable task) {
+            progressTasks.add(task);
+            if (pendingProgressTasks.getAndIncrement() == 0) {
+                try {
+                    progressTaskExecutor.execute(progressDrainer);
+                } catch (RejectedExecutionException e) {
+                    // Left without a thread for its progress side, the transfer would never finish
+                    progressDrainer.run();
+                }
+            }
+        }
+    }
+
+} // class AsynchronousCopyEngine implements CopyEngine
@@ -0,0 +1,61 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CopyEngine which copies a file with FileChannel.transferTo, in chunks of CHUNK_SIZE bytes. Where the platform
+ * supports it the transfer happens within the kernel, without the data passing through Java heap buffers. Progress
+ * is reported and cancellation is checked once per chunk. This class has package-private access.
+ */
+final class ChannelCopyEngine implements CopyEngine {
+
+    /** Maximum number of bytes transferred between progress reports and cancellation checks */
+    static final long CHUNK_SIZE = 8L * 1024 * 1024;
+
+    @Override
+    public long copyFile(Path source, Path target, CopyProgressMonitor monitor) throws IOException {
+        return copyFile(source, target, 0L, monitor);
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, long offset, CopyProgressMonitor monitor) throws IOException {
+        long copied = 0L;
+
+        try (
+                FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ);
+                FileChannel targetChannel = (offset > 0L)
+                        ? FileChannel.open(target, StandardOpenOption.WRITE)
+                        : FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)
+        ) {
+            long sourceSize = sourceChannel.size();
+
+            if (offset > 0L) {
+                // Drop anything beyond the bytes already copied, such as the rest of a preallocated target
+                targetChannel.truncate(offset);
+                targetChannel.position(offset);
+            }
+
+            while ((offset + copied < sourceSize) && (!monitor.isCancelled())) {
+                long transferred = sourceChannel.transferTo(offset + copied, Math.min(CHUNK_SIZE, sourceSize - offset - copied), targetChannel);
+
+                if (transferred <= 0L) {
+                    // The source shrank after it was opened; what remains of it has been copied
+                    if (offset + copied >= sourceChannel.size()) {
+                        break;
+                    }
+                    continue;
+                }
+
+                copied += transferred;
+                monitor.bytesCopied(transferred);
+                monitor.prefixCopied(offset + copied);
+            }
+        }
+
+        return copied;
+    }
+
+} // class ChannelCopyEngine implements CopyEngine
@@ -0,0 +1,39 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Defines the strategy by which the content of a single file is copied. A CopyEngine only moves bytes; decisions as
+ * to whether a file is to be copied at all, progress reporting for the job as a whole and the removal of incomplete
+ * copies remain with the CopyJobWorkDelegate. This interface has package-private access.
+ */
+interface CopyEngine {
+
+    /**
+     * Copies the content of a file to a target file, creating the target or truncating it if it exists. Copying stops
+     * early, leaving an incomplete target in place, if the monitor reports cancellation.
+     *
+     * @param source            file to copy
+     * @param target            file to create or overwrite
+     * @param monitor           monitor to be informed of bytes copied and polled for cancellation
+     * @return                  total number of bytes copied
+     * @throws IOException      thrown if an IOException occurs during read/write operations
+     */
+    public long copyFile(Path source, Path target, CopyProgressMonitor monitor) throws IOException;
+
+    /**
+     * Copies the content of a file to a target file, keeping the first "offset" bytes of an existing target as they
+     * are and copying the remainder of the source after them, as when resuming an interrupted copy. An offset of 0 is
+     * equivalent to the three-argument method. The target ends up the same length as the source.
+     *
+     * @param source            file to copy
+     * @param target            file to create or complete
+     * @param offset            number of leading bytes of the target already copied
+     * @param monitor           monitor to be informed of bytes copied and polled for cancellation
+     * @return                  number of bytes copied by this call, excluding the first "offset" bytes
+     * @throws IOException      thrown if an IOException occurs during read/write operations
+     */
+    public long copyFile(Path source, Path target, long offset, CopyProgressMonitor monitor) throws IOException;
+
+} // interface CopyEngine
@@ -0,0 +1,355 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import FileSieve.BusinessLogic.FileEnumeration.DiscoveredPath;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * GUI-free copy job, instances of which may be acquired from a HeadlessFileCopier. The job is carried out by a
+ * CopyJobWorkDelegate, or by an ArchiveWorkDelegate for a job writing an archive file, run as a single task on the
+ * Executor given in its settings, which also runs its file copies, so that a job costs no threads of its own. Progress
+ * is reported to CopyJobProgressListeners on the job's threads, and the outcome of the job through a CompletableFuture.
+ * The first exception reported by the work stops the job.
+ */
+public final class CopyJob {
+
+    private final Set<Path> pathsBeingCopied;
+    private final Path destinationFolder;
+    private final boolean recursiveCopy;
+    private final boolean overwriteExistingFiles;
+    private final Executor executor;
+    private final CopyWork copyJobWorkDelegate;
+    private final List<CopyJobProgressListener> listeners = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<CopyJob> completion = new CompletableFuture<>();
+    private final AtomicReference<Exception> workerException = new AtomicReference<>(null);
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+    /**
+     * Constructs a job which is not started until its start method is called.
+     *
+     * @param pathsBeingCopied          real paths of the folders and/or files to copy
+     * @param destinationFolder         destination folder to which file and folder copies are to be placed, or the
+     *                                  archive file to write if the settings call for an archive destination
+     * @param recursiveCopy             boolean value specifying if subfolders of folders being copied are copied
+     * @param overwriteExistingFiles    indicates if existing files in the target path should be overwritten if found to be similar to those being copied
+     * @param fileComparator            Function object of type Comparator<Path> with which to compare two files, or
+     *                                  null for the default implementation
+     * @param settings                  snapshot of the settings governing how the job is carried out
+     */
+    CopyJob(Set<Path> pathsBeingCopied, Path destinationFolder, boolean recursiveCopy, boolean overwriteExistingFiles, Comparator<Path> fileComparator, CopyJobSettings settings) {
+        if (settings == null) {
+            throw new IllegalArgumentException("null reference passed for \"settings\" parameter");
+        }
+
+        this.pathsBeingCopied = pathsBeingCopied;
+        this.destinationFolder = destinationFolder;
+        this.recursiveCopy = recursiveCopy;
+        this.overwriteExistingFiles = overwriteExistingFiles;
+        this.executor = settings.getExecutor();
+
+        if (settings.isArchiveDestination()) {
+            this.copyJobWorkDelegate = new ArchiveWorkDelegate(new WorkResultsReceiver(), pathsBeingCopied, destinationFolder, recursiveCopy, settings);
+        } else {
+            if (fileComparator == null) {
+                fileComparator = (settings.isTargetListingEnabled())
+                        ? new TargetListingComparator(settings.getFingerprintStore(), settings.getCopyPlan())
+                        : DefaultFileComparator.getInstance();
+            }
+            this.copyJobWorkDelegate = new CopyJobWorkDelegate(new WorkResultsReceiver(), pathsBeingCopied, destinationFolder, recursiveCopy, overwriteExistingFiles,
+                    fileComparator, settings);
+        }
+    }
+
+    /**
+     * Hands the job's work to its Executor. Has no effect if the job was already started.
+     */
+    void start() {
+        if (started.getAndSet(true)) {
+            return;
+        }
+
+        try {
+            executor.execute(copyJobWorkDelegate);
+        } catch (RejectedExecutionException e) {
+            completion.completeExceptionally(new IllegalStateException("the copy job's executor refused the job", e));
+        }
+    }
+
+    /**
+     * Adds a listener to receive the progress of the job. Progress made before a listener is added is not replayed.
+     *
+     * @param listener  listener to add
+     */
+    public void addProgressListener(CopyJobProgressListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("null reference passed for \"listener\" parameter");
+        }
+
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener previously added.
+     *
+     * @param listener  listener to remove
+     */
+    public void removeProgressListener(CopyJobProgressListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns a future completed with this job once its work has finished, whether copying everything or having been
+     * cancelled, or completed exceptionally with the exception which stopped it. Completing or cancelling the future
+     * itself has no effect on the job; use the cancel method.
+     *
+     * @return  the job's completion future
+     */
+    public CompletableFuture<CopyJob> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Requests that the job stop. Copies in progress stop at their next chunk, and the job's completion future is
+     * completed normally once they have.
+     *
+     * @return  boolean true if the request was issued, false if the job had already finished or been cancelled
+     */
+    public boolean cancel() {
+        boolean result = !cancelled.getAndSet(true) && !completion.isDone();
+        copyJobWorkDelegate.cancelWork();
+        return result;
+    }
+
+    /**
+     * Returns true if the job was asked to stop through its cancel method.
+     *
+     * @return  boolean true if the job was cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Returns true if the job has been started and has not yet finished.
+     *
+     * @return  boolean true if the copy job is running
+     */
+    public boolean isRunning() {
+        return started.get() && !completion.isDone();
+    }
+
+    /**
+     * Returns a list of the files and/or folders being copied.
+     *
+     * @return  a copy of the list (List<Path>) of pathnames representing the files and/or folders being copied
+     */
+    public List<Path> getPathsBeingCopied() {
+        List<Path> copiedList = new ArrayList<>(pathsBeingCopied.size());
+
+        for (Path path : pathsBeingCopied) {
+            copiedList.add(path.toFile().toPath());
+        }
+
+        return copiedList;
+    }
+
+    /**
+     * Returns the path of the destination folder to which files and folders are copied.
+     *
+     * @return  Path object representing the destination folder for the copy job
+     */
+    public Path getDestinationFolder() {
+        return destinationFolder;
+    }
+
+    /**
+     * Returns true if files and folders in subfolders of the folders being copied are copied too.
+     *
+     * @return  boolean true if folders are copied recursively
+     */
+    public boolean isRecursive() {
+        return recursiveCopy;
+    }
+
+    /**
+     * Returns true if existing files in the destination are overwritten even if found to be similar.
+     *
+     * @return  boolean true if similar files are overwritten
+     */
+    public boolean isOverwritingExistingFiles() {
+        return overwriteExistingFiles;
+    }
+
+    /**
+     * Returns the content fingerprints taken of the files copied thus far, keyed by the path of each copy, if the
+     * copier which started the job was set to fingerprint copies; otherwise the map is empty.
+     *
+     * @return  a copy of the map (Map<Path, Long>) of copied files to their 64-bit content fingerprints
+     */
+    public Map<Path, Long> getCopyDigests() {
+        return copyJobWorkDelegate.getCopyDigests();
+    }
+
+    /**
+     * Converts the source paths of a job to real paths, keeping the source folders of DiscoveredPath instances.
+     *
+     * @param pathsToBeCopied       folders and/or files to copy
+     * @return                      the real paths, in the same order
+     * @throws IOException          thrown if an IOException is encountered while converting source paths to real paths
+     */
+    static Set<Path> toRealPaths(Set<Path> pathsToBeCopied) throws IOException {
+        if (pathsToBeCopied == null) {
+            throw new IllegalArgumentException("null reference passed for \"pathsToBeCopied\" parameter");
+        }
+
+        Set<Path> realPaths = new LinkedHashSet<>(pathsToBeCopied.size());
+        for (Path path : pathsToBeCopied) {
+            if ((path == null) || (!extractPath(path).toFile().exists())) {
+                throw new IllegalArgumentException("a path included within the \"sourcePathnames\" list does not exist");
+            } else {
+                if (path instanceof DiscoveredPath) {
+                    Path realPath = path.toRealPath(LinkOption.NOFOLLOW_LINKS);
+                    Path sourceFolder = ((DiscoveredPath) path).getSourceFolder();
+
+                    realPaths.add(new DiscoveredPath(realPath, sourceFolder));
+                } else {
+                    realPaths.add(path.toRealPath(LinkOption.NOFOLLOW_LINKS));
+                }
+            }
+        }
+
+        return realPaths;
+    }
+
+    /**
+     * Checks that a destination folder names a folder, or a path at which one can be created.
+     *
+     * @param destinationFolder     destination folder of a job
+     */
+    static void checkDestinationFolder(Path destinationFolder) {
+        if ((destinationFolder == null) || (destinationFolder.getFileName().toString().isEmpty())) {
+            throw new IllegalArgumentException("null reference passed for \"destinationFolder\" parameter");
+        }
+        if ((destinationFolder.toFile().exists()) && (!Files.isDirectory(destinationFolder, LinkOption.NOFOLLOW_LINKS))) {
+            throw new IllegalArgumentException("the destination (target) path specified is not a folder");
+        }
+    }
+
+    /**
+     * Checks that an archive file names a path at which a file can be written.
+     *
+     * @param archiveFile               archive file of a job
+     * @param overwriteExistingFile     true if an existing file at the path may be replaced
+     */
+    static void checkArchiveFile(Path archiveFile, boolean overwriteExistingFile) {
+        if ((archiveFile == null) || (archiveFile.getFileName() == null) || (archiveFile.getFileName().toString().isEmpty())) {
+            throw new IllegalArgumentException("null reference passed for \"archivePathname\" parameter");
+        }
+        if (Files.isDirectory(archiveFile, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IllegalArgumentException("the archive path specified is a folder");
+        }
+        if ((!overwriteExistingFile) && (Files.exists(archiveFile, LinkOption.NOFOLLOW_LINKS))) {
+            throw new IllegalArgumentException("the archive path specified exists and is not to be overwritten");
+        }
+    }
+
+    /**
+     * Extracts the decorated (wrapped) Path from a DiscoveredPath instance.
+     *
+     * @param path  a Path instance
+     * @return      the Path decorated by a DiscoveredPath instance, or the same Path as that provided
+     */
+    private static Path extractPath(Path path) {
+        if (path instanceof DiscoveredPath) {
+            return ((DiscoveredPath) path).getPath();
+        } else {
+            return path;
+        }
+    }
+
+    /**
+     * Receives the work results of the job's work delegate, forwarding progress to the job's listeners and
+     * settling the job's completion future.
+     */
+    private final class WorkResultsReceiver implements CopyWorkResultsReceiver {
+
+        @Override
+        public void workerException(Exception exception) {
+            if (workerException.compareAndSet(null, exception)) {
+                copyJobWorkDelegate.cancelWork();
+            }
+        }
+
+        @Override
+        public void receiveWorkResults(Path path, int percentProgressed) {
+            for (CopyJobProgressListener listener : listeners) {
+                if (path.equals(destinationFolder)) {
+                    listener.jobProgressed(CopyJob.this, percentProgressed);
+                } else {
+                    listener.pathProgressed(CopyJob.this, path, percentProgressed);
+                }
+            }
+        }
+
+        @Override
+        public void workCompleted() {
+            Exception exception = workerException.get();
+
+            if (exception != null) {
+                completion.completeExceptionally(exception);
+            } else {
+                completion.complete(CopyJob.this);
+            }
+        }
+
+    } // class WorkResultsReceiver implements CopyWorkResultsReceiver
+
+    /**
+     * Default file comparator (function object) for use by CopyJob instances in determining if two files are similar.
+     */
+    private static class DefaultFileComparator implements Comparator<Path> {
+
+        public static final DefaultFileComparator INSTANCE = new DefaultFileComparator();
+
+        public static DefaultFileComparator getInstance() {
+            return INSTANCE;
+        }
+
+        private DefaultFileComparator() {
+        }
+
+        public int compare(Path path1, Path path2) {
+            int result = -1;
+
+            if ((path1 != null) && (path2 != null)) {
+                if (Files.isRegularFile(extractPath(path1), LinkOption.NOFOLLOW_LINKS) && Files.isRegularFile(extractPath(path2), LinkOption.NOFOLLOW_LINKS)) {
+                    if (path1.getFileName().toString().toLowerCase().equals(path2.getFileName().toString().toLowerCase())) {
+                        if (path1.toFile().length() == path2.toFile().length()) {
+                            result = 0;
+                        }
+                    }
+                }
+            }
+
+            return result;
+        }
+
+    }
+
+} // class CopyJob
@@ -0,0 +1,30 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.nio.file.Path;
+
+/**
+ * Defines methods to be used for receipt of progress updates from CopyJob instances. Unlike a SwingCopyJobListener,
+ * which is called on the EDT, a CopyJobProgressListener is called directly on the threads of the job as they make
+ * progress, possibly concurrently, so implementations must be thread-safe and should return quickly.
+ */
+public interface CopyJobProgressListener {
+
+    /**
+     * Called when the overall copy job has progressed by at least one percent, up to but excluding one hundred
+     * percent; completion is signalled by the job's completion future.
+     *
+     * @param copyJob               reference to the CopyJob from which the update is coming
+     * @param percentProgressed     percentage of the copy job that has been completed
+     */
+    public void jobProgressed(CopyJob copyJob, int percentProgressed);
+
+    /**
+     * Called when the copy of a file has progressed by at least one percent, or a folder has been created.
+     *
+     * @param copyJob               reference to the CopyJob from which the update is coming
+     * @param pathnameBeingCopied   pathname of the file or folder in the destination
+     * @param percentProgressed     percentage of the copy of the file or folder that has been completed
+     */
+    public void pathProgressed(CopyJob copyJob, Path pathnameBeingCopied, int percentProgressed);
+
+} // interface CopyJobProgressListener
@@ -0,0 +1,244 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Queue through which every SwingCopyJob is started, shared by all SwingFileManager instances. At most
+ * "maxConcurrentJobs" jobs run at once, and at most "maxConcurrentJobsPerDevice" of them write to the same
+ * destination device, identified by the FileStore of the destination folder or of its nearest existing ancestor.
+ * Jobs which cannot start wait in the queue in order of descending priority, and of submission amongst jobs of equal
+ * priority, and each time a job finishes, or a limit is raised, the queue is scanned for jobs which may start. A job
+ * whose device is busy does not hold back jobs behind it which write to other devices. Concurrent jobs writing to one
+ * device contend for its bandwidth and, on rotating disks, its heads, so limiting them keeps aggregate throughput
+ * close to what the device sustains for a single job. This class has package-private access.
+ */
+final class CopyJobScheduler {
+
+    /** Default limit on the number of jobs running at once */
+    static final int DEFAULT_MAX_CONCURRENT_JOBS = 4;
+
+    /** Default limit on the number of jobs writing to a single device at once */
+    static final int DEFAULT_MAX_CONCURRENT_JOBS_PER_DEVICE = 2;
+
+    private static final CopyJobScheduler INSTANCE = new CopyJobScheduler();
+
+    private final TreeSet<QueuedJob> queuedJobs = new TreeSet<>(new Comparator<QueuedJob>() {
+        @Override
+        public int compare(QueuedJob job1, QueuedJob job2) {
+            if (job1.priority != job2.priority) {
+                return (job1.priority > job2.priority) ? -1 : 1;
+            }
+            return Long.compare(job1.sequence, job2.sequence);
+        }
+    });
+    private final Map<SwingCopyJob, Object> runningJobs = new IdentityHashMap<>();  // job to the device it writes to
+    private final Map<Object, Integer> runningJobsPerDevice = new HashMap<>();
+    private int maxConcurrentJobs = DEFAULT_MAX_CONCURRENT_JOBS;
+    private int maxConcurrentJobsPerDevice = DEFAULT_MAX_CONCURRENT_JOBS_PER_DEVICE;
+    private long nextSequence = 0L;
+
+    private CopyJobScheduler() { }
+
+    static CopyJobScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Sets the limit on the number of jobs running at once, starting queued jobs if the limit was raised.
+     *
+     * @param maxConcurrentJobs     maximum number of running jobs, at least 1
+     */
+    void setMaxConcurrentJobs(int maxConcurrentJobs) {
+        if (maxConcurrentJobs < 1) {
+            throw new IllegalArgumentException("maxConcurrentJobs must be at least 1");
+        }
+
+        synchronized (this) {
+            this.maxConcurrentJobs = maxConcurrentJobs;
+        }
+        dispatch();
+    }
+
+    synchronized int getMaxConcurrentJobs() {
+        return maxConcurrentJobs;
+    }
+
+    /**
+     * Sets the limit on the number of jobs writing to a single device at once, starting queued jobs if the limit was
+     * raised.
+     *
+     * @param maxConcurrentJobsPerDevice    maximum number of running jobs per destination device, at least 1
+     */
+    void setMaxConcurrentJobsPerDevice(int maxConcurrentJobsPerDevice) {
+        if (maxConcurrentJobsPerDevice < 1) {
+            throw new IllegalArgumentException("maxConcurrentJobsPerDevice must be at least 1");
+        }
+
+        synchronized (this) {
+            this.maxConcurrentJobsPerDevice = maxConcurrentJobsPerDevice;
+        }
+        dispatch();
+    }
+
+    synchronized int getMaxConcurrentJobsPerDevice() {
+        return maxConcurrentJobsPerDevice;
+    }
+
+    /**
+     * Starts a job at once if the limits allow, or else queues it and informs its listeners that it is queued.
+     *
+     * @param job       job to start
+     * @param priority  priority of the job; jobs of higher priority are started first
+     */
+    void submit(SwingCopyJob job, int priority) {
+        Object device = deviceOf(job.getDestinationFolder());
+        List<SwingCopyJob> jobsToStart;
+        boolean queued;
+
+        synchronized (this) {
+            queuedJobs.add(new QueuedJob(job, priority, nextSequence++, device));
+            jobsToStart = dispatchable();
+            queued = !runningJobs.containsKey(job);
+        }
+
+        if (queued) {
+            job.jobQueued();
+        }
+        for (SwingCopyJob jobToStart : jobsToStart) {
+            jobToStart.jobStarted();
+        }
+    }
+
+    /**
+     * Removes a job from the queue, if it is still queued.
+     *
+     * @param job   job to withdraw
+     * @return      boolean true if the job was queued and has been withdrawn, false if it was started or unknown
+     */
+    synchronized boolean withdraw(SwingCopyJob job) {
+        for (Iterator<QueuedJob> iterator = queuedJobs.iterator(); iterator.hasNext(); ) {
+            if (iterator.next().job == job) {
+                iterator.remove();
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Records that a running job has finished, and starts any queued jobs which its slot allows to run.
+     *
+     * @param job   finished job
+     */
+    void jobFinished(SwingCopyJob job) {
+        synchronized (this) {
+            if (runningJobs.containsKey(job)) {
+                Object device = runningJobs.remove(job);
+                int deviceJobs = runningJobsPerDevice.get(device) - 1;
+                if (deviceJobs == 0) {
+                    runningJobsPerDevice.remove(device);
+                } else {
+                    runningJobsPerDevice.put(device, deviceJobs);
+                }
+            }
+        }
+
+        dispatch();
+    }
+
+    synchronized int getQueuedJobCount() {
+        return queuedJobs.size();
+    }
+
+    synchronized int getRunningJobCount() {
+        return runningJobs.size();
+    }
+
+    private void dispatch() {
+        List<SwingCopyJob> jobsToStart;
+        synchronized (this) {
+            jobsToStart = dispatchable();
+        }
+
+        for (SwingCopyJob job : jobsToStart) {
+            job.jobStarted();
+        }
+    }
+
+    /**
+     * Moves the queued jobs which the limits allow to run from the queue to the running jobs, without starting them.
+     * Called with the scheduler's lock held; the jobs are started once it is released.
+     *
+     * @return  jobs to start, in order of priority
+     */
+    private List<SwingCopyJob> dispatchable() {
+        List<SwingCopyJob> jobsToStart = new ArrayList<>(1);
+
+        for (Iterator<QueuedJob> iterator = queuedJobs.iterator(); (iterator.hasNext()) && (runningJobs.size() < maxConcurrentJobs); ) {
+            QueuedJob queuedJob = iterator.next();
+            Integer deviceJobs = runningJobsPerDevice.get(queuedJob.device);
+
+            if ((deviceJobs == null) || (deviceJobs < maxConcurrentJobsPerDevice)) {
+                iterator.remove();
+                runningJobs.put(queuedJob.job, queuedJob.device);
+                runningJobsPerDevice.put(queuedJob.device, (deviceJobs == null) ? 1 : deviceJobs + 1);
+                jobsToStart.add(queuedJob.job);
+            }
+        }
+
+        return jobsToStart;
+    }
+
+    /**
+     * Identifies the device to which files are written in a folder, by the FileStore of the folder or of its nearest
+     * existing ancestor, or by the folder's root if no FileStore can be read.
+     *
+     * @param folder    destination folder, which need not exist
+     * @return          an object equal to that returned for other folders on the same device
+     */
+    private static Object deviceOf(Path folder) {
+        Path path = folder.toAbsolutePath();
+
+        while (path != null) {
+            if (Files.exists(path)) {
+                try {
+                    return Files.getFileStore(path);
+                } catch (IOException | SecurityException e) {
+                    break;
+                }
+            }
+            path = path.getParent();
+        }
+
+        return folder.toAbsolutePath().getRoot();
+    }
+
+    /**
+     * Job waiting to be started, with the attributes by which it is ordered and limited.
+     */
+    private static final class QueuedJob {
+        private final SwingCopyJob job;
+        private final int priority;
+        private final long sequence;
+        private final Object device;
+
+        private QueuedJob(SwingCopyJob job, int priority, long sequence, Object device) {
+            this.job = job;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.device = device;
+        }
+    }
+
+} // class CopyJobScheduler
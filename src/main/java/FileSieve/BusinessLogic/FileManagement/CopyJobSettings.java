@@ -0,0 +1,357 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import FileSieve.BusinessLogic.FileDifferentiation.FingerprintStore;
+import FileSieve.BusinessLogic.FileDifferentiation.IoThrottle;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mutable holder of the settings which govern how a copy job carries out its work, as opposed to what it copies. A
+ * file manager keeps one instance, adjusted through its setters, and hands each new copy job a snapshot of it so that
+ * later changes do not affect jobs already started. This class has package-private access.
+ */
+final class CopyJobSettings {
+
+    /** Shared by default so that all jobs draw large-file ranges from the one pool of range threads */
+    private static final CopyEngine DEFAULT_COPY_ENGINE = new RangedCopyEngine(new SmallFileCopyEngine(new ChannelCopyEngine()));
+
+    /** Runs jobs, and their file copies, unless another Executor is set; its idle threads expire after a minute */
+    private static final Executor DEFAULT_EXECUTOR = createDefaultExecutor();
+
+    private CopyEngine copyEngine = DEFAULT_COPY_ENGINE;
+    private Executor executor = DEFAULT_EXECUTOR;
+    private int workerLimit = 1;
+    private boolean journalEnabled = false;
+    private boolean deltaCopyEnabled = false;
+    private boolean copyDigestsEnabled = false;
+    private boolean copyVerificationEnabled = false;
+    private boolean cacheBypassEnabled = false;
+    private boolean targetListingEnabled = false;
+    private boolean sparseCopyEnabled = false;
+    private CopyPipeline copyPipeline = null;
+    private FingerprintStore fingerprintStore = null;
+    private IoThrottle throttle = null;
+    private int jobPriority = 0;
+    private CopyJournal.Contents resumedJournal = null;
+    private CopyPlan copyPlan = null;
+    private boolean moveSources = false;
+    private boolean archiveDestination = false;
+
+    CopyJobSettings() { }
+
+    /**
+     * Returns an independent copy of these settings.
+     *
+     * @return  a snapshot of the current settings
+     */
+    CopyJobSettings snapshot() {
+        CopyJobSettings snapshot = new CopyJobSettings();
+        snapshot.copyEngine = copyEngine;
+        snapshot.executor = executor;
+        snapshot.workerLimit = workerLimit;
+        snapshot.journalEnabled = journalEnabled;
+        snapshot.deltaCopyEnabled = deltaCopyEnabled;
+        snapshot.copyDigestsEnabled = copyDigestsEnabled;
+        snapshot.copyVerificationEnabled = copyVerificationEnabled;
+        snapshot.cacheBypassEnabled = cacheBypassEnabled;
+        snapshot.targetListingEnabled = targetListingEnabled;
+        snapshot.sparseCopyEnabled = sparseCopyEnabled;
+        snapshot.copyPipeline = copyPipeline;
+        snapshot.fingerprintStore = fingerprintStore;
+        snapshot.throttle = throttle;
+        snapshot.jobPriority = jobPriority;
+        snapshot.resumedJournal = resumedJournal;
+        snapshot.copyPlan = copyPlan;
+        snapshot.moveSources = moveSources;
+        snapshot.archiveDestination = archiveDestination;
+        return snapshot;
+    }
+
+    CopyEngine getCopyEngine() {
+        return copyEngine;
+    }
+
+    /**
+     * Sets the CopyEngine with which file content is copied.
+     *
+     * @param copyEngine    CopyEngine to use
+     */
+    void setCopyEngine(CopyEngine copyEngine) {
+        if (copyEngine == null) {
+            throw new IllegalArgumentException("null reference passed for \"copyEngine\" parameter");
+        }
+
+        this.copyEngine = copyEngine;
+    }
+
+    Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets the Executor on which jobs, and the file copies of jobs whose worker limit exceeds 1, are run. A job runs
+     * as one task and hands its file copies to the same Executor, helping with any not yet started when it runs out
+     * of folders to traverse, so even a single-threaded Executor cannot deadlock a job.
+     *
+     * @param executor      Executor to run jobs on
+     */
+    void setExecutor(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("null reference passed for \"executor\" parameter");
+        }
+
+        this.executor = executor;
+    }
+
+    int getWorkerLimit() {
+        return workerLimit;
+    }
+
+    /**
+     * Sets the number of files a copy job may copy concurrently.
+     *
+     * @param workerLimit   number of concurrent file copies, at least 1
+     */
+    void setWorkerLimit(int workerLimit) {
+        if (workerLimit < 1) {
+            throw new IllegalArgumentException("worker limit must be at least 1");
+        }
+
+        this.workerLimit = workerLimit;
+    }
+
+    boolean isJournalEnabled() {
+        return journalEnabled;
+    }
+
+    /**
+     * Sets whether copy jobs keep a CopyJournal in their destination folder, from which they can be resumed.
+     *
+     * @param journalEnabled    true if jobs are to be journaled
+     */
+    void setJournalEnabled(boolean journalEnabled) {
+        this.journalEnabled = journalEnabled;
+    }
+
+    boolean isDeltaCopyEnabled() {
+        return deltaCopyEnabled;
+    }
+
+    /**
+     * Sets whether jobs which overwrite existing files update them in place with a DeltaCopyEngine, rewriting only
+     * the blocks which differ, rather than rewriting them in full. Disabled by default.
+     *
+     * @param deltaCopyEnabled  true if existing files are to be updated in place
+     */
+    void setDeltaCopyEnabled(boolean deltaCopyEnabled) {
+        this.deltaCopyEnabled = deltaCopyEnabled;
+    }
+
+    /**
+     * Returns true if copied files are to be fingerprinted as they are copied, which is implied by verification and
+     * by a FingerprintStore being set.
+     *
+     * @return  boolean true if copies are to be fingerprinted
+     */
+    boolean isCopyDigestsEnabled() {
+        return copyDigestsEnabled || copyVerificationEnabled || (fingerprintStore != null);
+    }
+
+    /**
+     * Sets whether the content of each file is fingerprinted as it is copied.
+     *
+     * @param copyDigestsEnabled    true if copies are to be fingerprinted
+     */
+    void setCopyDigestsEnabled(boolean copyDigestsEnabled) {
+        this.copyDigestsEnabled = copyDigestsEnabled;
+    }
+
+    boolean isCopyVerificationEnabled() {
+        return copyVerificationEnabled;
+    }
+
+    /**
+     * Sets whether each copy is read back, around the page cache where possible, and its fingerprint compared with
+     * that of the source taken while it was copied.
+     *
+     * @param copyVerificationEnabled   true if copies are to be verified
+     */
+    void setCopyVerificationEnabled(boolean copyVerificationEnabled) {
+        this.copyVerificationEnabled = copyVerificationEnabled;
+    }
+
+    boolean isCacheBypassEnabled() {
+        return cacheBypassEnabled;
+    }
+
+    /**
+     * Sets whether file content is copied with a DirectCopyEngine, around the page cache, rather than with the
+     * configured CopyEngine, which remains in use where direct I/O is unsupported.
+     *
+     * @param cacheBypassEnabled    true if copies are to bypass the page cache
+     */
+    void setCacheBypassEnabled(boolean cacheBypassEnabled) {
+        this.cacheBypassEnabled = cacheBypassEnabled;
+    }
+
+    boolean isTargetListingEnabled() {
+        return targetListingEnabled;
+    }
+
+    /**
+     * Sets whether jobs given no Comparator compare files with a TargetListingComparator, which lists each target
+     * folder once, rather than examining each target file separately.
+     *
+     * @param targetListingEnabled  true if targets are to be compared from per-folder listings
+     */
+    void setTargetListingEnabled(boolean targetListingEnabled) {
+        this.targetListingEnabled = targetListingEnabled;
+    }
+
+    boolean isSparseCopyEnabled() {
+        return sparseCopyEnabled;
+    }
+
+    /**
+     * Sets whether jobs copy files through a SparseCopyEngine, which keeps the holes of sparse sources as holes.
+     *
+     * @param sparseCopyEnabled     true if holes are to be kept in copies
+     */
+    void setSparseCopyEnabled(boolean sparseCopyEnabled) {
+        this.sparseCopyEnabled = sparseCopyEnabled;
+    }
+
+    CopyPipeline getCopyPipeline() {
+        return copyPipeline;
+    }
+
+    /**
+     * Sets the pipeline through which jobs copy large files with a PipelinedCopyEngine, in front of the configured
+     * CopyEngine.
+     *
+     * @param copyPipeline  pipeline to copy large files through, or null to copy them with the CopyEngine alone
+     */
+    void setCopyPipeline(CopyPipeline copyPipeline) {
+        this.copyPipeline = copyPipeline;
+    }
+
+    FingerprintStore getFingerprintStore() {
+        return fingerprintStore;
+    }
+
+    /**
+     * Sets the store in which the fingerprints of copied files, and of their sources, are recorded.
+     *
+     * @param fingerprintStore  store to record fingerprints in, or null if they are not to be recorded
+     */
+    void setFingerprintStore(FingerprintStore fingerprintStore) {
+        this.fingerprintStore = fingerprintStore;
+    }
+
+    IoThrottle getThrottle() {
+        return throttle;
+    }
+
+    /**
+     * Sets the throttle charged for the bytes copied and the files and folders created. The throttle is shared, not
+     * copied, by snapshots, so that jobs given it share its budgets and see changes to its limits while running.
+     *
+     * @param throttle  throttle to be charged, or null if copies are not to be limited
+     */
+    void setThrottle(IoThrottle throttle) {
+        this.throttle = throttle;
+    }
+
+    int getJobPriority() {
+        return jobPriority;
+    }
+
+    /**
+     * Sets the priority with which SwingCopyJobs are queued; jobs of higher priority are started first.
+     *
+     * @param jobPriority   priority of new jobs
+     */
+    void setJobPriority(int jobPriority) {
+        this.jobPriority = jobPriority;
+    }
+
+    CopyJournal.Contents getResumedJournal() {
+        return resumedJournal;
+    }
+
+    /**
+     * Sets the journal from which a job is being resumed. Only meaningful for the settings of a single job.
+     *
+     * @param resumedJournal    contents of the journal being resumed, or null for a new job
+     */
+    void setResumedJournal(CopyJournal.Contents resumedJournal) {
+        this.resumedJournal = resumedJournal;
+    }
+
+    CopyPlan getCopyPlan() {
+        return copyPlan;
+    }
+
+    /**
+     * Sets the plan from which a job takes the types and sizes of its source paths. Only meaningful for the settings
+     * of a single job.
+     *
+     * @param copyPlan      plan the job was started from, or null for a job which reads the source's metadata itself
+     */
+    void setCopyPlan(CopyPlan copyPlan) {
+        this.copyPlan = copyPlan;
+    }
+
+    boolean isMoveSources() {
+        return moveSources;
+    }
+
+    /**
+     * Sets whether a job moves its sources rather than copying them. Only meaningful for the settings of a single job.
+     *
+     * @param moveSources   true if sources are to be removed once they have been moved or copied and verified
+     */
+    void setMoveSources(boolean moveSources) {
+        this.moveSources = moveSources;
+    }
+
+    boolean isArchiveDestination() {
+        return archiveDestination;
+    }
+
+    /**
+     * Sets whether a job writes its sources to an archive file rather than copying them into a folder. Only
+     * meaningful for the settings of a single job.
+     *
+     * @param archiveDestination    true if the job's destination is an archive file
+     */
+    void setArchiveDestination(boolean archiveDestination) {
+        this.archiveDestination = archiveDestination;
+    }
+
+    /**
+     * Creates the default Executor: an unbounded pool of daemon threads which are created as jobs need them and
+     * expire when idle. The number of threads a job occupies is bounded by its worker limit.
+     *
+     * @return  the default Executor
+     */
+    private static Executor createDefaultExecutor() {
+        final AtomicInteger threadNumber = new AtomicInteger(0);
+
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "CopyJobWorker-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
+
+} // class CopyJobSettings
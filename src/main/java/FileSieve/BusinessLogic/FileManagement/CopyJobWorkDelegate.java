@@ -1,31 +1,65 @@
 package FileSieve.BusinessLogic.FileManagement;
 
+import FileSieve.BusinessLogic.FileDifferentiation.ContentFingerprint;
+import FileSieve.BusinessLogic.FileDifferentiation.FingerprintStore;
+import FileSieve.BusinessLogic.FileDifferentiation.IoThrottle;
 import FileSieve.BusinessLogic.FileEnumeration.DiscoveredPath;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.util.AbstractMap.SimpleImmutableEntry;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
 /**
- * Handles the actual work (folder and file copies) for a SwingCopyJob.
- * This class has package-private access.
+ * Handles the actual work (folder and file copies) for a CopyJob. Source folders are traversed, and folders created
+ * in the destination, on the thread running the delegate, in order; for recursive jobs the folders found while sizing
+ * the job are created in one pass beforehand, and each folder is checked on disk at most once. When the job's worker
+ * limit exceeds 1, file copies are queued once their target folder exists and drained by up to that many tasks run on
+ * the job's Executor; the traversing thread copies a file itself when the queue is full, and helps drain the queue once
+ * traversal is done. Otherwise files are copied on the traversing thread. Pooled copies made with an
+ * AsynchronousCopyEngine are only started by the drainers and finished by the engine, with up to eight copies per
+ * worker in flight. The first failure of a pooled copy stops the job as a cancellation would, and is rethrown once all
+ * copies in flight have finished. When enabled in the job's settings, a CopyJournal in the destination folder records
+ * the files copied and the durable progress of large files, so that a resumed job can skip the former and continue the
+ * latter. When enabled in the job's settings, each file is fingerprinted as it is copied, optionally read back and
+ * checked against that fingerprint, and its fingerprint recorded in a FingerprintStore. A job which moves its sources
+ * first renames each source it can into the destination folder, which on the same FileStore changes metadata only; the
+ * rest are copied, fingerprinted and read back, and each source file is deleted as soon as its copy is verified, with
+ * emptied source folders removed once the job completes. This class has package-private access.
  */
-class CopyJobWorkDelegate implements Runnable {
+class CopyJobWorkDelegate implements CopyWork {
 
     private static final int ONE_HUNDRED_PERCENT = 100;
     private static final int ZERO_PERCENT = 0;
+    private static final int ASYNCHRONOUS_COPIES_PER_WORKER = 8;
     private final boolean recursiveCopy;
     private final CopyWorkResultsReceiver copyWorkDispatcher;
     private final Set<Path> pathsBeingCopied;
@@ -33,13 +67,41 @@ class CopyJobWorkDelegate implements Runnable {
     private final Path destinationFolder;
     private final Comparator<Path> fileComparator;
     private final boolean overwriteExistingFiles;
-    private final List<Path> foldersCreatedInTarget = new ArrayList<>();
+    private final CopyEngine copyEngine;
+    private final AsynchronousCopyEngine asynchronousEngine;
+    private final int workerLimit;
+    private final Object progressLock = new Object();
+    private final AtomicReference<Exception> copyFailure = new AtomicReference<>(null);
+    private final CopyJournal journal;
+    private final CopyPlan copyPlan;
+    private final DigestingCopyEngine digestingEngine;
+    private final DirectCopyEngine directEngine;
+    private final boolean verifyCopies;
+    private final FingerprintStore fingerprintStore;
+    private final IoThrottle throttle;
+    private final boolean moveSources;
+    private final Map<Path, Long> copyDigests = Collections.synchronizedMap(new LinkedHashMap<Path, Long>());
+    private final Executor executor;
+    private final BlockingQueue<Runnable> pendingCopies;
+    private final AtomicInteger scheduledDrainers = new AtomicInteger(0);
+    private final AtomicInteger runningDrainers = new AtomicInteger(0);
+    private final Object drainersLock = new Object();
+    private final Semaphore asynchronousCopies;
+    private final AtomicInteger asynchronousCopiesInFlight = new AtomicInteger(0);
+    private final Map<Path, Integer> foldersCreatedInTarget = new HashMap<>();   // folder to order of creation
+    private final Set<Path> foldersKnownInTarget = new HashSet<>();
+    private final List<Path> targetSkeleton = new ArrayList<>();
+    private int foldersCreatedInTargetCount = 0;
     private long totalBytes = 0L;
-    private long copiedBytes = 0L;
-    private int totalPercentCopied = 0;
+    private long copiedBytes = 0L;          // guarded by progressLock
+    private int totalPercentCopied = 0;     // guarded by progressLock
     private int copyPathsRecursionLevel = 0;
 
     protected CopyJobWorkDelegate(CopyWorkResultsReceiver copyWorkDispatcher, Set<Path> pathsBeingCopied, Path destinationFolder, boolean recursiveCopy, boolean overwriteExistingFiles, Comparator<Path> fileComparator) {
+        this(copyWorkDispatcher, pathsBeingCopied, destinationFolder, recursiveCopy, overwriteExistingFiles, fileComparator, new CopyJobSettings());
+    }
+
+    protected CopyJobWorkDelegate(CopyWorkResultsReceiver copyWorkDispatcher, Set<Path> pathsBeingCopied, Path destinationFolder, boolean recursiveCopy, boolean overwriteExistingFiles, Comparator<Path> fileComparator, CopyJobSettings settings) {
         if (copyWorkDispatcher == null) {
             throw new IllegalArgumentException("\"copyWorkDispatcher\" parameter cannot be null");
         }
@@ -52,6 +114,9 @@ class CopyJobWorkDelegate implements Runnable {
         if (fileComparator == null) {
             throw new IllegalArgumentException("\"fileComparator\" parameter cannot be null");
         }
+        if (settings == null) {
+            throw new IllegalArgumentException("\"settings\" parameter cannot be null");
+        }
 
         this.copyWorkDispatcher = copyWorkDispatcher;
         this.pathsBeingCopied = pathsBeingCopied;
@@ -59,22 +124,67 @@ class CopyJobWorkDelegate implements Runnable {
         this.recursiveCopy = recursiveCopy;
         this.fileComparator = fileComparator;
         this.overwriteExistingFiles = overwriteExistingFiles;
+        this.moveSources = settings.isMoveSources();
+        // Only jobs which overwrite existing files update them in place; fingerprinted copies are always made in full
+        // A moved file's source is only deleted once its copy has been read back and matched against its fingerprint
+        this.digestingEngine = (settings.isCopyDigestsEnabled() || moveSources) ? new DigestingCopyEngine() : null;
+        this.verifyCopies = settings.isCopyVerificationEnabled() || moveSources;
+        this.fingerprintStore = settings.getFingerprintStore();
+        this.throttle = settings.getThrottle();
+        // Updating in place reads the existing target through the page cache, so cache-bypassing copies are made in full
+        this.directEngine = (settings.isCacheBypassEnabled()) ? new DirectCopyEngine(settings.getCopyEngine()) : null;
+        if (directEngine != null) {
+            this.copyEngine = directEngine;
+        } else {
+            CopyEngine engine = (settings.getCopyPipeline() != null)
+                    ? new PipelinedCopyEngine(settings.getCopyEngine(), settings.getCopyPipeline())
+                    : settings.getCopyEngine();
+            if (overwriteExistingFiles && settings.isDeltaCopyEnabled()) {
+                engine = new DeltaCopyEngine(engine);
+            }
+            this.copyEngine = (settings.isSparseCopyEnabled()) ? new SparseCopyEngine(engine) : engine;
+        }
+        this.copyPlan = settings.getCopyPlan();
+        this.workerLimit = settings.getWorkerLimit();
+        this.executor = settings.getExecutor();
+        this.pendingCopies = (workerLimit > 1) ? new ArrayBlockingQueue<Runnable>(workerLimit * 16) : null;
+        // Pooled copies made with an AsynchronousCopyEngine are left in flight by the drainers, several per drainer, also
+        // when the delta, sparse or pipelined engine wrapping it passes a file straight through to it
+        this.asynchronousEngine = ((pendingCopies != null) && (digestingEngine == null) && (directEngine == null) && (settings.getCopyEngine() instanceof AsynchronousCopyEngine))
+                ? (AsynchronousCopyEngine) settings.getCopyEngine()
+                : null;
+        this.asynchronousCopies = new Semaphore(workerLimit * ASYNCHRONOUS_COPIES_PER_WORKER);
+        this.journal = (settings.isJournalEnabled())
+                ? new CopyJournal(destinationFolder, pathsBeingCopied, recursiveCopy, overwriteExistingFiles, moveSources, settings.getResumedJournal())
+                : null;
 
         jobCancelled = new AtomicBoolean(false);
     }
 
-    protected void cancelWork() {
+    @Override
+    public void cancelWork() {
         jobCancelled.set(true);
     }
 
     @Override
     public void run() {
+        Set<Path> pathsToCopy = pathsBeingCopied;
+
         try {
-            for (Path path : pathsBeingCopied) {
-                if (extractPath(path).toFile().exists()) {
-                    retrieveTotalBytes(path);
-                } else {
-                    copyWorkDispatcher.workerException(new IllegalStateException("source pathname does not exist"));
+            if (moveSources) {
+                pathsToCopy = renameSources();
+            }
+
+            if (copyPlan != null) {
+                // Sized by the plan, whose paths are not checked for existence until they are copied
+                totalBytes = copyPlan.getTotalBytes();
+            } else {
+                for (Path path : pathsToCopy) {
+                    if (extractPath(path).toFile().exists()) {
+                        retrieveTotalBytes(path, (recursiveCopy && !path.equals(destinationFolder)) ? destinationFolder.resolve(path.getFileName()) : null);
+                    } else {
+                        copyWorkDispatcher.workerException(new IllegalStateException("source pathname does not exist"));
+                    }
                 }
             }
         } catch (SecurityException e) {
@@ -85,11 +195,28 @@ class CopyJobWorkDelegate implements Runnable {
             copyWorkDispatcher.workerException(new Exception(e.getClass().getSimpleName() + " while calculating bytes to copy", e));
         }
 
+        boolean jobCompleted = false;
         try {
-            for (Path path : pathsBeingCopied) {
-                if (!jobCancelled.get()) {
-                    copyPaths(path, destinationFolder);
+            try {
+                if (!targetSkeleton.isEmpty()) {
+                    if (ensureFolderInTarget(destinationFolder)) {
+                        publishWork(destinationFolder, ZERO_PERCENT);
+                    }
+                    createTargetSkeleton();
+                }
+
+                for (Path path : pathsToCopy) {
+                    if (!isStopped()) {
+                        copyPaths(path, destinationFolder);
+                    }
                 }
+            } finally {
+                awaitCopyTasks();
+            }
+            rethrowCopyFailure();
+            jobCompleted = !isStopped();
+            if (jobCompleted && moveSources) {
+                removeMovedFolders(pathsToCopy);
             }
         } catch (SecurityException e) {
             copyWorkDispatcher.workerException(new SecurityException("SecurityException while reading or writing files/folders in the source or target", e));
@@ -99,9 +226,24 @@ class CopyJobWorkDelegate implements Runnable {
             copyWorkDispatcher.workerException(new Exception(e.getClass().getSimpleName() + " while reading or writing files/folders in the source or target", e));
         }
 
+        finishJournal(jobCompleted);
+        saveFingerprints(jobCompleted);
         copyWorkDispatcher.workCompleted();
     }
 
+    /**
+     * Returns the fingerprints of the files copied thus far, keyed by the path of each copy, when the job's settings
+     * call for copies to be fingerprinted.
+     *
+     * @return  a copy of the map of copied files to their 64-bit content fingerprints, in order of completion
+     */
+    @Override
+    public Map<Path, Long> getCopyDigests() {
+        synchronized (copyDigests) {
+            return new LinkedHashMap<>(copyDigests);
+        }
+    }
+
     /**
      * Utility method called by doInBackground() method to handle file and folder copy operations
      *
@@ -111,20 +253,16 @@ class CopyJobWorkDelegate implements Runnable {
      * @throws IOException          thrown if an IOException occurs during a read or write operation
      */
     private void copyPaths(Path sourcePath, Path targetPath) throws SecurityException, IOException {
-        if (!jobCancelled.get()) {
+        if (!isStopped()) {
             if (!sourcePath.equals(destinationFolder)) {
 
-                if (!extractPath(targetPath).toFile().exists()) {
-                    if (!targetPath.toFile().mkdirs()) {
-                        throw new IOException("Unable to create destination folder using File.mkdirs() method");
-                    }
-
+                if (ensureFolderInTarget(targetPath)) {
                     if (targetPath.equals(destinationFolder)) {
-                        publishWork(new SimpleImmutableEntry<>(targetPath, ZERO_PERCENT));
+                        publishWork(targetPath, ZERO_PERCENT);
                     }
                 }
 
-                if (Files.isDirectory(extractPath(sourcePath))) {
+                if (isDirectory(sourcePath)) {
                     copyFolder(sourcePath, targetPath);
 
                 } else {
@@ -134,35 +272,23 @@ class CopyJobWorkDelegate implements Runnable {
 
                         if (!sourceFolder.getFileName().toString().isEmpty()) {
                             sourceFolder = sourceFolder.getFileName();
-                            Path pathToCreateInTargetFolder = targetPath.resolve(sourceFolder);
 
-                            if (!foldersCreatedInTarget.contains(sourceFolder)) {
-                                if (!pathToCreateInTargetFolder.toFile().exists()) {
-                                    if (!pathToCreateInTargetFolder.toFile().mkdirs()) {
-                                        throw new IOException("Unable to create \"" + pathToCreateInTargetFolder + "\" folder using File.mkdir() method");
-                                    }
-                                }
-                                foldersCreatedInTarget.add(sourceFolder);
+                            if (!foldersCreatedInTarget.containsKey(sourceFolder)) {
+                                ensureFolderInTarget(targetPath.resolve(sourceFolder));
+                                addFolderCreatedInTarget(sourceFolder);
                             }
                         }
                     }
 
-                        /* Determine if the file's parent folder was previously created within the target folder,
-                           searching the "foldersCreateInTarget" list in reverse order */
-                    Path parentPathCreatedInTargetFolder = null;
-                    for (int i = foldersCreatedInTarget.size() - 1; i >= 0; --i) {
-                        if (sourcePath.getParent().endsWith(foldersCreatedInTarget.get(i))) {
-                            parentPathCreatedInTargetFolder = foldersCreatedInTarget.get(i);
-                            break;
-                        }
-                    }
+                    // Determine if the file's parent folder was previously created within the target folder
+                    Path parentPathCreatedInTargetFolder = findFolderCreatedInTarget(sourcePath.getParent());
 
                         /* If file's parent was previously created within the target folder then create the file copy
                            within that parent, else create the file in the root of the target */
                     if (parentPathCreatedInTargetFolder != null) {
-                        copyFile(sourcePath, targetPath.resolve(parentPathCreatedInTargetFolder));
+                        submitCopy(sourcePath, targetPath.resolve(parentPathCreatedInTargetFolder));
                     } else {
-                        copyFile(sourcePath, targetPath);
+                        submitCopy(sourcePath, targetPath);
                     }
 
                 }
@@ -180,7 +306,7 @@ class CopyJobWorkDelegate implements Runnable {
             }
 
             for (Path path : filePaths) {
-                if (!jobCancelled.get()) {
+                if (!isStopped()) {
                     if (Files.isDirectory(extractPath(path))) {
                         Path newTargetPath;
                         if (copyPathsRecursionLevel == 0) {
@@ -189,13 +315,8 @@ class CopyJobWorkDelegate implements Runnable {
                             newTargetPath = targetPath.resolve(path.getFileName());
                         }
 
-                        if (!extractPath(newTargetPath).toFile().exists()) {
-                            if (!newTargetPath.toFile().mkdirs()) {
-                                throw new IOException("Unable to create \"" + newTargetPath + "\" folder using File.mkdirs()");
-                            }
-                        }
-
-                        publishWork(new SimpleImmutableEntry<>(newTargetPath, ONE_HUNDRED_PERCENT));
+                        ensureFolderInTarget(newTargetPath);
+                        publishWork(newTargetPath, ONE_HUNDRED_PERCENT);
 
                         ++copyPathsRecursionLevel;
                         try {
@@ -208,15 +329,10 @@ class CopyJobWorkDelegate implements Runnable {
                         if (copyPathsRecursionLevel == 0) {
                             Path newTargetPath = targetPath.resolve(sourcePath.getFileName());
 
-                            if (!extractPath(newTargetPath).toFile().exists()) {
-                                if (!newTargetPath.toFile().mkdirs()) {
-                                    throw new IOException("Unable to create \"" + newTargetPath + "\" folder using File.mkdir() method");
-                                }
-                            }
-
-                            copyFile(path, newTargetPath);
+                            ensureFolderInTarget(newTargetPath);
+                            submitCopy(path, newTargetPath);
                         } else {
-                            copyFile(path, targetPath);
+                            submitCopy(path, targetPath);
                         }
                     }
                 }
@@ -229,54 +345,130 @@ class CopyJobWorkDelegate implements Runnable {
 
                 if (!sourceFolder.getFileName().toString().isEmpty()) {
                     sourceFolder = sourceFolder.getFileName();
-                    Path pathToCreateInTargetFolder = targetPath.resolve(sourceFolder);
 
-                    if (!foldersCreatedInTarget.contains(sourceFolder)) {
-                        if (!pathToCreateInTargetFolder.toFile().exists()) {
-                            if (!pathToCreateInTargetFolder.toFile().mkdirs()) {
-                                throw new IOException("Unable to create \"" + pathToCreateInTargetFolder + "\" folder using File.mkdir() method (boolean false returned)");
-                            }
-                        }
-                        foldersCreatedInTarget.add(sourceFolder);
+                    if (!foldersCreatedInTarget.containsKey(sourceFolder)) {
+                        ensureFolderInTarget(targetPath.resolve(sourceFolder));
+                        addFolderCreatedInTarget(sourceFolder);
                     }
                 }
             }
 
-                /* Determine if the folder's parent was previously created within the target folder, searching the
-                   "foldersCreateInTarget" list in reverse order */
-            Path pathToCreateInTargetFolder = null;
-            for (int i = foldersCreatedInTarget.size() - 1; i >= 0; --i) {
-                if (sourcePath.getParent().endsWith(foldersCreatedInTarget.get(i))) {
-                    pathToCreateInTargetFolder = foldersCreatedInTarget.get(i).resolve(sourcePath.getFileName());
-                    break;
-                }
+            // Determine if the folder's parent was previously created within the target folder
+            Path pathToCreateInTargetFolder = findFolderCreatedInTarget(sourcePath.getParent());
+            if (pathToCreateInTargetFolder != null) {
+                pathToCreateInTargetFolder = pathToCreateInTargetFolder.resolve(sourcePath.getFileName());
             }
 
                 /* If folder's parent was previously created within the target folder then create the folder within
                    that parent, else create the folder in the root of the target */
             if (pathToCreateInTargetFolder != null) {
-                Path newPathToCreate = targetPath.resolve(pathToCreateInTargetFolder);
-                if (!foldersCreatedInTarget.contains(pathToCreateInTargetFolder)) {
-                    if (!extractPath(newPathToCreate).toFile().exists()) {
-                        if (!newPathToCreate.toFile().mkdirs()) {
-                            throw new IOException("Unable to create \"" + newPathToCreate + "\" folder using File.mkdir() method (boolean false returned)");
-                        }
-                    }
-                    foldersCreatedInTarget.add(pathToCreateInTargetFolder);
+                if (!foldersCreatedInTarget.containsKey(pathToCreateInTargetFolder)) {
+                    ensureFolderInTarget(targetPath.resolve(pathToCreateInTargetFolder));
+                    addFolderCreatedInTarget(pathToCreateInTargetFolder);
                 }
             } else {
-                if (!targetPath.resolve(sourcePath.getFileName()).toFile().exists()) {
-                    if (!targetPath.resolve(sourcePath.getFileName()).toFile().mkdirs()) {
-                        throw new IOException("Unable to create \"" + targetPath.resolve(sourcePath.getFileName()) + "\" folder using File.mkdir() method (boolean false returned)");
-                    }
+                ensureFolderInTarget(targetPath.resolve(sourcePath.getFileName()));
+                addFolderCreatedInTarget(sourcePath.getFileName());
+            }
+        }
+    }
+
+    /**
+     * Records a folder, relative to the destination folder, as created there for a non-recursive copy of folders.
+     * Recording a folder again makes it the most recently created.
+     *
+     * @param folder    relative path of the folder within the destination folder
+     */
+    private void addFolderCreatedInTarget(Path folder) {
+        foldersCreatedInTarget.put(folder, ++foldersCreatedInTargetCount);
+    }
+
+    /**
+     * Finds the folder most recently created within the destination folder whose path the given source folder ends
+     * with. Each trailing subpath of the source folder is looked up in turn, so the cost depends on the depth of the
+     * source folder rather than on the number of folders created.
+     *
+     * @param sourceFolder  parent folder of a file or folder being copied
+     * @return              relative path of the folder within the destination folder, or null if there is none
+     */
+    private Path findFolderCreatedInTarget(Path sourceFolder) {
+        Path found = null;
+
+        if ((sourceFolder != null) && (!foldersCreatedInTarget.isEmpty())) {
+            int foundOrder = 0;
+            int nameCount = sourceFolder.getNameCount();
+
+            for (int i = nameCount - 1; i >= 0; --i) {
+                Path suffix = sourceFolder.subpath(i, nameCount);
+                Integer order = foldersCreatedInTarget.get(suffix);
+                if ((order != null) && (order > foundOrder)) {
+                    found = suffix;
+                    foundOrder = order;
                 }
-                foldersCreatedInTarget.add(sourcePath.getFileName());
             }
         }
+
+        return found;
+    }
+
+    /**
+     * Creates a folder, and any missing parents, in the destination unless it is known to exist already. Each folder
+     * is checked on disk at most once per job, however many files are copied into it.
+     *
+     * @param folder            folder to be created
+     * @return                  boolean true if the folder was created by this call
+     * @throws IOException      thrown if the folder does not exist and could not be created
+     */
+    private boolean ensureFolderInTarget(Path folder) throws IOException {
+        if (!foldersKnownInTarget.add(folder)) {
+            return false;
+        }
+
+        if (extractPath(folder).toFile().exists()) {
+            return false;
+        }
+        if (throttle != null) {
+            throttle.acquireOperations(1);
+        }
+        if (!folder.toFile().mkdirs()) {
+            foldersKnownInTarget.remove(folder);
+            throw new IOException("Unable to create \"" + folder + "\" folder using File.mkdirs() method");
+        }
+
+        return true;
+    }
+
+    /**
+     * Creates, in one pass, the folders collected as the skeleton of the destination tree while sizing a recursive
+     * job, so that folders exist before traversal reaches the files within them. Folders were collected parents
+     * first, so each needs only a single mkdir.
+     *
+     * @throws IOException      thrown if a folder could not be created
+     */
+    private void createTargetSkeleton() throws IOException {
+        for (Path folder : targetSkeleton) {
+            if (isStopped()) {
+                break;
+            }
+
+            if (throttle != null) {
+                throttle.acquireOperations(1);
+            }
+            File folderFile = folder.toFile();
+            if ((!folderFile.mkdir()) && (!folderFile.isDirectory()) && (!folderFile.mkdirs())) {
+                throw new IOException("Unable to create \"" + folder + "\" folder using File.mkdir() method");
+            }
+            foldersKnownInTarget.add(folder);
+        }
+
+        targetSkeleton.clear();
     }
 
     /**
-     * Private helper method, called by "copyPaths" method, for copying a single file
+     * Private helper method, called by "copyPaths" method, for copying a single file with the job's CopyEngine. Where
+     * the file would be copied by an AsynchronousCopyEngine, whether the job's engine or one it wraps, and copies are
+     * pooled, the copy is started and left to finish on the engine's threads, up to a bound on the copies in flight,
+     * beyond which files are copied on the calling thread.
      *
      * @param fileToCopy            file to copy, passed as a Path instance
      * @param target                folder within which copy is to be placed
@@ -287,103 +479,637 @@ class CopyJobWorkDelegate implements Runnable {
     private void copyFile(Path fileToCopy, Path target) throws SecurityException, IOException {
         target = target.resolve(fileToCopy.getFileName());
 
-        int previousPercentCopied;
-        long fileBytes = fileToCopy.toFile().length();  // size of file in bytes
+        final long fileBytes = sizeOf(fileToCopy);  // size of file in bytes
+
+        // Read before copying, so that a change to the source during the copy leaves its recorded fingerprint, and
+        // its journal records, stale
+        final long sourceLastModified = ((fingerprintStore != null) || (journal != null)) ? extractPath(fileToCopy).toFile().lastModified() : 0L;
+
+        // Files copied by an earlier attempt at a resumed job are skipped, unless the source or the target's length changed since
+        if ((journal != null) && (journal.isCompleted(target, fileBytes, sourceLastModified))) {
+            addCopiedBytes(fileBytes);
+            return;
+        }
+
+        // A partial copy is continued from its last durable offset unless the source or target changed since
+        long resumeOffset = (journal != null) ? journal.getCheckpoint(target, fileBytes, sourceLastModified) : 0L;
+        if ((resumeOffset > fileBytes) || ((resumeOffset > 0L) && (target.toFile().length() < resumeOffset))) {
+            resumeOffset = 0L;
+        }
 
         boolean filesAreSimilar = false;
-        if (fileComparator.compare(fileToCopy, target) == 0) {
+        if ((resumeOffset == 0L) && (fileComparator.compare(fileToCopy, target) == 0)) {
             filesAreSimilar = true;
         }
 
         if ((!filesAreSimilar) || overwriteExistingFiles)  {
-            long soFar = 0L;    // file bytes copied thus far
-            int sourceByte;
-            int filePercentCopied = ZERO_PERCENT;
-            int pathnameProgress = ZERO_PERCENT;
-
-            try (
-                    BufferedInputStream bis = new BufferedInputStream(new FileInputStream(fileToCopy.toFile()));
-                    BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(target.toFile()))
-            ) {
-                /* Copy file one byte at time. BufferedInputStream and BufferedOutputStream have buffers so
-                   so this isn't as slow as it might at first seem */
-                while (((sourceByte = bis.read()) != -1) && (!jobCancelled.get())) {
-                    bos.write(sourceByte);
-
-                    // Update copy job's overall progress
-                    previousPercentCopied = totalPercentCopied;
-                    totalPercentCopied = (int) (++copiedBytes * ONE_HUNDRED_PERCENT / totalBytes);
-                    if ((totalPercentCopied != previousPercentCopied) && (totalPercentCopied < ONE_HUNDRED_PERCENT)) {
-                        publishWork(new SimpleImmutableEntry<>(destinationFolder, totalPercentCopied));
+            FileCopy copy = new FileCopy(fileToCopy, target, fileBytes, sourceLastModified, resumeOffset);
+
+            if (resumeOffset > 0L) {
+                addCopiedBytes(resumeOffset);
+            }
+
+            if ((asynchronousEngine != null) && isPassedToAsynchronousEngine(copy) && asynchronousCopies.tryAcquire()) {
+                startAsynchronousCopy(copy);
+                return;
+            }
+
+            boolean copied;
+            try {
+                if (throttle != null) {
+                    throttle.acquireOperations(1);
+                }
+
+                ContentFingerprint fingerprint = null;
+                if (digestingEngine != null) {
+                    fingerprint = new ContentFingerprint(fileBytes);
+                    if (directEngine != null) {
+                        directEngine.copyFile(extractPath(fileToCopy), target, resumeOffset, copy, fingerprint);
+                    } else {
+                        digestingEngine.copyFile(extractPath(fileToCopy), target, resumeOffset, copy, fingerprint);
                     }
+                } else {
+                    copyEngine.copyFile(extractPath(fileToCopy), target, resumeOffset, copy);
+                }
+
+                copied = copy.finish(fingerprint);
+            } catch (IOException e) {
+                throw copy.failed(e);
+            }
 
-                    /* Update the progress of the individual file copy if progress has incremented by at least 1 percent
-                       and is not yet 100 percent complete */
-                    filePercentCopied = (int) (++soFar * ONE_HUNDRED_PERCENT / fileBytes);
-                    if ((pathnameProgress != filePercentCopied) && (filePercentCopied < ONE_HUNDRED_PERCENT)) {
-                        pathnameProgress = filePercentCopied;
-                        publishWork(new SimpleImmutableEntry<>(target, pathnameProgress));
+            // Outside the try block above, whose handler would otherwise delete the verified copy
+            if (copied && moveSources) {
+                removeMovedFile(fileToCopy);
+            }
+        } else {
+            addCopiedBytes(fileBytes);
+            recordCompleted(target, fileBytes, sourceLastModified);
+        }
+    }
+
+    /**
+     * Returns whether the job's copy engine, through any DelegatingCopyEngine wrapping the AsynchronousCopyEngine, would
+     * pass the given copy unchanged to the AsynchronousCopyEngine, so that the copy may be started on it directly.
+     *
+     * @param copy                  file copy, with none of its bytes yet copied by this attempt
+     * @return                      true if the copy would be made by the job's AsynchronousCopyEngine
+     * @throws IOException          thrown if the source or target could not be examined
+     */
+    private boolean isPassedToAsynchronousEngine(FileCopy copy) throws IOException {
+        Path source = extractPath(copy.fileToCopy);
+        CopyEngine engine = copyEngine;
+
+        while (engine instanceof DelegatingCopyEngine) {
+            engine = ((DelegatingCopyEngine) engine).getDelegate(source, copy.target, copy.resumeOffset);
+        }
+
+        return (engine != null) && (engine == asynchronousEngine);
+    }
+
+    /**
+     * Starts a file copy on the job's AsynchronousCopyEngine, which finishes it on a thread of the engine once the
+     * last of its bytes is written. The failure of such a copy stops the job as that of a pooled copy does. Called
+     * holding a permit of "asynchronousCopies", which the copy releases once finished.
+     *
+     * @param copy                  file copy, with none of its bytes yet copied by this attempt
+     * @throws SecurityException    thrown if the security manager denies access to the source or target
+     * @throws IOException          thrown if the source or target could not be opened
+     */
+    private void startAsynchronousCopy(final FileCopy copy) throws SecurityException, IOException {
+        CompletableFuture<Long> completion;
+        try {
+            if (throttle != null) {
+                throttle.acquireOperations(1);
+            }
+            completion = asynchronousEngine.copyFileAsync(extractPath(copy.fileToCopy), copy.target, copy.resumeOffset, copy);
+        } catch (IOException e) {
+            asynchronousCopies.release();
+            throw copy.failed(e);
+        } catch (RuntimeException e) {
+            asynchronousCopies.release();
+            throw e;
+        }
+
+        asynchronousCopiesInFlight.incrementAndGet();
+        completion.whenComplete(new BiConsumer<Long, Throwable>() {
+            @Override
+            public void accept(Long bytesCopied, Throwable failure) {
+                try {
+                    if (failure == null) {
+                        try {
+                            copy.finish(null);
+                        } catch (IOException e) {
+                            throw copy.failed(e);
+                        }
+                    } else if (failure instanceof IOException) {
+                        throw copy.failed((IOException) failure);
+                    } else if (failure instanceof RuntimeException) {
+                        throw (RuntimeException) failure;
+                    } else {
+                        throw copy.failed(new IOException("unable to copy \"" + copy.fileToCopy + "\"", failure));
                     }
+                } catch (IOException | RuntimeException e) {
+                    copyFailure.compareAndSet(null, e);
+                } finally {
+                    asynchronousCopies.release();
+                    if (asynchronousCopiesInFlight.decrementAndGet() == 0) {
+                        synchronized (drainersLock) {
+                            drainersLock.notifyAll();
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * A single file copy made by "copyFile" method. Receives progress from the copy engine, once per byte or chunk
+     * depending on the engine, and publishes changes of at least 1 percent in job and file progress. Engines copying
+     * ranges of a file in parallel report bytes copied concurrently, so that bookkeeping is done under the instance's
+     * lock, and the throttle charged outside it. A copy is finished only once its engine is done with the monitor.
+     */
+    private final class FileCopy implements CopyProgressMonitor {
+        private final Path fileToCopy;
+        private final Path target;
+        private final long fileBytes;
+        private final long sourceLastModified;
+        private final long resumeOffset;
+        private long soFar;             // file bytes copied thus far, guarded by the instance's lock while copying
+        private long durableOffset;     // file bytes last recorded in the journal
+        private int pathnameProgress = ZERO_PERCENT;
+
+        private FileCopy(Path fileToCopy, Path target, long fileBytes, long sourceLastModified, long resumeOffset) {
+            this.fileToCopy = fileToCopy;
+            this.target = target;
+            this.fileBytes = fileBytes;
+            this.sourceLastModified = sourceLastModified;
+            this.resumeOffset = resumeOffset;
+            this.soFar = resumeOffset;
+            this.durableOffset = resumeOffset;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return isStopped();
+        }
+
+        @Override
+        public void bytesCopied(long bytes) {
+            synchronized (this) {
+                soFar += bytes;
+
+                // Update copy job's overall progress
+                addCopiedBytes(bytes);
+
+                /* Update the progress of the individual file copy if progress has incremented by at least 1 percent
+                   and is not yet 100 percent complete */
+                int filePercentCopied = (fileBytes > 0L) ? (int) (soFar * ONE_HUNDRED_PERCENT / fileBytes) : ONE_HUNDRED_PERCENT;
+                if ((pathnameProgress != filePercentCopied) && (filePercentCopied < ONE_HUNDRED_PERCENT)) {
+                    pathnameProgress = filePercentCopied;
+                    publishWork(target, pathnameProgress);
+                }
+            }
+
+            // Charged after the fact, which holds the calling thread back before its next chunk
+            if (throttle != null) {
+                throttle.acquire(bytes);
+            }
+        }
+
+        @Override
+        public void prefixCopied(long offset) throws IOException {
+            // Make the progress of large files durable, and record it, once per checkpoint interval
+            if ((journal != null) && (offset < fileBytes) && (offset - durableOffset >= CopyJournal.CHECKPOINT_BYTES)) {
+                journal.recordCheckpoint(target, offset, fileBytes, sourceLastModified);
+                durableOffset = offset;
+            }
+        }
+
+        /**
+         * Completes the copy once the engine has returned: deletes the fragment of a copy stopped part way, unless
+         * the journal records part of it, or else records and publishes the copy's completion.
+         *
+         * @param fingerprint       fingerprint taken of the file as it was copied, or null if none was taken
+         * @return                  boolean true if the file was copied in full
+         * @throws IOException      thrown if the fragment could not be deleted or the copy could not be recorded
+         */
+        private boolean finish(ContentFingerprint fingerprint) throws IOException {
+            // Delete file fragment, unless the journal records part of it from which a resumed job can continue
+            if (isStopped() && (soFar < fileBytes)) {
+                if ((durableOffset == 0L) && (!target.toFile().delete())) {
+                    throw new IOException("Unable to delete incomplete file fragment \"" + target.toString() + "\" following job cancellation");
                 }
 
-                // Delete file fragment
-                if (jobCancelled.get() && (filePercentCopied < ONE_HUNDRED_PERCENT)) {
-                    bos.close();
+                /* Backtrack... set and publish the total job progress as the value had prior to this attempted
+                   file-copy and set+publish the progress for the failed copy to/as 0 percent */
+                if (soFar > 0) {
+                    addCopiedBytes(-soFar);
+                    publishWork(target, ZERO_PERCENT);
+                }
+                return false;
+            }
+
+            if (fingerprint != null) {
+                recordFingerprint(extractPath(fileToCopy), sourceLastModified, target, fingerprint);
+            }
+
+            // No need to set "pathnameProgress" variable to 100... publish completion of the file copy and move on
+            publishWork(target, ONE_HUNDRED_PERCENT);
+            recordCompleted(target, fileBytes, sourceLastModified);
+            return true;
+        }
+
+        /**
+         * Backs out the progress of a failed copy and removes what it left of the target.
+         *
+         * @param e     exception which stopped the copy
+         * @return      IOException to be thrown in its place, describing what was left in the destination folder
+         */
+        private IOException failed(IOException e) {
+            // Backtrack... set+publish the total job progress to the value had prior to this attempted file
+            // copy and set+publish the progress for the failed copy to/as 0 percent
+            if (soFar > 0) {
+                addCopiedBytes(-soFar);
+                publishWork(target, ZERO_PERCENT);
+            }
 
+            try {
+                if ((target.toFile().exists()) && ((target.toFile().length() == 0L) || (soFar > 0L))) {
                     if (!target.toFile().delete()) {
-                        throw new IOException("Unable to delete incomplete file fragment \"" + target.toString() + "\" following job cancellation");
+                        throw new IOException("An IOException occurred while copying file \"" + fileToCopy.toString() + "\". An incomplete copy was left in the destination folder.", e);
                     }
+                    throw new IOException("An IOException occurred while copying file \"" + fileToCopy.toString() + "\". An incomplete copy was not left in the destination folder.", e);
+                } else {
+                    throw new IOException("An IOException occurred while copying file \"" + fileToCopy.toString() + "\".", e);
+                }
+            } catch (IOException ex) {
+                return new IOException("An IOException occurred while copying file \"" + fileToCopy.toString() + "\". An incomplete copy may have been left in the destination folder.", ex);
+            }
+        }
+    }
 
-                    /* Backtrack... set and publish the total job progress as the value had prior to this attempted
-                       file-copy and set+publish the progress for the failed copy to/as 0 percent */
-                    if (soFar >0) {
-                        copiedBytes -= soFar;
-                        publishWork(new SimpleImmutableEntry<>(target, ZERO_PERCENT));
-                    }
-                    previousPercentCopied = totalPercentCopied;
-                    totalPercentCopied = (int) (copiedBytes * ONE_HUNDRED_PERCENT / totalBytes);
-                    if ((totalPercentCopied != previousPercentCopied) && (totalPercentCopied < ONE_HUNDRED_PERCENT)) {
-                        publishWork(new SimpleImmutableEntry<>(destinationFolder, totalPercentCopied));
-                    }
+    /**
+     * Moves each source path which can be renamed into the destination folder by a single rename, which is atomic and
+     * changes only metadata when the source and destination share a FileStore. A rename is not attempted where the
+     * target exists, since it could replace the target, nor for folders of non-recursive jobs, which would take
+     * their contents along, nor for paths given by a DiscoveredPath, whose targets depend on the folders created for
+     * their source folders. A rename which fails, as one across FileStores does, leaves the path to be copied.
+     *
+     * @return                  the source paths which were not renamed, to be copied and then removed
+     * @throws IOException      thrown if the destination folder did not exist and could not be created
+     */
+    private Set<Path> renameSources() throws IOException {
+        Set<Path> pathsToCopy = new LinkedHashSet<>(pathsBeingCopied.size());
+
+        for (Path path : pathsBeingCopied) {
+            if (isStopped() || (!renameSource(path))) {
+                pathsToCopy.add(path);
+            }
+        }
+
+        return pathsToCopy;
+    }
+
+    /**
+     * Attempts to rename a single source path into the destination folder, for renameSources.
+     *
+     * @param path              source path
+     * @return                  boolean true if the path was renamed
+     * @throws IOException      thrown if the destination folder did not exist and could not be created
+     */
+    private boolean renameSource(Path path) throws IOException {
+        if ((path instanceof DiscoveredPath) || (path.getFileName() == null) || path.equals(destinationFolder) || ((!recursiveCopy) && isDirectory(path))) {
+            return false;
+        }
+
+        Path target = destinationFolder.resolve(path.getFileName());
+        if (ensureFolderInTarget(destinationFolder)) {
+            publishWork(destinationFolder, ZERO_PERCENT);
+        }
+        if (Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+
+        // Jobs sized by their plan count the renamed files among their total bytes
+        long planBytes = (copyPlan != null) ? sizeOf(path) : 0L;
+
+        if (throttle != null) {
+            throttle.acquireOperations(1);
+        }
+        try {
+            Files.move(path, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Typically an AtomicMoveNotSupportedException; the copy reports any problem which is not down to the rename
+            return false;
+        }
+
+        if (planBytes > 0L) {
+            addCopiedBytes(planBytes);
+        }
+        publishWork(target, ONE_HUNDRED_PERCENT);
+        return true;
+    }
+
+    /**
+     * Deletes the source of a file a move job has copied and verified, as soon as it has been, so that sources are
+     * removed while the job's other files are still being copied.
+     *
+     * @param source            source of the copied file
+     * @throws IOException      thrown if the source could not be deleted
+     */
+    private void removeMovedFile(Path source) throws IOException {
+        if (throttle != null) {
+            throttle.acquireOperations(1);
+        }
+        Files.deleteIfExists(extractPath(source));
+    }
+
+    /**
+     * Removes the source folders of a completed move job which its file deletions have emptied. Folders which still
+     * hold files, such as those skipped as similar to their targets, are left in place.
+     *
+     * @param paths             source paths copied by the job, rather than renamed
+     * @throws IOException      thrown if an empty folder could not be removed, or a source folder could not be walked
+     */
+    private void removeMovedFolders(Set<Path> paths) throws IOException {
+        final List<Path> folders = new ArrayList<>();
+
+        for (Path path : paths) {
+            if ((!path.equals(destinationFolder)) && isDirectory(path)) {
+                if (recursiveCopy) {
+                    Files.walkFileTree(extractPath(path), new SimpleFileVisitor<Path>() {
+                        @Override
+                        public FileVisitResult preVisitDirectory(Path folder, BasicFileAttributes attributes) {
+                            // A destination folder within the source holds the copies, and is not part of the move
+                            if (folder.equals(destinationFolder)) {
+                                return FileVisitResult.SKIP_SUBTREE;
+                            }
+                            folders.add(folder);
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
                 } else {
-                    // No need to set "pathnameProgress" variable to 100... publish completion of the file copy and move on
-                    publishWork(new SimpleImmutableEntry<>(target, ONE_HUNDRED_PERCENT));
+                    folders.add(extractPath(path));
                 }
+            }
+        }
+
+        // Folders were collected before those within them, so removing them in reverse order removes nested folders first
+        for (int i = folders.size() - 1; i >= 0; --i) {
+            if (throttle != null) {
+                throttle.acquireOperations(1);
+            }
+            try {
+                Files.delete(folders.get(i));
+            } catch (DirectoryNotEmptyException | NoSuchFileException e) {
+                // Left in place; it holds files which were not moved, or was already removed
+            }
+        }
+    }
+
+    /**
+     * Checks the fingerprint taken of a file while it was copied, verifies the copy against it if the job's settings
+     * call for it, and records it for the copy and, in the job's FingerprintStore if any, for both the source and copy.
+     *
+     * @param source                file copied
+     * @param sourceLastModified    last-modified time of the source before it was copied
+     * @param target                copy of the file
+     * @param fingerprint           fingerprint of the source taken while it was copied
+     * @throws IOException          thrown if the source changed length while being copied, or the copy could not be
+     *                              read back or does not match the source
+     */
+    private void recordFingerprint(Path source, long sourceLastModified, Path target, ContentFingerprint fingerprint) throws IOException {
+        if (!fingerprint.isComplete()) {
+            throw new IOException("\"" + source + "\" changed length while it was being copied");
+        }
+
+        long value = fingerprint.getValue();
+        if (verifyCopies && (throttle != null)) {
+            throttle.acquireOperations(1);
+            throttle.acquire(fingerprint.getBytesDigested());
+        }
+        if (verifyCopies && (ContentFingerprint.ofFile(target, true) != value)) {
+            throw new IOException("copy of \"" + source + "\" does not match the source when read back");
+        }
+
+        copyDigests.put(extractPath(target), value);
+
+        if (fingerprintStore != null) {
+            long size = fingerprint.getBytesDigested();
+            fingerprintStore.put(source, size, sourceLastModified, value);
+            fingerprintStore.put(extractPath(target), size, extractPath(target).toFile().lastModified(), value);
+        }
+    }
+
+    /**
+     * Saves the job's FingerprintStore, if it has one, once the job has finished, keeping the fingerprints of the
+     * files copied before a cancellation or failure.
+     *
+     * @param jobCompleted      true if every file was copied or skipped, without cancellation or failure
+     */
+    private void saveFingerprints(boolean jobCompleted) {
+        if (fingerprintStore != null) {
+            try {
+                fingerprintStore.save();
+            } catch (IOException e) {
+                // For an incomplete job, the cancellation or failure that ended it is what the caller is told of
+                if (jobCompleted) {
+                    copyWorkDispatcher.workerException(new IOException("IOException while saving the fingerprints of copied files", e));
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a file as copied in the job's journal, if it keeps one.
+     *
+     * @param target                copy of the file in the destination
+     * @param sourceLength          length of the file copied
+     * @param sourceLastModified    modification time of the file copied, read before it was copied
+     * @throws IOException          thrown if the journal could not be written
+     */
+    private void recordCompleted(Path target, long sourceLength, long sourceLastModified) throws IOException {
+        if (journal != null) {
+            journal.recordCompleted(target, sourceLength, sourceLastModified);
+        }
+    }
 
+    /**
+     * Deletes the job's journal if the job was completed, or closes it, keeping it for a resumed job, if not.
+     *
+     * @param jobCompleted      true if every file was copied or skipped, without cancellation or failure
+     */
+    private void finishJournal(boolean jobCompleted) {
+        if (journal != null) {
+            try {
+                if (jobCompleted) {
+                    journal.delete();
+                } else {
+                    journal.close();
+                }
             } catch (IOException e) {
-                // Backtrack... set+publish the total job progress to the value had prior to this attempted file
-                // copy and set+publish the progress for the failed copy to/as 0 percent
-                if (soFar > 0) {
-                    copiedBytes -= soFar;
-                    publishWork(new SimpleImmutableEntry<>(target, ZERO_PERCENT));
+                // For an incomplete job, the cancellation or failure that ended it is what the caller is told of
+                if (jobCompleted) {
+                    copyWorkDispatcher.workerException(new IOException("IOException while removing the copy journal of a completed job", e));
                 }
-                previousPercentCopied = totalPercentCopied;
-                totalPercentCopied = (int) (copiedBytes * ONE_HUNDRED_PERCENT / totalBytes);
-                if ((totalPercentCopied != previousPercentCopied) && (totalPercentCopied < ONE_HUNDRED_PERCENT)) {
-                    publishWork(new SimpleImmutableEntry<>(destinationFolder, totalPercentCopied));
+            }
+        }
+    }
+
+    /**
+     * Adds to (or, for a negative value, subtracts from) the bytes copied by the job and publishes the job's overall
+     * progress if it changed by at least 1 percent. May be called concurrently by the threads copying files.
+     *
+     * @param bytes     number of bytes by which the job's progress changed
+     */
+    private void addCopiedBytes(long bytes) {
+        synchronized (progressLock) {
+            copiedBytes += bytes;
+
+            int previousPercentCopied = totalPercentCopied;
+            // A job copying only empty files has nothing to measure against, and is as good as done
+            totalPercentCopied = (totalBytes > 0L) ? (int) (copiedBytes * ONE_HUNDRED_PERCENT / totalBytes) : ONE_HUNDRED_PERCENT;
+            if ((totalPercentCopied != previousPercentCopied) && (totalPercentCopied < ONE_HUNDRED_PERCENT)) {
+                publishWork(destinationFolder, totalPercentCopied);
+            }
+        }
+    }
+
+    /**
+     * Copies a file, either directly or by queueing the copy for the job's drainer tasks. The target folder must
+     * already exist.
+     *
+     * @param fileToCopy            file to copy
+     * @param target                folder within which copy is to be placed
+     * @throws SecurityException    thrown if a direct copy is denied access by the security manager
+     * @throws IOException          thrown if an IOException occurs during a direct copy
+     */
+    private void submitCopy(final Path fileToCopy, final Path target) throws SecurityException, IOException {
+        if (pendingCopies == null) {
+            copyFile(fileToCopy, target);
+            return;
+        }
+
+        Runnable copy = new Runnable() {
+            @Override
+            public void run() {
+                if (!isStopped()) {
+                    try {
+                        copyFile(fileToCopy, target);
+                    } catch (IOException | RuntimeException e) {
+                        copyFailure.compareAndSet(null, e);
+                    }
                 }
+            }
+        };
 
+        // A full queue means the drainers are behind; copy on this thread rather than race further ahead of them
+        if (pendingCopies.offer(copy)) {
+            scheduleDrainer();
+        } else {
+            copy.run();
+        }
+    }
+
+    /**
+     * Hands another drainer task to the Executor if fewer than "workerLimit" are scheduled. An Executor which rejects
+     * the task leaves the queue to the drainers already scheduled and, ultimately, the traversing thread.
+     */
+    private void scheduleDrainer() {
+        int scheduled = scheduledDrainers.get();
+
+        while (scheduled < workerLimit) {
+            if (scheduledDrainers.compareAndSet(scheduled, scheduled + 1)) {
                 try {
-                    if ((target.toFile().exists()) && ((target.toFile().length() == 0L) || (soFar > 0L))) {
-                        if (!target.toFile().delete()) {
-                            throw new IOException("An IOException occurred while copying file \"" + fileToCopy.toString() + "\". An incomplete copy was left in the destination folder.", e);
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            drainPendingCopies();
                         }
-                        throw new IOException("An IOException occurred while copying file \"" + fileToCopy.toString() + "\". An incomplete copy was not left in the destination folder.", e);
-                    } else {
-                        throw new IOException("An IOException occurred while copying file \"" + fileToCopy.toString() + "\".", e);
-                    }
-                } catch (IOException ex) {
-                    throw new IOException("An IOException occurred while copying file \"" + fileToCopy.toString() + "\". An incomplete copy may have been left in the destination folder.", ex);
+                    });
+                } catch (RejectedExecutionException e) {
+                    scheduledDrainers.decrementAndGet();
                 }
+                return;
             }
-        } else {
-            copiedBytes += fileBytes;
-            previousPercentCopied = totalPercentCopied;
-            totalPercentCopied = (int) (copiedBytes * ONE_HUNDRED_PERCENT / totalBytes);
-            if ((totalPercentCopied != previousPercentCopied) && (totalPercentCopied < ONE_HUNDRED_PERCENT)) {
-                publishWork(new SimpleImmutableEntry<>(destinationFolder, totalPercentCopied));
+            scheduled = scheduledDrainers.get();
+        }
+    }
+
+    /**
+     * Body of a drainer task: copies queued files until the queue is empty.
+     */
+    private void drainPendingCopies() {
+        // Counted as running before polling, so that a waiting traverser cannot miss a copy taken from the queue
+        runningDrainers.incrementAndGet();
+        try {
+            Runnable copy;
+            while ((copy = pendingCopies.poll()) != null) {
+                copy.run();
+            }
+        } finally {
+            scheduledDrainers.decrementAndGet();
+            if (runningDrainers.decrementAndGet() == 0) {
+                synchronized (drainersLock) {
+                    drainersLock.notifyAll();
+                }
             }
         }
+
+        // A copy queued while this drainer was finishing would otherwise wait for the traversing thread
+        if (!pendingCopies.isEmpty()) {
+            scheduleDrainer();
+        }
+    }
+
+    /**
+     * Returns true if no further copying should take place, because the job was cancelled or a pooled copy failed.
+     *
+     * @return  boolean true if the job is to stop
+     */
+    private boolean isStopped() {
+        return jobCancelled.get() || (copyFailure.get() != null);
+    }
+
+    /**
+     * Waits for all queued copies, and asynchronous copies in flight, to finish, copying those not yet taken by a
+     * drainer on the calling thread, which need not wait for an Executor busy with other work.
+     */
+    private void awaitCopyTasks() {
+        if (pendingCopies != null) {
+            Runnable copy;
+            while ((copy = pendingCopies.poll()) != null) {
+                copy.run();
+            }
+
+            synchronized (drainersLock) {
+                try {
+                    while ((runningDrainers.get() > 0) || (asynchronousCopiesInFlight.get() > 0)) {
+                        // copies in flight check for cancellation at least once per chunk
+                        drainersLock.wait(100L);
+                    }
+                } catch (InterruptedException e) {
+                    cancelWork();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Rethrows the first exception thrown by a pooled file copy, if any.
+     *
+     * @throws SecurityException    thrown if a pooled copy was denied access by the security manager
+     * @throws IOException          thrown if a pooled copy failed with an IOException
+     */
+    private void rethrowCopyFailure() throws SecurityException, IOException {
+        Exception failure = copyFailure.get();
+
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
     }
 
     /**
@@ -400,25 +1126,71 @@ class CopyJobWorkDelegate implements Runnable {
         }
     }
 
+    /**
+     * Returns true if a source path is a folder, according to the job's CopyPlan if the path is part of it.
+     *
+     * @param path  source path
+     * @return      boolean true if the path is a folder
+     */
+    private boolean isDirectory(Path path) {
+        BasicFileAttributes attributes = (copyPlan != null) ? copyPlan.getAttributes(path) : null;
+        return (attributes != null) ? attributes.isDirectory() : Files.isDirectory(extractPath(path));
+    }
+
+    /**
+     * Returns the size of a source file, according to the job's CopyPlan if the file is part of it.
+     *
+     * @param path  source file
+     * @return      size of the file in bytes
+     */
+    private long sizeOf(Path path) {
+        BasicFileAttributes attributes = (copyPlan != null) ? copyPlan.getAttributes(path) : null;
+        return (attributes != null) ? attributes.size() : path.toFile().length();
+    }
+
     /**
      * Send work result to the registered CopyWorkDispatcher
      *
-     * @param result    result to provide
+     * @param path                  file or folder whose copy progressed, or the destination folder for job progress
+     * @param percentProgressed     percentage of the copy completed
      */
-    private void publishWork(SimpleImmutableEntry<Path, Integer> result) {
-        copyWorkDispatcher.receiveWorkResults(result);
+    private void publishWork(Path path, int percentProgressed) {
+        copyWorkDispatcher.receiveWorkResults(path, percentProgressed);
     }
 
-    private void retrieveTotalBytes(Path sourcePathname) throws SecurityException, IOException {
+    /**
+     * Adds the length of a file, or of the files within a folder, to the job's total bytes. For recursive jobs, the
+     * folders to be created in the destination for a folder's contents are collected into the target skeleton.
+     *
+     * @param sourcePathname        file or folder being sized
+     * @param targetFolder          folder in the destination to receive the contents of a folder being sized, or null
+     *                              if folders are not being collected
+     */
+    private void retrieveTotalBytes(Path sourcePathname, Path targetFolder) throws SecurityException, IOException {
         if (Files.isDirectory(extractPath(sourcePathname))) {
+            boolean targetFolderCollected = false;
+
             try (DirectoryStream<Path> dirStream = Files.newDirectoryStream(extractPath(sourcePathname))) {
                 for (Path path : dirStream) {
                     if (!jobCancelled.get()) {
                         // Exclude target folder if it is a subfolder of the source folder
                         if (Files.isDirectory(extractPath(path), LinkOption.NOFOLLOW_LINKS) && (!path.equals(destinationFolder) && recursiveCopy)) {
-                            retrieveTotalBytes(path);
+                            Path childTargetFolder = null;
+                            if (targetFolder != null) {
+                                childTargetFolder = targetFolder.resolve(path.getFileName());
+                                if (!targetFolderCollected) {
+                                    targetSkeleton.add(targetFolder);
+                                    targetFolderCollected = true;
+                                }
+                                targetSkeleton.add(childTargetFolder);
+                            }
+                            retrieveTotalBytes(path, childTargetFolder);
                         } else if (Files.isRegularFile(extractPath(path), LinkOption.NOFOLLOW_LINKS)) {
                             totalBytes += path.toFile().length();
+                            if ((targetFolder != null) && (!targetFolderCollected)) {
+                                targetSkeleton.add(targetFolder);
+                                targetFolderCollected = true;
+                            }
                         }
                     }
                 }
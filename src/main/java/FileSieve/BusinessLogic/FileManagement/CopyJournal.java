@@ -0,0 +1,410 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import FileSieve.BusinessLogic.FileEnumeration.DiscoveredPath;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only checkpoint journal kept in the destination folder of a copy job, from which a cancelled or interrupted
+ * job can be resumed. The journal begins with the job's source paths and options, followed by one record per file
+ * copied and, for files of at least CHECKPOINT_BYTES, a record each time another CHECKPOINT_BYTES of the file has
+ * been forced to disk. Targets are recorded relative to the destination folder, and each record carries the length and
+ * modification time of the source as it was copied, so that a source changed since is copied again from its start.
+ * <p>
+ * An offset record is written only after the target has been forced up to that offset, so an offset the journal claims
+ * is in the destination. Completion records are written once their file has been copied but, as forcing every file
+ * would slow a job of many small files, without forcing it; they are advisory, and a target whose length no longer
+ * matches its source's is copied again on resumption. Completion records are also buffered and may be lost if the
+ * process dies, in which case their files are copied again too. The journal is deleted when its job finishes without
+ * being cancelled or failing. At most one journal per destination folder is open within the process; a job started
+ * while another is journaling to the same folder runs without one. This class has package-private access.
+ */
+final class CopyJournal {
+
+    /** Name of the journal file within the destination folder */
+    static final String JOURNAL_FILE_NAME = ".FileSieveCopyJournal";
+
+    /** Interval, in bytes, at which the progress of a large file is made durable and recorded */
+    static final long CHECKPOINT_BYTES = 64L * 1024 * 1024;
+
+    private static final int MAGIC = 0x46534A4C;    // "FSJL"
+    private static final int FORMAT_VERSION = 2;
+    private static final byte COMPLETED_RECORD = 'C';
+    private static final byte OFFSET_RECORD = 'O';
+
+    private static final Set<Path> journaledFolders = Collections.newSetFromMap(new ConcurrentHashMap<Path, Boolean>());
+
+    private final Path destinationFolder;
+    private final Path journalFile;
+    private final Set<Path> sourcePaths;
+    private final boolean recursiveCopy;
+    private final boolean overwriteExistingFiles;
+    private final boolean moveSources;
+    private final Contents resumedContents;
+    private FileOutputStream fileOutputStream = null;
+    private DataOutputStream out = null;
+    private boolean claimed = false;
+    private boolean closed = false;
+
+    /**
+     * Constructs a journal for a copy job. Nothing is written until the first record, by which time the destination
+     * folder exists.
+     *
+     * @param destinationFolder         destination folder of the job
+     * @param sourcePaths               source paths of the job
+     * @param recursiveCopy             recursion option of the job
+     * @param overwriteExistingFiles    overwrite option of the job
+     * @param moveSources               true if the job moves its sources rather than copying them
+     * @param resumedContents           contents of the journal from which the job is being resumed, which is appended
+     *                                  to, or null for a new job, whose journal replaces any found in the folder
+     */
+    CopyJournal(Path destinationFolder, Set<Path> sourcePaths, boolean recursiveCopy, boolean overwriteExistingFiles, boolean moveSources, Contents resumedContents) {
+        if (destinationFolder == null) {
+            throw new IllegalArgumentException("null reference passed for \"destinationFolder\" parameter");
+        }
+        if (sourcePaths == null) {
+            throw new IllegalArgumentException("null reference passed for \"sourcePaths\" parameter");
+        }
+
+        this.destinationFolder = destinationFolder.toAbsolutePath();
+        this.journalFile = this.destinationFolder.resolve(JOURNAL_FILE_NAME);
+        this.sourcePaths = sourcePaths;
+        this.recursiveCopy = recursiveCopy;
+        this.overwriteExistingFiles = overwriteExistingFiles;
+        this.moveSources = moveSources;
+        this.resumedContents = resumedContents;
+    }
+
+    /**
+     * Returns true if the journal being resumed records the given target as completely copied from a source of the
+     * given length and modification time, and the target still has the source's length.
+     *
+     * @param target                target file
+     * @param sourceLength          current length of the target's source
+     * @param sourceLastModified    current modification time of the target's source
+     * @return                      true if the target was copied by an earlier attempt at the job, from the source as
+     *                              it is now
+     */
+    boolean isCompleted(Path target, long sourceLength, long sourceLastModified) {
+        if (resumedContents == null) {
+            return false;
+        }
+
+        Record record = resumedContents.completedTargets.get(relativize(target));
+        return (record != null) && record.matches(sourceLength, sourceLastModified) && (target.toFile().length() == sourceLength);
+    }
+
+    /**
+     * Returns the offset up to which the journal being resumed records the given target as durably copied from a
+     * source of the given length and modification time.
+     *
+     * @param target                target file
+     * @param sourceLength          current length of the target's source
+     * @param sourceLastModified    current modification time of the target's source
+     * @return                      the recorded offset, or 0 if none was recorded or the source has changed since
+     */
+    long getCheckpoint(Path target, long sourceLength, long sourceLastModified) {
+        if (resumedContents == null) {
+            return 0L;
+        }
+
+        Record record = resumedContents.checkpoints.get(relativize(target));
+        return ((record != null) && record.matches(sourceLength, sourceLastModified)) ? record.offset : 0L;
+    }
+
+    /**
+     * Records a target as completely copied.
+     *
+     * @param target                target file
+     * @param sourceLength          length of the target's source as it was copied
+     * @param sourceLastModified    modification time of the target's source, read before it was copied
+     * @throws IOException          thrown if the record could not be written
+     */
+    synchronized void recordCompleted(Path target, long sourceLength, long sourceLastModified) throws IOException {
+        if (open()) {
+            out.writeByte(COMPLETED_RECORD);
+            out.writeUTF(relativize(target));
+            out.writeLong(sourceLength);
+            out.writeLong(sourceLastModified);
+        }
+    }
+
+    /**
+     * Forces a partially copied target to disk and records the offset up to which it has been copied.
+     *
+     * @param target                target file
+     * @param offset                offset before which every byte of the target has been written
+     * @param sourceLength          length of the target's source as it is being copied
+     * @param sourceLastModified    modification time of the target's source, read before it was copied
+     * @throws IOException          thrown if the target could not be forced or the record could not be written
+     */
+    void recordCheckpoint(Path target, long offset, long sourceLength, long sourceLastModified) throws IOException {
+        // Forcing a file through any channel flushes all of its written data
+        try (FileChannel targetChannel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            targetChannel.force(false);
+        }
+
+        synchronized (this) {
+            if (open()) {
+                out.writeByte(OFFSET_RECORD);
+                out.writeUTF(relativize(target));
+                out.writeLong(offset);
+                out.writeLong(sourceLength);
+                out.writeLong(sourceLastModified);
+                out.flush();
+                fileOutputStream.getFD().sync();
+            }
+        }
+    }
+
+    /**
+     * Closes the journal, keeping it in the destination folder so that the job can be resumed.
+     *
+     * @throws IOException      thrown if buffered records could not be written
+     */
+    synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                if (out != null) {
+                    out.close();
+                }
+            } finally {
+                release();
+            }
+        }
+    }
+
+    /**
+     * Closes and deletes the journal, once its job has been completed.
+     *
+     * @throws IOException      thrown if the journal could not be deleted
+     */
+    synchronized void delete() throws IOException {
+        // A job which wrote no records, such as a resumed job with nothing left to copy, still owns the folder's journal
+        if ((!claimed) && (!closed)) {
+            claimed = journaledFolders.add(destinationFolder);
+        }
+
+        boolean ownedJournal = claimed;
+        try {
+            close();
+        } finally {
+            if (ownedJournal) {
+                Files.deleteIfExists(journalFile);
+            }
+        }
+    }
+
+    /**
+     * Opens the journal for writing on first use, writing its header unless an existing journal is being resumed.
+     *
+     * @return                  true if records may be written, false if the journal is closed or another job is
+     *                          journaling to the same destination folder
+     * @throws IOException      thrown if the journal could not be opened
+     */
+    private boolean open() throws IOException {
+        if (closed) {
+            return false;
+        }
+        if (out != null) {
+            return true;
+        }
+
+        if (!claimed) {
+            if (!journaledFolders.add(destinationFolder)) {
+                closed = true;
+                return false;
+            }
+            claimed = true;
+        }
+
+        boolean append = (resumedContents != null) && Files.exists(journalFile);
+        fileOutputStream = new FileOutputStream(journalFile.toFile(), append);
+        out = new DataOutputStream(new BufferedOutputStream(fileOutputStream));
+
+        if (!append) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeBoolean(recursiveCopy);
+            out.writeBoolean(overwriteExistingFiles);
+            out.writeBoolean(moveSources);
+            out.writeInt(sourcePaths.size());
+            for (Path path : sourcePaths) {
+                if (path instanceof DiscoveredPath) {
+                    out.writeUTF(((DiscoveredPath) path).getPath().toString());
+                    out.writeBoolean(true);
+                    out.writeUTF(((DiscoveredPath) path).getSourceFolder().toString());
+                } else {
+                    out.writeUTF(path.toString());
+                    out.writeBoolean(false);
+                }
+            }
+            out.flush();
+        }
+
+        return true;
+    }
+
+    private void release() {
+        if (claimed) {
+            claimed = false;
+            journaledFolders.remove(destinationFolder);
+        }
+    }
+
+    private String relativize(Path target) {
+        return destinationFolder.relativize(extractPath(target).toAbsolutePath()).toString();
+    }
+
+    /**
+     * Reads the journal left in a destination folder by a cancelled or interrupted copy job. A record cut short by
+     * the interruption is ignored. Sources of a move which no longer exist were renamed into the destination folder
+     * before the interruption, and are left out of the sources read back.
+     *
+     * @param destinationFolder     destination folder of the job
+     * @return                      the journal's contents
+     * @throws NoSuchFileException  thrown if the folder contains no journal
+     * @throws IOException          thrown if the journal could not be read or is not a copy journal
+     */
+    static Contents load(Path destinationFolder) throws IOException {
+        Path journalFile = destinationFolder.toAbsolutePath().resolve(JOURNAL_FILE_NAME);
+        if (!Files.isRegularFile(journalFile)) {
+            throw new NoSuchFileException(journalFile.toString(), null, "no copy journal found in destination folder");
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile.toFile())))) {
+            if ((in.readInt() != MAGIC) || (in.readInt() != FORMAT_VERSION)) {
+                throw new IOException("\"" + journalFile + "\" is not a copy journal of a supported version");
+            }
+
+            boolean recursiveCopy = in.readBoolean();
+            boolean overwriteExistingFiles = in.readBoolean();
+            boolean moveSources = in.readBoolean();
+            int sourceCount = in.readInt();
+            Set<Path> sourcePaths = new LinkedHashSet<>(sourceCount);
+            for (int i = 0; i < sourceCount; ++i) {
+                Path path = Paths.get(in.readUTF());
+                if (in.readBoolean()) {
+                    path = new DiscoveredPath(path, Paths.get(in.readUTF()));
+                }
+                if ((!moveSources) || Files.exists(extractPath(path))) {
+                    sourcePaths.add(path);
+                }
+            }
+
+            Contents contents = new Contents(sourcePaths, recursiveCopy, overwriteExistingFiles, moveSources);
+            try {
+                while (true) {
+                    byte recordType = in.readByte();
+                    String target = in.readUTF();
+
+                    if (recordType == COMPLETED_RECORD) {
+                        contents.completedTargets.put(target, new Record(0L, in.readLong(), in.readLong()));
+                        contents.checkpoints.remove(target);
+                    } else if (recordType == OFFSET_RECORD) {
+                        contents.checkpoints.put(target, new Record(in.readLong(), in.readLong(), in.readLong()));
+                    } else {
+                        throw new IOException("unknown record in copy journal \"" + journalFile + "\"");
+                    }
+                }
+            } catch (EOFException e) {
+                // End of the journal, or of the last record written before the job was interrupted
+            }
+
+            return contents;
+        }
+    }
+
+    /**
+     * Extracts the decorated (wrapped) Path from a DiscoveredPath instance.
+     *
+     * @param path  a Path instance
+     * @return      the Path decorated by a DiscoveredPath instance, or the same Path as that provided
+     */
+    private static Path extractPath(Path path) {
+        if (path instanceof DiscoveredPath) {
+            return ((DiscoveredPath) path).getPath();
+        } else {
+            return path;
+        }
+    }
+
+    /**
+     * Progress of one target read from a journal, with the source as it was when the progress was made.
+     */
+    private static final class Record {
+        private final long offset;
+        private final long sourceLength;
+        private final long sourceLastModified;
+
+        private Record(long offset, long sourceLength, long sourceLastModified) {
+            this.offset = offset;
+            this.sourceLength = sourceLength;
+            this.sourceLastModified = sourceLastModified;
+        }
+
+        private boolean matches(long sourceLength, long sourceLastModified) {
+            return (this.sourceLength == sourceLength) && (this.sourceLastModified == sourceLastModified);
+        }
+    }
+
+    /**
+     * Job description and progress read from a journal.
+     */
+    static final class Contents {
+        private final Set<Path> sourcePaths;
+        private final boolean recursiveCopy;
+        private final boolean overwriteExistingFiles;
+        private final boolean moveSources;
+        private final Map<String, Record> completedTargets = new HashMap<>();
+        private final Map<String, Record> checkpoints = new HashMap<>();
+
+        private Contents(Set<Path> sourcePaths, boolean recursiveCopy, boolean overwriteExistingFiles, boolean moveSources) {
+            this.sourcePaths = sourcePaths;
+            this.recursiveCopy = recursiveCopy;
+            this.overwriteExistingFiles = overwriteExistingFiles;
+            this.moveSources = moveSources;
+        }
+
+        Set<Path> getSourcePaths() {
+            return sourcePaths;
+        }
+
+        boolean isRecursive() {
+            return recursiveCopy;
+        }
+
+        boolean isOverwritingExistingFiles() {
+            return overwriteExistingFiles;
+        }
+
+        boolean isMovingSources() {
+            return moveSources;
+        }
+
+        int getCompletedCount() {
+            return completedTargets.size();
+        }
+    }
+
+} // class CopyJournal
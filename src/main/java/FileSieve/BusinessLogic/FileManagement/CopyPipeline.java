@@ -0,0 +1,239 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Configures pipelined copying, in which a reader thread reads each large file into a bounded ring of direct buffers
+ * while the thread copying the file writes the buffers the reader has filled, so that the source and target devices
+ * work at the same time rather than in turn. Pipelining pays off when source and target are different devices. The
+ * ring holds "ringDepth" buffers of "bufferSize" bytes each, taken from a pool kept by the pipeline, so that a copy
+ * allocates no buffers once the pool has grown to the number of files copied at once. A single instance may be shared
+ * by any number of file managers and copiers; its reader threads are created as copies need them and expire when idle.
+ * <p>
+ * The pipeline records the time its readers spend waiting for an empty buffer, which is time the target kept them
+ * waiting, and the time its writers spend waiting for a filled buffer, which is time the source kept them waiting,
+ * along with how full the ring is each time a writer comes for a buffer. Together these tell which side of the copy is
+ * the bottleneck.
+ */
+public final class CopyPipeline {
+
+    /** Default number of buffers in the ring of each file being copied */
+    public static final int DEFAULT_RING_DEPTH = 8;
+
+    /** Default size of each buffer of a ring */
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    /** Smallest buffer size accepted */
+    static final int MIN_BUFFER_SIZE = 4096;
+
+    /**
+     * Side of a pipelined copy which held the other back.
+     */
+    public enum Bottleneck {
+        /** Writers waited on the source for filled buffers longer than readers waited on the target */
+        READER,
+        /** Readers waited on the target for empty buffers longer than writers waited on the source */
+        WRITER,
+        /** Neither side has waited on the other, as before anything has been copied */
+        UNDETERMINED
+    }
+
+    private final int ringDepth;
+    private final int bufferSize;
+    private final ConcurrentLinkedQueue<ByteBuffer> bufferPool = new ConcurrentLinkedQueue<>();
+    private final ThreadPoolExecutor readerExecutor;
+    private final AtomicLong filesPipelined = new AtomicLong(0L);
+    private final AtomicLong bytesPipelined = new AtomicLong(0L);
+    private final AtomicLong readerWaitNanos = new AtomicLong(0L);
+    private final AtomicLong writerWaitNanos = new AtomicLong(0L);
+    private final AtomicLong buffersWritten = new AtomicLong(0L);
+    private final AtomicLong filledBuffersSeen = new AtomicLong(0L);
+
+    /**
+     * Constructs a pipeline with rings of DEFAULT_RING_DEPTH buffers of DEFAULT_BUFFER_SIZE bytes.
+     */
+    public CopyPipeline() {
+        this(DEFAULT_RING_DEPTH, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a pipeline with rings of the given shape. Files shorter than two buffers gain nothing from a reader
+     * of their own, and are copied as they would be without the pipeline.
+     *
+     * @param ringDepth                     number of buffers in the ring of each file being copied, at least 2
+     * @param bufferSize                    size of each buffer in bytes, at least 4096
+     * @throws IllegalArgumentException     thrown if the ring depth or buffer size is too small
+     */
+    public CopyPipeline(int ringDepth, int bufferSize) {
+        if (ringDepth < 2) {
+            throw new IllegalArgumentException("ringDepth must be at least 2");
+        }
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("bufferSize must be at least " + MIN_BUFFER_SIZE);
+        }
+
+        this.ringDepth = ringDepth;
+        this.bufferSize = bufferSize;
+
+        final AtomicInteger threadNumber = new AtomicInteger(0);
+        readerExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 30L, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "CopyPipelineReader-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
+
+    public int getRingDepth() {
+        return ringDepth;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Returns the number of files copied through the pipeline since it was constructed or its statistics were reset.
+     *
+     * @return  number of files pipelined
+     */
+    public long getFilesPipelined() {
+        return filesPipelined.get();
+    }
+
+    /**
+     * Returns the number of bytes written through the pipeline since it was constructed or its statistics were reset.
+     *
+     * @return  number of bytes pipelined
+     */
+    public long getBytesPipelined() {
+        return bytesPipelined.get();
+    }
+
+    /**
+     * Returns the total time readers have spent waiting for an empty buffer, that is waiting on the target.
+     *
+     * @return  nanoseconds readers have waited, summed over all files
+     */
+    public long getReaderWaitNanos() {
+        return readerWaitNanos.get();
+    }
+
+    /**
+     * Returns the total time writers have spent waiting for a filled buffer, that is waiting on the source.
+     *
+     * @return  nanoseconds writers have waited, summed over all files
+     */
+    public long getWriterWaitNanos() {
+        return writerWaitNanos.get();
+    }
+
+    /**
+     * Returns the average share of a ring found filled when a writer came for a buffer. Near 1 the reader keeps the
+     * ring full and the target is the bottleneck; near 0 the writer drains each buffer as it is filled and the source
+     * is the bottleneck.
+     *
+     * @return  mean occupancy of the rings, between 0 and 1, or 0 if no buffer has been written
+     */
+    public double getMeanRingOccupancy() {
+        long written = buffersWritten.get();
+        return (written == 0L) ? 0.0 : (double) filledBuffersSeen.get() / ((double) written * ringDepth);
+    }
+
+    /**
+     * Returns the side of the copies made through the pipeline which kept the other waiting longer.
+     *
+     * @return  READER if the source held copies back, WRITER if the target did, or UNDETERMINED if neither has waited
+     */
+    public Bottleneck getBottleneck() {
+        long readerWait = readerWaitNanos.get();
+        long writerWait = writerWaitNanos.get();
+
+        if ((readerWait == 0L) && (writerWait == 0L)) {
+            return Bottleneck.UNDETERMINED;
+        }
+        return (writerWait > readerWait) ? Bottleneck.READER : Bottleneck.WRITER;
+    }
+
+    /**
+     * Clears the pipeline's statistics, as before measuring a new set of copies.
+     */
+    public void resetStatistics() {
+        filesPipelined.set(0L);
+        bytesPipelined.set(0L);
+        readerWaitNanos.set(0L);
+        writerWaitNanos.set(0L);
+        buffersWritten.set(0L);
+        filledBuffersSeen.set(0L);
+    }
+
+    /**
+     * Runs the reader of a file on a thread of the pipeline's own, which never waits for another file's reader.
+     *
+     * @param reader    reader to run
+     */
+    void executeReader(Runnable reader) {
+        readerExecutor.execute(reader);
+    }
+
+    /**
+     * Takes the buffers of one ring from the pool, allocating any the pool cannot supply.
+     *
+     * @return  ringDepth cleared direct buffers of bufferSize bytes
+     */
+    List<ByteBuffer> acquireRing() {
+        List<ByteBuffer> ring = new ArrayList<>(ringDepth);
+
+        for (int i = 0; i < ringDepth; ++i) {
+            ByteBuffer buffer = bufferPool.poll();
+            if (buffer == null) {
+                buffer = ByteBuffer.allocateDirect(bufferSize);
+            }
+            buffer.clear();
+            ring.add(buffer);
+        }
+        filesPipelined.incrementAndGet();
+
+        return ring;
+    }
+
+    /**
+     * Returns the buffers of a ring to the pool, once neither its reader nor its writer can touch them.
+     *
+     * @param ring  buffers of a ring taken by acquireRing
+     */
+    void releaseRing(List<ByteBuffer> ring) {
+        bufferPool.addAll(ring);
+    }
+
+    void readerWaited(long nanos) {
+        readerWaitNanos.addAndGet(nanos);
+    }
+
+    void writerWaited(long nanos) {
+        writerWaitNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Records a buffer written, and how many filled buffers the writer found in the ring when it came for the buffer.
+     */
+    void bufferWritten(int bytes, int filledBuffers) {
+        bytesPipelined.addAndGet(bytes);
+        buffersWritten.incrementAndGet();
+        filledBuffersSeen.addAndGet(filledBuffers);
+    }
+
+} // class CopyPipeline
@@ -0,0 +1,116 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import FileSieve.BusinessLogic.FileEnumeration.DiscoveredPath;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable list of the folders and files a copy job is to copy, together with the BasicFileAttributes read for each
+ * when they were enumerated, such as the Map returned by a FileEnumerator's getPathnames method. A job started from a
+ * plan takes the types and sizes of its paths from the plan, so that neither starting the job nor sizing it reads
+ * the source's metadata again; the paths are used as given, without being converted to real paths, and so should be
+ * absolute. Since a plan already names every folder and file to be copied, jobs started from one do not recurse into
+ * folders. Attributes which have gone stale by the time a file is copied only skew the progress reported for it; a
+ * file which changed length is copied in full, unless it is being fingerprinted, in which case its copy fails.
+ */
+public final class CopyPlan {
+
+    private final Set<Path> paths;
+    private final Map<Path, BasicFileAttributes> attributes;
+    private final long totalBytes;
+    private final int fileCount;
+
+    /**
+     * Constructs a plan of the given paths and attributes, in the iteration order of the map.
+     *
+     * @param discoveredPaths   folders and files to copy, which may be DiscoveredPath instances, and their attributes
+     */
+    public CopyPlan(Map<Path, BasicFileAttributes> discoveredPaths) {
+        if (discoveredPaths == null) {
+            throw new IllegalArgumentException("null reference passed for \"discoveredPaths\" parameter");
+        }
+
+        Set<Path> planPaths = new LinkedHashSet<>(discoveredPaths.size());
+        Map<Path, BasicFileAttributes> planAttributes = new HashMap<>(discoveredPaths.size() * 2);
+        long planBytes = 0L;
+        int planFiles = 0;
+
+        for (Map.Entry<Path, BasicFileAttributes> entry : discoveredPaths.entrySet()) {
+            if ((entry.getKey() == null) || (entry.getValue() == null)) {
+                throw new IllegalArgumentException("a path or its attributes within the \"discoveredPaths\" map is null");
+            }
+
+            planPaths.add(entry.getKey());
+            // Keyed by the decorated path, since a DiscoveredPath is only equal to the Path it decorates
+            planAttributes.put(extractPath(entry.getKey()), entry.getValue());
+
+            if (entry.getValue().isRegularFile()) {
+                planBytes += entry.getValue().size();
+                ++planFiles;
+            }
+        }
+
+        this.paths = Collections.unmodifiableSet(planPaths);
+        this.attributes = planAttributes;
+        this.totalBytes = planBytes;
+        this.fileCount = planFiles;
+    }
+
+    /**
+     * Returns the folders and files of the plan, in the order they are to be copied.
+     *
+     * @return  an unmodifiable Set<Path> of the plan's paths
+     */
+    public Set<Path> getPaths() {
+        return paths;
+    }
+
+    /**
+     * Returns the attributes recorded for a path of the plan.
+     *
+     * @param path  path of the plan, or the Path decorated by a DiscoveredPath of the plan
+     * @return      the path's attributes, or null if the path is not part of the plan
+     */
+    public BasicFileAttributes getAttributes(Path path) {
+        return (path != null) ? attributes.get(extractPath(path)) : null;
+    }
+
+    /**
+     * Returns the sum of the sizes of the plan's regular files.
+     *
+     * @return  number of bytes the plan copies
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Returns the number of regular files in the plan.
+     *
+     * @return  number of files the plan copies
+     */
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    /**
+     * Extracts the decorated (wrapped) Path from a DiscoveredPath instance.
+     *
+     * @param path  a Path instance
+     * @return      the Path decorated by a DiscoveredPath instance, or the same Path as that provided
+     */
+    private static Path extractPath(Path path) {
+        if (path instanceof DiscoveredPath) {
+            return ((DiscoveredPath) path).getPath();
+        } else {
+            return path;
+        }
+    }
+
+} // class CopyPlan
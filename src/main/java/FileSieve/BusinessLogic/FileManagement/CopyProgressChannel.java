@@ -0,0 +1,119 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Coalescing channel through which the threads of a copy job report progress to the timer forwarding it to the EDT.
+ * Each path being tracked has a slot holding its latest percentage; an update overwrites the slot and, the first time
+ * the slot changes after a snapshot, queues it for the next one. Updates therefore cost a lock and a field write,
+ * allocate nothing after a path's first update, and never wake the reader, which instead takes a snapshot once
+ * every SNAPSHOT_INTERVAL_MILLIS. However many updates a path receives between snapshots, a snapshot carries only its
+ * latest percentage. This class has package-private access.
+ */
+final class CopyProgressChannel {
+
+    /** Interval, in milliseconds, at which the reader takes snapshots */
+    static final int SNAPSHOT_INTERVAL_MILLIS = 75;
+
+    private static final int ONE_HUNDRED_PERCENT = 100;
+
+    private final Object lock = new Object();
+    private final Map<Path, Slot> slots = new HashMap<>(200);
+    private Slot[] changedSlots = new Slot[64];
+    private int changedCount = 0;
+
+    /**
+     * Records the latest progress for a path. May be called concurrently by any number of threads.
+     *
+     * @param path                  file or folder being copied, or the job's destination folder for overall progress
+     * @param percentProgressed     percentage of the copy completed
+     */
+    void update(Path path, int percentProgressed) {
+        synchronized (lock) {
+            Slot slot = slots.get(path);
+            if (slot == null) {
+                slot = new Slot(path);
+                slots.put(path, slot);
+            } else if (slot.percentProgressed == percentProgressed) {
+                // Either already queued for the next snapshot or already delivered
+                return;
+            }
+
+            slot.percentProgressed = percentProgressed;
+            if (!slot.changed) {
+                slot.changed = true;
+                if (changedCount == changedSlots.length) {
+                    Slot[] grown = new Slot[changedCount * 2];
+                    System.arraycopy(changedSlots, 0, grown, 0, changedCount);
+                    changedSlots = grown;
+                }
+                changedSlots[changedCount++] = slot;
+            }
+        }
+    }
+
+    /**
+     * Takes a snapshot of the paths whose progress changed since the previous snapshot, in the order in which they
+     * first changed. Slots of paths that reached one hundred percent are released, so the channel holds only paths
+     * still being copied.
+     *
+     * @return  the snapshot, or null if no progress has been recorded since the previous snapshot
+     */
+    Snapshot takeSnapshot() {
+        synchronized (lock) {
+            if (changedCount == 0) {
+                return null;
+            }
+
+            Snapshot snapshot = new Snapshot(changedCount);
+            for (int i = 0; i < changedCount; ++i) {
+                Slot slot = changedSlots[i];
+                changedSlots[i] = null;
+
+                snapshot.paths[i] = slot.path;
+                snapshot.percentages[i] = slot.percentProgressed;
+
+                slot.changed = false;
+                if (slot.percentProgressed == ONE_HUNDRED_PERCENT) {
+                    slots.remove(slot.path);
+                }
+            }
+            changedCount = 0;
+
+            return snapshot;
+        }
+    }
+
+    /**
+     * Latest progress of one path, reused for every update to the path.
+     */
+    private static final class Slot {
+        private final Path path;
+        private int percentProgressed;
+        private boolean changed = false;
+
+        private Slot(Path path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * Progress of the paths which changed between two snapshots, held in parallel arrays.
+     */
+    static final class Snapshot {
+        final Path[] paths;
+        final int[] percentages;
+
+        private Snapshot(int size) {
+            paths = new Path[size];
+            percentages = new int[size];
+        }
+
+        int size() {
+            return paths.length;
+        }
+    }
+
+} // class CopyProgressChannel
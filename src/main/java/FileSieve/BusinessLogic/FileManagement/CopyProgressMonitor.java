@@ -0,0 +1,38 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.io.IOException;
+
+/**
+ * Defines the callbacks through which a CopyEngine reports progress and learns of cancellation. Engines call these
+ * methods once per unit of work, such as a byte or a chunk, so the cost of a call is amortized over that unit. An
+ * engine may call them from more than one thread. Engines copying parts of a file in parallel call isCancelled and
+ * bytesCopied from those threads concurrently, so that a monitor which sleeps in bytesCopied, as one charging a
+ * throttle does, holds back only the calling thread; prefixCopied is never called concurrently. This interface has
+ * package-private access.
+ */
+interface CopyProgressMonitor {
+
+    /**
+     * Indicates whether the copy should stop.
+     *
+     * @return  true if the copy operation has been cancelled
+     */
+    public boolean isCancelled();
+
+    /**
+     * Reports bytes written to the target since the previous call by the same thread.
+     *
+     * @param bytes     number of bytes just copied
+     */
+    public void bytesCopied(long bytes);
+
+    /**
+     * Reports that every byte of the target before the given offset has been written. Engines copying a file in order
+     * report this along with each bytesCopied call; engines writing out of order report it as the written prefix grows.
+     *
+     * @param offset            offset before which the target is complete
+     * @throws IOException      thrown if the monitor failed to act on the report, which fails the copy
+     */
+    public void prefixCopied(long offset) throws IOException;
+
+} // interface CopyProgressMonitor
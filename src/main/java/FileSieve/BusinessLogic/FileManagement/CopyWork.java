@@ -0,0 +1,26 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Defines the work carried out for a CopyJob, as a single task run on the job's Executor: copying into a destination
+ * folder, by a CopyJobWorkDelegate, or writing an archive file, by an ArchiveWorkDelegate. The work reports its
+ * progress and outcome to the CopyWorkResultsReceiver it was constructed with. This interface has package-private
+ * access.
+ */
+interface CopyWork extends Runnable {
+
+    /**
+     * Asks the work to stop at its next opportunity.
+     */
+    public void cancelWork();
+
+    /**
+     * Returns the fingerprints of the files copied thus far, keyed by the path of each copy, where the work takes them.
+     *
+     * @return  a copy of the map of copied files to their 64-bit content fingerprints, in order of completion
+     */
+    public Map<Path, Long> getCopyDigests();
+
+} // interface CopyWork extends Runnable
@@ -1,35 +1,35 @@
 package FileSieve.BusinessLogic.FileManagement;
 
 import java.nio.file.Path;
-import java.util.AbstractMap.SimpleImmutableEntry;
 
 /**
  * Defines methods for use by a CopyJobWorkDelegate instance in passing work results and statistics back to a
- * SwingCopyJob instance. This class has package-private access.
+ * CopyJob instance. This class has package-private access.
  */
 interface CopyWorkResultsReceiver {
 
     /**
-     * Provides a means by which a CopyJobWorkDelegate may convey an exception to a SwingCopyJob's background worker
-     * thread.
+     * Provides a means by which a CopyJobWorkDelegate may convey an exception to a CopyJob. The first exception
+     * conveyed stops the job.
      *
      * @param exception     any exception thrown which causes the CopyJobWorkDelegate to terminate operations
      */
     public void workerException(Exception exception);
 
     /**
-     * Provides the means by which progress updates may be conveyed by a CopyJobWorkDelegate to a SwingCopyJob.
+     * Provides the means by which progress updates may be conveyed by a CopyJobWorkDelegate to a CopyJob. May be
+     * called concurrently by the threads copying files, and as often as once per chunk copied, so implementations
+     * should coalesce updates rather than forward each one.
      *
-     * @param result    A unit of work representing a progress update for the copy of a specific file, folder, or a
-     *                  progress update for the overall copy job. The update consists of the Path instance representing
-     *                  the item being updating and an Integer representing the percentage of the copy that has been
-     *                  completed.
+     * @param path                  the file or folder whose copy progressed, or the job's destination folder for a
+     *                              progress update for the overall copy job
+     * @param percentProgressed     percentage of the copy that has been completed
      */
-    public void receiveWorkResults(SimpleImmutableEntry<Path, Integer> result);
+    public void receiveWorkResults(Path path, int percentProgressed);
 
     /**
      * Provides a means by which a CopyJobWorkDelegate instance can communicate a "work complete" message to a
-     * SwingCopyJob.
+     * CopyJob.
      */
     public void workCompleted();
 
@@ -0,0 +1,21 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.nio.file.Path;
+
+/**
+ * Locates the regions of a file which hold data, as opposed to the holes between them, which read as zeros without
+ * occupying disk space. This interface has package-private access.
+ */
+interface DataRegionLocator {
+
+    /**
+     * Locates the data regions of a file. A file without holes has a single region spanning its length, and a file
+     * consisting only of a hole has none.
+     *
+     * @param file  file to examine
+     * @return      start (inclusive) and end (exclusive) offsets of each data region, as consecutive pairs in
+     *              ascending order, or null if the regions could not be determined
+     */
+    public long[] locateData(Path file);
+
+} // interface DataRegionLocator
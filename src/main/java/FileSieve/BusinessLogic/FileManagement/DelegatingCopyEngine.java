@@ -0,0 +1,25 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A CopyEngine which copies some files itself and passes the others, unchanged, to another engine. Telling which
+ * engine a file would be passed to lets a caller start the copy on that engine in a way copyFile does not offer, as
+ * CopyJobWorkDelegate does to leave copies made with an AsynchronousCopyEngine in flight. This interface has
+ * package-private access.
+ */
+interface DelegatingCopyEngine extends CopyEngine {
+
+    /**
+     * Returns the engine to which copyFile would pass a file as it is, with the same arguments.
+     *
+     * @param source            file to copy
+     * @param target            file to create or complete
+     * @param offset            number of leading bytes of the target already copied
+     * @return                  engine the copy would be passed to, or null if this engine would copy the file itself
+     * @throws IOException      thrown if the source or target could not be examined
+     */
+    public CopyEngine getDelegate(Path source, Path target, long offset) throws IOException;
+
+} // interface DelegatingCopyEngine extends CopyEngine
@@ -0,0 +1,141 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CopyEngine which updates an existing target in place, rewriting only the blocks that differ from the source, in
+ * the manner of rsync's in-place mode. The source and target are read block by block in a single pass, and each
+ * source block is compared byte for byte with the target block at the same offset and written only if they differ;
+ * blocks beyond the end of the target are appended, and a target longer than the source is truncated. Blocks are
+ * compared directly rather than by checksum, since both files are at hand and a checksum match would leave a
+ * mismatching block unwritten on a collision. Since the target is updated in place, blocks are only matched at their
+ * own offset, which suits files modified where they stand, such as disk images and database files, rather than files
+ * with data inserted or removed. Targets smaller than minimumTargetSize, resumed copies and new targets are passed to
+ * a full-copy engine. This class has package-private access.
+ */
+final class DeltaCopyEngine implements DelegatingCopyEngine {
+
+    /** Default size of the blocks compared */
+    static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    /** Default minimum size of targets updated in place, below which rewriting is cheaper than comparing */
+    static final long DEFAULT_MINIMUM_TARGET_SIZE = 1024L * 1024;
+
+    private final CopyEngine fullCopyEngine;
+    private final int blockSize;
+    private final long minimumTargetSize;
+    private final AtomicLong bytesWritten = new AtomicLong(0L);
+
+    DeltaCopyEngine(CopyEngine fullCopyEngine) {
+        this(fullCopyEngine, DEFAULT_BLOCK_SIZE, DEFAULT_MINIMUM_TARGET_SIZE);
+    }
+
+    /**
+     * Constructs a delta engine.
+     *
+     * @param fullCopyEngine        engine used where a target is not updated in place
+     * @param blockSize             size of the blocks compared
+     * @param minimumTargetSize     minimum size of targets updated in place
+     */
+    DeltaCopyEngine(CopyEngine fullCopyEngine, int blockSize, long minimumTargetSize) {
+        if (fullCopyEngine == null) {
+            throw new IllegalArgumentException("null reference passed for \"fullCopyEngine\" parameter");
+        }
+        if ((blockSize < 1) || (minimumTargetSize < 0L)) {
+            throw new IllegalArgumentException("block size must be positive and minimum target size not negative");
+        }
+
+        this.fullCopyEngine = fullCopyEngine;
+        this.blockSize = blockSize;
+        this.minimumTargetSize = minimumTargetSize;
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, CopyProgressMonitor monitor) throws IOException {
+        return copyFile(source, target, 0L, monitor);
+    }
+
+    @Override
+    public CopyEngine getDelegate(Path source, Path target, long offset) {
+        long targetSize = target.toFile().length();     // 0 if the target does not exist
+        return ((offset > 0L) || (targetSize == 0L) || (targetSize < minimumTargetSize)) ? fullCopyEngine : null;
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, long offset, CopyProgressMonitor monitor) throws IOException {
+        if (getDelegate(source, target, offset) != null) {
+            long copied = fullCopyEngine.copyFile(source, target, offset, monitor);
+            bytesWritten.addAndGet(copied);
+            return copied;
+        }
+        long targetSize = target.toFile().length();
+
+        try (
+                FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ);
+                FileChannel targetChannel = FileChannel.open(target, StandardOpenOption.READ, StandardOpenOption.WRITE)
+        ) {
+            long sourceSize = sourceChannel.size();
+            ByteBuffer sourceBuffer = ByteBuffer.allocate(blockSize);
+            ByteBuffer targetBuffer = ByteBuffer.allocate(blockSize);
+
+            long copied = 0L;
+            while ((copied < sourceSize) && (!monitor.isCancelled())) {
+                int length = (int) Math.min(blockSize, sourceSize - copied);
+                readBlock(sourceChannel, sourceBuffer, copied, length);
+                sourceBuffer.flip();
+
+                // A target block cut short by the end of the target differs, and is rewritten in full
+                boolean unchanged = false;
+                if (copied + length <= targetSize) {
+                    readBlock(targetChannel, targetBuffer, copied, length);
+                    targetBuffer.flip();
+                    unchanged = sourceBuffer.equals(targetBuffer);
+                }
+
+                if (!unchanged) {
+                    long position = copied;
+                    while (sourceBuffer.hasRemaining()) {
+                        position += targetChannel.write(sourceBuffer, position);
+                    }
+                    bytesWritten.addAndGet(length);
+                }
+
+                copied += length;
+                monitor.bytesCopied(length);
+                monitor.prefixCopied(copied);
+            }
+
+            if ((copied == sourceSize) && (targetChannel.size() > sourceSize)) {
+                targetChannel.truncate(sourceSize);
+            }
+
+            return copied;
+        }
+    }
+
+    /**
+     * Returns the number of bytes this engine has written to targets, for comparison with the number copied. Files a
+     * caller hands straight to the engine returned by getDelegate are not counted.
+     *
+     * @return  total bytes written since the engine was constructed
+     */
+    long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    private static void readBlock(FileChannel channel, ByteBuffer buffer, long position, int length) throws IOException {
+        buffer.clear();
+        buffer.limit(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("file was shorter than expected; it may have changed since the copy began");
+            }
+        }
+    }
+
+} // class DeltaCopyEngine implements DelegatingCopyEngine
@@ -0,0 +1,123 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import FileSieve.BusinessLogic.FileDifferentiation.ContentFingerprint;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CopyEngine which passes each chunk of the source through a heap buffer, folding it into a ContentFingerprint on
+ * its way to the target, so that a copy yields the fingerprint of what was read without the source being read twice.
+ * Kernel-side transfers never expose the bytes to Java code, so this engine stands in for the job's configured engine
+ * when copies are to be fingerprinted. Progress is reported and cancellation is checked once per chunk. This class
+ * has package-private access.
+ */
+final class DigestingCopyEngine implements CopyEngine {
+
+    /** Size of the chunks copied, a multiple of the block size in which fingerprints are folded */
+    static final int CHUNK_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> buffers = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocate(CHUNK_SIZE);
+        }
+    };
+
+    @Override
+    public long copyFile(Path source, Path target, CopyProgressMonitor monitor) throws IOException {
+        return copyFile(source, target, 0L, monitor, null);
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, long offset, CopyProgressMonitor monitor) throws IOException {
+        return copyFile(source, target, offset, monitor, null);
+    }
+
+    /**
+     * Copies a file as the four-argument copyFile method does, folding the whole of the source into a fingerprint.
+     * When resuming from an offset, the bytes of the source before the offset are read and folded in first.
+     *
+     * @param source            file to copy
+     * @param target            file to create or complete
+     * @param offset            number of leading bytes of the target already copied
+     * @param monitor           monitor to be informed of bytes copied and polled for cancellation
+     * @param fingerprint       fingerprint, constructed for the length of the source, into which its content is
+     *                          folded, or null if none is wanted
+     * @return                  number of bytes copied by this call, excluding the first "offset" bytes
+     * @throws IOException      thrown if an IOException occurs during read/write operations
+     */
+    long copyFile(Path source, Path target, long offset, CopyProgressMonitor monitor, ContentFingerprint fingerprint) throws IOException {
+        long copied = 0L;
+        ByteBuffer buffer = buffers.get();
+
+        try (
+                FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ);
+                FileChannel targetChannel = (offset > 0L)
+                        ? FileChannel.open(target, StandardOpenOption.WRITE)
+                        : FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)
+        ) {
+            if (offset > 0L) {
+                targetChannel.truncate(offset);
+                targetChannel.position(offset);
+
+                if (fingerprint != null) {
+                    long position = 0L;
+                    while ((position < offset) && (!monitor.isCancelled())) {
+                        int read = readChunk(sourceChannel, buffer, position, offset - position);
+                        if (read <= 0) {
+                            throw new IOException("file was shorter than expected; it may have changed since the copy began");
+                        }
+                        fingerprint.update(buffer.array(), 0, read);
+                        position += read;
+                    }
+                }
+            }
+
+            while (!monitor.isCancelled()) {
+                int read = readChunk(sourceChannel, buffer, offset + copied, CHUNK_SIZE);
+                if (read <= 0) {
+                    break;
+                }
+
+                if (fingerprint != null) {
+                    fingerprint.update(buffer.array(), 0, read);
+                }
+
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    targetChannel.write(buffer);
+                }
+
+                copied += read;
+                monitor.bytesCopied(read);
+                monitor.prefixCopied(offset + copied);
+            }
+        }
+
+        return copied;
+    }
+
+    /**
+     * Reads up to "length" bytes from a position of a channel into the start of a buffer, stopping short only at the
+     * end of the file.
+     *
+     * @return  number of bytes read, 0 at the end of the file
+     */
+    private static int readChunk(FileChannel channel, ByteBuffer buffer, long position, long length) throws IOException {
+        buffer.clear();
+        buffer.limit((int) Math.min(buffer.capacity(), length));
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+
+        return buffer.position();
+    }
+
+} // class DigestingCopyEngine implements CopyEngine
@@ -0,0 +1,272 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import FileSieve.BusinessLogic.FileDifferentiation.ContentFingerprint;
+import com.sun.nio.file.ExtendedOpenOption;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CopyEngine which reads and writes files with the O_DIRECT flag, through buffers aligned to the block size of the
+ * files' stores, so that a copy neither fills the page cache with the source nor leaves the target in it. Bulk copies
+ * of cold files then do not evict the working set of other processes. Direct I/O requires positions and lengths to be
+ * multiples of the block size: a copy resumed from an unaligned offset restarts at the block holding the offset, and
+ * the last block is written in full and the target truncated back to the length of the source afterwards.
+ * Where a store does not support direct I/O, as with tmpfs, the copy is handed to a fallback engine, which goes
+ * through the page cache; on Linux, with the jdk.incubator.foreign module and native access enabled, the pages of
+ * the source and of the target, once written back, are then dropped from the cache, so that the copy still leaves the
+ * cache as it found it. Progress is reported and cancellation is checked once per chunk. This class has
+ * package-private access.
+ */
+final class DirectCopyEngine implements CopyEngine {
+
+    /** Size of the chunks copied, a multiple of any block size and of the block size in which fingerprints are folded */
+    static final int CHUNK_SIZE = 1024 * 1024;
+
+    /** Smallest alignment accepted for direct I/O by the file systems which support it */
+    private static final int MINIMUM_ALIGNMENT = 512;
+
+    /** Largest alignment for which the per-thread buffers can be sliced, well above the block sizes in use */
+    private static final int MAXIMUM_POOLED_ALIGNMENT = 64 * 1024;
+
+    private static final String FOREIGN_MODULE = "jdk.incubator.foreign";
+    private static final String NATIVE_ADVISOR_CLASS = "FileSieve.BusinessLogic.FileManagement.FadvisePageCacheAdvisor";
+    private static final PageCacheAdvisor nativeAdvisor = loadNativeAdvisor();
+
+    private static final DigestingCopyEngine digestingFallbackEngine = new DigestingCopyEngine();
+
+    private static final ThreadLocal<ByteBuffer> buffers = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocateDirect(CHUNK_SIZE + MAXIMUM_POOLED_ALIGNMENT);
+        }
+    };
+
+    private static final ThreadLocal<byte[]> fingerprintArrays = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[CHUNK_SIZE];
+        }
+    };
+
+    private final CopyEngine fallbackEngine;
+
+    /**
+     * @param fallbackEngine    engine to which copies are handed when a file cannot be opened for direct I/O
+     */
+    DirectCopyEngine(CopyEngine fallbackEngine) {
+        if (fallbackEngine == null) {
+            throw new IllegalArgumentException("null reference passed for \"fallbackEngine\" parameter");
+        }
+
+        this.fallbackEngine = fallbackEngine;
+    }
+
+    /**
+     * Returns the advisor which asks the operating system to drop files from the page cache, if it could be loaded.
+     *
+     * @return  the native advisor, or null if the jdk.incubator.foreign module or native access is not available, or
+     *          the platform is not Linux
+     */
+    static PageCacheAdvisor getNativeAdvisor() {
+        return nativeAdvisor;
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, CopyProgressMonitor monitor) throws IOException {
+        return copyFile(source, target, 0L, monitor, null);
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, long offset, CopyProgressMonitor monitor) throws IOException {
+        return copyFile(source, target, offset, monitor, null);
+    }
+
+    /**
+     * Copies a file as the four-argument copyFile method does, folding the whole of the source into a fingerprint as
+     * DigestingCopyEngine does. When resuming from an offset, the bytes of the source before the copy restarts are
+     * read, around the page cache, and folded in first.
+     *
+     * @param source            file to copy
+     * @param target            file to create or complete
+     * @param offset            number of leading bytes of the target already copied
+     * @param monitor           monitor to be informed of bytes copied and polled for cancellation
+     * @param fingerprint       fingerprint, constructed for the length of the source, into which its content is
+     *                          folded, or null if none is wanted
+     * @return                  number of bytes copied by this call, excluding the first "offset" bytes
+     * @throws IOException      thrown if an IOException occurs during read/write operations
+     */
+    long copyFile(Path source, Path target, long offset, CopyProgressMonitor monitor, ContentFingerprint fingerprint) throws IOException {
+        int alignment;
+        FileChannel sourceChannel;
+        FileChannel targetChannel;
+
+        try {
+            if (offset == 0L) {
+                // The target must exist for its store's block size to be looked up
+                Files.newByteChannel(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING).close();
+            }
+            alignment = (int) Math.max(MINIMUM_ALIGNMENT, Math.max(Files.getFileStore(source).getBlockSize(), Files.getFileStore(target).getBlockSize()));
+            if ((alignment > CHUNK_SIZE) || (CHUNK_SIZE % alignment != 0)) {
+                throw new UnsupportedOperationException("block size of " + alignment + " bytes is not supported for direct copies");
+            }
+
+            sourceChannel = FileChannel.open(source, StandardOpenOption.READ, ExtendedOpenOption.DIRECT);
+        } catch (UnsupportedOperationException | IOException e) {
+            // Direct I/O unavailable here; a genuine failure to open the files recurs in the fallback engine
+            return fallback(source, target, offset, monitor, fingerprint);
+        }
+
+        try {
+            targetChannel = FileChannel.open(target, StandardOpenOption.WRITE, ExtendedOpenOption.DIRECT);
+        } catch (UnsupportedOperationException | IOException e) {
+            sourceChannel.close();
+            return fallback(source, target, offset, monitor, fingerprint);
+        }
+
+        try (FileChannel sourceFile = sourceChannel; FileChannel targetFile = targetChannel) {
+            return copyDirect(sourceFile, targetFile, alignment, offset, monitor, fingerprint);
+        }
+    }
+
+    private long fallback(Path source, Path target, long offset, CopyProgressMonitor monitor, ContentFingerprint fingerprint) throws IOException {
+        long copied;
+        if (fingerprint != null) {
+            copied = digestingFallbackEngine.copyFile(source, target, offset, monitor, fingerprint);
+        } else {
+            copied = fallbackEngine.copyFile(source, target, offset, monitor);
+        }
+
+        // Advice only; a file left in the cache costs other processes some of their cached pages, not correctness
+        if (nativeAdvisor != null) {
+            nativeAdvisor.dropCachedPages(source, false);
+            nativeAdvisor.dropCachedPages(target, true);
+        }
+
+        return copied;
+    }
+
+    private static long copyDirect(FileChannel sourceChannel, FileChannel targetChannel, int alignment, long offset, CopyProgressMonitor monitor, ContentFingerprint fingerprint) throws IOException {
+        long copied = 0L;
+        long position = offset - (offset % alignment);
+        ByteBuffer buffer = alignedBuffer(alignment);
+        byte[] bytes = (fingerprint != null) ? fingerprintArrays.get() : null;
+
+        if (fingerprint != null) {
+            long prefixPosition = 0L;
+            while ((prefixPosition < position) && (!monitor.isCancelled())) {
+                int read = readChunk(sourceChannel, buffer, prefixPosition, alignment);
+                int length = (int) Math.min(read, position - prefixPosition);
+                if (length <= 0) {
+                    throw new IOException("file was shorter than expected; it may have changed since the copy began");
+                }
+                buffer.flip();
+                buffer.get(bytes, 0, length);
+                fingerprint.update(bytes, 0, length);
+                prefixPosition += length;
+            }
+        }
+
+        while (!monitor.isCancelled()) {
+            int read = readChunk(sourceChannel, buffer, position, alignment);
+            if (read <= 0) {
+                break;
+            }
+
+            if (fingerprint != null) {
+                buffer.flip();
+                buffer.get(bytes, 0, read);
+            }
+
+            // Only whole blocks can be written; any excess beyond the source's length is truncated below
+            buffer.position(0);
+            buffer.limit(roundUp(read, alignment));
+            while (buffer.hasRemaining()) {
+                targetChannel.write(buffer, position + buffer.position());
+            }
+
+            if (fingerprint != null) {
+                fingerprint.update(bytes, 0, read);
+            }
+
+            long newBytes = Math.max(0L, position + read - Math.max(position, offset));
+            position += read;
+            copied += newBytes;
+            monitor.bytesCopied(newBytes);
+            monitor.prefixCopied(position);
+
+            // A short chunk ends the file, and leaves the position unaligned for any further direct read
+            if (read < CHUNK_SIZE) {
+                break;
+            }
+        }
+
+        // Drop anything beyond the bytes copied, such as the rest of a preallocated or previously longer target
+        if (targetChannel.size() > Math.max(position, offset)) {
+            targetChannel.truncate(Math.max(position, offset));
+        }
+
+        return copied;
+    }
+
+    /**
+     * Reads a chunk from an aligned position of a channel into the start of a buffer, stopping short only at the end
+     * of the file, which is signalled by a read of less than a whole number of blocks.
+     *
+     * @return  number of bytes read, 0 at the end of the file
+     */
+    private static int readChunk(FileChannel channel, ByteBuffer buffer, long position, int alignment) throws IOException {
+        buffer.clear();
+
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if ((read <= 0) || (read % alignment != 0)) {
+                break;
+            }
+        }
+
+        return buffer.position();
+    }
+
+    /**
+     * Returns a direct buffer of CHUNK_SIZE bytes whose address is a multiple of the given alignment.
+     */
+    private static ByteBuffer alignedBuffer(int alignment) {
+        ByteBuffer buffer = (alignment <= MAXIMUM_POOLED_ALIGNMENT)
+                ? buffers.get().duplicate()
+                : ByteBuffer.allocateDirect(CHUNK_SIZE + alignment);
+
+        buffer.clear();
+        buffer = buffer.alignedSlice(alignment);
+        buffer.limit(CHUNK_SIZE);
+        return buffer.slice();
+    }
+
+    private static int roundUp(int value, int alignment) {
+        return ((value + alignment - 1) / alignment) * alignment;
+    }
+
+    /**
+     * Loads the native advisor reflectively, so that no class linking against the incubator module is resolved unless
+     * the module is present.
+     *
+     * @return  a FadvisePageCacheAdvisor instance, or null if one could not be created
+     */
+    private static PageCacheAdvisor loadNativeAdvisor() {
+        if ((!System.getProperty("os.name", "").startsWith("Linux")) || (!ModuleLayer.boot().findModule(FOREIGN_MODULE).isPresent())) {
+            return null;
+        }
+
+        try {
+            return (PageCacheAdvisor) Class.forName(NATIVE_ADVISOR_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // Including the IllegalCallerException thrown when native access has not been enabled
+            return null;
+        }
+    }
+
+} // class DirectCopyEngine implements CopyEngine
@@ -0,0 +1,201 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import FileSieve.BusinessLogic.FileDifferentiation.FingerprintStore;
+import FileSieve.BusinessLogic.FileDifferentiation.IoThrottle;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * HeadlessFileCopier which starts each CopyJob on the Executor it was constructed with. This class has
+ * package-private access.
+ */
+final class ExecutorFileCopier implements HeadlessFileCopier {
+
+    private final CopyJobSettings copyJobSettings = new CopyJobSettings();
+    private volatile CopyJobProgressListener copyJobProgressListener = null;
+
+    /**
+     * Constructs a copier whose jobs run on the given Executor and copy up to the given number of files concurrently.
+     *
+     * @param executor              Executor on which jobs and their file copies are run, or null for the default
+     * @param workerThreadLimit     number of concurrent file copies to be permitted per copy job, at least 1
+     */
+    ExecutorFileCopier(Executor executor, int workerThreadLimit) {
+        if (executor != null) {
+            copyJobSettings.setExecutor(executor);
+        }
+        copyJobSettings.setWorkerLimit(workerThreadLimit);
+    }
+
+    @Override
+    public CopyJob copyPathnames(Set<Path> sourcePathnames, Path targetPathname, boolean recursionEnabled, boolean overwriteExistingFiles, Comparator<Path> fileComparator) throws IOException {
+        if (sourcePathnames == null) {
+            throw new NullPointerException("null reference provided for sourcePathnames parameter");
+        }
+        if (targetPathname == null) {
+            throw new NullPointerException("null path provided for targetPathname parameter");
+        }
+
+        CopyJob.checkDestinationFolder(targetPathname);
+        return startJob(CopyJob.toRealPaths(sourcePathnames), targetPathname, recursionEnabled, overwriteExistingFiles, fileComparator, copyJobSettings.snapshot());
+    }
+
+    @Override
+    public CopyJob copyPathnames(CopyPlan copyPlan, Path targetPathname, boolean overwriteExistingFiles, Comparator<Path> fileComparator) {
+        if (copyPlan == null) {
+            throw new NullPointerException("null reference provided for copyPlan parameter");
+        }
+        if (targetPathname == null) {
+            throw new NullPointerException("null path provided for targetPathname parameter");
+        }
+
+        CopyJobSettings planSettings = copyJobSettings.snapshot();
+        planSettings.setCopyPlan(copyPlan);
+
+        CopyJob.checkDestinationFolder(targetPathname);
+        return startJob(copyPlan.getPaths(), targetPathname, false, overwriteExistingFiles, fileComparator, planSettings);
+    }
+
+    @Override
+    public CopyJob copyPathname(Path sourcePathname, Path targetPathname, boolean recursionEnabled, boolean overwriteExistingFiles, Comparator<Path> fileComparator) throws IOException {
+        if (sourcePathname == null) {
+            throw new NullPointerException("null reference provided for sourcePathname parameter");
+        }
+
+        Set<Path> sourcePathnames = new LinkedHashSet<>(1);
+        sourcePathnames.add(sourcePathname);
+
+        return copyPathnames(sourcePathnames, targetPathname, recursionEnabled, overwriteExistingFiles, fileComparator);
+    }
+
+    @Override
+    public CopyJob resumeCopyJob(Path targetPathname, Comparator<Path> fileComparator) throws IOException {
+        if (targetPathname == null) {
+            throw new NullPointerException("null path provided for targetPathname parameter");
+        }
+
+        CopyJournal.Contents journal = CopyJournal.load(targetPathname);
+
+        CopyJobSettings resumeSettings = copyJobSettings.snapshot();
+        resumeSettings.setJournalEnabled(true);
+        resumeSettings.setResumedJournal(journal);
+        resumeSettings.setMoveSources(journal.isMovingSources());
+
+        CopyJob.checkDestinationFolder(targetPathname);
+        return startJob(CopyJob.toRealPaths(journal.getSourcePaths()), targetPathname, journal.isRecursive(), journal.isOverwritingExistingFiles(), fileComparator, resumeSettings);
+    }
+
+    @Override
+    public CopyJob movePathnames(Set<Path> sourcePathnames, Path targetPathname, boolean overwriteExistingFiles, Comparator<Path> fileComparator) throws IOException {
+        if (sourcePathnames == null) {
+            throw new NullPointerException("null reference provided for sourcePathnames parameter");
+        }
+        if (targetPathname == null) {
+            throw new NullPointerException("null path provided for targetPathname parameter");
+        }
+
+        CopyJobSettings moveSettings = copyJobSettings.snapshot();
+        moveSettings.setMoveSources(true);
+
+        CopyJob.checkDestinationFolder(targetPathname);
+        return startJob(CopyJob.toRealPaths(sourcePathnames), targetPathname, true, overwriteExistingFiles, fileComparator, moveSettings);
+    }
+
+    @Override
+    public CopyJob archivePathnames(Set<Path> sourcePathnames, Path archivePathname, boolean recursionEnabled, boolean overwriteExistingFile) throws IOException {
+        if (sourcePathnames == null) {
+            throw new NullPointerException("null reference provided for sourcePathnames parameter");
+        }
+        if (archivePathname == null) {
+            throw new NullPointerException("null path provided for archivePathname parameter");
+        }
+
+        CopyJobSettings archiveSettings = copyJobSettings.snapshot();
+        archiveSettings.setArchiveDestination(true);
+
+        CopyJob.checkArchiveFile(archivePathname, overwriteExistingFile);
+        return startJob(CopyJob.toRealPaths(sourcePathnames), archivePathname, recursionEnabled, overwriteExistingFile, null, archiveSettings);
+    }
+
+    @Override
+    public void setCopyOperationsListener(CopyJobProgressListener listener) {
+        this.copyJobProgressListener = listener;
+    }
+
+    @Override
+    public void setCopyDigestsEnabled(boolean digestsEnabled) {
+        copyJobSettings.setCopyDigestsEnabled(digestsEnabled);
+    }
+
+    @Override
+    public void setCopyVerificationEnabled(boolean verificationEnabled) {
+        copyJobSettings.setCopyVerificationEnabled(verificationEnabled);
+    }
+
+    @Override
+    public void setFingerprintStore(FingerprintStore fingerprintStore) {
+        copyJobSettings.setFingerprintStore(fingerprintStore);
+    }
+
+    @Override
+    public void setCacheBypassEnabled(boolean cacheBypassEnabled) {
+        copyJobSettings.setCacheBypassEnabled(cacheBypassEnabled);
+    }
+
+    @Override
+    public void setTargetListingEnabled(boolean targetListingEnabled) {
+        copyJobSettings.setTargetListingEnabled(targetListingEnabled);
+    }
+
+    @Override
+    public void setThrottle(IoThrottle throttle) {
+        copyJobSettings.setThrottle(throttle);
+    }
+
+    @Override
+    public void setSparseCopyEnabled(boolean sparseCopyEnabled) {
+        copyJobSettings.setSparseCopyEnabled(sparseCopyEnabled);
+    }
+
+    @Override
+    public void setDeltaCopyEnabled(boolean deltaCopyEnabled) {
+        copyJobSettings.setDeltaCopyEnabled(deltaCopyEnabled);
+    }
+
+    @Override
+    public void setCopyJournalEnabled(boolean journalEnabled) {
+        copyJobSettings.setJournalEnabled(journalEnabled);
+    }
+
+    @Override
+    public void setCopyPipeline(CopyPipeline copyPipeline) {
+        copyJobSettings.setCopyPipeline(copyPipeline);
+    }
+
+    /**
+     * Sets the CopyEngine with which copy jobs subsequently started by this copier copy file content.
+     *
+     * @param copyEngine    CopyEngine to be used by new copy jobs
+     */
+    void setCopyEngine(CopyEngine copyEngine) {
+        copyJobSettings.setCopyEngine(copyEngine);
+    }
+
+    private CopyJob startJob(Set<Path> sourcePaths, Path targetPathname, boolean recursionEnabled, boolean overwriteExistingFiles, Comparator<Path> fileComparator, CopyJobSettings settings) {
+        CopyJob copyJob = new CopyJob(sourcePaths, targetPathname, recursionEnabled, overwriteExistingFiles, fileComparator, settings);
+
+        CopyJobProgressListener listener = copyJobProgressListener;
+        if (listener != null) {
+            copyJob.addProgressListener(listener);
+        }
+
+        copyJob.start();
+        return copyJob;
+    }
+
+} // class ExecutorFileCopier implements HeadlessFileCopier
@@ -0,0 +1,76 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import jdk.incubator.foreign.CLinker;
+import jdk.incubator.foreign.FunctionDescriptor;
+import jdk.incubator.foreign.MemoryAddress;
+import jdk.incubator.foreign.ResourceScope;
+import jdk.incubator.foreign.SymbolLookup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.nio.file.Path;
+
+/**
+ * PageCacheAdvisor which gives a Linux kernel the POSIX_FADV_DONTNEED advice for the whole of a file with
+ * posix_fadvise, having written its dirty pages back with fdatasync where asked to, called through the foreign linker
+ * of the jdk.incubator.foreign module. As with SeekDataRegionLocator, linking requires the module to be added to the
+ * runtime and native access to be enabled, so instances are only created reflectively, by DirectCopyEngine, once the
+ * module is known to be present. This class has package-private access.
+ */
+final class FadvisePageCacheAdvisor implements PageCacheAdvisor {
+
+    private static final int O_RDONLY = 0;
+    private static final int POSIX_FADV_DONTNEED = 4;
+
+    private final MethodHandle open;
+    private final MethodHandle fdatasync;
+    private final MethodHandle posixFadvise;
+    private final MethodHandle close;
+
+    /**
+     * @throws IllegalCallerException   thrown if native access has not been enabled for the calling module
+     */
+    FadvisePageCacheAdvisor() {
+        CLinker linker = CLinker.getInstance();
+        SymbolLookup lookup = CLinker.systemLookup();
+
+        open = linker.downcallHandle(lookup.lookup("open").get(),
+                MethodType.methodType(int.class, MemoryAddress.class, int.class),
+                FunctionDescriptor.of(CLinker.C_INT, CLinker.C_POINTER, CLinker.C_INT));
+        fdatasync = linker.downcallHandle(lookup.lookup("fdatasync").get(),
+                MethodType.methodType(int.class, int.class),
+                FunctionDescriptor.of(CLinker.C_INT, CLinker.C_INT));
+        posixFadvise = linker.downcallHandle(lookup.lookup("posix_fadvise").get(),
+                MethodType.methodType(int.class, int.class, long.class, long.class, int.class),
+                FunctionDescriptor.of(CLinker.C_INT, CLinker.C_INT, CLinker.C_LONG, CLinker.C_LONG, CLinker.C_INT));
+        // The result of close is of no use for a descriptor opened only for reading, so it is discarded
+        close = linker.downcallHandle(lookup.lookup("close").get(),
+                MethodType.methodType(void.class, int.class),
+                FunctionDescriptor.ofVoid(CLinker.C_INT));
+    }
+
+    @Override
+    public boolean dropCachedPages(Path file, boolean writeBack) {
+        try (ResourceScope scope = ResourceScope.newConfinedScope()) {
+            int fd = (int) open.invokeExact(CLinker.toCString(file.toAbsolutePath().toString(), scope).address(), O_RDONLY);
+            if (fd < 0) {
+                return false;
+            }
+
+            try {
+                if (writeBack && ((int) fdatasync.invokeExact(fd) != 0)) {
+                    return false;
+                }
+                // A length of 0 extends the advice to the end of the file; posix_fadvise returns 0 or an error number
+                return (int) posixFadvise.invokeExact(fd, 0L, 0L, POSIX_FADV_DONTNEED) == 0;
+            } finally {
+                close.invokeExact(fd);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+} // class FadvisePageCacheAdvisor implements PageCacheAdvisor
@@ -1,10 +1,15 @@
 package FileSieve.BusinessLogic.FileManagement;
 
+import java.util.concurrent.Executor;
+
 /**
  * Factory class for acquiring FileManager instances.
  */
 public class FileManagerFactory {
 
+    /** Number of files copied concurrently by the copy jobs of a default SwingFileManager */
+    public static final int DEFAULT_COPY_WORKER_LIMIT = 4;
+
     /**
      * Private constructor - class is a static factory class
      */
@@ -14,12 +19,85 @@ public class FileManagerFactory {
      * Returns a SwingFileManager instance for handling common file management operations. This implementation of a
      * FileManager returns instances of a SwingCopyJob class for handling folder/file copies. SwingCopyJob
      * instances use a SwingWorker to handle copy operations.
-     * One worker thread is used per long-running operation (e.g. a file or folder copy).
+     * Each copy job copies up to DEFAULT_COPY_WORKER_LIMIT files concurrently.
      *
      * @return                  a FileManager instance
      */
     public static SwingFileManager getSwingFileManager() {
-        return new SwingWorkerBasedFileManager(1);
+        return new SwingWorkerBasedFileManager(DEFAULT_COPY_WORKER_LIMIT);
+    }
+
+    /**
+     * Returns a SwingFileManager instance whose copy jobs copy up to the given number of files concurrently. A limit
+     * of 1 copies files one at a time on the copy job's own thread.
+     *
+     * @param workerThreadLimit     number of concurrent file copies to be permitted per copy job, at least 1
+     * @return                      a FileManager instance
+     */
+    public static SwingFileManager getSwingFileManager(int workerThreadLimit) {
+        return new SwingWorkerBasedFileManager(workerThreadLimit);
+    }
+
+    /**
+     * Returns a HeadlessFileCopier, for use without a GUI, whose copy jobs run on a shared pool of daemon threads
+     * and copy up to DEFAULT_COPY_WORKER_LIMIT files concurrently.
+     *
+     * @return                      a HeadlessFileCopier instance
+     */
+    public static HeadlessFileCopier getHeadlessFileCopier() {
+        return new ExecutorFileCopier(null, DEFAULT_COPY_WORKER_LIMIT);
+    }
+
+    /**
+     * Returns a HeadlessFileCopier whose copy jobs, and their file copies, run on the given Executor. Any Executor
+     * may be used, such as one which starts a virtual thread per task where the platform provides them; a job never
+     * waits on the Executor for a copy it could carry out itself.
+     *
+     * @param executor              Executor on which copy jobs are to run
+     * @param workerThreadLimit     number of concurrent file copies to be permitted per copy job, at least 1
+     * @return                      a HeadlessFileCopier instance
+     */
+    public static HeadlessFileCopier getHeadlessFileCopier(Executor executor, int workerThreadLimit) {
+        if (executor == null) {
+            throw new IllegalArgumentException("null reference passed for \"executor\" parameter");
+        }
+
+        return new ExecutorFileCopier(executor, workerThreadLimit);
+    }
+
+    /**
+     * Returns a HeadlessFileCopier whose copy jobs copy file content with AsynchronousFileChannel, keeping several
+     * reads and writes of each file in flight, issued from completion handlers run on a small pool of threads shared
+     * by all the copier's jobs. Suits storage which performs best with many requests queued, or whose latency leaves
+     * a single request at a time waiting, such as network file systems and arrays of SSDs. Copy jobs run on a shared
+     * pool of daemon threads; each of a job's workerThreadLimit threads starts file copies without waiting for them,
+     * so that a job with more than one keeps up to eight times as many files in flight.
+     *
+     * @param workerThreadLimit     number of threads starting file copies per copy job, at least 1
+     * @return                      a HeadlessFileCopier instance
+     */
+    public static HeadlessFileCopier getAsynchronousFileCopier(int workerThreadLimit) {
+        ExecutorFileCopier copier = new ExecutorFileCopier(null, workerThreadLimit);
+        copier.setCopyEngine(new AsynchronousCopyEngine());
+        return copier;
+    }
+
+    /**
+     * Returns a HeadlessFileCopier copying file content with AsynchronousFileChannel, as getAsynchronousFileCopier(int)
+     * does, whose copy jobs run on the given Executor.
+     *
+     * @param executor              Executor on which copy jobs are to run
+     * @param workerThreadLimit     number of threads starting file copies per copy job, at least 1
+     * @return                      a HeadlessFileCopier instance
+     */
+    public static HeadlessFileCopier getAsynchronousFileCopier(Executor executor, int workerThreadLimit) {
+        if (executor == null) {
+            throw new IllegalArgumentException("null reference passed for \"executor\" parameter");
+        }
+
+        ExecutorFileCopier copier = new ExecutorFileCopier(executor, workerThreadLimit);
+        copier.setCopyEngine(new AsynchronousCopyEngine());
+        return copier;
     }
 
 } // class FileManagerFactory
@@ -0,0 +1,186 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import FileSieve.BusinessLogic.FileDifferentiation.FingerprintStore;
+import FileSieve.BusinessLogic.FileDifferentiation.IoThrottle;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Set;
+
+/**
+ * A FileCopier for return by the FileManagerFactory for use without a GUI, such as in batch processes. Copy jobs are
+ * returned as CopyJob instances, whose outcome is available as a CompletableFuture, and are run on an Executor chosen
+ * when the copier is acquired. Progress is reported on the jobs' own threads; nothing is dispatched to the EDT.
+ * Unlike a SwingFileManager, a HeadlessFileCopier does not merge equivalent jobs, and concurrent jobs writing to the
+ * same destination folder are not detected.
+ */
+public interface HeadlessFileCopier extends FileCopier<CopyJob, CopyJobProgressListener, Path> {
+
+    /**
+     * Starts a copy of one or more folders or files to a target folder, as SwingFileManager.copyPathnames does.
+     *
+     * @param sourcePathnames           list (Set<Path>) of pathnames of folders and/or files to copy
+     * @param targetPathname            pathname of folder into which to copy sourcePathnames items
+     * @param recursionEnabled          boolean value specifying if a recursive search for files/folders within subfolders of folders within the pathsToBeCopied list should be carried out
+     * @param overwriteExistingFiles    indicates if existing files in the target path should be overwritten if found to be similar to those currently being copied
+     * @param fileComparator            Function object of type Comparator<Path> with which to compare two files, or
+     *                                  null for the default comparison of lowercase file names and lengths; it may be
+     *                                  called concurrently and must be thread-safe
+     * @return                          the started CopyJob
+     * @throws IOException              thrown if attempted access of a path in sourcePathnames generates an IOException
+     */
+    @Override
+    public CopyJob copyPathnames(Set<Path> sourcePathnames, Path targetPathname, boolean recursionEnabled, boolean overwriteExistingFiles, Comparator<Path> fileComparator) throws IOException;
+
+    /**
+     * Convenience method providing similar functionality to the copyPathnames method but taking only one pathname.
+     *
+     * @param sourcePathname            pathname of folder or file to copy
+     * @param targetPathname            pathname of folder into which to copy sourcePathname
+     * @param recursionEnabled          boolean value specifying if a recursive search for files/folders within subfolders of the sourcePathname should be carried out
+     * @param overwriteExistingFiles    indicates if existing files in the target path should be overwritten if found to be similar to those currently being copied
+     * @param fileComparator            Function object of type Comparator<Path> as for copyPathnames, or null
+     * @return                          the started CopyJob
+     * @throws IOException              thrown if attempted access of sourcePathname generates an IOException
+     */
+    @Override
+    public CopyJob copyPathname(Path sourcePathname, Path targetPathname, boolean recursionEnabled, boolean overwriteExistingFiles, Comparator<Path> fileComparator) throws IOException;
+
+    /**
+     * Starts a copy of the folders and files of a CopyPlan, as SwingFileManager.copyPathnames does for a plan.
+     *
+     * @param copyPlan                  plan listing the folders and files to copy, with their attributes
+     * @param targetPathname            pathname of folder into which to copy the plan's items
+     * @param overwriteExistingFiles    indicates if existing files in the target path should be overwritten if found to be similar to those currently being copied
+     * @param fileComparator            Function object of type Comparator<Path> as for copyPathnames, or null
+     * @return                          the started CopyJob
+     */
+    public CopyJob copyPathnames(CopyPlan copyPlan, Path targetPathname, boolean overwriteExistingFiles, Comparator<Path> fileComparator);
+
+    /**
+     * Resumes a copy job from the journal it left in its destination folder, as SwingFileManager.resumeCopyJob does.
+     *
+     * @param targetPathname            destination folder of the job to resume
+     * @param fileComparator            Function object of type Comparator<Path> as for copyPathnames, or null
+     * @return                          the started CopyJob
+     * @throws java.nio.file.NoSuchFileException    thrown if the destination folder holds no copy journal
+     * @throws IOException              thrown if the journal cannot be read or a source path cannot be accessed
+     */
+    public CopyJob resumeCopyJob(Path targetPathname, Comparator<Path> fileComparator) throws IOException;
+
+    /**
+     * Starts a move of one or more folders or files into a target folder, as SwingFileManager.movePathnames does.
+     *
+     * @param sourcePathnames           folders and/or files to move
+     * @param targetPathname            folder into which to move them
+     * @param overwriteExistingFiles    indicates if similar files existing in the target folder are overwritten
+     * @param fileComparator            Function object of type Comparator<Path> as for copyPathnames, or null
+     * @return                          the started CopyJob
+     * @throws IOException              thrown if a source path cannot be accessed
+     */
+    public CopyJob movePathnames(Set<Path> sourcePathnames, Path targetPathname, boolean overwriteExistingFiles, Comparator<Path> fileComparator) throws IOException;
+
+    /**
+     * Starts writing one or more folders or files to a compressed archive file, as SwingFileManager.archivePathnames
+     * does.
+     *
+     * @param sourcePathnames           folders and/or files to archive
+     * @param archivePathname           archive file to write
+     * @param recursionEnabled          boolean value specifying if the contents of subfolders are archived
+     * @param overwriteExistingFile     indicates if an existing file at archivePathname may be replaced
+     * @return                          the started CopyJob
+     * @throws IOException              thrown if a source path cannot be accessed
+     */
+    public CopyJob archivePathnames(Set<Path> sourcePathnames, Path archivePathname, boolean recursionEnabled, boolean overwriteExistingFile) throws IOException;
+
+    /**
+     * Specifies a listener which is added to copy jobs subsequently started. It is called on the jobs' threads,
+     * possibly concurrently.
+     *
+     * @param listener      listener to be added to new jobs, or null for none
+     */
+    @Override
+    public void setCopyOperationsListener(CopyJobProgressListener listener);
+
+    /**
+     * Specifies whether copy jobs subsequently started fingerprint each file as they copy it, as
+     * SwingFileManager.setCopyDigestsEnabled does.
+     *
+     * @param digestsEnabled    true if copied files are to be fingerprinted
+     */
+    public void setCopyDigestsEnabled(boolean digestsEnabled);
+
+    /**
+     * Specifies whether copy jobs subsequently started verify each copy once written, as
+     * SwingFileManager.setCopyVerificationEnabled does.
+     *
+     * @param verificationEnabled   true if copies are to be verified
+     */
+    public void setCopyVerificationEnabled(boolean verificationEnabled);
+
+    /**
+     * Specifies a FingerprintStore in which copy jobs subsequently started record fingerprints, as
+     * SwingFileManager.setFingerprintStore does.
+     *
+     * @param fingerprintStore  store in which to record fingerprints, or null to stop recording them
+     */
+    public void setFingerprintStore(FingerprintStore fingerprintStore);
+
+    /**
+     * Specifies whether copy jobs subsequently started bypass the page cache, as
+     * SwingFileManager.setCacheBypassEnabled does.
+     *
+     * @param cacheBypassEnabled    true if copies are to bypass the page cache
+     */
+    public void setCacheBypassEnabled(boolean cacheBypassEnabled);
+
+    /**
+     * Specifies whether copy jobs subsequently started without a Comparator compare targets from per-folder
+     * listings, as SwingFileManager.setTargetListingEnabled does.
+     *
+     * @param targetListingEnabled  true if targets are to be compared from per-folder listings
+     */
+    public void setTargetListingEnabled(boolean targetListingEnabled);
+
+    /**
+     * Specifies a throttle limiting the rates at which copy jobs subsequently started copy bytes and create files and
+     * folders, as SwingFileManager.setThrottle does.
+     *
+     * @param throttle      throttle to be charged, or null to stop limiting new copy jobs
+     */
+    public void setThrottle(IoThrottle throttle);
+
+    /**
+     * Specifies whether copy jobs subsequently started keep the holes of sparse files as holes in their copies, as
+     * SwingFileManager.setSparseCopyEnabled does.
+     *
+     * @param sparseCopyEnabled     true if holes are to be kept in copies
+     */
+    public void setSparseCopyEnabled(boolean sparseCopyEnabled);
+
+    /**
+     * Specifies whether copy jobs subsequently started, which overwrite existing files, update them in place by
+     * rewriting only the blocks which differ, as SwingFileManager.setDeltaCopyEnabled does.
+     *
+     * @param deltaCopyEnabled  true if new copy jobs are to update existing files in place
+     */
+    public void setDeltaCopyEnabled(boolean deltaCopyEnabled);
+
+    /**
+     * Specifies a pipeline through which copy jobs subsequently started copy large files, as
+     * SwingFileManager.setCopyPipeline does.
+     *
+     * @param copyPipeline  pipeline to copy large files through, or null to copy them without one
+     */
+    public void setCopyPipeline(CopyPipeline copyPipeline);
+
+    /**
+     * Specifies whether copy jobs subsequently started keep a journal in their destination folder, from which they
+     * can be resumed, as SwingFileManager.setCopyJournalEnabled does.
+     *
+     * @param journalEnabled    true if new copy jobs are to be journaled
+     */
+    public void setCopyJournalEnabled(boolean journalEnabled);
+
+} // interface HeadlessFileCopier extends FileCopier<CopyJob, CopyJobProgressListener, Path>
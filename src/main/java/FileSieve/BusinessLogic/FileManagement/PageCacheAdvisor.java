@@ -0,0 +1,21 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.nio.file.Path;
+
+/**
+ * Asks the operating system to drop the cached pages of a file, so that a file read or written through the page
+ * cache does not stay there at the expense of other processes' files. This interface has package-private access.
+ */
+interface PageCacheAdvisor {
+
+    /**
+     * Drops the pages of a file from the page cache. Dirty pages cannot be dropped until they have been written, so
+     * a file just written is first written back to its storage.
+     *
+     * @param file          file whose pages are to be dropped
+     * @param writeBack     true if the file's dirty pages are to be written back first
+     * @return              true if the advice was taken, false if the file could not be opened or the advice failed
+     */
+    public boolean dropCachedPages(Path file, boolean writeBack);
+
+} // interface PageCacheAdvisor
@@ -0,0 +1,258 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * CopyEngine which decouples reading a file from writing its copy. A reader run on a thread of the CopyPipeline fills
+ * the buffers of a bounded ring with the source's content, in order, while the thread calling copyFile writes each
+ * filled buffer to the target and hands it back to the reader, so that the source device is read while the target
+ * device is written. The ring's buffers are direct, and pooled by the pipeline. Time either side spends waiting for
+ * the other is recorded by the pipeline. Files with less than two buffers left to copy are passed to a delegate
+ * engine. Progress is reported to the monitor once per buffer written, and cancellation stops the reader as well as
+ * the writer. This class has package-private access.
+ */
+final class PipelinedCopyEngine implements DelegatingCopyEngine {
+
+    /** Interval at which a reader waiting for an empty buffer checks whether its writer has stopped */
+    private static final long READER_POLL_MILLIS = 50L;
+
+    /** Marks the end of the source in the queue of filled buffers */
+    private static final ByteBuffer END_OF_SOURCE = ByteBuffer.allocate(0);
+
+    private final CopyEngine smallFileEngine;
+    private final CopyPipeline pipeline;
+
+    /**
+     * @param smallFileEngine   engine to which files with less than two buffers left to copy are passed
+     * @param pipeline          pipeline supplying the rings, reader threads and instrumentation
+     */
+    PipelinedCopyEngine(CopyEngine smallFileEngine, CopyPipeline pipeline) {
+        if (smallFileEngine == null) {
+            throw new IllegalArgumentException("null reference passed for \"smallFileEngine\" parameter");
+        }
+        if (pipeline == null) {
+            throw new IllegalArgumentException("null reference passed for \"pipeline\" parameter");
+        }
+
+        this.smallFileEngine = smallFileEngine;
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, CopyProgressMonitor monitor) throws IOException {
+        return copyFile(source, target, 0L, monitor);
+    }
+
+    @Override
+    public CopyEngine getDelegate(Path source, Path target, long offset) {
+        return (source.toFile().length() - offset < 2L * pipeline.getBufferSize()) ? smallFileEngine : null;
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, long offset, CopyProgressMonitor monitor) throws IOException {
+        if (getDelegate(source, target, offset) != null) {
+            return smallFileEngine.copyFile(source, target, offset, monitor);
+        }
+
+        try (
+                FileChannel targetChannel = (offset > 0L)
+                        ? FileChannel.open(target, StandardOpenOption.WRITE)
+                        : FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)
+        ) {
+            if (offset > 0L) {
+                // Drop anything beyond the bytes already copied, such as the rest of a preallocated target
+                targetChannel.truncate(offset);
+            }
+
+            List<ByteBuffer> ring = pipeline.acquireRing();
+            Reader reader = new Reader(source, offset, ring, pipeline);
+            try {
+                pipeline.executeReader(reader);
+            } catch (RejectedExecutionException e) {
+                pipeline.releaseRing(ring);
+                throw new IOException("the copy pipeline refused the reader of \"" + source + "\"", e);
+            }
+
+            long position = offset;
+            try {
+                position = writeFilledBuffers(reader, targetChannel, offset, monitor);
+            } finally {
+                // The ring may only be reused once the reader can no longer fill any of its buffers
+                reader.stop();
+                reader.awaitStopped();
+                pipeline.releaseRing(ring);
+            }
+
+            IOException readFailure = reader.failure.get();
+            if (readFailure != null) {
+                throw readFailure;
+            }
+
+            return position - offset;
+        }
+    }
+
+    /**
+     * Writes the buffers the reader fills, in order, handing each back once written, until the end of the source or
+     * cancellation.
+     *
+     * @return  offset at which writing stopped
+     */
+    private long writeFilledBuffers(Reader reader, FileChannel targetChannel, long offset, CopyProgressMonitor monitor) throws IOException {
+        long position = offset;
+
+        while (!monitor.isCancelled()) {
+            ByteBuffer buffer = reader.filled.poll();
+            int filledBuffers = reader.filled.size() + 1;
+            if (buffer == null) {
+                filledBuffers = 0;
+                long waitStart = System.nanoTime();
+                try {
+                    buffer = reader.filled.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted while waiting for the source to be read");
+                }
+                pipeline.writerWaited(System.nanoTime() - waitStart);
+            }
+
+            if (buffer == END_OF_SOURCE) {
+                break;
+            }
+
+            int length = buffer.remaining();
+            while (buffer.hasRemaining()) {
+                targetChannel.write(buffer, position + buffer.position());
+            }
+            buffer.clear();
+            reader.empty.add(buffer);
+
+            position += length;
+            pipeline.bufferWritten(length, filledBuffers);
+            monitor.bytesCopied(length);
+            monitor.prefixCopied(position);
+        }
+
+        return position;
+    }
+
+    /**
+     * Reads a source into the empty buffers of a ring, passing each to the writer once filled, and marks the end of
+     * the source, or its failure, once it stops.
+     */
+    private static final class Reader implements Runnable {
+        private final Path source;
+        private final long offset;
+        private final CopyPipeline pipeline;
+        private final BlockingQueue<ByteBuffer> empty;
+        private final BlockingQueue<ByteBuffer> filled;
+        private final AtomicBoolean stopped = new AtomicBoolean(false);
+        private final AtomicReference<IOException> failure = new AtomicReference<>(null);
+        private final CountDownLatch readerStopped = new CountDownLatch(1);
+
+        private Reader(Path source, long offset, List<ByteBuffer> ring, CopyPipeline pipeline) {
+            this.source = source;
+            this.offset = offset;
+            this.pipeline = pipeline;
+            this.empty = new ArrayBlockingQueue<>(ring.size(), false, ring);
+            // Room for every buffer of the ring and the end marker, so that the reader never waits to pass one on
+            this.filled = new ArrayBlockingQueue<>(ring.size() + 1);
+        }
+
+        @Override
+        public void run() {
+            try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ)) {
+                long sourceSize = sourceChannel.size();
+                long position = offset;
+
+                while ((position < sourceSize) && (!stopped.get())) {
+                    ByteBuffer buffer = takeEmptyBuffer();
+                    if (buffer == null) {
+                        break;
+                    }
+
+                    buffer.limit((int) Math.min(buffer.capacity(), sourceSize - position));
+                    while (buffer.hasRemaining()) {
+                        if (sourceChannel.read(buffer, position + buffer.position()) < 0) {
+                            break;
+                        }
+                    }
+                    buffer.flip();
+
+                    if (buffer.limit() == 0) {
+                        // The source shrank after it was opened; what remains of it has been read
+                        break;
+                    }
+
+                    position += buffer.limit();
+                    filled.add(buffer);
+                }
+            } catch (IOException e) {
+                failure.set(e);
+            } catch (RuntimeException e) {
+                failure.set(new IOException("unable to read \"" + source + "\"", e));
+            } finally {
+                filled.add(END_OF_SOURCE);
+                readerStopped.countDown();
+            }
+        }
+
+        /**
+         * Takes an empty buffer, waiting for the writer to hand one back if need be.
+         *
+         * @return  an empty buffer, or null if the writer stopped before one was handed back
+         */
+        private ByteBuffer takeEmptyBuffer() throws IOException {
+            ByteBuffer buffer = empty.poll();
+
+            if (buffer == null) {
+                long waitStart = System.nanoTime();
+                try {
+                    while ((buffer == null) && (!stopped.get())) {
+                        buffer = empty.poll(READER_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    }
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("interrupted while waiting for the target to be written");
+                }
+                pipeline.readerWaited(System.nanoTime() - waitStart);
+            }
+
+            return buffer;
+        }
+
+        private void stop() {
+            stopped.set(true);
+        }
+
+        private void awaitStopped() {
+            boolean interrupted = false;
+
+            while (true) {
+                try {
+                    readerStopped.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+} // class PipelinedCopyEngine implements DelegatingCopyEngine
@@ -0,0 +1,281 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CopyEngine which copies files of at least "largeFileThreshold" bytes as a set of fixed-size ranges, several of which
+ * are copied concurrently with positional FileChannel reads and writes. The target is first extended to its final
+ * length, so that ranges can be written in any order and the file system can lay the file out in one go. Smaller
+ * files are passed to a delegate engine. Ranges are copied on an executor of the engine's own, separate from the
+ * threads copying whole files, so that a file copy waiting on its ranges can never starve them of threads.
+ * Progress is reported to the monitor once per buffer written, by the thread which wrote it, and the written prefix of
+ * the target is reported, one range at a time, whenever the ranges before it have all been completed. This class has
+ * package-private access.
+ */
+final class RangedCopyEngine implements CopyEngine {
+
+    /** Default minimum size of files copied in ranges */
+    static final long DEFAULT_LARGE_FILE_THRESHOLD = 256L * 1024 * 1024;
+
+    /** Default size of the ranges into which large files are divided */
+    static final long DEFAULT_RANGE_SIZE = 32L * 1024 * 1024;
+
+    /** Default number of ranges copied concurrently, across all large files being copied */
+    static final int DEFAULT_RANGE_THREADS = 4;
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final CopyEngine smallFileEngine;
+    private final long largeFileThreshold;
+    private final long rangeSize;
+    private final ThreadPoolExecutor rangeExecutor;
+    private final ThreadLocal<ByteBuffer> buffers = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+    };
+
+    RangedCopyEngine(CopyEngine smallFileEngine) {
+        this(smallFileEngine, DEFAULT_LARGE_FILE_THRESHOLD, DEFAULT_RANGE_SIZE, DEFAULT_RANGE_THREADS);
+    }
+
+    /**
+     * Constructs an engine with the given large-file policy.
+     *
+     * @param smallFileEngine       engine to which files smaller than the threshold are passed
+     * @param largeFileThreshold    minimum byte length of files to be copied in ranges
+     * @param rangeSize             byte length of each range
+     * @param rangeThreads          number of ranges copied concurrently
+     */
+    RangedCopyEngine(CopyEngine smallFileEngine, long largeFileThreshold, long rangeSize, int rangeThreads) {
+        if (smallFileEngine == null) {
+            throw new IllegalArgumentException("null reference passed for \"smallFileEngine\" parameter");
+        }
+        if ((largeFileThreshold < 1L) || (rangeSize < 1L) || (rangeThreads < 1)) {
+            throw new IllegalArgumentException("threshold, range size and range thread count must be positive");
+        }
+
+        this.smallFileEngine = smallFileEngine;
+        this.largeFileThreshold = largeFileThreshold;
+        this.rangeSize = rangeSize;
+
+        final AtomicInteger threadNumber = new AtomicInteger(0);
+        rangeExecutor = new ThreadPoolExecutor(rangeThreads, rangeThreads, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "RangedCopyWorker-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        rangeExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, CopyProgressMonitor monitor) throws IOException {
+        return copyFile(source, target, 0L, monitor);
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, long offset, final CopyProgressMonitor monitor) throws IOException {
+        if (source.toFile().length() < largeFileThreshold) {
+            return smallFileEngine.copyFile(source, target, offset, monitor);
+        }
+
+        try (
+                final FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ);
+                final FileChannel targetChannel = (offset > 0L)
+                        ? FileChannel.open(target, StandardOpenOption.WRITE)
+                        : FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)
+        ) {
+            final long fileSize = sourceChannel.size();
+
+            // Extend the target to its final length before any range is written
+            if (targetChannel.size() > fileSize) {
+                targetChannel.truncate(fileSize);
+            }
+            if ((fileSize > 0L) && (targetChannel.size() < fileSize)) {
+                targetChannel.write(ByteBuffer.wrap(new byte[1]), fileSize - 1);
+            }
+
+            final AtomicBoolean stopped = new AtomicBoolean(false);
+            final long[] copied = { 0L };
+            final WrittenPrefix writtenPrefix = new WrittenPrefix(offset, fileSize, rangeSize);
+            List<Future<?>> rangeCopies = new ArrayList<>((int) ((fileSize - offset) / rangeSize) + 1);
+
+            for (long rangeStart = offset; rangeStart < fileSize; rangeStart += rangeSize) {
+                final long start = rangeStart;
+                final long end = Math.min(fileSize, rangeStart + rangeSize);
+
+                rangeCopies.add(rangeExecutor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws IOException {
+                        if (copyRange(sourceChannel, targetChannel, start, end, monitor, stopped, copied)) {
+                            // Reported under the lock, so that the prefix reaches the monitor in order
+                            synchronized (writtenPrefix) {
+                                long prefix = writtenPrefix.rangeCompleted(start);
+                                if (prefix >= 0L) {
+                                    monitor.prefixCopied(prefix);
+                                }
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+
+            IOException failure = awaitRanges(rangeCopies, stopped);
+            if (failure != null) {
+                // A preallocated target nothing was reported for would not be recognized by the caller as a fragment
+                synchronized (copied) {
+                    if (copied[0] == 0L) {
+                        targetChannel.truncate(offset);
+                    }
+                }
+                throw failure;
+            }
+
+            synchronized (copied) {
+                return copied[0];
+            }
+        }
+    }
+
+    /**
+     * Copies one range of a file, one buffer at a time, with positional reads and writes.
+     *
+     * @param sourceChannel     channel of the file being copied
+     * @param targetChannel     channel of the copy
+     * @param start             file position of the first byte of the range
+     * @param end               file position one past the last byte of the range
+     * @param monitor           monitor to be informed of bytes copied and polled for cancellation
+     * @param stopped           flag set when any range fails, upon which the other ranges stop
+     * @param copied            single-element array accumulating bytes copied, also the lock guarding it
+     * @return                  true if the whole range was copied, false if the copy stopped early
+     * @throws IOException      thrown if the range could not be read or written
+     */
+    private boolean copyRange(FileChannel sourceChannel, FileChannel targetChannel, long start, long end, CopyProgressMonitor monitor, AtomicBoolean stopped, long[] copied) throws IOException {
+        ByteBuffer buffer = buffers.get();
+        long position = start;
+
+        while (position < end) {
+            if (stopped.get() || monitor.isCancelled()) {
+                return false;
+            }
+
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+
+            while (buffer.hasRemaining()) {
+                if (sourceChannel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("source file was shorter than expected; it may have changed since the copy began");
+                }
+            }
+
+            buffer.flip();
+            long writePosition = position;
+            while (buffer.hasRemaining()) {
+                writePosition += targetChannel.write(buffer, writePosition);
+            }
+
+            long bytes = writePosition - position;
+            position = writePosition;
+
+            synchronized (copied) {
+                copied[0] += bytes;
+            }
+            // Outside the lock, as a throttled monitor may sleep here while the other ranges carry on
+            monitor.bytesCopied(bytes);
+        }
+
+        return true;
+    }
+
+    /**
+     * Waits for all range copies of a file to finish, stopping the remaining ranges as soon as one fails.
+     *
+     * @param rangeCopies   pending range copies
+     * @param stopped       flag to be set if a range fails
+     * @return              the first failure, or null if all ranges succeeded or stopped on cancellation
+     */
+    private static IOException awaitRanges(List<Future<?>> rangeCopies, AtomicBoolean stopped) {
+        IOException failure = null;
+
+        for (Future<?> rangeCopy : rangeCopies) {
+            try {
+                rangeCopy.get();
+            } catch (ExecutionException e) {
+                stopped.set(true);
+                if (failure == null) {
+                    failure = (e.getCause() instanceof IOException) ? (IOException) e.getCause() : new IOException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                stopped.set(true);
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = new IOException("interrupted while waiting for ranges of a file to be copied", e);
+                }
+            }
+        }
+
+        return failure;
+    }
+
+    /**
+     * Tracks which ranges of a file have been completed, so as to find the end of the prefix of the target that has
+     * been written in full. Callers synchronize on the instance.
+     */
+    private static final class WrittenPrefix {
+        private final long firstRangeStart;
+        private final long fileSize;
+        private final long rangeSize;
+        private final boolean[] completed;
+        private int completedPrefixRanges = 0;
+
+        private WrittenPrefix(long firstRangeStart, long fileSize, long rangeSize) {
+            this.firstRangeStart = firstRangeStart;
+            this.fileSize = fileSize;
+            this.rangeSize = rangeSize;
+            this.completed = new boolean[(int) ((fileSize - firstRangeStart + rangeSize - 1) / rangeSize)];
+        }
+
+        /**
+         * Marks the range starting at the given offset as completed.
+         *
+         * @param rangeStart    file position of the first byte of the range
+         * @return              the new end of the written prefix if it grew, otherwise -1
+         */
+        private long rangeCompleted(long rangeStart) {
+            completed[(int) ((rangeStart - firstRangeStart) / rangeSize)] = true;
+
+            int previousPrefixRanges = completedPrefixRanges;
+            while ((completedPrefixRanges < completed.length) && (completed[completedPrefixRanges])) {
+                ++completedPrefixRanges;
+            }
+
+            if (completedPrefixRanges == previousPrefixRanges) {
+                return -1L;
+            }
+            return Math.min(fileSize, firstRangeStart + completedPrefixRanges * rangeSize);
+        }
+    }
+
+} // class RangedCopyEngine implements CopyEngine
@@ -0,0 +1,108 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import jdk.incubator.foreign.CLinker;
+import jdk.incubator.foreign.FunctionDescriptor;
+import jdk.incubator.foreign.MemoryAddress;
+import jdk.incubator.foreign.ResourceScope;
+import jdk.incubator.foreign.SymbolLookup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * DataRegionLocator which asks a Linux kernel for the data regions of a file with lseek's SEEK_DATA and SEEK_HOLE,
+ * called through the foreign linker of the jdk.incubator.foreign module. Each call costs a few system calls however
+ * large the file, and reads none of its content. Linking requires the module to be added to the runtime and native
+ * access to be enabled (e.g. "--add-modules jdk.incubator.foreign --enable-native-access=ALL-UNNAMED"), so instances
+ * are only created reflectively, by SparseCopyEngine, once the module is known to be present. This class has
+ * package-private access.
+ */
+final class SeekDataRegionLocator implements DataRegionLocator {
+
+    private static final int O_RDONLY = 0;
+    private static final int SEEK_END = 2;
+    private static final int SEEK_DATA = 3;
+    private static final int SEEK_HOLE = 4;
+
+    private final MethodHandle open;
+    private final MethodHandle lseek;
+    private final MethodHandle close;
+
+    /**
+     * @throws IllegalCallerException   thrown if native access has not been enabled for the calling module
+     */
+    SeekDataRegionLocator() {
+        CLinker linker = CLinker.getInstance();
+        SymbolLookup lookup = CLinker.systemLookup();
+
+        open = linker.downcallHandle(lookup.lookup("open").get(),
+                MethodType.methodType(int.class, MemoryAddress.class, int.class),
+                FunctionDescriptor.of(CLinker.C_INT, CLinker.C_POINTER, CLinker.C_INT));
+        lseek = linker.downcallHandle(lookup.lookup("lseek").get(),
+                MethodType.methodType(long.class, int.class, long.class, int.class),
+                FunctionDescriptor.of(CLinker.C_LONG, CLinker.C_INT, CLinker.C_LONG, CLinker.C_INT));
+        // The result of close is of no use for a descriptor opened only for reading, so it is discarded
+        close = linker.downcallHandle(lookup.lookup("close").get(),
+                MethodType.methodType(void.class, int.class),
+                FunctionDescriptor.ofVoid(CLinker.C_INT));
+    }
+
+    @Override
+    public long[] locateData(Path file) {
+        try (ResourceScope scope = ResourceScope.newConfinedScope()) {
+            int fd = (int) open.invokeExact(CLinker.toCString(file.toAbsolutePath().toString(), scope).address(), O_RDONLY);
+            if (fd < 0) {
+                // A file which cannot be opened is left for the copy to report
+                return null;
+            }
+
+            try {
+                return locateData(fd);
+            } finally {
+                close.invokeExact(fd);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private long[] locateData(int fd) throws Throwable {
+        long size = (long) lseek.invokeExact(fd, 0L, SEEK_END);
+
+        // A file system which cannot report holes fails SEEK_HOLE outright; one which can finds at least the end of file
+        if ((size < 0L) || ((long) lseek.invokeExact(fd, 0L, SEEK_HOLE) < 0L)) {
+            return null;
+        }
+
+        long[] regions = new long[8];
+        int count = 0;
+        long offset = 0L;
+
+        while (offset < size) {
+            long data = (long) lseek.invokeExact(fd, offset, SEEK_DATA);
+            if (data < 0L) {
+                // ENXIO: nothing but a hole from offset to the end of the file
+                break;
+            }
+
+            long hole = (long) lseek.invokeExact(fd, data, SEEK_HOLE);
+            if (hole < 0L) {
+                return null;
+            }
+
+            if (count == regions.length) {
+                regions = Arrays.copyOf(regions, count * 2);
+            }
+            regions[count++] = data;
+            regions[count++] = hole;
+            offset = hole;
+        }
+
+        return Arrays.copyOf(regions, count);
+    }
+
+} // class SeekDataRegionLocator implements DataRegionLocator
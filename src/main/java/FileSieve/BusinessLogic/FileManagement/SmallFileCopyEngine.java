@@ -0,0 +1,93 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CopyEngine which copies files of up to "smallFileThreshold" bytes with a single read of the whole file into a
+ * per-thread buffer and a single write of it to the target, so that a small file costs two opens, a read and a write
+ * and reports its progress once. Larger files, and copies resumed from an offset, are passed to a delegate engine.
+ * A small file which grows while being copied is copied as far as the length it had when opened, as the other engines
+ * do. This class has package-private access.
+ */
+final class SmallFileCopyEngine implements CopyEngine {
+
+    /** Default maximum size of files copied with a single read and write */
+    static final int DEFAULT_SMALL_FILE_THRESHOLD = 64 * 1024;
+
+    private final CopyEngine largeFileEngine;
+    private final int smallFileThreshold;
+    private final ThreadLocal<ByteBuffer> buffers = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocateDirect(smallFileThreshold);
+        }
+    };
+
+    SmallFileCopyEngine(CopyEngine largeFileEngine) {
+        this(largeFileEngine, DEFAULT_SMALL_FILE_THRESHOLD);
+    }
+
+    /**
+     * Constructs an engine with the given small-file policy.
+     *
+     * @param largeFileEngine       engine to which files larger than the threshold are passed
+     * @param smallFileThreshold    maximum byte length of files to be copied with a single read and write
+     */
+    SmallFileCopyEngine(CopyEngine largeFileEngine, int smallFileThreshold) {
+        if (largeFileEngine == null) {
+            throw new IllegalArgumentException("null reference passed for \"largeFileEngine\" parameter");
+        }
+        if (smallFileThreshold < 1) {
+            throw new IllegalArgumentException("small file threshold must be positive");
+        }
+
+        this.largeFileEngine = largeFileEngine;
+        this.smallFileThreshold = smallFileThreshold;
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, CopyProgressMonitor monitor) throws IOException {
+        return copyFile(source, target, 0L, monitor);
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, long offset, CopyProgressMonitor monitor) throws IOException {
+        if (offset == 0L) {
+            try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ)) {
+                long fileSize = sourceChannel.size();
+
+                if (fileSize <= smallFileThreshold) {
+                    ByteBuffer buffer = buffers.get();
+                    buffer.clear();
+                    buffer.limit((int) fileSize);
+                    while (buffer.hasRemaining()) {
+                        if (sourceChannel.read(buffer) < 0) {
+                            break;
+                        }
+                    }
+                    buffer.flip();
+
+                    try (FileChannel targetChannel = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                        while (buffer.hasRemaining()) {
+                            targetChannel.write(buffer);
+                        }
+                    }
+
+                    int copied = buffer.limit();
+                    if (copied > 0) {
+                        monitor.bytesCopied(copied);
+                        monitor.prefixCopied(copied);
+                    }
+                    return copied;
+                }
+            }
+        }
+
+        return largeFileEngine.copyFile(source, target, offset, monitor);
+    }
+
+} // class SmallFileCopyEngine implements CopyEngine
@@ -0,0 +1,301 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CopyEngine which keeps the holes of sparse files, such as virtual machine images and database files, as holes in
+ * their copies, so that a copy occupies no more disk space than its source and takes time in proportion to the data
+ * allocated to it rather than to its length. Where a DataRegionLocator is available the source's data regions are
+ * located without reading it: files without holes are passed to a delegate engine, and the data regions of others are
+ * transferred with FileChannel.transferTo while the holes between them are skipped. Elsewhere files are read through a
+ * buffer and each block of ZERO_BLOCK_SIZE zero bytes, aligned to the file, is skipped rather than written, which also
+ * turns runs of zeros written to a file that is not sparse into holes. Skipped bytes are reported to the monitor as
+ * copied, so that progress is measured against the file's length, and a target whose source ends in a hole is extended
+ * to the source's length by writing its last byte. Files of up to MIN_SPARSE_FILE_SIZE bytes are passed to the
+ * delegate engine unexamined. This class has package-private access.
+ */
+final class SparseCopyEngine implements DelegatingCopyEngine {
+
+    /** Size, and alignment, of the blocks of zeros skipped when the source's holes cannot be located */
+    static final int ZERO_BLOCK_SIZE = 4096;
+
+    /** Files no larger than this are unlikely to hold a hole worth keeping, and go to the delegate engine */
+    static final long MIN_SPARSE_FILE_SIZE = 64L * 1024;
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final String FOREIGN_MODULE = "jdk.incubator.foreign";
+    private static final String NATIVE_LOCATOR_CLASS = "FileSieve.BusinessLogic.FileManagement.SeekDataRegionLocator";
+    private static final DataRegionLocator nativeLocator = loadNativeLocator();
+
+    private final CopyEngine denseFileEngine;
+    private final DataRegionLocator locator;
+    private final ThreadLocal<ByteBuffer> buffers = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+    };
+
+    /**
+     * Constructs an engine which locates holes with the native locator where it could be loaded, and detects blocks
+     * of zeros otherwise.
+     *
+     * @param denseFileEngine   engine to which files without holes, and small files, are passed
+     */
+    SparseCopyEngine(CopyEngine denseFileEngine) {
+        this(denseFileEngine, nativeLocator);
+    }
+
+    /**
+     * Constructs an engine with the given means of locating holes.
+     *
+     * @param denseFileEngine   engine to which files without holes, and small files, are passed
+     * @param locator           locator of the source's data regions, or null to detect blocks of zeros instead
+     */
+    SparseCopyEngine(CopyEngine denseFileEngine, DataRegionLocator locator) {
+        if (denseFileEngine == null) {
+            throw new IllegalArgumentException("null reference passed for \"denseFileEngine\" parameter");
+        }
+
+        this.denseFileEngine = denseFileEngine;
+        this.locator = locator;
+    }
+
+    /**
+     * Returns the locator which asks the operating system for the data regions of files, if it could be loaded.
+     *
+     * @return  the native locator, or null if the jdk.incubator.foreign module or native access is not available, or
+     *          the platform is not Linux
+     */
+    static DataRegionLocator getNativeLocator() {
+        return nativeLocator;
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, CopyProgressMonitor monitor) throws IOException {
+        return copyFile(source, target, 0L, monitor);
+    }
+
+    @Override
+    public CopyEngine getDelegate(Path source, Path target, long offset) throws IOException {
+        long sourceSize = source.toFile().length();
+        if (sourceSize <= MIN_SPARSE_FILE_SIZE) {
+            return denseFileEngine;
+        }
+
+        // Without a locator the file's zero blocks are found while it is copied
+        return ((locator != null) && isDense(locator.locateData(source), sourceSize)) ? denseFileEngine : null;
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, long offset, CopyProgressMonitor monitor) throws IOException {
+        long sourceSize = source.toFile().length();
+        if (sourceSize <= MIN_SPARSE_FILE_SIZE) {
+            return denseFileEngine.copyFile(source, target, offset, monitor);
+        }
+
+        long[] regions = (locator != null) ? locator.locateData(source) : null;
+        if (isDense(regions, sourceSize)) {
+            // No holes; the delegate copies the file as fast as it can
+            return denseFileEngine.copyFile(source, target, offset, monitor);
+        }
+
+        try (
+                FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ);
+                FileChannel targetChannel = (offset > 0L)
+                        ? FileChannel.open(target, StandardOpenOption.WRITE)
+                        : FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)
+        ) {
+            if (offset > 0L) {
+                // Drop anything beyond the bytes already copied, such as the rest of a preallocated target
+                targetChannel.truncate(offset);
+            }
+
+            long end = (regions != null)
+                    ? copyDataRegions(sourceChannel, targetChannel, regions, offset, monitor)
+                    : copySkippingZeroBlocks(sourceChannel, targetChannel, offset, monitor);
+
+            // A trailing hole is kept by writing only the last byte, which sets the target's length
+            if ((!monitor.isCancelled()) && (targetChannel.size() < end)) {
+                targetChannel.write(ByteBuffer.allocate(1), end - 1L);
+                monitor.prefixCopied(end);
+            }
+
+            return end - offset;
+        }
+    }
+
+    /**
+     * Transfers the data regions of the source lying beyond the offset, skipping the holes between them.
+     *
+     * @return  offset at which copying stopped, which is the length of the source unless it was cancelled or shrank
+     */
+    private long copyDataRegions(FileChannel sourceChannel, FileChannel targetChannel, long[] regions, long offset, CopyProgressMonitor monitor) throws IOException {
+        long sourceSize = sourceChannel.size();
+        long position = offset;
+
+        for (int i = 0; (i < regions.length) && (position < sourceSize) && (!monitor.isCancelled()); i += 2) {
+            long regionStart = Math.max(regions[i], position);
+            long regionEnd = Math.min(regions[i + 1], sourceSize);
+            if (regionStart >= regionEnd) {
+                continue;
+            }
+
+            if (regionStart > position) {
+                monitor.bytesCopied(regionStart - position);
+                position = regionStart;
+            }
+
+            while ((position < regionEnd) && (!monitor.isCancelled())) {
+                targetChannel.position(position);
+                long transferred = sourceChannel.transferTo(position, Math.min(ChannelCopyEngine.CHUNK_SIZE, regionEnd - position), targetChannel);
+
+                if (transferred <= 0L) {
+                    // The source shrank after it was located; what remains of it has been copied
+                    return position;
+                }
+
+                position += transferred;
+                monitor.bytesCopied(transferred);
+                monitor.prefixCopied(position);
+            }
+        }
+
+        if ((position < sourceSize) && (!monitor.isCancelled())) {
+            monitor.bytesCopied(sourceSize - position);
+            position = sourceSize;
+        }
+
+        return position;
+    }
+
+    /**
+     * Reads the source beyond the offset through a buffer, writing only those of its blocks which are not all zeros.
+     *
+     * @return  offset at which copying stopped, which is the length of the source unless it was cancelled or shrank
+     */
+    private long copySkippingZeroBlocks(FileChannel sourceChannel, FileChannel targetChannel, long offset, CopyProgressMonitor monitor) throws IOException {
+        long sourceSize = sourceChannel.size();
+        long position = offset;
+        long writtenEnd = offset;
+        ByteBuffer buffer = buffers.get();
+
+        while ((position < sourceSize) && (!monitor.isCancelled())) {
+            // The first read of a resumed copy ends on a block boundary, so that later blocks are aligned to the file
+            buffer.clear();
+            buffer.limit((int) Math.min(BUFFER_SIZE - (position % ZERO_BLOCK_SIZE), sourceSize - position));
+            while (buffer.hasRemaining()) {
+                if (sourceChannel.read(buffer, position + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+
+            int read = buffer.limit();
+            if (read == 0) {
+                // The source shrank after it was opened; what remains of it has been copied
+                break;
+            }
+
+            long chunkWrittenEnd = writeNonZeroBlocks(buffer, targetChannel, position);
+            if (chunkWrittenEnd > writtenEnd) {
+                writtenEnd = chunkWrittenEnd;
+            }
+
+            position += read;
+            monitor.bytesCopied(read);
+            if (writtenEnd == position) {
+                monitor.prefixCopied(position);
+            }
+        }
+
+        return position;
+    }
+
+    /**
+     * Writes the runs of blocks of a buffer which are not all zeros to the target, at the file offset of the buffer.
+     *
+     * @return  file offset just beyond the last byte written, or the buffer's file offset if nothing was written
+     */
+    private static long writeNonZeroBlocks(ByteBuffer buffer, FileChannel targetChannel, long bufferOffset) throws IOException {
+        int length = buffer.limit();
+        int runStart = -1;
+        long writtenEnd = bufferOffset;
+
+        for (int blockStart = 0; blockStart < length; blockStart += ZERO_BLOCK_SIZE) {
+            int blockEnd = Math.min(blockStart + ZERO_BLOCK_SIZE, length);
+
+            if (isZero(buffer, blockStart, blockEnd)) {
+                if (runStart >= 0) {
+                    writtenEnd = write(buffer, runStart, blockStart, targetChannel, bufferOffset);
+                    runStart = -1;
+                }
+            } else if (runStart < 0) {
+                runStart = blockStart;
+            }
+        }
+
+        if (runStart >= 0) {
+            writtenEnd = write(buffer, runStart, length, targetChannel, bufferOffset);
+        }
+
+        return writtenEnd;
+    }
+
+    private static long write(ByteBuffer buffer, int from, int to, FileChannel targetChannel, long bufferOffset) throws IOException {
+        ByteBuffer run = buffer.duplicate();
+        run.limit(to);
+        run.position(from);
+
+        while (run.hasRemaining()) {
+            targetChannel.write(run, bufferOffset + run.position());
+        }
+
+        return bufferOffset + to;
+    }
+
+    private static boolean isDense(long[] regions, long sourceSize) {
+        return (regions != null) && (regions.length == 2) && (regions[0] == 0L) && (regions[1] >= sourceSize);
+    }
+
+    private static boolean isZero(ByteBuffer buffer, int from, int to) {
+        int i = from;
+
+        for (; i + 8 <= to; i += 8) {
+            if (buffer.getLong(i) != 0L) {
+                return false;
+            }
+        }
+        for (; i < to; ++i) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Loads the native locator reflectively, so that no class linking against the incubator module is resolved unless
+     * the module is present.
+     *
+     * @return  a SeekDataRegionLocator instance, or null if one could not be created
+     */
+    private static DataRegionLocator loadNativeLocator() {
+        if ((!System.getProperty("os.name", "").startsWith("Linux")) || (!ModuleLayer.boot().findModule(FOREIGN_MODULE).isPresent())) {
+            return null;
+        }
+
+        try {
+            return (DataRegionLocator) Class.forName(NATIVE_LOCATOR_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // Including the IllegalCallerException thrown when native access has not been enabled
+            return null;
+        }
+    }
+
+} // class SparseCopyEngine implements DelegatingCopyEngine
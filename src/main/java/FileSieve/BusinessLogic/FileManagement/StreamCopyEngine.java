@@ -0,0 +1,61 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+/**
+ * CopyEngine which copies a file one byte at a time through buffered streams, reporting progress and checking for
+ * cancellation on every byte. This is the original copy path; it is retained as a baseline for benchmarking and as
+ * a fallback for file systems whose channels do not support transfers. This class has package-private access.
+ */
+final class StreamCopyEngine implements CopyEngine {
+
+    @Override
+    public long copyFile(Path source, Path target, CopyProgressMonitor monitor) throws IOException {
+        return copyFile(source, target, 0L, monitor);
+    }
+
+    @Override
+    public long copyFile(Path source, Path target, long offset, CopyProgressMonitor monitor) throws IOException {
+        long copied = 0L;
+        int sourceByte;
+
+        if (offset > 0L) {
+            // Keep the bytes already copied, then append the remainder of the source after them
+            try (RandomAccessFile targetFile = new RandomAccessFile(target.toFile(), "rw")) {
+                targetFile.setLength(offset);
+            }
+        }
+
+        try (
+                BufferedInputStream bis = new BufferedInputStream(new FileInputStream(source.toFile()));
+                BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(target.toFile(), offset > 0L))
+        ) {
+            long skipped = 0L;
+            while (skipped < offset) {
+                long skippedNow = bis.skip(offset - skipped);
+                if (skippedNow <= 0L) {
+                    throw new IOException("source file is shorter than the offset from which its copy was to resume");
+                }
+                skipped += skippedNow;
+            }
+
+            /* Copy file one byte at time. BufferedInputStream and BufferedOutputStream have buffers so
+               so this isn't as slow as it might at first seem */
+            while ((!monitor.isCancelled()) && ((sourceByte = bis.read()) != -1)) {
+                bos.write(sourceByte);
+                ++copied;
+                monitor.bytesCopied(1L);
+                monitor.prefixCopied(offset + copied);
+            }
+        }
+
+        return copied;
+    }
+
+} // class StreamCopyEngine implements CopyEngine
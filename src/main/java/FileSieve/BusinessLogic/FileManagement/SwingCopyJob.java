@@ -2,32 +2,57 @@ package FileSieve.BusinessLogic.FileManagement;
 
 import FileSieve.BusinessLogic.FileEnumeration.DiscoveredPath;
 
-import javax.swing.SwingWorker;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
 /**
  * Copy-job implementation, instances of which may be instantiated using one of a SwingFileManager instance's copyPathname(s) method.
+ * A SwingCopyJob is a thin adapter which carries out its work with a CopyJob and delivers the job's progress to its
+ * SwingCopyJobListeners on the EDT. Equivalent jobs requested while one is ongoing share that job. Jobs are started
+ * through a queue shared by all SwingFileManagers, which limits how many run at once, so a job may wait in the queue
+ * before it runs; its listeners are told when it is queued and when it starts.
  */
 public final class SwingCopyJob {
 
+    /**
+     * Stages through which a job passes.
+     */
+    public enum State {
+        /** Waiting in the queue for other jobs to finish */
+        QUEUED,
+        /** Copying */
+        RUNNING,
+        /** Completed, cancelled or stopped by an exception */
+        FINISHED
+    }
+
     // The static "swingCopyJobs" Map has protected instead of private access for testing purposes only
-    protected static final Map<SwingCopyJob, Map<Path, Integer>> swingCopyJobs = Collections.synchronizedMap(new HashMap<SwingCopyJob, Map<Path, Integer>>(10));
+    protected static final Map<SwingCopyJob, Map<Path, Integer>> swingCopyJobs = new ConcurrentHashMap<>(16);
+
+    /* Targets of the files named directly in the paths of ongoing jobs, each resolved against its job's destination
+       folder, to the job writing it; conflicting jobs are found with one lookup per file */
+    private static final ConcurrentHashMap<Path, SwingCopyJob> targetsInFlight = new ConcurrentHashMap<>(256);
+
+    // Held while a new job is matched against, and registered amongst, the ongoing jobs; no file system calls are made under it
+    private static final Object registrationLock = new Object();
 
     private final Object lockObject = new Object();
     private final List<SwingCopyJobListener> swingCopyJobListeners = Collections.synchronizedList(new ArrayList<SwingCopyJobListener>(10));
@@ -37,7 +62,11 @@ public final class SwingCopyJob {
     private final Path destinationFolder;
     private final boolean overwriteExistingFiles;
     private final Comparator<Path> fileComparator;
+    private final CopyJobSettings settings;
+    private final List<Path> regularFileTargets;
+    private final boolean allPathsAreFiles;
     private final AtomicBoolean backgroundThreadIsRunning = new AtomicBoolean(false);
+    private volatile State state = State.QUEUED;
     private SwingCopyJobException internalWorkerException = null;
 
     /**
@@ -75,40 +104,118 @@ public final class SwingCopyJob {
      * @throws IOException              thrown if an IOException is encountered while converting source paths to real paths
      */
     protected static SwingCopyJob getCopyJob(Set<Path> pathsToBeCopied, Path destinationFolder, boolean recursiveCopy, boolean overwriteExistingFiles, Comparator<Path> fileComparator, SwingCopyJobListener swingCopyJobListener) throws IllegalStateException, IOException {
-        if (pathsToBeCopied == null) {
-            throw new IllegalArgumentException("null reference passed for \"pathsToBeCopied\" parameter");
+        return getCopyJob(pathsToBeCopied, destinationFolder, recursiveCopy, overwriteExistingFiles, fileComparator, swingCopyJobListener, new CopyJobSettings());
+    }
+
+    /**
+     * Static factory method for creating or retrieving a reference to an equivalent (ongoing) SwingCopyJob which is
+     * carried out according to the given settings. An equivalent ongoing job keeps its own settings.
+     *
+     * @param pathsToBeCopied           a list of Path objects abstracting folders and/or files to copy
+     * @param destinationFolder         destination folder to which file and folder copies are to be placed
+     * @param recursiveCopy             boolean value specifying if a recursive search for files/folders within subfolders of folders within the pathsToBeCopied list should be carried out
+     * @param overwriteExistingFiles    indicates if existing files in the target path should be overwritten if found to be similar to those currently being copied
+     * @param fileComparator            Function object of type Comparator<Path> defining a compare method with which
+     *                                  to compare two files, or null for the default implementation
+     * @param swingCopyJobListener      a reference to a CopyJobListener which is to receive copy job progress updates
+     * @param settings                  settings governing how the job is carried out, which the job keeps a snapshot of
+     * @return                          an instance of SwingCopyJob for use in tracking and controlling the copy job
+     * @throws IllegalStateException    thrown if the destination folder is being written to by a dissimilar copy job
+     * @throws IOException              thrown if an IOException is encountered while converting source paths to real paths
+     */
+    static SwingCopyJob getCopyJob(Set<Path> pathsToBeCopied, Path destinationFolder, boolean recursiveCopy, boolean overwriteExistingFiles, Comparator<Path> fileComparator, SwingCopyJobListener swingCopyJobListener, CopyJobSettings settings) throws IllegalStateException, IOException {
+        if (settings == null) {
+            throw new IllegalArgumentException("null reference passed for \"settings\" parameter");
         }
-        if ((destinationFolder == null) || (destinationFolder.getFileName().toString().isEmpty())) {
-            throw new IllegalArgumentException("null reference passed for \"destinationFolder\" parameter");
+        CopyJob.checkDestinationFolder(destinationFolder);
+
+        // Convert paths to real paths
+        Set<Path> realPaths = CopyJob.toRealPaths(pathsToBeCopied);
+
+        return startOrJoinCopyJob(realPaths, destinationFolder, recursiveCopy, overwriteExistingFiles, fileComparator, swingCopyJobListener, settings.snapshot());
+    }
+
+    /**
+     * Static factory method for creating or retrieving a reference to an equivalent (ongoing) SwingCopyJob which
+     * copies the folders and files of a CopyPlan, without recursion, taking their types and sizes from the plan.
+     *
+     * @param copyPlan                  plan listing the folders and files to copy, with their attributes
+     * @param destinationFolder         destination folder to which file and folder copies are to be placed
+     * @param overwriteExistingFiles    indicates if existing files in the target path should be overwritten if found to be similar to those currently being copied
+     * @param fileComparator            Function object of type Comparator<Path> defining a compare method with which
+     *                                  to compare two files, or null for the default implementation
+     * @param swingCopyJobListener      a reference to a CopyJobListener which is to receive copy job progress updates
+     * @param settings                  settings governing how the job is carried out, which the job keeps a snapshot of
+     * @return                          an instance of SwingCopyJob for use in tracking and controlling the copy job
+     * @throws IllegalStateException    thrown if the destination folder is being written to by a dissimilar copy job
+     */
+    static SwingCopyJob getCopyJob(CopyPlan copyPlan, Path destinationFolder, boolean overwriteExistingFiles, Comparator<Path> fileComparator, SwingCopyJobListener swingCopyJobListener, CopyJobSettings settings) throws IllegalStateException {
+        if (copyPlan == null) {
+            throw new IllegalArgumentException("null reference passed for \"copyPlan\" parameter");
         }
-        if ((destinationFolder.toFile().exists()) && (!Files.isDirectory(destinationFolder, LinkOption.NOFOLLOW_LINKS))) {
-            throw new IllegalArgumentException("the destination (target) path specified is not a folder");
+        if (settings == null) {
+            throw new IllegalArgumentException("null reference passed for \"settings\" parameter");
         }
+        CopyJob.checkDestinationFolder(destinationFolder);
 
-        // Convert paths to real paths
-        Set<Path> realPaths = new LinkedHashSet<>(pathsToBeCopied.size());
-        for (Path path : pathsToBeCopied) {
-            if ((path == null) || (!extractPath(path).toFile().exists())) {
-                throw new IllegalArgumentException("a path included within the \"sourcePathnames\" list does not exist");
-            } else {
-                if (path instanceof DiscoveredPath) {
-                    Path realPath = path.toRealPath(LinkOption.NOFOLLOW_LINKS);
-                    Path sourceFolder = ((DiscoveredPath)path).getSourceFolder();
-
-                    realPaths.add(new DiscoveredPath(realPath, sourceFolder));
-                } else {
-                    realPaths.add(path.toRealPath(LinkOption.NOFOLLOW_LINKS));
-                }
-            }
+        CopyJobSettings jobSettings = settings.snapshot();
+        jobSettings.setCopyPlan(copyPlan);
+
+        return startOrJoinCopyJob(copyPlan.getPaths(), destinationFolder, false, overwriteExistingFiles, fileComparator, swingCopyJobListener, jobSettings);
+    }
+
+    /**
+     * Static factory method for creating or retrieving a reference to an equivalent (ongoing) SwingCopyJob which
+     * writes folders and files to a compressed archive file rather than copying them into a folder. Progress of each
+     * entry is reported against the path of the archive file resolved against the entry's name within the archive.
+     *
+     * @param pathsToBeArchived         a list of Path objects abstracting folders and/or files to archive
+     * @param archiveFile               archive file to write
+     * @param recursiveArchive          boolean value specifying if the contents of subfolders of folders being
+     *                                  archived are archived
+     * @param overwriteExistingFile     indicates if an existing file at the archive's path may be replaced
+     * @param swingCopyJobListener      a reference to a CopyJobListener which is to receive copy job progress updates
+     * @param settings                  settings governing how the job is carried out, which the job keeps a snapshot of
+     * @return                          an instance of SwingCopyJob for use in tracking and controlling the job
+     * @throws IllegalStateException    thrown if the archive file is being written to by a dissimilar copy job
+     * @throws IOException              thrown if an IOException is encountered while converting source paths to real paths
+     */
+    static SwingCopyJob getArchiveJob(Set<Path> pathsToBeArchived, Path archiveFile, boolean recursiveArchive, boolean overwriteExistingFile, SwingCopyJobListener swingCopyJobListener, CopyJobSettings settings) throws IllegalStateException, IOException {
+        if (settings == null) {
+            throw new IllegalArgumentException("null reference passed for \"settings\" parameter");
         }
+        CopyJob.checkArchiveFile(archiveFile, overwriteExistingFile);
 
+        Set<Path> realPaths = CopyJob.toRealPaths(pathsToBeArchived);
+
+        CopyJobSettings jobSettings = settings.snapshot();
+        jobSettings.setArchiveDestination(true);
+
+        return startOrJoinCopyJob(realPaths, archiveFile, recursiveArchive, overwriteExistingFile, null, swingCopyJobListener, jobSettings);
+    }
+
+    /**
+     * Returns an equivalent ongoing SwingCopyJob, adding the listener to it, or else starts a new job, unless it would
+     * write files of the same names to the same destination folder as a dissimilar ongoing job.
+     *
+     * @param realPaths                 folders and/or files to copy, as real paths or as given by a CopyPlan
+     * @param destinationFolder         destination folder to which file and folder copies are to be placed
+     * @param recursiveCopy             boolean value specifying if subfolders of folders being copied are copied
+     * @param overwriteExistingFiles    indicates if existing files in the target path should be overwritten if found to be similar to those currently being copied
+     * @param fileComparator            Function object of type Comparator<Path>, or null for the default implementation
+     * @param swingCopyJobListener      a reference to a CopyJobListener which is to receive copy job progress updates
+     * @param jobSettings               snapshot of the settings governing how a new job is carried out
+     * @return                          an instance of SwingCopyJob for use in tracking and controlling the copy job
+     * @throws IllegalStateException    thrown if the destination folder is being written to by a dissimilar copy job
+     */
+    private static SwingCopyJob startOrJoinCopyJob(Set<Path> realPaths, Path destinationFolder, boolean recursiveCopy, boolean overwriteExistingFiles, Comparator<Path> fileComparator, SwingCopyJobListener swingCopyJobListener, CopyJobSettings jobSettings) throws IllegalStateException {
         SwingCopyJob jobToReturn = null;
 
-        /* Create a SwingCopyJob from the passed parameters but don't start (execute) its SwingWorker yet whereas we
+        /* Create a SwingCopyJob from the passed parameters but don't start (execute) its CopyJob yet whereas we
            want to check for the existence of a similar ongoing job. */
-        SwingCopyJob newJob = new SwingCopyJob(realPaths, destinationFolder, recursiveCopy, overwriteExistingFiles, fileComparator, swingCopyJobListener);
+        SwingCopyJob newJob = new SwingCopyJob(realPaths, destinationFolder, recursiveCopy, overwriteExistingFiles, fileComparator, swingCopyJobListener, jobSettings);
 
-        synchronized (swingCopyJobs) {
+        synchronized (registrationLock) {
             // Ensure a similar job is not already in progress
             for (SwingCopyJob swingCopyJob : swingCopyJobs.keySet()) {
                 if (newJob.equals(swingCopyJob)) {
@@ -120,33 +227,26 @@ public final class SwingCopyJob {
             /* Throw an IllegalStateException if there is another, ongoing copy job that is copying a file with the
                same pathname to the same destination folder */
             if (jobToReturn == null) {
-                for (Path pathToCopy : realPaths) {
-                    if (Files.isRegularFile(extractPath(pathToCopy), LinkOption.NOFOLLOW_LINKS)) {
-                        for (SwingCopyJob swingCopyJob : swingCopyJobs.keySet()) {
-                            for (Path path : swingCopyJob.pathsBeingCopied) {
-                                if ((Files.isRegularFile(extractPath(path), LinkOption.NOFOLLOW_LINKS)) &&
-                                        (path.getFileName().equals(pathToCopy.getFileName())) &&
-                                        (swingCopyJob.destinationFolder.equals(destinationFolder))
-                                   ) {
-                                    throw new IllegalStateException("Another copy job is writing to the specified destination folder");
-                                }
-                            }
-                        }
+                for (Path target : newJob.regularFileTargets) {
+                    if (targetsInFlight.containsKey(target)) {
+                        throw new IllegalStateException("Another copy job is writing to the specified destination folder");
                     }
                 }
-            }
-        }
 
-        if (jobToReturn == null) {
-            jobToReturn = newJob;
-            SwingCopyJob.swingCopyJobs.put(jobToReturn, new HashMap<Path, Integer>(200));
-            jobToReturn.worker.execute();
-        } else {
-            if (swingCopyJobListener != null) {
+                jobToReturn = newJob;
+                for (Path target : newJob.regularFileTargets) {
+                    targetsInFlight.put(target, newJob);
+                }
+                SwingCopyJob.swingCopyJobs.put(jobToReturn, new HashMap<Path, Integer>(200));
+            } else if (swingCopyJobListener != null) {
                 jobToReturn.swingCopyJobListeners.add(swingCopyJobListener);
             }
         }
 
+        if (jobToReturn == newJob) {
+            CopyJobScheduler.getInstance().submit(jobToReturn, jobSettings.getJobPriority());
+        }
+
         return jobToReturn;
     }
 
@@ -167,24 +267,35 @@ public final class SwingCopyJob {
      *                                  equality using the lowercase form of the file names and their uncompressed
      *                                  length in bytes.
      * @param swingCopyJobListener      a reference to a CopyJobListener which is to receive copy job progress updates
+     * @param settings                  settings governing how the job is carried out
      */
-    private SwingCopyJob(Set<Path> pathsBeingCopied, Path destinationFolder, boolean recursiveCopy, boolean overwriteExistingFiles, Comparator<Path> fileComparator, SwingCopyJobListener swingCopyJobListener) {
+    private SwingCopyJob(Set<Path> pathsBeingCopied, Path destinationFolder, boolean recursiveCopy, boolean overwriteExistingFiles, Comparator<Path> fileComparator, SwingCopyJobListener swingCopyJobListener, CopyJobSettings settings) {
         this.pathsBeingCopied = pathsBeingCopied;
+        this.settings = settings;
         this.destinationFolder = destinationFolder;
         this.recursiveCopy = recursiveCopy;
         this.overwriteExistingFiles = overwriteExistingFiles;
 
-        if (fileComparator == null) {
-            this.fileComparator = DefaultFileComparator.getInstance();
-        } else {
-            this.fileComparator = fileComparator;
-        }
+        // May be null, in which case the CopyJob uses its default implementation
+        this.fileComparator = fileComparator;
 
         // May be null if no listener is to receive progress updates
         if (swingCopyJobListener != null) {
             this.swingCopyJobListeners.add(swingCopyJobListener);
         }
 
+        // Examined once, here, so that matching the job against ongoing jobs makes no file system calls
+        List<Path> fileTargets = new ArrayList<>(pathsBeingCopied.size());
+        for (Path path : pathsBeingCopied) {
+            if (isRegularFile(path)) {
+                fileTargets.add(destinationFolder.resolve(path.getFileName().toString()));
+            }
+        }
+        this.allPathsAreFiles = (fileTargets.size() == pathsBeingCopied.size());
+
+        // An archive job writes the one file
+        this.regularFileTargets = (settings.isArchiveDestination()) ? Collections.singletonList(destinationFolder) : fileTargets;
+
         worker = new EdtUpdater(this);
     }
 
@@ -204,28 +315,24 @@ public final class SwingCopyJob {
             } else if (obj instanceof SwingCopyJob) {
                 SwingCopyJob passedInstance = (SwingCopyJob)obj;
 
-                // May be equal if destination folders and overwrite settings are the same
-                if ((passedInstance.destinationFolder.equals(this.destinationFolder)) && (passedInstance.overwriteExistingFiles == this.overwriteExistingFiles)) {
-                    boolean listsAreSame = true;
-                    boolean allPathsAreFiles = true;
-
+                // May be equal if destinations and overwrite settings are the same, and both copy, both move or both archive
+                if ((passedInstance.destinationFolder.equals(this.destinationFolder)) && (passedInstance.overwriteExistingFiles == this.overwriteExistingFiles)
+                        && (passedInstance.settings.isMoveSources() == this.settings.isMoveSources())
+                        && (passedInstance.settings.isArchiveDestination() == this.settings.isArchiveDestination())) {
                     // Check to determine if the each copy job is copying the same set of source paths
-                    if (this.pathsBeingCopied.size() == passedInstance.pathsBeingCopied.size()) {
+                    boolean listsAreSame = (this.pathsBeingCopied.size() == passedInstance.pathsBeingCopied.size());
+                    if (listsAreSame) {
                         for (Path path : this.pathsBeingCopied) {
                             if (!passedInstance.pathsBeingCopied.contains(path)) {
                                 listsAreSame = false;
                                 break;
                             }
-
-                            /* Check to determine if all the source paths in the lists are regular files, in which
-                               case it makes no difference if recursion option is enabled. */
-                            if (!Files.isRegularFile(extractPath(path), LinkOption.NOFOLLOW_LINKS)) {
-                                allPathsAreFiles = false;
-                            }
                         }
                     }
 
                     // Jobs are equal if they have the same source paths to copy
+                    /* If all the source paths in the lists are regular files then it makes no difference if the
+                       recursion option is enabled */
                     if (listsAreSame) {
                         if (allPathsAreFiles) {
                             // Jobs are considered equal if only files are being copied
@@ -243,6 +350,17 @@ public final class SwingCopyJob {
         return result;
     }
 
+    /**
+     * Returns true if a path being copied is a regular file, according to the job's CopyPlan if it has one.
+     *
+     * @param path  path being copied
+     * @return      boolean true if the path is a regular file
+     */
+    private boolean isRegularFile(Path path) {
+        BasicFileAttributes attributes = (settings.getCopyPlan() != null) ? settings.getCopyPlan().getAttributes(path) : null;
+        return (attributes != null) ? attributes.isRegularFile() : Files.isRegularFile(extractPath(path), LinkOption.NOFOLLOW_LINKS);
+    }
+
     /**
      * Cancels the copy job. Callers of this method may wish to follow it's use with a call to the awaitCompletion()
      * method, which blocks until the job's background thread has truly completed. Do not, however, call the
@@ -255,6 +373,52 @@ public final class SwingCopyJob {
         return worker.cancelWork();
     }
 
+    /**
+     * Returns the stage the job has reached: queued behind other jobs, running, or finished. A job is finished once
+     * its listeners have been sent its JobFinished notification.
+     *
+     * @return  the job's current State
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Called by the CopyJobScheduler when the job has to wait for other jobs to finish.
+     */
+    void jobQueued() {
+        notifyStateChanged(State.QUEUED);
+    }
+
+    /**
+     * Called by the CopyJobScheduler when the job may run.
+     */
+    void jobStarted() {
+        state = State.RUNNING;
+        worker.execute();
+        notifyStateChanged(State.RUNNING);
+    }
+
+    /**
+     * Notifies the job's listeners on the EDT of a State the job has entered, unless it has moved on by then.
+     *
+     * @param newState  State entered
+     */
+    private void notifyStateChanged(final State newState) {
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                if ((state == newState) && (swingCopyJobListeners.size() > 0)) {
+                    synchronized (swingCopyJobListeners) {
+                        for (SwingCopyJobListener listener : swingCopyJobListeners) {
+                            listener.JobStateChanged(SwingCopyJob.this, newState);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
     /**
      * Returns a list of the files and/or folders being copied.
      *
@@ -296,7 +460,19 @@ public final class SwingCopyJob {
      * @return  boolean true if the copy job is running, false if not
      */
     public boolean isRunning() {
-        return ((worker.getState() == SwingWorker.StateValue.STARTED) || (backgroundThreadIsRunning.get()));
+        return (worker.copyJob.isRunning() || (backgroundThreadIsRunning.get()));
+    }
+
+    /**
+     * Returns the content fingerprints taken of the files copied thus far, keyed by the path of each copy. Files are
+     * fingerprinted only if the file manager which started the job was set to fingerprint copies, to verify them, or
+     * to record their fingerprints in a FingerprintStore; otherwise the map is empty. A fingerprint equals the full
+     * fingerprint an IntegrityVerifier would record for the same file.
+     *
+     * @return  a copy of the map (Map<Path, Long>) of copied files to their 64-bit content fingerprints
+     */
+    public Map<Path, Long> getCopyDigests() {
+        return worker.copyJob.getCopyDigests();
     }
 
     /**
@@ -308,7 +484,7 @@ public final class SwingCopyJob {
      */
     public void awaitCompletion() throws SwingCopyJobException, InterruptedException {
         synchronized (lockObject) {
-            while ((worker.getState() != SwingWorker.StateValue.DONE) || (backgroundThreadIsRunning.get())) {
+            while (state != State.FINISHED) {
                 lockObject.wait();
             }
         }
@@ -319,25 +495,33 @@ public final class SwingCopyJob {
     }
 
     /**
-     * Updates the EDT on copy job progress. This class' background thread handles forwarding of job updates to the
-     * EDT. It delegates actual folder and file creation in the destination folder to a background thread (an
-     * instance of CopyJobWorkDelegate).
+     * Forwards the progress of the job's CopyJob to the EDT. Updates arriving on the job's threads are coalesced in a
+     * CopyProgressChannel, a snapshot of which a Swing Timer delivers to the job's SwingCopyJobListeners once per
+     * snapshot interval; no thread is dedicated to the job beyond those of the CopyJob itself.
      */
-    private class EdtUpdater extends SwingWorker<Void, SimpleImmutableEntry<Path, Integer>> implements CopyWorkResultsReceiver {
+    private class EdtUpdater implements CopyJobProgressListener, ActionListener {
 
         private static final int ONE_HUNDRED_PERCENT = 100;
         private final SwingCopyJob thisSwingCopyJob;
-        private final Thread myWorker;
-        private final CopyJobWorkDelegate copyJobWorkDelegate;
-        private final AtomicReference<Exception> workerException = new AtomicReference<>(null);
-        private final Object swingUpdaterLock = new Object();
-        private final AtomicBoolean workCompleted = new AtomicBoolean(false);
-        private final ConcurrentLinkedQueue<SimpleImmutableEntry<Path, Integer>> workResultsQueue = new ConcurrentLinkedQueue<>();
+        private final CopyJob copyJob;
+        private final CopyProgressChannel progressChannel = new CopyProgressChannel();
+        private final Timer snapshotTimer;
         private final AtomicBoolean jobCancelled = new AtomicBoolean(false);
+        private volatile boolean executed = false;
 
         protected boolean cancelWork() {
             boolean result = !jobCancelled.getAndSet(true);
-            copyJobWorkDelegate.cancelWork();
+            copyJob.cancel();
+
+            // A job cancelled while queued never starts, and finishes at once
+            if (result && CopyJobScheduler.getInstance().withdraw(thisSwingCopyJob)) {
+                SwingUtilities.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        done();
+                    }
+                });
+            }
             return result;
         }
 
@@ -354,125 +538,100 @@ public final class SwingCopyJob {
 
             this.thisSwingCopyJob = enclosingSwingCopyJob;
 
-            copyJobWorkDelegate = new CopyJobWorkDelegate(this, pathsBeingCopied, destinationFolder, recursiveCopy, overwriteExistingFiles, fileComparator);
-            myWorker = new Thread(copyJobWorkDelegate);
-            myWorker.setName("CopyJobDelegate");
-        }
-
-        @Override   // CopyWorkResultsReceiver
-        public void workerException(Exception exception) {
-            this.workerException.set(exception);
+            copyJob = new CopyJob(pathsBeingCopied, destinationFolder, recursiveCopy, overwriteExistingFiles, fileComparator, settings);
+            copyJob.addProgressListener(this);
 
-            // Notify worker thread of exception
-            synchronized(swingUpdaterLock) {
-                swingUpdaterLock.notify();
-            }
+            snapshotTimer = new Timer(CopyProgressChannel.SNAPSHOT_INTERVAL_MILLIS, this);
+            snapshotTimer.setCoalesce(true);
         }
 
-        @Override   // CopyWorkResultsReceiver
-        public void receiveWorkResults(SimpleImmutableEntry<Path, Integer> result) {
-            workResultsQueue.add(result);
+        /**
+         * Starts the job and the delivery of its progress to the EDT.
+         */
+        private void execute() {
+            executed = true;
+            backgroundThreadIsRunning.set(true);
+
+            copyJob.getCompletion().whenComplete(new BiConsumer<CopyJob, Throwable>() {
+                @Override
+                public void accept(CopyJob completedJob, Throwable throwable) {
+                    SwingUtilities.invokeLater(new Runnable() {
+                        @Override
+                        public void run() {
+                            done();
+                        }
+                    });
+                }
+            });
 
-            // Notify worker thread of work received
-            synchronized(swingUpdaterLock) {
-                swingUpdaterLock.notify();
-            }
+            snapshotTimer.start();
+            copyJob.start();
         }
 
-        @Override   // CopyWorkResultsReceiver
-        public void workCompleted() {
-            this.workCompleted.set(true);
+        @Override   // CopyJobProgressListener
+        public void jobProgressed(CopyJob copyJob, int percentProgressed) {
+            // Picked up at the next snapshot
+            progressChannel.update(destinationFolder, percentProgressed);
+        }
 
-            // Notify worker thread of work received
-            synchronized(swingUpdaterLock) {
-                swingUpdaterLock.notify();
-            }
+        @Override   // CopyJobProgressListener
+        public void pathProgressed(CopyJob copyJob, Path pathnameBeingCopied, int percentProgressed) {
+            progressChannel.update(pathnameBeingCopied, percentProgressed);
         }
 
         /**
-         * This method is executed on a background thread when the SwingWorker's execute() method is called. Exceptions
-         * thrown by this method are thrown as type "ExecutionException", with Throwable.getCause() containing the details
-         * of the exception encountered, when the worker's get() method is called. If no exceptions were thrown, the get()
-         * method returns the (boolean) value returned by this method.
+         * Delivers the progress recorded since the previous snapshot, if any. Called on the EDT by the snapshot timer.
          *
-         * @throws IllegalStateException    thrown if the sourcePathname does not exist
-         * @throws SecurityException        thrown if read access on the sourcePathname or write access on the targetPathname has not been granted
-         * @throws java.io.IOException      thrown if an IOException occurs
-         * @return                          This method is a member of an extended SwingWorker whose specified return
-         *                                  value is always null. The return value should be ignored in all cases.
+         * @param event     timer event
          */
-        @Override
-        public Void doInBackground() throws IllegalStateException, SecurityException, IOException, InterruptedException {
-            backgroundThreadIsRunning.set(true);
-
-            // Start the CopyJobWorkDelegate and wait for its completion, or an exception, to be thrown
-            myWorker.start();
-
-            while ((myWorker.isAlive()) && (!workCompleted.get())) {
-                synchronized(swingUpdaterLock) {
-                    swingUpdaterLock.wait();
-                }
+        @Override   // ActionListener
+        public void actionPerformed(ActionEvent event) {
+            deliverSnapshot();
+        }
 
-                SimpleImmutableEntry<Path, Integer> result;
-                while ((result = workResultsQueue.poll()) != null) {
-                    if (result.getKey().equals(destinationFolder)) {
-                        setProgress(result.getValue());
-                    }
-                    publish(result);
-                }
+        private void deliverSnapshot() {
+            CopyProgressChannel.Snapshot snapshot = progressChannel.takeSnapshot();
 
-                Exception e = workerException.get();
-                if (e != null) {
-                    if (e instanceof SecurityException) {
-                        throw (SecurityException) e;
-                    } else if (e instanceof IOException) {
-                        throw (IOException) e;
-                    } else if (e instanceof IllegalStateException) {
-                        throw (IllegalStateException) e;
-                    } else {
-                        throw new RuntimeException(e.getMessage(), e);
-                    }
+            if (snapshot != null) {
+                for (int i = 0; i < snapshot.size(); ++i) {
+                    processUpdate(snapshot.paths[i], snapshot.percentages[i]);
                 }
             }
-
-            return null;
         }
 
         /**
-         * Notifies registered CopyJobListeners of progress updates published by the background thread.
-         * This method is called on the EDT.
+         * Notifies registered CopyJobListeners of a single progress update, if it differs from the last one delivered
+         * for the same path. This method is called on the EDT.
          *
-         * @param updates   collection of updates published by the SwingWorkers' working thread (i.e. the "doInBackground" method)
+         * @param path                  file or folder whose copy progressed, or the destination folder for job progress
+         * @param percentProgressed     percentage of the copy completed
          */
-        @Override
-        public void process(List<SimpleImmutableEntry<Path, Integer>> updates) {
-            for (SimpleImmutableEntry<Path, Integer> pair : updates) {
-                Map<Path, Integer> copyJobProgressions = swingCopyJobs.get(thisSwingCopyJob);
-
-                /* Ensure this SwingCopyJob is still being tracked before attempting to "put" data. This situation
-                   can arise when the job was cancelled via the cancel() method. The cancel() method call's the Done()
-                   method could, which may remove the reference to the job prior to chunks of data (i.e. updates) being
-                   processed by this method. */
-                if (copyJobProgressions != null) {
-                    boolean isCopyJobUpdate = false;    // as opposed to a progress update for a particular file or subfolder
-
-                /* Updates coming from the background thread are identified using the targeted file or folder of the copy
-                   operation or the copy job's overall destination folder */
-                    if (pair.getKey().equals(thisSwingCopyJob.destinationFolder)) {
-                        isCopyJobUpdate = true;
-                    }
+        private void processUpdate(Path path, int percentProgressed) {
+            Map<Path, Integer> copyJobProgressions = swingCopyJobs.get(thisSwingCopyJob);
+
+            /* Ensure this SwingCopyJob is still being tracked before attempting to "put" data. This situation
+               can arise when the job was cancelled via the cancel() method. The cancel() method call's the Done()
+               method could, which may remove the reference to the job prior to chunks of data (i.e. updates) being
+               processed by this method. */
+            if (copyJobProgressions != null) {
+                boolean isCopyJobUpdate = false;    // as opposed to a progress update for a particular file or subfolder
+
+            /* Updates coming from the background thread are identified using the targeted file or folder of the copy
+               operation or the copy job's overall destination folder */
+                if (path.equals(thisSwingCopyJob.destinationFolder)) {
+                    isCopyJobUpdate = true;
+                }
 
-                    Integer oldValue = copyJobProgressions.put(pair.getKey(), pair.getValue());
-                    if ((oldValue == null) || (!oldValue.equals(pair.getValue()))) {
-                        // Notify SwingCopyJobListener
-                        if (thisSwingCopyJob.swingCopyJobListeners.size() > 0) {
-                            synchronized (thisSwingCopyJob.swingCopyJobListeners) {
-                                for (SwingCopyJobListener listener : thisSwingCopyJob.swingCopyJobListeners) {
-                                    if (isCopyJobUpdate) {
-                                        listener.UpdateCopyJobProgress(thisSwingCopyJob, pair.getValue());
-                                    } else {
-                                        listener.UpdatePathnameCopyProgress(thisSwingCopyJob, pair.getKey(), pair.getValue());
-                                    }
+                Integer oldValue = copyJobProgressions.put(path, percentProgressed);
+                if ((oldValue == null) || (oldValue != percentProgressed)) {
+                    // Notify SwingCopyJobListener
+                    if (thisSwingCopyJob.swingCopyJobListeners.size() > 0) {
+                        synchronized (thisSwingCopyJob.swingCopyJobListeners) {
+                            for (SwingCopyJobListener listener : thisSwingCopyJob.swingCopyJobListeners) {
+                                if (isCopyJobUpdate) {
+                                    listener.UpdateCopyJobProgress(thisSwingCopyJob, percentProgressed);
+                                } else {
+                                    listener.UpdatePathnameCopyProgress(thisSwingCopyJob, path, percentProgressed);
                                 }
                             }
                         }
@@ -483,26 +642,31 @@ public final class SwingCopyJob {
 
         /**
          * Notifies registered CopyJobListeners that (a) the copy job been has been completed and (b) of any internal
-         * exception that might have caused the job to terminate early. This method is called on the EDT unless the
-         * background thread was cancelled using the cancel() method (the enclosing class' cancelJob() method), in
-         * which case the method is called on the caller's thread, which may or may not be the EDT.
+         * exception that might have caused the job to terminate early. This method is called on the EDT once the
+         * CopyJob has completed, after the progress it recorded last has been delivered.
          */
-        @Override
-        public void done() {
-            setProgress(ONE_HUNDRED_PERCENT);
+        private void done() {
+            snapshotTimer.stop();
+            deliverSnapshot();
 
+            for (Path target : regularFileTargets) {
+                targetsInFlight.remove(target, thisSwingCopyJob);
+            }
             swingCopyJobs.remove(thisSwingCopyJob);
 
+            if (executed) {
+                try {
+                    copyJob.getCompletion().get();
+                } catch (InterruptedException | ExecutionException e) {
+                    internalWorkerException = new SwingCopyJobException(e);
+                }
+
+                // Frees the job's slot for a queued job
+                CopyJobScheduler.getInstance().jobFinished(thisSwingCopyJob);
+            }
+
             if (thisSwingCopyJob.swingCopyJobListeners.size() > 0) {
                 synchronized (thisSwingCopyJob.swingCopyJobListeners) {
-                    try {
-                        // This method blocks until the background thread (doInBackground() method)) has completed its work
-                        get();
-                    } catch (InterruptedException | ExecutionException e) {
-                        // Note: a CancellationException should not occur here, so don't catch it
-                        internalWorkerException = new SwingCopyJobException(e);
-                    }
-
                     if ((internalWorkerException == null) && (!jobCancelled.get())) {
                         for (SwingCopyJobListener listener : thisSwingCopyJob.swingCopyJobListeners) {
                             listener.UpdateCopyJobProgress(thisSwingCopyJob, ONE_HUNDRED_PERCENT);
@@ -517,47 +681,16 @@ public final class SwingCopyJob {
                 }
             }
 
-            // Signal that the background thread has completed its work (exception or otherwise)
+            // Signal that the job has completed its work (exception or otherwise)
             backgroundThreadIsRunning.set(false);
+            state = State.FINISHED;
 
             // Unblock a caller of the awaitCompletion() method is the enclosing class
             synchronized (lockObject) {
-                lockObject.notify();
+                lockObject.notifyAll();
             }
         }
 
-    }
-
-    /**
-     * Default file comparator (function object) for use by CopyJob instances in determining if two files are similar.
-     */
-    private static class DefaultFileComparator implements Comparator<Path> {
-
-        public static final DefaultFileComparator INSTANCE = new DefaultFileComparator();
-
-        public static DefaultFileComparator getInstance() {
-            return INSTANCE;
-        }
-
-        private DefaultFileComparator() {
-        }
-
-        public int compare(Path path1, Path path2) {
-            int result = -1;
-
-            if ((path1 != null) && (path2 != null)) {
-                if (Files.isRegularFile(extractPath(path1), LinkOption.NOFOLLOW_LINKS) && Files.isRegularFile(extractPath(path2), LinkOption.NOFOLLOW_LINKS)) {
-                    if (path1.getFileName().toString().toLowerCase().equals(path2.getFileName().toString().toLowerCase())) {
-                        if (path1.toFile().length() == path2.toFile().length()) {
-                            result = 0;
-                        }
-                    }
-                }
-            }
-
-            return result;
-        }
-
-    }
+    } // class EdtUpdater implements CopyJobProgressListener, ActionListener
 
 }
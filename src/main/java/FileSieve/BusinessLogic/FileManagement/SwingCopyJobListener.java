@@ -38,4 +38,14 @@ public interface SwingCopyJobListener {
      */
     public void JobFinished(SwingCopyJob swingCopyJob, SwingCopyJobException exception); // InternalCopyJobException
 
+    /**
+     * Called by SwingCopyJob instances for which this listener is registered when a SwingCopyJob has to wait in the
+     * queue for other jobs to finish, and when it starts running. The end of a job is reported through JobFinished.
+     * Does nothing by default, so that listeners with no use for the job's state need not implement it.
+     *
+     * @param swingCopyJob          reference to the SwingCopyJob from which the update is coming
+     * @param state                 State the job has entered, either QUEUED or RUNNING
+     */
+    public default void JobStateChanged(SwingCopyJob swingCopyJob, SwingCopyJob.State state) { }
+
 } // interface SwingCopyJobListener
@@ -1,5 +1,8 @@
 package FileSieve.BusinessLogic.FileManagement;
 
+import FileSieve.BusinessLogic.FileDifferentiation.FingerprintStore;
+import FileSieve.BusinessLogic.FileDifferentiation.IoThrottle;
+
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Comparator;
@@ -29,12 +32,28 @@ public interface SwingFileManager extends FileOpener, FileDeleter, FileCopier<Sw
      *                                  overwriteExistingFiles parameter has been set to true. If an implementation
      *                                  is not provided then the copy job will use a default implementation that defines
      *                                  equality using the lowercase form of the file names and their uncompressed
-     *                                  length in bytes.
+     *                                  length in bytes. The compare method may be called concurrently by
+     *                                  the threads of a copy job and must be thread-safe.
      * @return                          an instance of SwingCopyJob for use in tracking and controlling the copy job
      * @throws java.io.IOException      thrown if attempted access of a path in sourcePathnames generates an IOException
      */
     public SwingCopyJob copyPathnames(Set<Path> sourcePathnames, Path targetPathname, boolean recursionEnabled, boolean overwriteExistingFiles, Comparator<Path> fileComparator) throws IOException, IllegalStateException;
 
+    /**
+     * Method for copying the folders and files of a CopyPlan, such as one built from the results of a FileEnumerator,
+     * to a target folder. Works as copyPathnames does, without recursion, but takes the types and sizes of the paths
+     * from the plan rather than reading them again, so that starting the job reads no metadata of the source.
+     *
+     * @param copyPlan                  plan listing the folders and files to copy, with their attributes
+     * @param targetPathname            pathname of folder into which to copy the plan's items
+     * @param overwriteExistingFiles    indicates if existing files in the target path should be overwritten if found to be similar to those currently being copied
+     * @param fileComparator            Function object of type Comparator<Path> as for copyPathnames, or null for the
+     *                                  default implementation
+     * @return                          an instance of SwingCopyJob for use in tracking and controlling the copy job
+     * @throws IllegalStateException    thrown if there is another, ongoing copy job that is copying a file with the same pathname to the same destination folder
+     */
+    public SwingCopyJob copyPathnames(CopyPlan copyPlan, Path targetPathname, boolean overwriteExistingFiles, Comparator<Path> fileComparator) throws IllegalStateException;
+
     /**
      * Convenience method providing similar functionality to the copyPathnames method but taking only one pathname
      * (as opposed to Set of pathnames) to be copied to a target destination folder. The method returns (and starts
@@ -52,13 +71,212 @@ public interface SwingFileManager extends FileOpener, FileDeleter, FileCopier<Sw
      *                                  overwriteExistingFiles parameter has been set to true. If an implementation
      *                                  is not provided then the copy job will use a default implementation that defines
      *                                  equality using the lowercase form of the file names and their uncompressed
-     *                                  length in bytes.
+     *                                  length in bytes. The compare method may be called concurrently by
+     *                                  the threads of a copy job and must be thread-safe.
      * @return                          an instance of SwingCopyJob for use in tracking and controlling the copy job
      * @throws IOException              thrown if attempted access of a path in sourcePathnames generates an IOException
      * @throws IllegalStateException    thrown if there is another, ongoing copy job that is copying a file with the same pathname to the same destination folder
      */
     public SwingCopyJob copyPathname(Path sourcePathname, Path targetPathname, boolean recursionEnabled, boolean overwriteExistingFiles, Comparator<Path> fileComparator) throws IOException, IllegalStateException;
 
+    /**
+     * Resumes a copy job which was cancelled, failed or was interrupted by the end of the process, from the journal
+     * it left in its destination folder, which it keeps only if journaling was enabled with setCopyJournalEnabled.
+     * The job is restarted with the source paths and options it was started with, a move being resumed as a move.
+     * Files the journal records as copied are skipped if neither their source nor the length of their copy has changed
+     * since, and large files are continued from the last offset the journal records as written to disk if their source
+     * has not changed since. Other files are handled as by copyPathnames.
+     *
+     * @param targetPathname            destination folder of the job to resume
+     * @param fileComparator            Function object of type Comparator<Path> as for copyPathnames, or null for the
+     *                                  default implementation; comparators are not journaled
+     * @return                          an instance of SwingCopyJob for use in tracking and controlling the copy job
+     * @throws java.nio.file.NoSuchFileException    thrown if the destination folder holds no copy journal
+     * @throws IOException              thrown if the journal cannot be read or a source path cannot be accessed
+     * @throws IllegalStateException    thrown if there is another, ongoing copy job that is copying a file with the same pathname to the same destination folder
+     */
+    public SwingCopyJob resumeCopyJob(Path targetPathname, Comparator<Path> fileComparator) throws IOException, IllegalStateException;
+
+    /**
+     * Method for moving one or more folders or files, with all their contents, into a target folder. Each source
+     * whose target does not yet exist is first renamed into the target folder, which is a metadata-only operation when
+     * source and target share a FileStore. The rest, including every source on another device, are copied as by
+     * copyPathnames with recursion, each file being read back and checked against the fingerprint taken while it was
+     * copied, and the source of each file is deleted as soon as its copy has been verified. Source folders emptied by
+     * the move are removed once the job completes. Files skipped as similar to existing targets are left in place, as
+     * are the sources of files not yet copied when a job is cancelled or fails.
+     *
+     * @param sourcePathnames           list (Set<Path>) of pathnames of folders and/or files to move
+     * @param targetPathname            pathname of folder into which to move sourcePathnames items
+     * @param overwriteExistingFiles    indicates if existing files in the target path should be overwritten if found to be similar to those currently being moved
+     * @param fileComparator            Function object of type Comparator<Path> as for copyPathnames, or null for the
+     *                                  default implementation
+     * @return                          an instance of SwingCopyJob for use in tracking and controlling the move
+     * @throws IOException              thrown if attempted access of a path in sourcePathnames generates an IOException
+     * @throws IllegalStateException    thrown if there is another, ongoing copy job that is copying a file with the same pathname to the same destination folder
+     */
+    public SwingCopyJob movePathnames(Set<Path> sourcePathnames, Path targetPathname, boolean overwriteExistingFiles, Comparator<Path> fileComparator) throws IOException, IllegalStateException;
+
+    /**
+     * Convenience method providing similar functionality to the movePathnames method but taking only one pathname.
+     *
+     * @param sourcePathname            pathname of folder or file to move
+     * @param targetPathname            pathname of folder into which to move sourcePathname
+     * @param overwriteExistingFiles    indicates if existing files in the target path should be overwritten if found to be similar to those currently being moved
+     * @param fileComparator            Function object of type Comparator<Path> as for copyPathnames, or null for the
+     *                                  default implementation
+     * @return                          an instance of SwingCopyJob for use in tracking and controlling the move
+     * @throws IOException              thrown if attempted access of sourcePathname generates an IOException
+     * @throws IllegalStateException    thrown if there is another, ongoing copy job that is copying a file with the same pathname to the same destination folder
+     */
+    public SwingCopyJob movePathname(Path sourcePathname, Path targetPathname, boolean overwriteExistingFiles, Comparator<Path> fileComparator) throws IOException, IllegalStateException;
+
+    /**
+     * Method for writing one or more folders or files, with their contents if recursion is enabled, to a single
+     * gzip-compressed tar archive file rather than copying them into a folder. The archive is written as a stream,
+     * its blocks compressed in parallel on the Executor set for copy jobs and written in order, so that the same
+     * sources always make the same archive. Progress of each entry is reported against the archive's pathname resolved
+     * against the entry's name within the archive, and of the job against the total length of the files. An archive
+     * not completed, because the job was cancelled or failed, is deleted.
+     *
+     * @param sourcePathnames           list (Set<Path>) of pathnames of folders and/or files to archive
+     * @param archivePathname           pathname of the archive file to write
+     * @param recursionEnabled          boolean value specifying if the contents of subfolders of folders in the
+     *                                  sourcePathnames list are archived
+     * @param overwriteExistingFile     indicates if an existing file at archivePathname may be replaced
+     * @return                          an instance of SwingCopyJob for use in tracking and controlling the job
+     * @throws IOException              thrown if attempted access of a path in sourcePathnames generates an IOException
+     * @throws IllegalStateException    thrown if there is another, ongoing copy job that is writing a file with the same pathname as the archive
+     */
+    public SwingCopyJob archivePathnames(Set<Path> sourcePathnames, Path archivePathname, boolean recursionEnabled, boolean overwriteExistingFile) throws IOException, IllegalStateException;
+
+    /**
+     * Specifies whether copy jobs subsequently started fingerprint each file as they copy it, making the fingerprints
+     * available through SwingCopyJob.getCopyDigests. Fingerprinted files are read through a Java buffer rather than
+     * transferred within the kernel, and existing files are rewritten in full rather than updated in place.
+     *
+     * @param digestsEnabled    true if copied files are to be fingerprinted
+     */
+    public void setCopyDigestsEnabled(boolean digestsEnabled);
+
+    /**
+     * Specifies whether copy jobs subsequently started read each copy back once written, bypassing the page cache
+     * where the platform allows, and fail if its fingerprint differs from that of the source taken while copying.
+     * Enabling verification enables fingerprinting.
+     *
+     * @param verificationEnabled   true if copies are to be verified
+     */
+    public void setCopyVerificationEnabled(boolean verificationEnabled);
+
+    /**
+     * Specifies a FingerprintStore in which copy jobs subsequently started record the fingerprint of each file they
+     * copy, against both the source and the copy, so that duplicate searches using the store need not read them.
+     * The store is saved when each job finishes. Setting a store enables fingerprinting.
+     *
+     * @param fingerprintStore  store in which to record fingerprints, or null to stop recording them
+     */
+    public void setFingerprintStore(FingerprintStore fingerprintStore);
+
+    /**
+     * Specifies whether copy jobs subsequently started read and write files around the page cache, with direct I/O,
+     * so that bulk copies of cold files do not evict the cached files of other processes. Copies are then made one
+     * chunk at a time rather than as concurrent ranges, existing files are rewritten in full rather than updated in
+     * place, and copies fall back to cached I/O on stores without direct I/O.
+     *
+     * @param cacheBypassEnabled    true if copies are to bypass the page cache
+     */
+    public void setCacheBypassEnabled(boolean cacheBypassEnabled);
+
+    /**
+     * Specifies whether copy jobs subsequently started without a Comparator decide whether existing targets are
+     * similar from a single listing of each target folder, rather than by examining each target file. Where a
+     * FingerprintStore is set, and holds current fingerprints of a source and its target, files of equal length are
+     * then only similar if their fingerprints match.
+     *
+     * @param targetListingEnabled  true if targets are to be compared from per-folder listings
+     */
+    public void setTargetListingEnabled(boolean targetListingEnabled);
+
+    /**
+     * Specifies a throttle limiting the rates at which copy jobs subsequently started copy bytes and create files and
+     * folders, and at which this file manager deletes files and folders. A throttle shared by several file managers,
+     * copiers and verifiers divides its budgets between them, and changes to its limits take effect on running jobs.
+     *
+     * @param throttle      throttle to be charged, or null to stop limiting new copy jobs and deletions
+     */
+    public void setThrottle(IoThrottle throttle);
+
+    /**
+     * Specifies whether copy jobs subsequently started keep the holes of sparse files as holes in their copies, so
+     * that copies of mostly empty files, such as virtual machine images, take only the space and time their data
+     * needs. On Linux, with the jdk.incubator.foreign module and native access enabled, holes are located by the
+     * operating system; elsewhere each file is read and its blocks of zeros are not written. Fingerprinted copies, and
+     * copies bypassing the page cache, are made in full.
+     *
+     * @param sparseCopyEnabled     true if holes are to be kept in copies
+     */
+    public void setSparseCopyEnabled(boolean sparseCopyEnabled);
+
+    /**
+     * Specifies whether copy jobs subsequently started, which overwrite existing files, update targets of at least
+     * 1 MB in place, rewriting only the blocks which differ from the source. Each block of the target is read and
+     * compared with the source before it is rewritten, so delta copying reads the target on top of the source, and
+     * pays off only where targets mostly match their sources and writing costs more than reading, as over a network.
+     * Fingerprinted copies, and copies bypassing the page cache, are made in full. Disabled by default.
+     *
+     * @param deltaCopyEnabled  true if new copy jobs are to update existing files in place
+     */
+    public void setDeltaCopyEnabled(boolean deltaCopyEnabled);
+
+    /**
+     * Specifies a pipeline through which copy jobs subsequently started copy large files: a reader thread fills a ring
+     * of buffers with each file while the job's thread writes them out, so that a source and a target on different
+     * devices are read and written at the same time. The pipeline's statistics show whether the source or the target
+     * held the copies back. Fingerprinted copies, and copies bypassing the page cache, are not pipelined.
+     *
+     * @param copyPipeline  pipeline to copy large files through, or null to copy them without one
+     */
+    public void setCopyPipeline(CopyPipeline copyPipeline);
+
+    /**
+     * Specifies whether copy jobs subsequently started keep a journal in their destination folder, recording the
+     * files copied and the progress of large files, from which a job cancelled, failed or interrupted by the end of
+     * the process can be continued with resumeCopyJob. Journaling forces large files to disk once per checkpoint
+     * interval, and is disabled by default.
+     *
+     * @param journalEnabled    true if new copy jobs are to be journaled
+     */
+    public void setCopyJournalEnabled(boolean journalEnabled);
+
+    /**
+     * Specifies the priority with which copy jobs subsequently requested are queued. Jobs wait in a queue shared by
+     * all SwingFileManagers when the limits set with setMaxConcurrentJobs and setMaxConcurrentJobsPerDevice are
+     * reached, and are started in order of descending priority, and of request amongst jobs of equal priority.
+     *
+     * @param jobPriority   priority of new copy jobs; the default is 0
+     */
+    public void setJobPriority(int jobPriority);
+
+    /**
+     * Specifies how many copy jobs, of all those requested from any SwingFileManager, may run at once. Further jobs
+     * are queued, in the SwingCopyJob.State.QUEUED state, until running jobs finish. Raising the limit starts queued
+     * jobs at once.
+     *
+     * @param maxConcurrentJobs     maximum number of jobs running at once, at least 1; the default is 4
+     */
+    public void setMaxConcurrentJobs(int maxConcurrentJobs);
+
+    /**
+     * Specifies how many copy jobs, of all those requested from any SwingFileManager, may write to the same device at
+     * once. The device of a job is that holding its destination folder, or the nearest existing ancestor of the
+     * folder. Concurrent jobs on one device compete for its bandwidth, so that they finish no sooner together than
+     * one after the other, and on rotating disks they finish later.
+     *
+     * @param maxConcurrentJobsPerDevice    maximum number of jobs writing to a device at once, at least 1; the
+     *                                      default is 2
+     */
+    public void setMaxConcurrentJobsPerDevice(int maxConcurrentJobsPerDevice);
+
     /**
      * Specifies a listener to which progress updates for copy operations may be forwarded. Newly instantiated/returned
      * SwingCopyJob instances are configured to send updates to this listener via its SwingCopyJobListener interface.
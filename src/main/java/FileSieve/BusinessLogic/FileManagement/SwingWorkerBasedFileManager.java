@@ -1,5 +1,8 @@
 package FileSieve.BusinessLogic.FileManagement;
 
+import FileSieve.BusinessLogic.FileDifferentiation.FingerprintStore;
+import FileSieve.BusinessLogic.FileDifferentiation.IoThrottle;
+
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Comparator;
@@ -12,16 +15,17 @@ import java.util.Set;
  */
 final class SwingWorkerBasedFileManager extends AbstractFileManager<SwingCopyJob, SwingCopyJobListener, Path> implements SwingFileManager {
 
-    private int workerLimit;
+    private final CopyJobSettings copyJobSettings = new CopyJobSettings();
     private SwingCopyJobListener swingCopyJobListener;
 
     /**
-     * Future functionality for limiting the number of worker threads used by a copy job.
+     * Constructs a file manager whose copy jobs copy up to the given number of files concurrently. Folders are
+     * always traversed, and created in the destination, by a single thread per job.
      *
-     * @param workerThreadLimit     number of concurrent worker thread (file/folder copies) to be permitted per copy job
+     * @param workerThreadLimit     number of concurrent worker threads (file copies) to be permitted per copy job
      */
     protected SwingWorkerBasedFileManager(int workerThreadLimit) {
-        this.workerLimit = workerThreadLimit;
+        copyJobSettings.setWorkerLimit(workerThreadLimit);
     }
 
     /**
@@ -39,7 +43,8 @@ final class SwingWorkerBasedFileManager extends AbstractFileManager<SwingCopyJob
      *                                  overwriteExistingFiles parameter has been set to true. If an implementation
      *                                  is not provided then the copy job will use a default implementation that defines
      *                                  equality using the lowercase form of the file names and their uncompressed
-     *                                  length in bytes.
+     *                                  length in bytes. The compare method may be called concurrently by
+     *                                  the threads of a copy job and must be thread-safe.
      * @return                          an instance of SwingCopyJob for use in tracking and controlling the copy job
      * @throws IOException              thrown if an IOException is encountered while converting source paths to real paths
      * @throws IllegalStateException    thrown by the CopyJob class's getCopyJob method if the destination folder is
@@ -54,7 +59,19 @@ final class SwingWorkerBasedFileManager extends AbstractFileManager<SwingCopyJob
             throw new NullPointerException("null path provided for targetPathname parameter");
         }
 
-        return SwingCopyJob.getCopyJob(sourcePathnames, targetPathname, recursionEnabled, overwriteExistingFiles, fileComparator, swingCopyJobListener);
+        return SwingCopyJob.getCopyJob(sourcePathnames, targetPathname, recursionEnabled, overwriteExistingFiles, fileComparator, swingCopyJobListener, copyJobSettings);
+    }
+
+    @Override
+    public SwingCopyJob copyPathnames(CopyPlan copyPlan, Path targetPathname, boolean overwriteExistingFiles, Comparator<Path> fileComparator) {
+        if (copyPlan == null) {
+            throw new NullPointerException("null reference provided for copyPlan parameter");
+        }
+        if (targetPathname == null) {
+            throw new NullPointerException("null path provided for targetPathname parameter");
+        }
+
+        return SwingCopyJob.getCopyJob(copyPlan, targetPathname, overwriteExistingFiles, fileComparator, swingCopyJobListener, copyJobSettings);
     }
 
     @Override
@@ -72,6 +89,61 @@ final class SwingWorkerBasedFileManager extends AbstractFileManager<SwingCopyJob
         return copyPathnames(sourcePathnames, targetPathname, recursionEnabled, overwriteExistingFiles, fileComparator);
     }
 
+    @Override
+    public SwingCopyJob resumeCopyJob(Path targetPathname, Comparator<Path> fileComparator) throws IOException {
+        if (targetPathname == null) {
+            throw new NullPointerException("null path provided for targetPathname parameter");
+        }
+
+        CopyJournal.Contents journal = CopyJournal.load(targetPathname);
+
+        CopyJobSettings resumeSettings = copyJobSettings.snapshot();
+        resumeSettings.setJournalEnabled(true);
+        resumeSettings.setResumedJournal(journal);
+        resumeSettings.setMoveSources(journal.isMovingSources());
+
+        return SwingCopyJob.getCopyJob(journal.getSourcePaths(), targetPathname, journal.isRecursive(), journal.isOverwritingExistingFiles(), fileComparator, swingCopyJobListener, resumeSettings);
+    }
+
+    @Override
+    public SwingCopyJob movePathnames(Set<Path> sourcePathnames, Path targetPathname, boolean overwriteExistingFiles, Comparator<Path> fileComparator) throws IOException {
+        if (sourcePathnames == null) {
+            throw new NullPointerException("null reference provided for sourcePathnames parameter");
+        }
+        if (targetPathname == null) {
+            throw new NullPointerException("null path provided for targetPathname parameter");
+        }
+
+        CopyJobSettings moveSettings = copyJobSettings.snapshot();
+        moveSettings.setMoveSources(true);
+
+        return SwingCopyJob.getCopyJob(sourcePathnames, targetPathname, true, overwriteExistingFiles, fileComparator, swingCopyJobListener, moveSettings);
+    }
+
+    @Override
+    public SwingCopyJob movePathname(Path sourcePathname, Path targetPathname, boolean overwriteExistingFiles, Comparator<Path> fileComparator) throws IOException {
+        if (sourcePathname == null) {
+            throw new NullPointerException("null reference provided for sourcePathname parameter");
+        }
+
+        Set<Path> sourcePathnames = new LinkedHashSet<>(1);
+        sourcePathnames.add(sourcePathname);
+
+        return movePathnames(sourcePathnames, targetPathname, overwriteExistingFiles, fileComparator);
+    }
+
+    @Override
+    public SwingCopyJob archivePathnames(Set<Path> sourcePathnames, Path archivePathname, boolean recursionEnabled, boolean overwriteExistingFile) throws IOException {
+        if (sourcePathnames == null) {
+            throw new NullPointerException("null reference provided for sourcePathnames parameter");
+        }
+        if (archivePathname == null) {
+            throw new NullPointerException("null path provided for archivePathname parameter");
+        }
+
+        return SwingCopyJob.getArchiveJob(sourcePathnames, archivePathname, recursionEnabled, overwriteExistingFile, swingCopyJobListener, copyJobSettings);
+    }
+
     /**
      * Sets the SwingCopyJobListener to which CopyJob instances returned by the "copyPathname" method forward progress
      * notifications.
@@ -83,4 +155,80 @@ final class SwingWorkerBasedFileManager extends AbstractFileManager<SwingCopyJob
         this.swingCopyJobListener = swingCopyJobListener;
     }
 
+    @Override
+    public void setCopyDigestsEnabled(boolean digestsEnabled) {
+        copyJobSettings.setCopyDigestsEnabled(digestsEnabled);
+    }
+
+    @Override
+    public void setCopyVerificationEnabled(boolean verificationEnabled) {
+        copyJobSettings.setCopyVerificationEnabled(verificationEnabled);
+    }
+
+    @Override
+    public void setFingerprintStore(FingerprintStore fingerprintStore) {
+        copyJobSettings.setFingerprintStore(fingerprintStore);
+    }
+
+    @Override
+    public void setCacheBypassEnabled(boolean cacheBypassEnabled) {
+        copyJobSettings.setCacheBypassEnabled(cacheBypassEnabled);
+    }
+
+    @Override
+    public void setTargetListingEnabled(boolean targetListingEnabled) {
+        copyJobSettings.setTargetListingEnabled(targetListingEnabled);
+    }
+
+    @Override
+    public void setThrottle(IoThrottle throttle) {
+        copyJobSettings.setThrottle(throttle);
+        setDeletionThrottle(throttle);
+    }
+
+    @Override
+    public void setSparseCopyEnabled(boolean sparseCopyEnabled) {
+        copyJobSettings.setSparseCopyEnabled(sparseCopyEnabled);
+    }
+
+    @Override
+    public void setDeltaCopyEnabled(boolean deltaCopyEnabled) {
+        copyJobSettings.setDeltaCopyEnabled(deltaCopyEnabled);
+    }
+
+    @Override
+    public void setCopyJournalEnabled(boolean journalEnabled) {
+        copyJobSettings.setJournalEnabled(journalEnabled);
+    }
+
+    @Override
+    public void setCopyPipeline(CopyPipeline copyPipeline) {
+        copyJobSettings.setCopyPipeline(copyPipeline);
+    }
+
+    @Override
+    public void setJobPriority(int jobPriority) {
+        copyJobSettings.setJobPriority(jobPriority);
+    }
+
+    @Override
+    public void setMaxConcurrentJobs(int maxConcurrentJobs) {
+        CopyJobScheduler.getInstance().setMaxConcurrentJobs(maxConcurrentJobs);
+    }
+
+    @Override
+    public void setMaxConcurrentJobsPerDevice(int maxConcurrentJobsPerDevice) {
+        CopyJobScheduler.getInstance().setMaxConcurrentJobsPerDevice(maxConcurrentJobsPerDevice);
+    }
+
+    /**
+     * Sets the CopyEngine with which copy jobs subsequently started by this file manager copy file content. Jobs
+     * already started keep the engine they were started with.
+     *
+     * @param copyEngine    CopyEngine to be used by new copy jobs
+     */
+    void setCopyEngine(CopyEngine copyEngine) {
+        copyJobSettings.setCopyEngine(copyEngine);
+    }
+
 } // class SwingWorkerFileManagement extends BasicFileManager
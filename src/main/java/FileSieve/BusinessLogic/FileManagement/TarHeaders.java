@@ -0,0 +1,146 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Builds the headers of a POSIX (pax) tar archive. Each entry has a ustar header; an entry whose name does not fit
+ * the 100 bytes of the ustar name field, or whose length exceeds the 8 GB a ustar size field can hold, is preceded by
+ * an extended header carrying its full name and length. Owners are left empty and numeric ids zero, so that an archive
+ * depends only on the names, lengths, modification times and content of its entries. This class has package-private
+ * access.
+ */
+final class TarHeaders {
+
+    /** Size of a tar header, and the unit to which entry content is padded */
+    static final int RECORD_SIZE = 512;
+
+    /** Conventional length to which a whole archive is padded, of 20 records */
+    static final int BLOCKING_SIZE = 20 * RECORD_SIZE;
+
+    private static final long MAX_USTAR_SIZE = 077777777777L;
+    private static final int NAME_LENGTH = 100;
+    private static final String PAX_HEADER_NAME = "././@PaxHeader";
+    private static final int FILE_MODE = 0644;
+    private static final int FOLDER_MODE = 0755;
+
+    /**
+     * Private constructor - static utility class
+     */
+    private TarHeaders() { }
+
+    /**
+     * Builds the header records of an entry, including an extended header where the entry requires one.
+     *
+     * @param name              name of the entry within the archive, with "/" separators and, for a folder, a
+     *                          trailing "/"
+     * @param folder            true if the entry is a folder
+     * @param size              length of a file's content, which follows the headers; ignored for a folder
+     * @param modifiedMillis    last-modified time of the entry, in milliseconds since the epoch
+     * @return                  the header records, a multiple of RECORD_SIZE bytes long
+     */
+    static byte[] entryHeaders(String name, boolean folder, long size, long modifiedMillis) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        long modifiedSeconds = Math.max(0L, modifiedMillis / 1000L);
+        long entrySize = (folder) ? 0L : size;
+
+        ByteArrayOutputStream extendedRecords = new ByteArrayOutputStream(0);
+        if (nameBytes.length > NAME_LENGTH) {
+            writePaxRecord(extendedRecords, "path", name);
+        }
+        if (entrySize > MAX_USTAR_SIZE) {
+            writePaxRecord(extendedRecords, "size", Long.toString(entrySize));
+        }
+
+        ByteArrayOutputStream headers = new ByteArrayOutputStream(RECORD_SIZE);
+        if (extendedRecords.size() > 0) {
+            byte[] content = extendedRecords.toByteArray();
+            headers.write(header(PAX_HEADER_NAME.getBytes(StandardCharsets.US_ASCII), 'x', content.length, modifiedSeconds, FILE_MODE), 0, RECORD_SIZE);
+            headers.write(content, 0, content.length);
+            headers.write(new byte[padding(content.length)], 0, padding(content.length));
+        }
+        headers.write(header(nameBytes, (folder) ? '5' : '0', Math.min(entrySize, MAX_USTAR_SIZE), modifiedSeconds, (folder) ? FOLDER_MODE : FILE_MODE), 0, RECORD_SIZE);
+
+        return headers.toByteArray();
+    }
+
+    /**
+     * Returns the number of zero bytes which follow content of the given length, to fill its last record.
+     *
+     * @param length    length of an entry's content
+     * @return          number of padding bytes, less than RECORD_SIZE
+     */
+    static int padding(long length) {
+        return (int) ((RECORD_SIZE - (length % RECORD_SIZE)) % RECORD_SIZE);
+    }
+
+    /**
+     * Returns the records which end an archive of the given length: two zero records, followed by zeros up to a
+     * multiple of BLOCKING_SIZE.
+     *
+     * @param archiveLength     length of the archive's entries
+     * @return                  the closing zero bytes
+     */
+    static byte[] endOfArchive(long archiveLength) {
+        long length = archiveLength + (2 * RECORD_SIZE);
+        return new byte[(int) (2 * RECORD_SIZE + ((BLOCKING_SIZE - (length % BLOCKING_SIZE)) % BLOCKING_SIZE))];
+    }
+
+    private static byte[] header(byte[] nameBytes, char type, long size, long modifiedSeconds, int mode) {
+        byte[] header = new byte[RECORD_SIZE];
+
+        // A name too long for the field is given in full by an extended header, which readers prefer
+        System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, NAME_LENGTH));
+        writeOctal(header, 100, 8, mode);
+        writeOctal(header, 108, 8, 0L);
+        writeOctal(header, 116, 8, 0L);
+        writeOctal(header, 124, 12, size);
+        writeOctal(header, 136, 12, modifiedSeconds);
+        header[156] = (byte) type;
+        System.arraycopy("ustar\0".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 6);
+        header[263] = '0';
+        header[264] = '0';
+
+        // The checksum is taken with its own field as spaces, and written as six digits, a NUL and a space
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        long checksum = 0L;
+        for (byte b : header) {
+            checksum += b & 0xFF;
+        }
+        writeOctal(header, 148, 7, checksum);
+        header[154] = 0;
+
+        return header;
+    }
+
+    /**
+     * Writes a number as zero-padded octal digits filling all but the last byte of a field, which is left NUL.
+     */
+    private static void writeOctal(byte[] header, int offset, int length, long value) {
+        String digits = Long.toOctalString(value);
+        int padding = length - 1 - digits.length();
+
+        for (int i = 0; i < padding; ++i) {
+            header[offset + i] = '0';
+        }
+        for (int i = 0; i < digits.length(); ++i) {
+            header[offset + padding + i] = (byte) digits.charAt(i);
+        }
+    }
+
+    /**
+     * Writes an extended header record, "length key=value\n", whose length counts its own digits.
+     */
+    private static void writePaxRecord(ByteArrayOutputStream records, String key, String value) {
+        int contentLength = key.length() + value.getBytes(StandardCharsets.UTF_8).length + 3;
+        int recordLength = contentLength + Integer.toString(contentLength).length();
+        if (Integer.toString(recordLength).length() != Integer.toString(contentLength).length()) {
+            ++recordLength;
+        }
+
+        byte[] record = (recordLength + " " + key + "=" + value + "\n").getBytes(StandardCharsets.UTF_8);
+        records.write(record, 0, record.length);
+    }
+
+} // class TarHeaders
@@ -0,0 +1,178 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import FileSieve.BusinessLogic.FileDifferentiation.FingerprintStore;
+import FileSieve.BusinessLogic.FileDifferentiation.StoredFingerprint;
+import FileSieve.BusinessLogic.FileEnumeration.DiscoveredPath;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Comparator which decides whether a source file is similar to its target as the default comparator does, by the
+ * lowercase form of their names and their lengths, but reads the target side from one listing per target folder.
+ * The first comparison against a folder lists it, with the attributes of each entry, and later comparisons against
+ * the same folder are answered from memory, so that targets which do not exist cost nothing and those which do cost
+ * no further calls to the destination's file system. Where a FingerprintStore holds current fingerprints of both the
+ * source and the target, files of equal length are only similar if their fingerprints are equal too.
+ * <p>
+ * A target is only found under its exact name, so that on a case-insensitive file system a target whose name differs
+ * in case from its source is copied over rather than skipped. A listing reflects a target folder when it was first
+ * compared against, so an instance is meant for a single copy job, each of whose targets is compared once before
+ * being written. Source attributes are taken from a CopyPlan where one is given. Instances are thread-safe. This class
+ * has package-private access.
+ */
+final class TargetListingComparator implements Comparator<Path> {
+
+    /** Stands in for the listing of a folder which could not be listed, whose entries are examined one by one */
+    private static final Map<String, BasicFileAttributes> UNLISTED = Collections.unmodifiableMap(new HashMap<String, BasicFileAttributes>(0));
+
+    private final FingerprintStore fingerprintStore;
+    private final CopyPlan copyPlan;
+    private final ConcurrentHashMap<Path, Map<String, BasicFileAttributes>> listings = new ConcurrentHashMap<>();
+    private final Function<Path, Map<String, BasicFileAttributes>> lister = new Function<Path, Map<String, BasicFileAttributes>>() {
+        @Override
+        public Map<String, BasicFileAttributes> apply(Path folder) {
+            return listFolder(folder);
+        }
+    };
+
+    /**
+     * @param fingerprintStore  store whose fingerprints decide between files of equal length, or null to compare
+     *                          lengths only
+     * @param copyPlan          plan from which to take the attributes of source files, or null to read them
+     */
+    TargetListingComparator(FingerprintStore fingerprintStore, CopyPlan copyPlan) {
+        this.fingerprintStore = fingerprintStore;
+        this.copyPlan = copyPlan;
+    }
+
+    @Override
+    public int compare(Path path1, Path path2) {
+        int result = -1;
+
+        if ((path1 != null) && (path2 != null) && (path2.getParent() != null)) {
+            BasicFileAttributes sourceAttributes = sourceAttributes(path1);
+            BasicFileAttributes targetAttributes = targetAttributes(extractPath(path2));
+
+            if ((sourceAttributes != null) && (targetAttributes != null) && sourceAttributes.isRegularFile() && targetAttributes.isRegularFile()) {
+                if (path1.getFileName().toString().toLowerCase().equals(path2.getFileName().toString().toLowerCase())) {
+                    if (sourceAttributes.size() == targetAttributes.size()) {
+                        result = compareFingerprints(path1, sourceAttributes, path2, targetAttributes);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Compares the stored fingerprints of two files of equal length, if the store holds current fingerprints of both.
+     *
+     * @return  0 if the files are taken to be similar, otherwise -1
+     */
+    private int compareFingerprints(Path source, BasicFileAttributes sourceAttributes, Path target, BasicFileAttributes targetAttributes) {
+        if (fingerprintStore != null) {
+            StoredFingerprint sourceFingerprint = fingerprintStore.get(source);
+            StoredFingerprint targetFingerprint = fingerprintStore.get(target);
+
+            if ((sourceFingerprint != null) && (targetFingerprint != null)
+                    && sourceFingerprint.matchesAttributes(sourceAttributes.size(), sourceAttributes.lastModifiedTime().toMillis())
+                    && targetFingerprint.matchesAttributes(targetAttributes.size(), targetAttributes.lastModifiedTime().toMillis())) {
+                return (sourceFingerprint.getFingerprint() == targetFingerprint.getFingerprint()) ? 0 : -1;
+            }
+        }
+
+        return 0;
+    }
+
+    private BasicFileAttributes sourceAttributes(Path source) {
+        BasicFileAttributes attributes = (copyPlan != null) ? copyPlan.getAttributes(source) : null;
+
+        if (attributes == null) {
+            try {
+                attributes = Files.readAttributes(extractPath(source), BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (IOException e) {
+                // A source which cannot be examined is not similar to anything; its copy reports the failure
+            }
+        }
+
+        return attributes;
+    }
+
+    private BasicFileAttributes targetAttributes(Path target) {
+        Map<String, BasicFileAttributes> listing = listings.computeIfAbsent(target.getParent(), lister);
+
+        if (listing == UNLISTED) {
+            try {
+                return Files.readAttributes(target, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        // Only an exact match is taken; a target named differently in case is copied over, as a conservative choice
+        return listing.get(target.getFileName().toString());
+    }
+
+    /**
+     * Lists a folder with the attributes of its entries, keyed by their names. A folder which does not exist yields an
+     * empty listing, and one which cannot be listed yields UNLISTED.
+     */
+    private static Map<String, BasicFileAttributes> listFolder(final Path folder) {
+        final Map<String, BasicFileAttributes> listing = new HashMap<>();
+
+        try {
+            // A depth of 1 visits each entry with the attributes the listing provides, where the platform provides them
+            Files.walkFileTree(folder, EnumSet.noneOf(FileVisitOption.class), 1, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    listing.put(file.getFileName().toString(), attributes);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+                    // An entry which vanished, or cannot be examined, is left for the copy to deal with
+                    if (file.equals(folder) && !(e instanceof NoSuchFileException)) {
+                        throw e;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            return UNLISTED;
+        }
+
+        return listing;
+    }
+
+    /**
+     * Extracts the decorated (wrapped) Path from a DiscoveredPath instance.
+     *
+     * @param path  a Path instance
+     * @return      the Path decorated by a DiscoveredPath instance, or the same Path as that provided
+     */
+    private static Path extractPath(Path path) {
+        if (path instanceof DiscoveredPath) {
+            return ((DiscoveredPath) path).getPath();
+        } else {
+            return path;
+        }
+    }
+
+} // class TargetListingComparator implements Comparator<Path>
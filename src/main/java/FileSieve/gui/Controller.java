@@ -1,9 +1,14 @@
 package FileSieve.gui;
 
+import FileSieve.BusinessLogic.FileDifferentiation.DuplicateSpaceEstimate;
+import FileSieve.BusinessLogic.FileDifferentiation.DuplicateSpaceEstimator;
+import FileSieve.BusinessLogic.FileDifferentiation.DuplicateVerifier;
 import FileSieve.BusinessLogic.FileDifferentiation.FileDifferentiator;
 import FileSieve.BusinessLogic.FileDifferentiation.FileDifferentiatorFactory;
+import FileSieve.BusinessLogic.FileDifferentiation.IoThrottle;
 import FileSieve.BusinessLogic.FileEnumeration.FileEnumerator;
 import FileSieve.BusinessLogic.FileEnumeration.FileEnumeratorFactory;
+import FileSieve.BusinessLogic.FileManagement.CopyPlan;
 import FileSieve.BusinessLogic.FileManagement.FileManagerFactory;
 import FileSieve.BusinessLogic.FileManagement.SwingCopyJob;
 import FileSieve.BusinessLogic.FileManagement.SwingCopyJobListener;
@@ -25,7 +30,8 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.tree.TreePath;
 import java.util.AbstractMap.SimpleImmutableEntry;
-import java.util.LinkedHashSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import javax.swing.tree.DefaultMutableTreeNode;
@@ -45,6 +51,9 @@ public class Controller {
     ResultScreen resultScreen;
     private FileEnumerator fileEnumerator;
     private FileDifferentiator fileDifferentiator; 
+    private DuplicateSpaceEstimator duplicateSpaceEstimator;
+    private DuplicateVerifier duplicateVerifier;
+    private final IoThrottle ioThrottle = new IoThrottle(0L); //shared by copying, deleting and duplicate verification
     static SwingFileManager swingFileManager; //protected so CheckTreeManager could access it (or does it create its own?)
     protected SwingCopyJob swingCopyJob;
     private DiffReport diffReport;
@@ -53,11 +62,16 @@ public class Controller {
     JFileChooser fileChooser; //protected so test could mock it
     JFileChooser saveFileChooser; //protected so test could mock it
     boolean isTest = false; //used to skip some gui methods for test purposes
+    static final int LARGEST_GROUPS_LIMIT = 1000; //how many duplicate groups to show when only the largest are requested
     
     public Controller(){
        fileEnumerator = FileEnumeratorFactory.getFileEnumerator();
        fileDifferentiator = FileDifferentiatorFactory.getFileDifferentiator();
+       duplicateSpaceEstimator = FileDifferentiatorFactory.getDuplicateSpaceEstimator();
+       duplicateVerifier = FileDifferentiatorFactory.getDuplicateVerifier();
        swingFileManager = FileManagerFactory.getSwingFileManager();
+       duplicateVerifier.setThrottle(ioThrottle);
+       swingFileManager.setThrottle(ioThrottle);
        fileChooser = new JFileChooser();
        fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
        saveFileChooser = new JFileChooser();
@@ -157,8 +171,8 @@ public class Controller {
                     int totalFiles = fileEnumerator.getFileCount();
                     long totalBytes = fileEnumerator.getByteCount();
                     
-                    //convert a Map to a Set
-                    Set<Path> pathsToCopy = new LinkedHashSet<>(discoveredPaths.keySet());
+                    //keep the discovered attributes so the copy job need not read them again
+                    CopyPlan copyPlan = new CopyPlan(discoveredPaths);
                     
                     changeScreen(ScreenEnum.COPYPANEL.btnText());
                     setupCopyScreen(target.toString(), totalFiles, totalBytes);
@@ -168,9 +182,9 @@ public class Controller {
                         SwingCopyJobListener swingCopyJobListener = new CopyJobListener(this, copyScreen, totalFiles, totalBytes);
                         swingFileManager.setCopyOperationsListener(swingCopyJobListener);
                     }
-                    //recursion is disabled for SwingCopyJob since
+                    //a copy plan is copied without recursion since
                     //FileEnumerator has done all the work and there is no need to do it again
-                    swingCopyJob = swingFileManager.copyPathnames(pathsToCopy, targetPath, false, false, null);
+                    swingCopyJob = swingFileManager.copyPathnames(copyPlan, targetPath, false, null);
                     
                 } catch(IOException ioe){
                     displayAlert("Error accessing files: "+ioe.getMessage());
@@ -206,6 +220,16 @@ public class Controller {
 
     } //setupCopyScreen
     
+    /**
+     * Limits the rate at which files are copied, deleted and read for duplicate verification
+     * Takes effect immediately, including for a copy job which is already running
+     * @param maxBytesPerSecond             maximum bytes per second, or 0 for no limit
+     * @throws IllegalArgumentException     if maxBytesPerSecond is negative
+     */
+    protected void setIoRateLimit(long maxBytesPerSecond){
+        ioThrottle.setMaxBytesPerSecond(maxBytesPerSecond);
+    }
+    
     /**
      * Finishes file copying process
      * @param interrupted           indicates whether the copying job was cancelled (interrupted)
@@ -249,6 +273,17 @@ public class Controller {
      * @param includeSubfolders         search for duplicate files in subfolders or not
      */
     protected void callDuplJob(TreePath[] paths, boolean includeSubfolders){
+        callDuplJob(paths, includeSubfolders, 0);
+    }
+    
+    /**
+     * Gets source filepaths and calls find duplicates job
+     * @param paths                     provides selected source filepaths
+     * @param includeSubfolders         search for duplicate files in subfolders or not
+     * @param maxGroups                 show only this many duplicate groups, those wasting the most space,
+     *                                  or all groups if 0
+     */
+    protected void callDuplJob(TreePath[] paths, boolean includeSubfolders, int maxGroups){
         //proceed only if source paths are selected
         if(pathsAreSelected(paths)){
             
@@ -266,7 +301,12 @@ public class Controller {
                 long totalBytesSearched = fileEnumerator.getByteCount();
                 
                 //find duplicate files for all selected paths
-                duplicates = fileDifferentiator.getDuplicatedFiles(discoveredPaths);
+                //or only the groups wasting the most space if a limit is set
+                if(maxGroups > 0){
+                    duplicates = fileDifferentiator.getLargestDuplicatedFiles(discoveredPaths, maxGroups);
+                } else {
+                    duplicates = fileDifferentiator.getDuplicatedFiles(discoveredPaths);
+                }
 
                 //if duplicates are found go to result screen
                 if(duplicates.size() > 0){
@@ -283,6 +323,55 @@ public class Controller {
         
     } // callDuplJob
     
+    /**
+     * Gets source filepaths and estimates how much space duplicate files waste without reading every file
+     * Shows the estimate and its confidence interval to the user
+     * @param paths                     provides selected source filepaths
+     * @param includeSubfolders         include files in subfolders in the estimate or not
+     * @return                          the estimate or null if it couldn't be made
+     */
+    protected DuplicateSpaceEstimate callQuickEstimate(TreePath[] paths, boolean includeSubfolders){
+        DuplicateSpaceEstimate estimate = null;
+        //proceed only if source paths are selected
+        if(pathsAreSelected(paths)){
+            
+            //convert TreePath[] paths to List<Path>
+            List<Path> listOfPaths = new ArrayList<>(paths.length);
+            for(TreePath path : paths){
+                Path addPath = Paths.get(path.getLastPathComponent().toString());
+                listOfPaths.add(addPath);
+            }
+
+            try{
+                //get all files and folders in selected source paths
+                Map<Path, BasicFileAttributes> discoveredPaths = fileEnumerator.getPathnames(listOfPaths, includeSubfolders);
+                
+                //hash a sample of the files and extrapolate
+                estimate = duplicateSpaceEstimator.estimateDuplicateBytes(discoveredPaths);
+                
+                String estimateStr = FileSieve.gui.util.Utilities.readableFileSize(estimate.getEstimatedDuplicateBytes());
+                String lowerStr = FileSieve.gui.util.Utilities.readableFileSize(estimate.getLowerBoundBytes());
+                String upperStr = FileSieve.gui.util.Utilities.readableFileSize(estimate.getUpperBoundBytes());
+                String searchedStr = FileSieve.gui.util.Utilities.readableFileSize(estimate.getBytesConsidered());
+                String msg = "Duplicate files waste about "+estimateStr+" of "+searchedStr+
+                        " in "+estimate.getFilesConsidered()+" files.";
+                if(estimate.isExhaustive()){
+                    msg += "\nAll "+estimate.getCandidateGroups()+" groups of same-size files were checked.";
+                } else {
+                    msg += "\n"+Math.round(estimate.getConfidenceLevel()*100)+"% confidence interval: "+lowerStr+" to "+upperStr+
+                            "\n(checked "+estimate.getSampledGroups()+" of "+estimate.getCandidateGroups()+" groups of same-size files)";
+                }
+                if(!isTest){
+                    JOptionPane.showMessageDialog(screens, msg, "Quick estimate", JOptionPane.INFORMATION_MESSAGE);
+                }
+            } catch(IOException ioe){
+                displayAlert("Error accessing files: "+ioe.getMessage());
+            }
+        } // sources are selected
+        
+        return estimate;
+    } // callQuickEstimate
+    
     /**
      * Populates the result screen with found duplicates list
      * @param foundDuplicates           list of found duplicates
@@ -353,17 +442,36 @@ public class Controller {
     } //setupResultScreen
     
     /**
-     * Deletes selected paths
+     * Deletes selected paths without verifying their contents
      * @param paths                     paths to be deleted
      * @throws NullPointerException     if deletedPaths is not initialized
      */ 
     protected void callDeleteJob(TreePath[] paths){
+        callDeleteJob(paths, false);
+    } //callDeleteJob
+    
+    /**
+     * Deletes selected paths
+     * @param paths                     paths to be deleted
+     * @param verifyContents            true if a file is only to be deleted once it is confirmed byte for byte
+     *                                  to be identical to a copy which is not selected for deletion
+     * @throws NullPointerException     if deletedPaths is not initialized
+     */ 
+    protected void callDeleteJob(TreePath[] paths, boolean verifyContents){
         //proceed only if paths are selected
         if(pathsAreSelected(paths)){
             if(deletedPaths == null){
                 throw new NullPointerException("deletedPaths is not initialized.");
             }
             
+            //drop any file that isn't confirmed to have an identical copy that is kept
+            if(verifyContents){
+                paths = confirmIdenticalCopies(paths);
+                if(paths.length == 0){
+                    return;
+                }
+            }
+            
             //reconfirm user wants to delete the selected files
             int confirmDelete = JOptionPane.NO_OPTION;
             //skip confirmation for tests
@@ -420,6 +528,73 @@ public class Controller {
         
     } //callDeleteJob
     
+    /**
+     * Verifies, byte for byte, that each selected file is identical to at least one file of its duplicates
+     * group which is not selected, so that deleting the selected files never loses content
+     * @param paths     selected paths of duplicate files
+     * @return          those paths which are confirmed safe to delete
+     */
+    private TreePath[] confirmIdenticalCopies(TreePath[] paths){
+        //group selected paths by their duplicates group (parent node)
+        Map<DefaultMutableTreeNode, List<TreePath>> selectedByGroup = new LinkedHashMap<>();
+        for(TreePath path : paths){
+            DefaultMutableTreeNode parent = (DefaultMutableTreeNode) ((DefaultMutableTreeNode) path.getLastPathComponent()).getParent();
+            List<TreePath> selected = selectedByGroup.get(parent);
+            if(selected == null){
+                selected = new ArrayList<>();
+                selectedByGroup.put(parent, selected);
+            }
+            selected.add(path);
+        }
+        
+        List<TreePath> confirmedPaths = new ArrayList<>(paths.length);
+        List<String> refusedFiles = new ArrayList<>();
+        
+        for(Map.Entry<DefaultMutableTreeNode, List<TreePath>> group : selectedByGroup.entrySet()){
+            Set<File> selectedFiles = new HashSet<>();
+            for(TreePath path : group.getValue()){
+                selectedFiles.add(new File(path.getLastPathComponent().toString()));
+            }
+            
+            //all files of the group, selected or not
+            List<File> groupFiles = new ArrayList<>();
+            for(int i = 0; i < group.getKey().getChildCount(); i++){
+                groupFiles.add(new File(group.getKey().getChildAt(i).toString()));
+            }
+            
+            Set<File> confirmedFiles = new HashSet<>();
+            try{
+                for(List<File> identicalFiles : duplicateVerifier.verifyDuplicates(groupFiles)){
+                    //selected files of a verified group are safe to delete if the group keeps an unselected copy
+                    if(!selectedFiles.containsAll(identicalFiles)){
+                        confirmedFiles.addAll(identicalFiles);
+                    }
+                }
+            } catch(IOException ioe){
+                //leave the whole group untouched if it can't be verified
+                confirmedFiles.clear();
+            }
+            
+            for(TreePath path : group.getValue()){
+                if(confirmedFiles.contains(new File(path.getLastPathComponent().toString()))){
+                    confirmedPaths.add(path);
+                } else {
+                    refusedFiles.add(path.getLastPathComponent().toString());
+                }
+            }
+        }
+        
+        if(!refusedFiles.isEmpty()){
+            StringBuilder msg = new StringBuilder("These files were not deleted because no identical copy that is kept could be confirmed:");
+            for(String refusedFile : refusedFiles){
+                msg.append("\n").append(refusedFile);
+            }
+            displayAlert(msg.toString());
+        }
+        
+        return confirmedPaths.toArray(new TreePath[confirmedPaths.size()]);
+    } //confirmIdenticalCopies
+    
     
     protected void saveDiffReport(){ 
         if(duplicates == null){
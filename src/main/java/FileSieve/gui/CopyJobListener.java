@@ -91,6 +91,12 @@ public class CopyJobListener implements SwingCopyJobListener {
                 copyScreen.copyListModel.addElement(fileProgress);
                 //scroll to the bottom of the list as the items are added
                 copyScreen.copyList.ensureIndexIsVisible(copiedFiles.size()-1);
+                //progress is coalesced, so a file copied between two updates is first seen already complete
+                if (percentProgressed == ONE_HUNDRED_PERCENT) {
+                    bytesDone += fileBeingCopied.length();
+                    filesDone++;
+                    updateTotalProgress();
+                }
             }
         }
     }
@@ -110,6 +116,22 @@ public class CopyJobListener implements SwingCopyJobListener {
         }
     }
     
+    /**
+     * Tells the user when the copy job has to wait for other copy jobs to finish, and restores
+     * the progress text once it starts
+     *
+     * @param swingCopyJob      reference to a swingCopyJob that currently copies files
+     * @param state             whether the job is queued or running
+     */
+    @Override
+    public void JobStateChanged(SwingCopyJob swingCopyJob, SwingCopyJob.State state) {
+        if (state == SwingCopyJob.State.QUEUED) {
+            copyScreen.progressTxt.setText("Waiting for other copy jobs to finish...");
+        } else {
+            updateTotalProgress();
+        }
+    }
+    
     // Updates how many files and bytes have been copied
     private void updateTotalProgress(){      
         String totalBytesStr = FileSieve.gui.util.Utilities.readableFileSize(totalBytes);
@@ -23,6 +23,9 @@ public class CopyScreen extends JPanel{
     JProgressBar totalProgressBar;
     JButton cancelBtn;
     JButton newSearchBtn;
+    JComboBox<String> rateLimitBox;
+    static final String[] RATE_LIMIT_NAMES = {"Unlimited", "100 MB/s", "50 MB/s", "10 MB/s", "1 MB/s"};
+    static final long[] RATE_LIMITS = {0L, 100L << 20, 50L << 20, 10L << 20, 1L << 20};
 	
     CopyScreen(Controller cntrl){
 
@@ -71,6 +74,18 @@ public class CopyScreen extends JPanel{
             }
         });
 		
+	//Speed limit, adjustable while files are being copied
+	JLabel rateLimitLabel = new JLabel();
+	rateLimitLabel.setText("Speed limit:");
+	rateLimitBox = new JComboBox<>(RATE_LIMIT_NAMES);
+	rateLimitBox.setMaximumSize(rateLimitBox.getPreferredSize());
+	rateLimitBox.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                controller.setIoRateLimit(RATE_LIMITS[rateLimitBox.getSelectedIndex()]);
+            }
+        });
+		
 	//Progress bar
 	JLabel totalProgressLabel = new JLabel();
 	totalProgressLabel.setText("Total Progress:");
@@ -111,6 +126,11 @@ public class CopyScreen extends JPanel{
 	buttonPane.setBorder(BorderFactory.createEmptyBorder(0, 20, 20, 20));
 		
 	buttonPane.add(cancelBtn);
+	buttonPane.add(Box.createRigidArea(new Dimension(10,0)));
+	buttonPane.add(rateLimitLabel);
+	buttonPane.add(Box.createRigidArea(new Dimension(5,0)));
+	buttonPane.add(rateLimitBox);
+	buttonPane.add(Box.createHorizontalGlue());
 	buttonPane.add(newSearchBtn);
 		
 	add(buttonPane, BorderLayout.PAGE_END);
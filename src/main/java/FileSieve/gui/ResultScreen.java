@@ -21,6 +21,7 @@ public class ResultScreen extends JPanel{
     JTree duplicatesList;
     CheckTreeManager checkTree;
     JLabel fileCntLabel;
+    JCheckBox verifyCb;
     private static final int SELECT_LEVEL = 3; //only 3d level tree nodes can be selected
 	
     ResultScreen(Controller cntrl){
@@ -63,10 +64,15 @@ public class ResultScreen extends JPanel{
         deleteBtn.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                controller.callDeleteJob(checkTree.getSelectionPaths());
+                controller.callDeleteJob(checkTree.getSelectionPaths(), verifyCb.isSelected());
             }
         });
 		
+        //Checkbox
+        verifyCb = new JCheckBox("verify contents before deleting");
+        verifyCb.setAlignmentX(Component.LEFT_ALIGNMENT);
+        verifyCb.setSelected(true);
+		
 	JButton reportBtn = new JButton("Export Report");
 	reportBtn.setAlignmentX(Component.RIGHT_ALIGNMENT);
         reportBtn.addActionListener(new ActionListener() {
@@ -116,6 +122,7 @@ public class ResultScreen extends JPanel{
 	buttonPane.setBorder(BorderFactory.createEmptyBorder(0, 20, 20, 20));	
 	buttonPane.add(copyBtn);
 	buttonPane.add(deleteBtn);
+        buttonPane.add(verifyCb);
 		
 	add(buttonPane, BorderLayout.PAGE_END);
 		
@@ -22,6 +22,7 @@ public class SelectScreen extends JPanel{
         private Controller controller;
         private JTree srcFilepathTree;
         private JCheckBox subfoldersCb;
+        private JCheckBox largestOnlyCb;
 	
 	SelectScreen(Controller cntrl){
             
@@ -55,6 +56,9 @@ public class SelectScreen extends JPanel{
             subfoldersCb = new JCheckBox("include subfolders");
             subfoldersCb.setAlignmentX(Component.LEFT_ALIGNMENT); 
             subfoldersCb.setSelected(true);
+            largestOnlyCb = new JCheckBox("show only the "+Controller.LARGEST_GROUPS_LIMIT+" largest duplicate groups");
+            largestOnlyCb.setAlignmentX(Component.LEFT_ALIGNMENT); 
+            largestOnlyCb.setSelected(false);
 		
             //Buttons		
             JButton copyBtn = new JButton("Copy To");
@@ -72,7 +76,17 @@ public class SelectScreen extends JPanel{
             findDupsBtn.addActionListener(new ActionListener() {
                 @Override
                 public void actionPerformed(ActionEvent e) {
-                    controller.callDuplJob(srcFilepathTree.getSelectionPaths(), subfoldersCb.isSelected());
+                    int maxGroups = largestOnlyCb.isSelected() ? Controller.LARGEST_GROUPS_LIMIT : 0;
+                    controller.callDuplJob(srcFilepathTree.getSelectionPaths(), subfoldersCb.isSelected(), maxGroups);
+                }
+            });
+
+            JButton estimateBtn = new JButton("Quick Estimate");
+            estimateBtn.setAlignmentX(Component.LEFT_ALIGNMENT);
+            estimateBtn.addActionListener(new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    controller.callQuickEstimate(srcFilepathTree.getSelectionPaths(), subfoldersCb.isSelected());
                 }
             });
 		
@@ -90,6 +104,7 @@ public class SelectScreen extends JPanel{
             buttonPane.setLayout(new BoxLayout(buttonPane, BoxLayout.LINE_AXIS));		
             buttonPane.add(copyBtn);			
             buttonPane.add(findDupsBtn);
+            buttonPane.add(estimateBtn);
             buttonPane.setAlignmentX(Component.LEFT_ALIGNMENT);
             
             JPanel bottomPane = new JPanel();
@@ -98,6 +113,7 @@ public class SelectScreen extends JPanel{
             JPanel bottomLeftPane = new JPanel();
             bottomLeftPane.setLayout(new BoxLayout(bottomLeftPane, BoxLayout.PAGE_AXIS));
             bottomLeftPane.add(subfoldersCb);
+            bottomLeftPane.add(largestOnlyCb);
             bottomLeftPane.add(buttonPane);
             bottomLeftPane.setAlignmentY(Component.TOP_ALIGNMENT);
             bottomLeftPane.setAlignmentX(Component.LEFT_ALIGNMENT);
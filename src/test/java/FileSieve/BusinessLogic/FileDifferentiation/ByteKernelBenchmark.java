@@ -0,0 +1,81 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Benchmark comparing the scalar and Vector API kernels on large buffers, run with "ant benchmark". Each measurement
+ * is preceded by warm-up iterations so that the JIT compiler has compiled the kernel before it is timed. Results are
+ * printed in MB/s; for the lockstep comparator, throughput counts the bytes of every buffer compared.
+ */
+public final class ByteKernelBenchmark {
+
+    private static final int BUFFER_SIZE = 64 * 1024 * 1024;
+    private static final int GROUP_SIZE = 4;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    private static volatile long sink;
+
+    private ByteKernelBenchmark() { }
+
+    public static void main(String[] args) {
+        byte[] reference = new byte[BUFFER_SIZE];
+        new Random(29).nextBytes(reference);
+
+        byte[][] buffers = new byte[GROUP_SIZE][];
+        for (int i = 0; i < GROUP_SIZE; ++i) {
+            buffers[i] = reference.clone();
+        }
+
+        ByteKernel vectorKernel = ByteKernels.getVectorInstance();
+        if (vectorKernel == null) {
+            System.out.println("Vector API kernel unavailable - run with \"--add-modules jdk.incubator.vector\"");
+        }
+
+        for (ByteKernel kernel : new ByteKernel[] { ByteKernels.getScalarInstance(), vectorKernel }) {
+            if (kernel == null) {
+                continue;
+            }
+
+            String name = kernel.getClass().getSimpleName();
+            System.out.printf("%-18s fingerprint: %8.1f MB/s%n", name, measureFingerprint(kernel, reference));
+            System.out.printf("%-18s lockstep:    %8.1f MB/s%n", name, measureLockstep(kernel, reference, buffers));
+        }
+    }
+
+    private static double measureFingerprint(ByteKernel kernel, byte[] bytes) {
+        for (int i = 0; i < WARMUP_ITERATIONS; ++i) {
+            sink += kernel.fingerprint(i, bytes, 0, bytes.length);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; ++i) {
+            sink += kernel.fingerprint(i, bytes, 0, bytes.length);
+        }
+
+        return throughput((long) bytes.length * MEASURED_ITERATIONS, System.nanoTime() - start);
+    }
+
+    private static double measureLockstep(ByteKernel kernel, byte[] reference, byte[][] buffers) {
+        boolean[] matches = new boolean[buffers.length];
+
+        for (int i = 0; i < WARMUP_ITERATIONS; ++i) {
+            Arrays.fill(matches, true);
+            sink += kernel.matchReference(reference, buffers, matches, buffers.length, reference.length);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; ++i) {
+            Arrays.fill(matches, true);
+            sink += kernel.matchReference(reference, buffers, matches, buffers.length, reference.length);
+        }
+
+        return throughput((long) reference.length * buffers.length * MEASURED_ITERATIONS, System.nanoTime() - start);
+    }
+
+    private static double throughput(long bytes, long nanos) {
+        return (bytes / (1024.0 * 1024.0)) / (nanos / 1e9);
+    }
+
+} // class ByteKernelBenchmark
@@ -0,0 +1,61 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class ByteKernelTest {
+
+    private final ByteKernel scalarKernel = ByteKernels.getScalarInstance();
+    private final byte[] bytes = new byte[1000];
+
+    public ByteKernelTest() {
+        new Random(29).nextBytes(bytes);
+    }
+
+    @Test
+    public void testScalarFingerprint_SensitiveToEveryByte() {
+        long fingerprint = scalarKernel.fingerprint(0L, bytes, 0, bytes.length);
+
+        for (int i = 0; i < bytes.length; i += 37) {
+            byte[] changed = bytes.clone();
+            changed[i] ^= 1;
+            Assert.assertNotEquals("flipping a bit at index " + i + " changes the fingerprint", fingerprint, scalarKernel.fingerprint(0L, changed, 0, changed.length));
+        }
+
+        Assert.assertNotEquals("fingerprint depends on the seed", fingerprint, scalarKernel.fingerprint(1L, bytes, 0, bytes.length));
+        Assert.assertEquals("fingerprint depends only on the fingerprinted range", scalarKernel.fingerprint(0L, bytes, 100, 500), scalarKernel.fingerprint(0L, Arrays.copyOfRange(bytes, 100, 600), 0, 500));
+    }
+
+    @Test
+    public void testVectorKernel_MatchesScalarKernel() {
+        ByteKernel vectorKernel = ByteKernels.getVectorInstance();
+        Assume.assumeNotNull(vectorKernel);
+
+        for (int offset = 0; offset < 9; ++offset) {
+            for (int length = 0; length + offset <= 200; ++length) {
+                Assert.assertEquals("fingerprints agree for offset " + offset + " and length " + length, scalarKernel.fingerprint(offset, bytes, offset, length), vectorKernel.fingerprint(offset, bytes, offset, length));
+            }
+        }
+
+        byte[][] buffers = new byte[4][];
+        for (int i = 0; i < buffers.length; ++i) {
+            buffers[i] = bytes.clone();
+        }
+        buffers[1][999] ^= 1;   // differs in the scalar tail
+        buffers[2][3] ^= 1;     // differs in the first vector slice
+
+        boolean[] scalarMatches = { true, true, true, false };
+        boolean[] vectorMatches = scalarMatches.clone();
+
+        Assert.assertEquals("scalar kernel finds one buffer matching", 1, scalarKernel.matchReference(bytes, buffers, scalarMatches, buffers.length, bytes.length));
+        Assert.assertEquals("vector kernel finds one buffer matching", 1, vectorKernel.matchReference(bytes, buffers, vectorMatches, buffers.length, bytes.length));
+        Assert.assertTrue("kernels agree on which buffers match", Arrays.equals(scalarMatches, vectorMatches));
+        Assert.assertTrue("unchanged buffer matches", vectorMatches[0]);
+        Assert.assertFalse("buffer not compared remains unmatched", vectorMatches[3]);
+    }
+
+} // class ByteKernelTest
@@ -0,0 +1,73 @@
+package FileSieve.BusinessLogic.FileDifferentiation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class IoThrottleTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    @Test
+    public void testAcquire_LimitsAverageByteRate() {
+        IoThrottle throttle = new IoThrottle(4L * MB);
+
+        long start = System.nanoTime();
+        throttle.acquire(2L * MB);
+        long elapsedMillis = (System.nanoTime() - start) / 1000000L;
+
+        // The first quantum is granted at once, and each of the remaining seven waits for the one before it
+        Assert.assertTrue("2 MB at 4 MB/s takes close to half a second, took " + elapsedMillis + " ms", elapsedMillis >= 400L);
+    }
+
+    @Test
+    public void testAcquireOperations_LimitsAverageOperationRate() {
+        IoThrottle throttle = new IoThrottle(0L, 100L);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 21; ++i) {
+            throttle.acquireOperations(1);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1000000L;
+
+        Assert.assertTrue("21 operations at 100 per second take at least 200 ms, took " + elapsedMillis + " ms", elapsedMillis >= 190L);
+        Assert.assertEquals("byte budget left unlimited", 0L, throttle.getMaxBytesPerSecond());
+    }
+
+    @Test
+    public void testAcquire_ConcurrentCallersShareBudgetEvenly() throws InterruptedException {
+        final IoThrottle throttle = new IoThrottle(16L * MB);
+        final AtomicBoolean stopped = new AtomicBoolean(false);
+        final AtomicLong largeChunkBytes = new AtomicLong(0L);
+        final AtomicLong smallChunkBytes = new AtomicLong(0L);
+
+        Thread largeChunkCaller = startCaller(throttle, 8L * MB, largeChunkBytes, stopped);
+        Thread smallChunkCaller = startCaller(throttle, IoThrottle.QUANTUM_BYTES, smallChunkBytes, stopped);
+        Thread.sleep(1500L);
+        stopped.set(true);
+        largeChunkCaller.join();
+        smallChunkCaller.join();
+
+        // Without interleaving, the caller charging small chunks would get one chunk per 8 MB charged by the other
+        Assert.assertTrue("caller charging small chunks granted a fair share, " + smallChunkBytes.get() + " of " + (smallChunkBytes.get() + largeChunkBytes.get()) + " bytes",
+                smallChunkBytes.get() * 3L >= largeChunkBytes.get());
+    }
+
+    private static Thread startCaller(final IoThrottle throttle, final long chunkBytes, final AtomicLong grantedBytes, final AtomicBoolean stopped) {
+        Thread caller = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!stopped.get()) {
+                    throttle.acquire(chunkBytes);
+                    grantedBytes.addAndGet(chunkBytes);
+                }
+            }
+        });
+
+        caller.start();
+        return caller;
+    }
+
+} // class IoThrottleTest
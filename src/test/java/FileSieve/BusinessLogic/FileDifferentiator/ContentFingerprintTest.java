@@ -0,0 +1,73 @@
+package FileSieve.BusinessLogic.FileDifferentiator;
+
+import FileSieve.BusinessLogic.FileDifferentiation.ContentFingerprint;
+import FileSieve.BusinessLogic.FileDifferentiation.FileDifferentiatorFactory;
+import FileSieve.BusinessLogic.FileDifferentiation.FingerprintStore;
+import FileSieve.BusinessLogic.FileManagement.FileManagerFactory;
+import FileSieve.BusinessLogic.FileManagement.SwingFileManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Random;
+
+public class ContentFingerprintTest {
+
+    private final SwingFileManager fileManager = FileManagerFactory.getSwingFileManager();
+    private final String userTempFolder = System.getProperty("java.io.tmpdir");
+    private final Path fingerprintTestFolder = new File(userTempFolder + "ContentFingerprintTestFolder").toPath();
+    private final byte[] content = new byte[300001];
+    private Path file;
+
+    @Before
+    public void setup() throws IOException {
+        Assume.assumeFalse("folder used for tests should not pre-exist", Files.exists(fingerprintTestFolder));
+
+        Files.createDirectory(fingerprintTestFolder);
+        new Random(37).nextBytes(content);
+        file = Files.write(fingerprintTestFolder.resolve("file.dat"), content);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Assert.assertTrue("able to delete temp folder constructed by setup() method for tests", fileManager.deletePathname(fingerprintTestFolder));
+    }
+
+    @Test
+    public void testUpdate_AnyChunkingGivesTheRecordedFullFingerprint() throws IOException {
+        FingerprintStore fingerprintStore = FingerprintStore.open(fingerprintTestFolder.resolve("fingerprints.dat"));
+        FileDifferentiatorFactory.getIntegrityVerifier(fingerprintStore).verify(Collections.singletonMap(file, Files.readAttributes(file, BasicFileAttributes.class)));
+        long recorded = fingerprintStore.get(file).getFingerprint();
+
+        Random random = new Random(38);
+        for (int trial = 0; trial < 5; ++trial) {
+            ContentFingerprint fingerprint = new ContentFingerprint(content.length);
+            int offset = 0;
+            while (offset < content.length) {
+                int length = Math.min(content.length - offset, random.nextInt(150000));
+                fingerprint.update(content, offset, length);
+                offset += length;
+            }
+
+            Assert.assertTrue("whole file supplied", fingerprint.isComplete());
+            Assert.assertEquals("streamed fingerprint equals the one recorded by an integrity verifier", recorded, fingerprint.getValue());
+        }
+    }
+
+    @Test
+    public void testOfFile_CachedAndUncachedReadsAgree() throws IOException {
+        long cached = ContentFingerprint.ofFile(file, false);
+
+        Assert.assertEquals("read around the page cache, or normally where unsupported", cached, ContentFingerprint.ofFile(file, true));
+        Assert.assertNotEquals("a different length gives a different fingerprint", cached, new ContentFingerprint(0L).getValue());
+    }
+
+} // class ContentFingerprintTest
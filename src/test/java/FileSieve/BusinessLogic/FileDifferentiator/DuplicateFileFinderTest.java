@@ -2,6 +2,7 @@ package FileSieve.BusinessLogic.FileDifferentiator;
 
 import FileSieve.BusinessLogic.FileDifferentiation.FileDifferentiator;
 import FileSieve.BusinessLogic.FileDifferentiation.FileDifferentiatorFactory;
+import FileSieve.BusinessLogic.FileDifferentiation.FileHashCalculator;
 import FileSieve.BusinessLogic.FileManagement.FileManagerFactory;
 import FileSieve.BusinessLogic.FileManagement.SwingFileManager;
 import org.junit.After;
@@ -17,9 +18,13 @@ import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class DuplicateFileFinderTest {
 
@@ -60,6 +65,63 @@ public class DuplicateFileFinderTest {
         Assert.assertTrue("third reported copy is the one in the \"folder1\" subfolder", fileDotDatDuplications.get(2).toPath().getParent().getFileName().toString().equals("folder1"));
     }
 
+    @Test
+    public void testGetLargestDuplicatedFiles() {
+        // List<SimpleImmutableEntry<String, List<File>>> getLargestDuplicatedFiles(Map<Path, BasicFileAttributes> pathnames, int maxGroups)
+
+        List<SimpleImmutableEntry<String, List<File>>> duplicates = fileDifferentiator.getLargestDuplicatedFiles(pathnames, 1);
+
+        Assert.assertEquals("only the largest group of duplicates was returned", 1, duplicates.size());
+        Assert.assertEquals("largest group of duplicates is that of \"file.dat\"", "file.dat", duplicates.get(0).getKey());
+        Assert.assertEquals("3 copies of \"file.dat\" were found", 3, duplicates.get(0).getValue().size());
+        Assert.assertEquals("same duplicates are found as by getDuplicatedFiles", fileDifferentiator.getDuplicatedFiles(pathnames).get(0).getValue(), duplicates.get(0).getValue());
+    }
+
+    @Test
+    public void testGetLargestDuplicatedFiles_ReturnsGroupsInOrderAndNeverHashesPrunedBuckets() throws IOException {
+        // Groups by reclaimable bytes: "big.dat" 2 x 3000, "mid.dat" 3 x 1000, "small.dat" 1 x 500. The "other" files
+        // share a length but not a name, so their bucket could reclaim 2 x 2500 yet holds no duplicates at all
+        Path largestFolder = Files.createDirectory(fileDifferentiationTestFolder.resolve("largest"));
+        Map<Path, BasicFileAttributes> candidates = new LinkedHashMap<>(pathnames);
+        List<Path> bigFiles = createDuplicates(largestFolder, "big.dat", 3000, 3, candidates);
+        List<Path> midFiles = createDuplicates(largestFolder, "mid.dat", 1000, 4, candidates);
+        List<Path> smallFiles = createDuplicates(largestFolder, "small.dat", 500, 2, candidates);
+        List<Path> otherFiles = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            otherFiles.addAll(createDuplicates(largestFolder, "other" + i + ".dat", 2500, 1, candidates));
+        }
+
+        // Hashes by name and length, as the default calculator does, recording each file hashed
+        final Set<Path> hashedPaths = new HashSet<>();
+        FileDifferentiator countingDifferentiator = FileDifferentiatorFactory.getFileDifferentiator(new FileHashCalculator() {
+            @Override
+            public int calculateHash(Path path, BasicFileAttributes basicFileAttributes) {
+                hashedPaths.add(path);
+                return 31 * path.getFileName().hashCode() + Long.valueOf(basicFileAttributes.size()).hashCode();
+            }
+        });
+
+        List<SimpleImmutableEntry<String, List<File>>> topTwo = countingDifferentiator.getLargestDuplicatedFiles(candidates, 2);
+
+        Assert.assertEquals("two groups returned", 2, topTwo.size());
+        Assert.assertEquals("largest group first", toFiles(bigFiles), topTwo.get(0).getValue());
+        Assert.assertEquals("second largest group second", toFiles(midFiles), topTwo.get(1).getValue());
+        Set<Path> expectedHashed = new HashSet<>(bigFiles);
+        expectedHashed.addAll(midFiles);
+        expectedHashed.addAll(otherFiles);
+        Assert.assertEquals("only buckets which could beat the groups held were hashed", expectedHashed, hashedPaths);
+
+        hashedPaths.clear();
+        List<SimpleImmutableEntry<String, List<File>>> topThree = countingDifferentiator.getLargestDuplicatedFiles(candidates, 3);
+
+        Assert.assertEquals("three groups returned", 3, topThree.size());
+        Assert.assertEquals("groups returned largest first", Arrays.asList("big.dat", "mid.dat", "small.dat"),
+                Arrays.asList(topThree.get(0).getKey(), topThree.get(1).getKey(), topThree.get(2).getKey()));
+        Assert.assertEquals("smallest group returned in full", toFiles(smallFiles), topThree.get(2).getValue());
+        expectedHashed.addAll(smallFiles);
+        Assert.assertEquals("bucket of \"file.dat\" copies, smaller than the groups held, never hashed", expectedHashed, hashedPaths);
+    }
+
     /**
      * Constructs a folder hierarchy with files and subfolders for exercising methods and add pathnames to the
      * "pathnames" Map in the same order in which a FileDiscoverer object would do so.
@@ -207,4 +269,29 @@ public class DuplicateFileFinderTest {
         Assert.assertTrue("Map containing pathnames contains 20 entries", pathnames.size() == 20);
     }
 
+    /**
+     * Creates "count" files of the given name and byte length, each in a subfolder of its own, and adds them to the
+     * candidates Map.
+     */
+    private List<Path> createDuplicates(Path folder, String name, int length, int count, Map<Path, BasicFileAttributes> candidates) throws IOException {
+        List<Path> files = new ArrayList<>(count);
+
+        for (int i = 0; i < count; ++i) {
+            Path file = Files.createDirectories(folder.resolve(name + "-copy" + i)).resolve(name);
+            Files.write(file, new byte[length]);
+            candidates.put(file, Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS));
+            files.add(file);
+        }
+
+        return files;
+    }
+
+    private static List<File> toFiles(List<Path> paths) {
+        List<File> files = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            files.add(path.toFile());
+        }
+        return files;
+    }
+
 } // class DuplicateFileFinderTest
@@ -0,0 +1,105 @@
+package FileSieve.BusinessLogic.FileDifferentiator;
+
+import FileSieve.BusinessLogic.FileDifferentiation.DuplicateSpaceEstimate;
+import FileSieve.BusinessLogic.FileDifferentiation.DuplicateSpaceEstimator;
+import FileSieve.BusinessLogic.FileDifferentiation.FileDifferentiatorFactory;
+import FileSieve.BusinessLogic.FileManagement.FileManagerFactory;
+import FileSieve.BusinessLogic.FileManagement.SwingFileManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class DuplicateSpaceEstimatorTest {
+
+    private final SwingFileManager fileManager = FileManagerFactory.getSwingFileManager();
+    private final String userTempFolder = System.getProperty("java.io.tmpdir");
+    private final Path estimatorTestFolder = new File(userTempFolder + "DuplicateSpaceEstimatorTestFolder").toPath();
+    private final Map<Path, BasicFileAttributes> pathnames = new LinkedHashMap<Path, BasicFileAttributes>(20);
+
+    // Bytes wasted by the redundant copies created by constructTestPaths()
+    private long expectedWastedBytes = 0L;
+
+    @Before
+    public void setup() throws IOException {
+        Assume.assumeFalse("folder used for tests should not pre-exist", Files.exists(estimatorTestFolder));
+
+        constructTestPaths();
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Assert.assertTrue("able to delete temp folder constructed by setup() method for tests", fileManager.deletePathname(estimatorTestFolder));
+    }
+
+    @Test
+    public void testEstimateDuplicateBytes_Exhaustive() throws IOException {
+        DuplicateSpaceEstimator estimator = FileDifferentiatorFactory.getDuplicateSpaceEstimator(1.0);
+        DuplicateSpaceEstimate estimate = estimator.estimateDuplicateBytes(pathnames);
+
+        Assert.assertTrue("all candidate groups were hashed at a sample rate of 1.0", estimate.isExhaustive());
+        Assert.assertEquals("three groups of equally sized files are candidates", 3, estimate.getCandidateGroups());
+        Assert.assertEquals("exhaustive estimate equals the wasted bytes", expectedWastedBytes, estimate.getEstimatedDuplicateBytes());
+        Assert.assertEquals("confidence interval collapses to the estimate (lower bound)", expectedWastedBytes, estimate.getLowerBoundBytes());
+        Assert.assertEquals("confidence interval collapses to the estimate (upper bound)", expectedWastedBytes, estimate.getUpperBoundBytes());
+        Assert.assertEquals("all regular files were considered", 9, estimate.getFilesConsidered());
+    }
+
+    @Test
+    public void testEstimateDuplicateBytes_Sampled() throws IOException {
+        DuplicateSpaceEstimator estimator = FileDifferentiatorFactory.getDuplicateSpaceEstimator(0.01);
+        DuplicateSpaceEstimate estimate = estimator.estimateDuplicateBytes(pathnames);
+
+        Assert.assertTrue("lower bound does not exceed the estimate", estimate.getLowerBoundBytes() <= estimate.getEstimatedDuplicateBytes());
+        Assert.assertTrue("upper bound is not below the estimate", estimate.getUpperBoundBytes() >= estimate.getEstimatedDuplicateBytes());
+        Assert.assertTrue("upper bound never exceeds the potential waste of same-size groups", estimate.getUpperBoundBytes() <= 2 * 10000L + 5000L + 3L);
+    }
+
+    /**
+     * Constructs test files. Groups of equally sized files are:
+     *     10000 bytes: three identical copies (20000 wasted bytes)
+     *     5000 bytes:  two files differing in their last byte (no waste)
+     *     3 bytes:     two identical copies (3 wasted bytes)
+     * plus a unique 7 byte file and an empty file.
+     */
+    private void constructTestPaths() throws IOException {
+        Files.createDirectory(estimatorTestFolder);
+
+        byte[] large = new byte[10000];
+        Arrays.fill(large, (byte) 'a');
+        byte[] medium = new byte[5000];
+        Arrays.fill(medium, (byte) 'b');
+        byte[] mediumDifferent = medium.clone();
+        mediumDifferent[mediumDifferent.length - 1] = (byte) 'c';
+
+        createFile("large1.dat", large);
+        createFile("large2.dat", large);
+        createFile("large3.dat", large);
+        createFile("medium1.dat", medium);
+        createFile("medium2.dat", mediumDifferent);
+        createFile("small1.dat", "abc".getBytes());
+        createFile("small2.dat", "abc".getBytes());
+        createFile("unique.dat", "unique!".getBytes());
+        createFile("empty.dat", new byte[0]);
+
+        expectedWastedBytes = 2 * 10000L + 3L;
+    }
+
+    private void createFile(String name, byte[] content) throws IOException {
+        Path file = estimatorTestFolder.resolve(name);
+        Files.write(file, content);
+        pathnames.put(file, Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS));
+    }
+
+} // class DuplicateSpaceEstimatorTest
@@ -0,0 +1,151 @@
+package FileSieve.BusinessLogic.FileDifferentiator;
+
+import FileSieve.BusinessLogic.FileDifferentiation.DuplicateVerifier;
+import FileSieve.BusinessLogic.FileDifferentiation.ContentFingerprint;
+import FileSieve.BusinessLogic.FileDifferentiation.FileDifferentiatorFactory;
+import FileSieve.BusinessLogic.FileDifferentiation.FingerprintStore;
+import FileSieve.BusinessLogic.FileManagement.FileManagerFactory;
+import FileSieve.BusinessLogic.FileManagement.SwingFileManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class DuplicateVerifierTest {
+
+    private final DuplicateVerifier duplicateVerifier = FileDifferentiatorFactory.getDuplicateVerifier();
+    private final SwingFileManager fileManager = FileManagerFactory.getSwingFileManager();
+    private final String userTempFolder = System.getProperty("java.io.tmpdir");
+    private final Path verifierTestFolder = new File(userTempFolder + "DuplicateVerifierTestFolder").toPath();
+
+    @Before
+    public void setup() throws IOException {
+        Assume.assumeFalse("folder used for tests should not pre-exist", Files.exists(verifierTestFolder));
+
+        Files.createDirectory(verifierTestFolder);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Assert.assertTrue("able to delete temp folder constructed by setup() method for tests", fileManager.deletePathname(verifierTestFolder));
+    }
+
+    @Test
+    public void testVerifyDuplicates_SplitsDivergentGroup() throws IOException {
+        // Content spans several 64KB blocks; "b" copies differ from "a" copies only in the second block
+        byte[] contentA = new byte[200000];
+        new Random(30).nextBytes(contentA);
+        byte[] contentB = contentA.clone();
+        contentB[100000] ^= 1;
+        byte[] contentD = contentA.clone();
+        contentD[0] ^= 1;
+
+        File a1 = createFile("a1.dat", contentA);
+        File b1 = createFile("b1.dat", contentB);
+        File a2 = createFile("a2.dat", contentA);
+        File d = createFile("d.dat", contentD);
+        File b2 = createFile("b2.dat", contentB);
+        File shorter = createFile("shorter.dat", Arrays.copyOf(contentA, 199999));
+
+        List<List<File>> verified = duplicateVerifier.verifyDuplicates(Arrays.asList(a1, b1, a2, d, b2, shorter));
+
+        Assert.assertEquals("candidates split into two groups of identical files", 2, verified.size());
+        Assert.assertEquals("first group holds the identical \"a\" copies in candidate order", Arrays.asList(a1, a2), verified.get(0));
+        Assert.assertEquals("second group holds the identical \"b\" copies in candidate order", Arrays.asList(b1, b2), verified.get(1));
+    }
+
+    @Test
+    public void testVerifyDuplicates_EmptyAndUniqueFiles() throws IOException {
+        File empty1 = createFile("empty1.dat", new byte[0]);
+        File empty2 = createFile("empty2.dat", new byte[0]);
+        File unique1 = createFile("unique1.dat", "test".getBytes());
+        File unique2 = createFile("unique2.dat", "tess".getBytes());
+
+        List<List<File>> verified = duplicateVerifier.verifyDuplicates(Arrays.asList(unique1, empty1, unique2, empty2));
+
+        Assert.assertEquals("only the empty files are identical", 1, verified.size());
+        Assert.assertEquals("empty files form a group", Arrays.asList(empty1, empty2), verified.get(0));
+    }
+
+    @Test
+    public void testVerifyDuplicates_GroupLargerThanOpenFileLimit() throws IOException {
+        // Well over the verifier's 64 open files, so that the group is verified in batches against a representative
+        byte[] contentA = new byte[100000];
+        new Random(41).nextBytes(contentA);
+        byte[] contentB = contentA.clone();
+        contentB[99999] ^= 1;
+
+        List<File> candidates = new ArrayList<>();
+        List<File> copiesOfA = new ArrayList<>();
+        List<File> copiesOfB = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            File a = createFile("a" + i + ".dat", contentA);
+            File b = createFile("b" + i + ".dat", contentB);
+            candidates.add(b);
+            candidates.add(a);
+            copiesOfA.add(a);
+            copiesOfB.add(b);
+        }
+        byte[] contentD = contentA.clone();
+        contentD[0] ^= 1;
+        candidates.add(100, createFile("d.dat", contentD));
+
+        List<List<File>> verified = duplicateVerifier.verifyDuplicates(candidates);
+
+        Assert.assertEquals("large group split into two groups of identical files", 2, verified.size());
+        Assert.assertEquals("first group holds the \"b\" copies in candidate order", copiesOfB, verified.get(0));
+        Assert.assertEquals("second group holds the \"a\" copies in candidate order", copiesOfA, verified.get(1));
+    }
+
+    @Test
+    public void testVerifyDuplicates_StoredFingerprintsStandInForReads() throws IOException {
+        byte[] contentA = new byte[100000];
+        new Random(37).nextBytes(contentA);
+        byte[] contentB = contentA.clone();
+        contentB[50000] ^= 1;
+
+        File a1 = createFile("a1.dat", contentA);
+        File b1 = createFile("b1.dat", contentB);
+        File a2 = createFile("a2.dat", contentA);
+        File a3 = createFile("a3.dat", contentA);
+        File b2 = createFile("b2.dat", contentB);
+
+        // The "b" files are recorded with the fingerprint of "a", so only reading them could tell them apart
+        FingerprintStore fingerprintStore = FingerprintStore.open(verifierTestFolder.resolve("fingerprints.dat"));
+        long fingerprintA = ContentFingerprint.ofFile(a1.toPath(), false);
+        for (File file : Arrays.asList(a1, b1, a2, b2)) {
+            fingerprintStore.put(file.toPath(), file.length(), file.lastModified(), fingerprintA);
+        }
+        DuplicateVerifier storedFingerprintVerifier = FileDifferentiatorFactory.getDuplicateVerifier(fingerprintStore);
+
+        List<List<File>> allRecorded = storedFingerprintVerifier.verifyDuplicates(Arrays.asList(a1, b1, a2, b2));
+        Assert.assertEquals("recorded files grouped by fingerprint alone", Arrays.asList(Arrays.asList(a1, b1, a2, b2)), allRecorded);
+
+        // An unrecorded file is read alongside one representative of the recorded files, and joins their group
+        List<List<File>> mixed = storedFingerprintVerifier.verifyDuplicates(Arrays.asList(a3, a1, b1));
+        Assert.assertEquals("unrecorded file joins the recorded group it matches", Arrays.asList(Arrays.asList(a3, a1, b1)), mixed);
+
+        // A file modified since its fingerprint was recorded is read rather than trusted
+        Files.write(b2.toPath(), contentB);
+        b2.setLastModified(b2.lastModified() + 10000L);
+        List<List<File>> modified = storedFingerprintVerifier.verifyDuplicates(Arrays.asList(a1, a2, b2));
+        Assert.assertEquals("modified file not grouped by its stale fingerprint", Arrays.asList(Arrays.asList(a1, a2)), modified);
+    }
+
+    private File createFile(String name, byte[] content) throws IOException {
+        Path file = verifierTestFolder.resolve(name);
+        Files.write(file, content);
+        return file.toFile();
+    }
+
+} // class DuplicateVerifierTest
@@ -0,0 +1,210 @@
+package FileSieve.BusinessLogic.FileDifferentiator;
+
+import FileSieve.BusinessLogic.FileDifferentiation.FileDifferentiatorFactory;
+import FileSieve.BusinessLogic.FileDifferentiation.FingerprintStore;
+import FileSieve.BusinessLogic.FileDifferentiation.IntegrityVerifier;
+import FileSieve.BusinessLogic.FileDifferentiation.VerificationReport;
+import FileSieve.BusinessLogic.FileManagement.FileManagerFactory;
+import FileSieve.BusinessLogic.FileManagement.SwingFileManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class IntegrityVerifierTest {
+
+    private final SwingFileManager fileManager = FileManagerFactory.getSwingFileManager();
+    private final String userTempFolder = System.getProperty("java.io.tmpdir");
+    private final Path verifierTestFolder = new File(userTempFolder + "IntegrityVerifierTestFolder").toPath();
+    private Path storeFile;
+    private Path file1;
+    private Path file2;
+    private Path file3;
+
+    @Before
+    public void setup() throws IOException {
+        Assume.assumeFalse("folder used for tests should not pre-exist", Files.exists(verifierTestFolder));
+
+        Files.createDirectory(verifierTestFolder);
+        storeFile = verifierTestFolder.resolve("fingerprints.dat");
+        file1 = verifierTestFolder.resolve("file1.dat");
+        file2 = verifierTestFolder.resolve("file2.dat");
+        file3 = verifierTestFolder.resolve("file3.dat");
+        Files.write(file1, "first file".getBytes());
+        Files.write(file2, "second file".getBytes());
+        Files.write(file3, new byte[200000]);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Assert.assertTrue("able to delete temp folder constructed by setup() method for tests", fileManager.deletePathname(verifierTestFolder));
+    }
+
+    @Test
+    public void testVerify_DetectsCorruption() throws IOException {
+        IntegrityVerifier verifier = FileDifferentiatorFactory.getIntegrityVerifier(FingerprintStore.open(storeFile));
+
+        VerificationReport firstRun = verifier.verify(readPathnames());
+        Assert.assertTrue("first run completed", firstRun.isComplete());
+        Assert.assertEquals("all files were fingerprinted for the first time", 3, firstRun.getNewFiles().size());
+        Assert.assertEquals("no corruption was reported by the first run", 0, firstRun.getCorruptedFiles().size());
+
+        // Flip a byte in the middle of the large file, then restore its last-modified time
+        FileTime lastModified = Files.getLastModifiedTime(file3);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file3.toFile(), "rw")) {
+            randomAccessFile.seek(100000);
+            randomAccessFile.write(1);
+        }
+        Files.setLastModifiedTime(file3, lastModified);
+
+        // Legitimately modify another file, changing its size
+        Files.write(file2, "second file, edited".getBytes());
+
+        // A new verifier over the reopened store picks up the fingerprints saved by the first
+        verifier = FileDifferentiatorFactory.getIntegrityVerifier(FingerprintStore.open(storeFile));
+        VerificationReport secondRun = verifier.verify(readPathnames());
+
+        Assert.assertTrue("second run completed", secondRun.isComplete());
+        Assert.assertEquals("one corrupted file was reported", 1, secondRun.getCorruptedFiles().size());
+        Assert.assertEquals("the corrupted file is the one whose content changed behind its attributes", file3, secondRun.getCorruptedFiles().get(0));
+        Assert.assertEquals("the legitimately modified file is reported as modified", 1, secondRun.getModifiedFiles().size());
+        Assert.assertEquals("the legitimately modified file is not reported as corrupted", file2, secondRun.getModifiedFiles().get(0));
+    }
+
+    @Test
+    public void testVerify_ResumesInterruptedRun() throws IOException {
+        FingerprintStore fingerprintStore = FingerprintStore.open(storeFile);
+        IntegrityVerifier verifier = FileDifferentiatorFactory.getIntegrityVerifier(fingerprintStore);
+
+        // An interrupted thread stops the run before any file is read, leaving the run open in the store
+        Thread.currentThread().interrupt();
+        VerificationReport interruptedRun;
+        try {
+            interruptedRun = verifier.verify(readPathnames());
+        } finally {
+            Thread.interrupted();
+        }
+        Assert.assertFalse("interrupted run is not complete", interruptedRun.isComplete());
+        Assert.assertTrue("store remembers the unfinished run", FingerprintStore.open(storeFile).getRunStartedAtMillis() != 0L);
+
+        // Simulate a file verified by the interrupted run before it stopped
+        fingerprintStore.put(file1, Files.size(file1), Files.getLastModifiedTime(file1).toMillis(), 0L);
+
+        VerificationReport resumedRun = verifier.verify(readPathnames());
+        Assert.assertTrue("resumed run completed", resumedRun.isComplete());
+        Assert.assertEquals("file verified before the interruption was skipped", 1, resumedRun.getSkippedFiles());
+        Assert.assertEquals("remaining files were verified", 2, resumedRun.getVerifiedFiles());
+        Assert.assertEquals("store no longer holds an unfinished run", 0L, FingerprintStore.open(storeFile).getRunStartedAtMillis());
+    }
+
+    @Test
+    public void testVerify_ResumedRunReportsCorruptionFoundBeforeInterruption() throws IOException {
+        Assert.assertTrue("first run completed", FileDifferentiatorFactory.getIntegrityVerifier(FingerprintStore.open(storeFile)).verify(readPathnames()).isComplete());
+
+        // Corrupt the first file to be verified, leaving its attributes unchanged
+        FileTime lastModified = Files.getLastModifiedTime(file1);
+        Files.write(file1, "FIRST FILE".getBytes());
+        Files.setLastModifiedTime(file1, lastModified);
+
+        // The thread is interrupted once the corrupted file has been verified, as the second file comes up
+        Map<Path, BasicFileAttributes> pathnames = readPathnames();
+        pathnames.put(file2, new InterruptingAttributes(pathnames.get(file2)));
+        VerificationReport interruptedRun;
+        try {
+            interruptedRun = FileDifferentiatorFactory.getIntegrityVerifier(FingerprintStore.open(storeFile)).verify(pathnames);
+        } finally {
+            Thread.interrupted();
+        }
+        Assert.assertFalse("interrupted run is not complete", interruptedRun.isComplete());
+        Assert.assertEquals("corrupted file was verified before the interruption", 1, interruptedRun.getVerifiedFiles());
+
+        // The resumed run, over the reopened store, does not read the corrupted file again but still reports it
+        VerificationReport resumedRun = FileDifferentiatorFactory.getIntegrityVerifier(FingerprintStore.open(storeFile)).verify(readPathnames());
+        Assert.assertTrue("resumed run completed", resumedRun.isComplete());
+        Assert.assertEquals("file verified before the interruption was skipped", 1, resumedRun.getSkippedFiles());
+        Assert.assertEquals("corruption found before the interruption is reported by the resumed run", 1, resumedRun.getCorruptedFiles().size());
+        Assert.assertEquals("the reported file is the corrupted one", file1, resumedRun.getCorruptedFiles().get(0));
+
+        // A new run reads the file again, and reports it until it is repaired
+        VerificationReport nextRun = FileDifferentiatorFactory.getIntegrityVerifier(FingerprintStore.open(storeFile)).verify(readPathnames());
+        Assert.assertEquals("corrupted file reported again by a new run", 1, nextRun.getCorruptedFiles().size());
+    }
+
+    private Map<Path, BasicFileAttributes> readPathnames() throws IOException {
+        Map<Path, BasicFileAttributes> pathnames = new LinkedHashMap<>(3);
+        for (Path file : new Path[] { file1, file2, file3 }) {
+            pathnames.put(file, Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS));
+        }
+        return pathnames;
+    }
+
+    /**
+     * Attributes of a file which interrupt the thread reading its size, which the verifier does as it comes to the file.
+     */
+    private static final class InterruptingAttributes implements BasicFileAttributes {
+        private final BasicFileAttributes attributes;
+
+        private InterruptingAttributes(BasicFileAttributes attributes) {
+            this.attributes = attributes;
+        }
+
+        @Override
+        public long size() {
+            Thread.currentThread().interrupt();
+            return attributes.size();
+        }
+
+        @Override
+        public FileTime lastModifiedTime() {
+            return attributes.lastModifiedTime();
+        }
+
+        @Override
+        public FileTime lastAccessTime() {
+            return attributes.lastAccessTime();
+        }
+
+        @Override
+        public FileTime creationTime() {
+            return attributes.creationTime();
+        }
+
+        @Override
+        public boolean isRegularFile() {
+            return attributes.isRegularFile();
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return attributes.isDirectory();
+        }
+
+        @Override
+        public boolean isSymbolicLink() {
+            return attributes.isSymbolicLink();
+        }
+
+        @Override
+        public boolean isOther() {
+            return attributes.isOther();
+        }
+
+        @Override
+        public Object fileKey() {
+            return attributes.fileKey();
+        }
+    }
+
+} // class IntegrityVerifierTest
@@ -0,0 +1,131 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import com.sun.nio.file.ExtendedOpenOption;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark comparing the page cache left behind by the direct (cache-bypassing) and channel (transferTo) copy
+ * engines, run with "ant benchmark". Residency is measured as the growth of "Cached" in /proc/meminfo across each
+ * copy, so it is host-wide and only available on Linux, and other activity on the host adds noise. The source is
+ * written around the page cache, and the direct engine measured first, so that neither copy starts from a cached
+ * source. The file size defaults to 256 MB and may be set in MB with the "FileSieve.benchmark.cacheFileMegabytes"
+ * system property. Where the temp folder's store does not support direct I/O the direct engine falls back to the
+ * channel engine, and the two show the same residency.
+ */
+public final class CacheBypassBenchmark {
+
+    private static final long MB = 1024L * 1024L;
+    private static final Path MEMINFO = Paths.get("/proc/meminfo");
+
+    private CacheBypassBenchmark() { }
+
+    public static void main(String[] args) throws IOException {
+        if (!Files.isReadable(MEMINFO)) {
+            System.out.println("Page cache residency is only measurable where /proc/meminfo exists - skipping");
+            return;
+        }
+
+        Path folder = Paths.get(System.getProperty("java.io.tmpdir"), "CacheBypassBenchmarkFolder");
+        if (Files.exists(folder)) {
+            System.out.println("Benchmark folder \"" + folder + "\" already exists - remove it and retry");
+            return;
+        }
+
+        long fileSize = Long.getLong("FileSieve.benchmark.cacheFileMegabytes", 256L) * MB;
+
+        Files.createDirectory(folder);
+        try {
+            Path source = folder.resolve("source.dat");
+            writeRandomFile(source, fileSize);
+
+            for (CopyEngine engine : new CopyEngine[] { new DirectCopyEngine(new ChannelCopyEngine()), new ChannelCopyEngine() }) {
+                Path target = folder.resolve("target.dat");
+
+                long cachedBefore = cachedBytes();
+                long start = System.nanoTime();
+                engine.copyFile(source, target, new NullMonitor());
+                long nanos = System.nanoTime() - start;
+                long cachedAfter = cachedBytes();
+
+                Files.delete(target);
+                System.out.printf("%-18s %12d bytes: %10.1f MB/s, page cache %+10.1f MB (before %10.1f MB, after %10.1f MB)%n",
+                        engine.getClass().getSimpleName(), fileSize, (fileSize / (double) MB) / (nanos / 1e9),
+                        (cachedAfter - cachedBefore) / (double) MB, cachedBefore / (double) MB, cachedAfter / (double) MB);
+            }
+        } finally {
+            FileManagerFactory.getSwingFileManager().deletePathname(folder);
+        }
+    }
+
+    /**
+     * Returns the size of the page cache, from the "Cached" line of /proc/meminfo, in bytes.
+     */
+    private static long cachedBytes() throws IOException {
+        List<String> lines = Files.readAllLines(MEMINFO);
+        for (String line : lines) {
+            if (line.startsWith("Cached:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024L;
+            }
+        }
+
+        throw new IOException("no \"Cached\" line in " + MEMINFO);
+    }
+
+    /**
+     * Writes a file of random content, with direct I/O where the store supports it so that it is not left cached.
+     * The size is rounded up to a whole number of MB.
+     */
+    private static void writeRandomFile(Path file, long fileSize) throws IOException {
+        byte[] block = new byte[(int) MB];
+        new Random(31).nextBytes(block);
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) (2 * MB)).alignedSlice((int) MB);
+        buffer.limit((int) MB);
+        buffer = buffer.slice();
+        buffer.put(block);
+
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW, ExtendedOpenOption.DIRECT);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.deleteIfExists(file);
+            channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+        }
+
+        try (FileChannel out = channel) {
+            for (long written = 0L; written < fileSize; written += MB) {
+                buffer.clear();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer, written + buffer.position());
+                }
+            }
+        }
+    }
+
+    /**
+     * Monitor which never cancels and ignores progress.
+     */
+    private static final class NullMonitor implements CopyProgressMonitor {
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public void bytesCopied(long bytes) {
+        }
+
+        @Override
+        public void prefixCopied(long offset) {
+        }
+    }
+
+} // class CacheBypassBenchmark
@@ -0,0 +1,139 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Benchmark comparing the stream (byte at a time), channel (transferTo), small-file (single read and write), ranged
+ * (concurrent positional) and asynchronous (AsynchronousFileChannel) copy engines, run with "ant benchmark". The ranged engine is given a 1 MB threshold so that
+ * it takes its ranged path for the 1 MB and 10 GB files.
+ * Files of 1 KB and 1 MB are always measured; the 10 GB file is only measured when the "FileSieve.benchmark.largeFile"
+ * system property is "true" (e.g. "ant benchmark -DFileSieve.benchmark.largeFile=true"), since it needs 20 GB of free
+ * space in the temp folder. Source files are freshly written, so results reflect a warm page cache.
+ * <p>
+ * Whole copy jobs are then measured, copying a folder of 1000 files of 64 KB with the default copier and with the
+ * asynchronous copier, each allowed "FileSieve.benchmark.queueDepth" (by default 64) concurrent file copies, so as to
+ * load the storage with many requests at once. The benchmark folder is created in the temp folder, or in the folder
+ * given by "FileSieve.benchmark.folder", which may be placed on high-latency storage such as a network file system.
+ */
+public final class CopyEngineBenchmark {
+
+    private static final long KB = 1024L;
+    private static final long MB = 1024L * KB;
+    private static final long GB = 1024L * MB;
+
+    private CopyEngineBenchmark() { }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        Path folder = Paths.get(System.getProperty("FileSieve.benchmark.folder", System.getProperty("java.io.tmpdir")), "CopyEngineBenchmarkFolder");
+        if (Files.exists(folder)) {
+            System.out.println("Benchmark folder \"" + folder + "\" already exists - remove it and retry");
+            return;
+        }
+
+        Files.createDirectory(folder);
+        try {
+            measure(folder, KB, 2000);
+            measure(folder, MB, 50);
+            if ("true".equalsIgnoreCase(System.getProperty("FileSieve.benchmark.largeFile"))) {
+                measure(folder, 10L * GB, 1);
+            }
+            measureJobs(folder, 64L * KB, 1000, Integer.getInteger("FileSieve.benchmark.queueDepth", 64));
+        } finally {
+            FileManagerFactory.getSwingFileManager().deletePathname(folder);
+        }
+    }
+
+    private static void measure(Path folder, long fileSize, int fileCount) throws IOException {
+        Path source = folder.resolve("source-" + fileSize + ".dat");
+        writeRandomFile(source, fileSize);
+
+        CopyEngine rangedEngine = new RangedCopyEngine(new ChannelCopyEngine(), MB, RangedCopyEngine.DEFAULT_RANGE_SIZE, RangedCopyEngine.DEFAULT_RANGE_THREADS);
+        for (CopyEngine engine : new CopyEngine[] { new StreamCopyEngine(), new ChannelCopyEngine(), new SmallFileCopyEngine(new ChannelCopyEngine()), rangedEngine, new AsynchronousCopyEngine() }) {
+            Path target = folder.resolve("target-" + fileSize + ".dat");
+            CountingMonitor monitor = new CountingMonitor();
+
+            engine.copyFile(source, target, monitor);   // warm-up
+
+            long start = System.nanoTime();
+            for (int i = 0; i < fileCount; ++i) {
+                engine.copyFile(source, target, monitor);
+            }
+            long nanos = System.nanoTime() - start;
+
+            Files.delete(target);
+            System.out.printf("%-22s %12d bytes x %5d: %10.1f MB/s, %8d progress callbacks per file%n",
+                    engine.getClass().getSimpleName(), fileSize, fileCount,
+                    (fileSize * (double) fileCount / MB) / (nanos / 1e9), monitor.callbacks / (fileCount + 1));
+        }
+
+        Files.delete(source);
+    }
+
+    private static void measureJobs(Path folder, long fileSize, int fileCount, int queueDepth) throws IOException, InterruptedException, ExecutionException {
+        Path sourceFolder = Files.createDirectory(folder.resolve("source-jobs"));
+        for (int i = 0; i < fileCount; ++i) {
+            writeRandomFile(sourceFolder.resolve("file" + i + ".dat"), fileSize);
+        }
+
+        String[] names = { "default copier", "asynchronous copier" };
+        HeadlessFileCopier[] copiers = { new ExecutorFileCopier(null, queueDepth), FileManagerFactory.getAsynchronousFileCopier(queueDepth) };
+        for (int i = 0; i < copiers.length; ++i) {
+            Path targetFolder = folder.resolve("target-jobs");
+
+            copiers[i].copyPathname(sourceFolder, targetFolder, true, true, null).getCompletion().get();   // warm-up
+            FileManagerFactory.getSwingFileManager().deletePathname(targetFolder);
+
+            long start = System.nanoTime();
+            copiers[i].copyPathname(sourceFolder, targetFolder, true, true, null).getCompletion().get();
+            long nanos = System.nanoTime() - start;
+
+            FileManagerFactory.getSwingFileManager().deletePathname(targetFolder);
+            System.out.printf("%-22s %12d bytes x %5d, %3d files at once: %10.1f MB/s, %8.0f files/s%n",
+                    names[i], fileSize, fileCount, queueDepth,
+                    (fileSize * (double) fileCount / MB) / (nanos / 1e9), fileCount / (nanos / 1e9));
+        }
+
+        FileManagerFactory.getSwingFileManager().deletePathname(sourceFolder);
+    }
+
+    private static void writeRandomFile(Path file, long fileSize) throws IOException {
+        byte[] block = new byte[(int) Math.min(fileSize, 4 * MB)];
+        new Random(31).nextBytes(block);
+
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (long written = 0L; written < fileSize; written += block.length) {
+                out.write(block, 0, (int) Math.min(block.length, fileSize - written));
+            }
+        }
+    }
+
+    /**
+     * Monitor doing the bookkeeping CopyJobWorkDelegate does per callback, without publishing anything.
+     */
+    private static final class CountingMonitor implements CopyProgressMonitor {
+        private long callbacks = 0L;
+        private long bytes = 0L;
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public synchronized void bytesCopied(long bytes) {
+            ++callbacks;
+            this.bytes += bytes;
+        }
+
+        @Override
+        public void prefixCopied(long offset) {
+        }
+    }
+
+} // class CopyEngineBenchmark
@@ -0,0 +1,416 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import FileSieve.BusinessLogic.FileDifferentiation.ContentFingerprint;
+import FileSieve.BusinessLogic.FileDifferentiation.FingerprintStore;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class CopyEngineTest {
+
+    private final SwingFileManager fileManager = FileManagerFactory.getSwingFileManager();
+    private final String userTempFolder = System.getProperty("java.io.tmpdir");
+    private final Path copyEngineTestFolder = new File(userTempFolder + "CopyEngineTestFolder").toPath();
+    private final byte[] content = new byte[(int) ChannelCopyEngine.CHUNK_SIZE * 2 + 1234];
+    private Path source;
+
+    @Before
+    public void setup() throws IOException {
+        Assume.assumeFalse("folder used for tests should not pre-exist", Files.exists(copyEngineTestFolder));
+
+        Files.createDirectory(copyEngineTestFolder);
+        new Random(31).nextBytes(content);
+        source = Files.write(copyEngineTestFolder.resolve("source.dat"), content);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Assert.assertTrue("able to delete temp folder constructed by setup() method for tests", fileManager.deletePathname(copyEngineTestFolder));
+    }
+
+    @Test
+    public void testCopyFile_EnginesProduceIdenticalCopies() throws IOException {
+        CopyEngine rangedEngine = new RangedCopyEngine(new StreamCopyEngine(), 1L, 3L * 1024 * 1024 + 17, 3);
+        for (CopyEngine engine : new CopyEngine[] { new StreamCopyEngine(), new ChannelCopyEngine(), new DigestingCopyEngine(), new DirectCopyEngine(new ChannelCopyEngine()), new SmallFileCopyEngine(new StreamCopyEngine()), new SparseCopyEngine(new StreamCopyEngine(), null), new PipelinedCopyEngine(new StreamCopyEngine(), new CopyPipeline(3, 64 * 1024)), new AsynchronousCopyEngine(3, 1024 * 1024 + 17, 2), rangedEngine }) {
+            Path target = copyEngineTestFolder.resolve(engine.getClass().getSimpleName() + ".dat");
+            RecordingMonitor monitor = new RecordingMonitor(Long.MAX_VALUE);
+
+            Assert.assertEquals("all bytes copied by " + engine.getClass().getSimpleName(), content.length, engine.copyFile(source, target, monitor));
+            Assert.assertEquals("all bytes reported to monitor by " + engine.getClass().getSimpleName(), content.length, monitor.bytes);
+            Assert.assertEquals("whole target reported written by " + engine.getClass().getSimpleName(), content.length, monitor.prefix);
+            Assert.assertTrue("copy made by " + engine.getClass().getSimpleName() + " is identical to source", Arrays.equals(content, Files.readAllBytes(target)));
+        }
+    }
+
+    @Test
+    public void testCopyFile_EnginesResumeFromOffset() throws IOException {
+        int offset = content.length / 3;
+        byte[] partialTarget = Arrays.copyOf(content, content.length + 100);
+        Arrays.fill(partialTarget, offset, partialTarget.length, (byte) 0x5A);
+
+        CopyEngine rangedEngine = new RangedCopyEngine(new StreamCopyEngine(), 1L, 3L * 1024 * 1024 + 17, 3);
+        for (CopyEngine engine : new CopyEngine[] { new StreamCopyEngine(), new ChannelCopyEngine(), new DigestingCopyEngine(), new DirectCopyEngine(new ChannelCopyEngine()), new SmallFileCopyEngine(new StreamCopyEngine()), new SparseCopyEngine(new StreamCopyEngine(), null), new PipelinedCopyEngine(new StreamCopyEngine(), new CopyPipeline(3, 64 * 1024)), new AsynchronousCopyEngine(3, 1024 * 1024 + 17, 2), rangedEngine }) {
+            Path target = Files.write(copyEngineTestFolder.resolve(engine.getClass().getSimpleName() + "-resumed.dat"), partialTarget);
+            RecordingMonitor monitor = new RecordingMonitor(Long.MAX_VALUE);
+
+            Assert.assertEquals("remaining bytes copied by " + engine.getClass().getSimpleName(), content.length - offset, engine.copyFile(source, target, offset, monitor));
+            Assert.assertEquals("whole target reported written by " + engine.getClass().getSimpleName(), content.length, monitor.prefix);
+            Assert.assertTrue("copy resumed by " + engine.getClass().getSimpleName() + " is identical to source", Arrays.equals(content, Files.readAllBytes(target)));
+        }
+    }
+
+    @Test
+    public void testCopyFile_ChannelEngineReportsPerChunkAndStopsWhenCancelled() throws IOException {
+        Path target = copyEngineTestFolder.resolve("cancelled.dat");
+        RecordingMonitor monitor = new RecordingMonitor(ChannelCopyEngine.CHUNK_SIZE);
+
+        long copied = new ChannelCopyEngine().copyFile(source, target, monitor);
+
+        Assert.assertEquals("copy stopped after the first chunk", ChannelCopyEngine.CHUNK_SIZE, copied);
+        Assert.assertEquals("progress reported once for the chunk copied", 1, monitor.callbacks);
+    }
+
+    @Test
+    public void testCopyFile_RangedEnginePreallocatesAndStopsWhenCancelled() throws IOException {
+        Path target = copyEngineTestFolder.resolve("ranged.dat");
+        RecordingMonitor monitor = new RecordingMonitor(1L);
+
+        long copied = new RangedCopyEngine(new StreamCopyEngine(), 1L, 4L * 1024 * 1024, 2).copyFile(source, target, monitor);
+
+        Assert.assertTrue("copy stopped before all bytes were copied", copied < content.length);
+        Assert.assertEquals("bytes reported to monitor match bytes copied", copied, monitor.bytes);
+        Assert.assertEquals("target was extended to the length of the source", content.length, Files.size(target));
+    }
+
+    @Test
+    public void testCopyFile_RangedEngineKeepsCopyingWhileMonitorSleeps() throws IOException {
+        Path target = copyEngineTestFolder.resolve("ranged-sleeping.dat");
+        final CountDownLatch otherRangeReported = new CountDownLatch(1);
+        final AtomicBoolean sleeping = new AtomicBoolean(false);
+
+        // The first report sleeps, as a throttled monitor would, until another range reports in the meantime
+        RecordingMonitor monitor = new RecordingMonitor(Long.MAX_VALUE) {
+            @Override
+            public void bytesCopied(long bytes) {
+                super.bytesCopied(bytes);
+                if (sleeping.compareAndSet(false, true)) {
+                    try {
+                        otherRangeReported.await(10L, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                } else {
+                    otherRangeReported.countDown();
+                }
+            }
+        };
+
+        long copied = new RangedCopyEngine(new StreamCopyEngine(), 1L, 1024L * 1024, 3).copyFile(source, target, monitor);
+
+        Assert.assertEquals("all bytes copied", content.length, copied);
+        Assert.assertEquals("bytes reported to monitor match bytes copied", copied, monitor.bytes);
+        Assert.assertEquals("other ranges reported while the first report slept", 0L, otherRangeReported.getCount());
+        Assert.assertTrue("copy is identical to source", Arrays.equals(content, Files.readAllBytes(target)));
+    }
+
+    @Test
+    public void testCopyFile_RangedEnginePassesSmallFilesToDelegate() throws IOException {
+        Path target = copyEngineTestFolder.resolve("small.dat");
+        RecordingMonitor monitor = new RecordingMonitor(Long.MAX_VALUE);
+
+        new RangedCopyEngine(new ChannelCopyEngine(), content.length + 1L, 1024L, 2).copyFile(source, target, monitor);
+
+        Assert.assertEquals("small file copied by delegate, one callback per chunk", 3, monitor.callbacks);
+        Assert.assertTrue("copy is identical to source", Arrays.equals(content, Files.readAllBytes(target)));
+    }
+
+    @Test
+    public void testCopyFile_PipelinedEngineRecordsWaitsAndStopsReaderWhenCancelled() throws IOException {
+        CopyPipeline pipeline = new CopyPipeline(4, CopyPipeline.MIN_BUFFER_SIZE);
+        PipelinedCopyEngine engine = new PipelinedCopyEngine(new ChannelCopyEngine(), pipeline);
+
+        RecordingMonitor monitor = new RecordingMonitor(Long.MAX_VALUE);
+        engine.copyFile(source, copyEngineTestFolder.resolve("pipelined.dat"), monitor);
+
+        Assert.assertEquals("file copied through the pipeline", 1, pipeline.getFilesPipelined());
+        Assert.assertEquals("every byte written through the ring", content.length, pipeline.getBytesPipelined());
+        Assert.assertEquals("progress reported once per buffer written", (content.length + CopyPipeline.MIN_BUFFER_SIZE - 1) / CopyPipeline.MIN_BUFFER_SIZE, monitor.callbacks);
+        Assert.assertTrue("ring occupancy measured", (pipeline.getMeanRingOccupancy() >= 0.0) && (pipeline.getMeanRingOccupancy() <= 1.0));
+        Assert.assertNotEquals("waiting side identified", CopyPipeline.Bottleneck.UNDETERMINED, pipeline.getBottleneck());
+
+        pipeline.resetStatistics();
+        monitor = new RecordingMonitor(3L * CopyPipeline.MIN_BUFFER_SIZE);
+        long copied = engine.copyFile(source, copyEngineTestFolder.resolve("pipelined-cancelled.dat"), monitor);
+
+        Assert.assertEquals("copy stopped after the buffers written before cancellation", 3L * CopyPipeline.MIN_BUFFER_SIZE, copied);
+        Assert.assertEquals("bytes reported to monitor match bytes copied", copied, monitor.bytes);
+        Assert.assertEquals("pipeline counts only the bytes written", copied, pipeline.getBytesPipelined());
+
+        monitor = new RecordingMonitor(Long.MAX_VALUE);
+        Path smallSource = Files.write(copyEngineTestFolder.resolve("small-source.dat"), Arrays.copyOf(content, CopyPipeline.MIN_BUFFER_SIZE + 1));
+        engine.copyFile(smallSource, copyEngineTestFolder.resolve("pipelined-small.dat"), monitor);
+        Assert.assertEquals("file shorter than two buffers passed to delegate", 1, pipeline.getFilesPipelined());
+    }
+
+    @Test
+    public void testCopyFile_AsynchronousEngineReportsPerRequestAndStopsWhenCancelled() throws IOException {
+        int requestSize = 64 * 1024;
+        AsynchronousCopyEngine engine = new AsynchronousCopyEngine(8, requestSize, 2);
+
+        RecordingMonitor monitor = new RecordingMonitor(Long.MAX_VALUE);
+        Assert.assertEquals("all bytes copied", content.length, engine.copyFile(source, copyEngineTestFolder.resolve("asynchronous.dat"), monitor));
+        Assert.assertEquals("progress reported once per write request", (content.length + requestSize - 1) / requestSize, monitor.callbacks);
+
+        monitor = new RecordingMonitor(4L * requestSize);
+        long copied = engine.copyFile(source, copyEngineTestFolder.resolve("asynchronous-cancelled.dat"), monitor);
+
+        Assert.assertTrue("copy stopped before all bytes were copied", copied < content.length);
+        Assert.assertEquals("bytes reported to monitor match bytes copied", copied, monitor.bytes);
+        Assert.assertTrue("written prefix never passes the bytes copied", monitor.prefix <= copied);
+    }
+
+    @Test
+    public void testCopyFileAsync_MonitorCalledOffCompletionThreadsAndFailuresCompleteTheCopy() throws Exception {
+        AsynchronousCopyEngine engine = new AsynchronousCopyEngine(8, 64 * 1024, 2);
+        final Set<String> monitorThreads = Collections.synchronizedSet(new HashSet<String>());
+
+        RecordingMonitor monitor = new RecordingMonitor(Long.MAX_VALUE) {
+            @Override
+            public void bytesCopied(long bytes) {
+                monitorThreads.add(Thread.currentThread().getName());
+                super.bytesCopied(bytes);
+            }
+        };
+        Path target = copyEngineTestFolder.resolve("asynchronous-started.dat");
+        CompletableFuture<Long> completion = engine.copyFileAsync(source, target, 0L, monitor);
+
+        Assert.assertEquals("all bytes copied", content.length, completion.get(30L, TimeUnit.SECONDS).longValue());
+        Assert.assertEquals("bytes reported to monitor match bytes copied", content.length, monitor.bytes);
+        Assert.assertTrue("copy is identical to source", Arrays.equals(content, Files.readAllBytes(target)));
+        for (String threadName : monitorThreads) {
+            Assert.assertFalse("monitor not called on a completion thread", threadName.startsWith("AsynchronousCopyWorker-"));
+        }
+
+        CopyProgressMonitor failingMonitor = new RecordingMonitor(Long.MAX_VALUE) {
+            @Override
+            public void bytesCopied(long bytes) {
+                throw new IllegalStateException("monitor failure");
+            }
+        };
+        completion = engine.copyFileAsync(source, copyEngineTestFolder.resolve("asynchronous-failed.dat"), 0L, failingMonitor);
+        try {
+            completion.get(30L, TimeUnit.SECONDS);
+            Assert.fail("copy whose monitor threw completed normally");
+        } catch (ExecutionException e) {
+            Assert.assertTrue("monitor's exception is the copy's failure", e.getCause() instanceof IllegalStateException);
+        }
+
+        try {
+            engine.copyFile(source, copyEngineTestFolder.resolve("asynchronous-failed-blocking.dat"), failingMonitor);
+            Assert.fail("blocking copy whose monitor threw returned normally");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("monitor's exception rethrown by copyFile", "monitor failure", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testCopyFile_SmallFileEngineCopiesSmallFilesInOneChunkAndPassesOthersToDelegate() throws IOException {
+        Path smallSource = Files.write(copyEngineTestFolder.resolve("small-source.dat"), Arrays.copyOf(content, 5000));
+        Path smallTarget = copyEngineTestFolder.resolve("small-target.dat");
+        Path largeTarget = copyEngineTestFolder.resolve("large-target.dat");
+        SmallFileCopyEngine engine = new SmallFileCopyEngine(new ChannelCopyEngine(), 8192);
+
+        RecordingMonitor smallMonitor = new RecordingMonitor(Long.MAX_VALUE);
+        Assert.assertEquals("all bytes of small file copied", 5000L, engine.copyFile(smallSource, smallTarget, smallMonitor));
+        Assert.assertEquals("small file reported in one callback", 1, smallMonitor.callbacks);
+        Assert.assertTrue("small copy is identical to source", Arrays.equals(Arrays.copyOf(content, 5000), Files.readAllBytes(smallTarget)));
+
+        RecordingMonitor largeMonitor = new RecordingMonitor(Long.MAX_VALUE);
+        engine.copyFile(source, largeTarget, largeMonitor);
+        Assert.assertEquals("large file copied by delegate, one callback per chunk", 3, largeMonitor.callbacks);
+        Assert.assertTrue("large copy is identical to source", Arrays.equals(content, Files.readAllBytes(largeTarget)));
+    }
+
+    @Test
+    public void testCopyFile_SparseEngineKeepsHolesOfSparseSource() throws IOException {
+        long length = 8L * 1024 * 1024;
+        byte[] data = Arrays.copyOf(content, 100000);
+        Path sparseSource = copyEngineTestFolder.resolve("sparse-source.dat");
+        try (RandomAccessFile file = new RandomAccessFile(sparseSource.toFile(), "rw")) {
+            file.seek(3L * 1024 * 1024);
+            file.write(data);
+            file.setLength(length);
+        }
+        byte[] expected = new byte[(int) length];
+        System.arraycopy(data, 0, expected, 3 * 1024 * 1024, data.length);
+
+        DataRegionLocator nativeLocator = SparseCopyEngine.getNativeLocator();
+        for (SparseCopyEngine engine : new SparseCopyEngine[] { new SparseCopyEngine(new StreamCopyEngine()), new SparseCopyEngine(new StreamCopyEngine(), null) }) {
+            Path target = copyEngineTestFolder.resolve("sparse-target.dat");
+            RecordingMonitor monitor = new RecordingMonitor(Long.MAX_VALUE);
+
+            Assert.assertEquals("whole length of source copied", length, engine.copyFile(sparseSource, target, monitor));
+            Assert.assertEquals("holes reported to monitor as copied", length, monitor.bytes);
+            Assert.assertEquals("whole target reported written", length, monitor.prefix);
+            Assert.assertTrue("copy is identical to source", Arrays.equals(expected, Files.readAllBytes(target)));
+
+            // Where the file system reports holes, the copy only holds data around the written range
+            long[] regions = (nativeLocator != null) ? nativeLocator.locateData(target) : null;
+            if (regions != null) {
+                long dataBytes = 0L;
+                for (int i = 0; i < regions.length; i += 2) {
+                    dataBytes += regions[i + 1] - regions[i];
+                }
+                Assert.assertTrue("copy kept the holes of the source, holding " + dataBytes + " bytes of data", dataBytes < length / 4);
+            }
+        }
+    }
+
+    @Test
+    public void testCopyFile_DeltaEngineRewritesOnlyChangedBlocks() throws IOException {
+        int blockSize = DeltaCopyEngine.DEFAULT_BLOCK_SIZE;
+        byte[] staleTarget = Arrays.copyOf(content, content.length + 5000);
+        staleTarget[3] ^= 1;                        // first block
+        staleTarget[blockSize * 10 + 77] ^= 1;      // eleventh block
+        Path target = Files.write(copyEngineTestFolder.resolve("delta.dat"), staleTarget);
+
+        DeltaCopyEngine engine = new DeltaCopyEngine(new ChannelCopyEngine(), blockSize, 0L);
+        RecordingMonitor monitor = new RecordingMonitor(Long.MAX_VALUE);
+
+        Assert.assertEquals("all bytes of source accounted for", content.length, engine.copyFile(source, target, monitor));
+        Assert.assertEquals("only the two changed blocks were rewritten", 2L * blockSize, engine.getBytesWritten());
+        Assert.assertTrue("updated target is identical to source", Arrays.equals(content, Files.readAllBytes(target)));
+    }
+
+    @Test
+    public void testCopyFile_DeltaEngineCopiesNewTargetsInFull() throws IOException {
+        Path target = copyEngineTestFolder.resolve("delta-new.dat");
+        DeltaCopyEngine engine = new DeltaCopyEngine(new ChannelCopyEngine());
+
+        engine.copyFile(source, target, new RecordingMonitor(Long.MAX_VALUE));
+
+        Assert.assertEquals("whole file written", content.length, engine.getBytesWritten());
+        Assert.assertTrue("copy is identical to source", Arrays.equals(content, Files.readAllBytes(target)));
+    }
+
+    @Test
+    public void testSettings_DeltaCopyDisabledByDefault() {
+        Assert.assertFalse("existing files are rewritten in full unless delta copying is enabled", new CopyJobSettings().isDeltaCopyEnabled());
+    }
+
+    @Test
+    public void testCopyFile_DigestingEngineFingerprintsWholeSourceWhenResumed() throws IOException {
+        int offset = content.length / 3;
+        Path target = Files.write(copyEngineTestFolder.resolve("digested.dat"), Arrays.copyOf(content, offset));
+        ContentFingerprint fingerprint = new ContentFingerprint(content.length);
+
+        new DigestingCopyEngine().copyFile(source, target, offset, new RecordingMonitor(Long.MAX_VALUE), fingerprint);
+
+        Assert.assertTrue("whole source fingerprinted", fingerprint.isComplete());
+        Assert.assertEquals("fingerprint equals that of the source read in full", ContentFingerprint.ofFile(source, false), fingerprint.getValue());
+        Assert.assertTrue("copy is identical to source", Arrays.equals(content, Files.readAllBytes(target)));
+    }
+
+    @Test
+    public void testCopyFile_DirectEngineFingerprintsWholeSourceWhenResumedFromUnalignedOffset() throws IOException {
+        int offset = content.length / 3 + 1;
+        Path target = Files.write(copyEngineTestFolder.resolve("direct.dat"), Arrays.copyOf(content, offset));
+        ContentFingerprint fingerprint = new ContentFingerprint(content.length);
+        RecordingMonitor monitor = new RecordingMonitor(Long.MAX_VALUE);
+
+        long copied = new DirectCopyEngine(new ChannelCopyEngine()).copyFile(source, target, offset, monitor, fingerprint);
+
+        Assert.assertEquals("only bytes after the offset reported as copied", content.length - offset, copied);
+        Assert.assertEquals("only bytes after the offset reported to monitor", content.length - offset, monitor.bytes);
+        Assert.assertTrue("whole source fingerprinted", fingerprint.isComplete());
+        Assert.assertEquals("fingerprint equals that of the source read in full", ContentFingerprint.ofFile(source, false), fingerprint.getValue());
+        Assert.assertTrue("copy is identical to source", Arrays.equals(content, Files.readAllBytes(target)));
+    }
+
+    @Test
+    public void testDropCachedPages_NativeAdvisorAdvisesWrittenFiles() throws IOException {
+        PageCacheAdvisor nativeAdvisor = DirectCopyEngine.getNativeAdvisor();
+        Assume.assumeNotNull(nativeAdvisor);
+
+        Path target = copyEngineTestFolder.resolve("advised.dat");
+        new ChannelCopyEngine().copyFile(source, target, new RecordingMonitor(Long.MAX_VALUE));
+
+        Assert.assertTrue("advice taken for a file read", nativeAdvisor.dropCachedPages(source, false));
+        Assert.assertTrue("advice taken for a file written back", nativeAdvisor.dropCachedPages(target, true));
+        Assert.assertFalse("advice not taken for a missing file", nativeAdvisor.dropCachedPages(copyEngineTestFolder.resolve("missing.dat"), true));
+        Assert.assertTrue("advised file unchanged", Arrays.equals(content, Files.readAllBytes(target)));
+    }
+
+    @Test
+    public void testCopyPathname_VerifiesAndRecordsFingerprints() throws IOException, InterruptedException, SwingCopyJobException {
+        Path destination = Files.createDirectory(copyEngineTestFolder.resolve("destination"));
+        FingerprintStore fingerprintStore = FingerprintStore.open(copyEngineTestFolder.resolve("fingerprints.dat"));
+        SwingFileManager fingerprintingFileManager = FileManagerFactory.getSwingFileManager();
+        fingerprintingFileManager.setCopyVerificationEnabled(true);
+        fingerprintingFileManager.setFingerprintStore(fingerprintStore);
+
+        SwingCopyJob swingCopyJob = fingerprintingFileManager.copyPathname(source, destination, false, false, null);
+        swingCopyJob.awaitCompletion();
+
+        long expected = ContentFingerprint.ofFile(source, false);
+        Path target = destination.resolve(source.getFileName());
+        Map<Path, Long> digests = swingCopyJob.getCopyDigests();
+        Assert.assertEquals("one copy fingerprinted", 1, digests.size());
+        Assert.assertEquals("fingerprint exposed for the copy", Long.valueOf(expected), digests.get(target));
+        Assert.assertEquals("fingerprint recorded for the source", expected, fingerprintStore.get(source).getFingerprint());
+        Assert.assertEquals("fingerprint recorded for the copy", expected, fingerprintStore.get(target).getFingerprint());
+        Assert.assertNotNull("store saved when the job finished", FingerprintStore.open(fingerprintStore.getStoreFile()).get(target));
+    }
+
+    /**
+     * Monitor recording the progress reported to it, which reports cancellation once a given number of bytes is copied.
+     */
+    private static class RecordingMonitor implements CopyProgressMonitor {
+        private final long cancelAfterBytes;
+        private long bytes = 0L;
+        private int callbacks = 0;
+        private long prefix = 0L;
+
+        private RecordingMonitor(long cancelAfterBytes) {
+            this.cancelAfterBytes = cancelAfterBytes;
+        }
+
+        @Override
+        public synchronized boolean isCancelled() {
+            return bytes >= cancelAfterBytes;
+        }
+
+        @Override
+        public synchronized void bytesCopied(long bytes) {
+            this.bytes += bytes;
+            ++callbacks;
+        }
+
+        @Override
+        public void prefixCopied(long offset) {
+            Assert.assertTrue("written prefix never shrinks", offset >= prefix);
+            prefix = offset;
+        }
+    }
+
+} // class CopyEngineTest
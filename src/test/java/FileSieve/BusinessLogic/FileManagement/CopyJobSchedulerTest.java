@@ -0,0 +1,101 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import FileSieve.BusinessLogic.FileDifferentiation.IoThrottle;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public class CopyJobSchedulerTest {
+
+    private final SwingFileManager fileManager = FileManagerFactory.getSwingFileManager();
+    private final String userTempFolder = System.getProperty("java.io.tmpdir");
+    private final Path schedulerTestFolder = new File(userTempFolder + "CopyJobSchedulerTestFolder").toPath();
+    private Path sourceFolder;
+
+    @Before
+    public void setup() throws IOException {
+        Assume.assumeFalse("folder used for tests should not pre-exist", Files.exists(schedulerTestFolder));
+
+        Files.createDirectory(schedulerTestFolder);
+        sourceFolder = Files.createDirectory(schedulerTestFolder.resolve("source"));
+        for (int i = 0; i < 4; ++i) {
+            Files.write(sourceFolder.resolve("file" + i + ".dat"), new byte[256 * 1024]);
+        }
+
+        // The first job is slowed so that it is still running when the second is requested
+        fileManager.setThrottle(new IoThrottle(2L * 1024L * 1024L));
+        fileManager.setMaxConcurrentJobs(1);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        fileManager.setThrottle(null);
+        fileManager.setMaxConcurrentJobs(CopyJobScheduler.DEFAULT_MAX_CONCURRENT_JOBS);
+        Assert.assertTrue("able to delete temp folder constructed by setup() method for tests", fileManager.deletePathname(schedulerTestFolder));
+    }
+
+    @Test
+    public void testCopyPathname_JobBeyondLimitQueuedUntilRunningJobFinishes() throws IOException, InterruptedException, SwingCopyJobException {
+        SwingCopyJob firstJob = fileManager.copyPathname(sourceFolder, schedulerTestFolder.resolve("first"), true, false, null);
+        SwingCopyJob secondJob = fileManager.copyPathname(sourceFolder, schedulerTestFolder.resolve("second"), true, false, null);
+
+        Assert.assertEquals("first job runs at once", SwingCopyJob.State.RUNNING, firstJob.getState());
+        Assert.assertEquals("second job waits for the first", SwingCopyJob.State.QUEUED, secondJob.getState());
+        Assert.assertFalse("queued job is not running", secondJob.isRunning());
+
+        secondJob.awaitCompletion();
+
+        Assert.assertEquals("first job finished", SwingCopyJob.State.FINISHED, firstJob.getState());
+        Assert.assertEquals("second job finished", SwingCopyJob.State.FINISHED, secondJob.getState());
+        Assert.assertEquals("second job copied every file once started", 4, schedulerTestFolder.resolve("second").resolve("source").toFile().list().length);
+    }
+
+    @Test
+    public void testCancelJob_QueuedJobFinishesWithoutCopying() throws IOException, InterruptedException, SwingCopyJobException {
+        SwingCopyJob firstJob = fileManager.copyPathname(sourceFolder, schedulerTestFolder.resolve("first"), true, false, null);
+        SwingCopyJob secondJob = fileManager.copyPathname(sourceFolder, schedulerTestFolder.resolve("second"), true, false, null);
+
+        Assert.assertEquals("second job waits for the first", SwingCopyJob.State.QUEUED, secondJob.getState());
+        Assert.assertTrue("queued job cancelled", secondJob.cancelJob());
+
+        secondJob.awaitCompletion();
+        Assert.assertEquals("cancelled job finished", SwingCopyJob.State.FINISHED, secondJob.getState());
+        Assert.assertFalse("cancelled job copied nothing", Files.exists(schedulerTestFolder.resolve("second")));
+
+        firstJob.awaitCompletion();
+    }
+
+    @Test
+    public void testCopyPathnames_JobWritingSameFilesRejectedUntilOngoingJobFinishes() throws IOException, InterruptedException, SwingCopyJobException {
+        Path destinationFolder = schedulerTestFolder.resolve("destination");
+        Set<Path> allFiles = new LinkedHashSet<>();
+        for (int i = 0; i < 4; ++i) {
+            allFiles.add(sourceFolder.resolve("file" + i + ".dat"));
+        }
+        Set<Path> oneFile = Collections.singleton(sourceFolder.resolve("file2.dat"));
+
+        SwingCopyJob ongoingJob = fileManager.copyPathnames(allFiles, destinationFolder, false, false, null);
+        try {
+            fileManager.copyPathnames(oneFile, destinationFolder, false, false, null);
+            Assert.fail("job writing a file of an ongoing job to the same folder was started");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        ongoingJob.awaitCompletion();
+
+        SwingCopyJob laterJob = fileManager.copyPathnames(oneFile, destinationFolder, false, true, null);
+        laterJob.awaitCompletion();
+        Assert.assertEquals("file may be written again once the ongoing job has finished", SwingCopyJob.State.FINISHED, laterJob.getState());
+    }
+
+} // class CopyJobSchedulerTest
@@ -0,0 +1,344 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import FileSieve.BusinessLogic.FileDifferentiation.FingerprintStore;
+import FileSieve.BusinessLogic.FileEnumeration.FileEnumeratorFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+
+public class CopyJobTest {
+
+    private final SwingFileManager fileManager = FileManagerFactory.getSwingFileManager();
+    private final String userTempFolder = System.getProperty("java.io.tmpdir");
+    private final Path copyJobTestFolder = new File(userTempFolder + "CopyJobTestFolder").toPath();
+    private Path sourceFolder;
+    private Path destinationFolder;
+
+    @Before
+    public void setup() throws IOException {
+        Assume.assumeFalse("folder used for tests should not pre-exist", Files.exists(copyJobTestFolder));
+
+        Files.createDirectory(copyJobTestFolder);
+        sourceFolder = Files.createDirectory(copyJobTestFolder.resolve("source"));
+        destinationFolder = copyJobTestFolder.resolve("destination");
+        for (int i = 0; i < 40; ++i) {
+            Files.write(sourceFolder.resolve("file" + i + ".dat"), new byte[1000 + i]);
+        }
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Assert.assertTrue("able to delete temp folder constructed by setup() method for tests", fileManager.deletePathname(copyJobTestFolder));
+    }
+
+    @Test
+    public void testCopyPathname_SingleThreadedExecutorCompletesParallelJob() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        // One thread runs the job, so its queued file copies can only be carried out by the job itself
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Set<Path> completedPaths = ConcurrentHashMap.newKeySet();
+        try {
+            HeadlessFileCopier copier = FileManagerFactory.getHeadlessFileCopier(executor, 4);
+            copier.setCopyOperationsListener(new CopyJobProgressListener() {
+                @Override
+                public void jobProgressed(CopyJob copyJob, int percentProgressed) { }
+
+                @Override
+                public void pathProgressed(CopyJob copyJob, Path pathnameBeingCopied, int percentProgressed) {
+                    if (percentProgressed == 100) {
+                        completedPaths.add(pathnameBeingCopied);
+                    }
+                }
+            });
+
+            CopyJob copyJob = copier.copyPathname(sourceFolder, destinationFolder, true, false, null);
+
+            Assert.assertSame("completion future yields the job", copyJob, copyJob.getCompletion().get(30L, TimeUnit.SECONDS));
+            Assert.assertFalse("job no longer running", copyJob.isRunning());
+            Assert.assertEquals("every file copied", 40, destinationFolder.resolve("source").toFile().list().length);
+            Assert.assertTrue("completion of each file reported on the job's threads", completedPaths.size() >= 40);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCopyPathname_AsynchronousCopierLeavesCopiesInFlightAndCompletesEach() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        // A single thread runs the job and its drainers, which only start each copy and leave it to the engine
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Set<Path> completedPaths = ConcurrentHashMap.newKeySet();
+        try {
+            HeadlessFileCopier copier = FileManagerFactory.getAsynchronousFileCopier(executor, 2);
+            copier.setCopyOperationsListener(new CopyJobProgressListener() {
+                @Override
+                public void jobProgressed(CopyJob copyJob, int percentProgressed) { }
+
+                @Override
+                public void pathProgressed(CopyJob copyJob, Path pathnameBeingCopied, int percentProgressed) {
+                    if (percentProgressed == 100) {
+                        completedPaths.add(pathnameBeingCopied);
+                    }
+                }
+            });
+
+            CopyJob copyJob = copier.copyPathname(sourceFolder, destinationFolder, true, false, null);
+
+            Assert.assertSame("completion future yields the job", copyJob, copyJob.getCompletion().get(30L, TimeUnit.SECONDS));
+            for (int i = 0; i < 40; ++i) {
+                Path copy = destinationFolder.resolve("source").resolve("file" + i + ".dat");
+                Assert.assertEquals("file copied in full before the job completed", 1000L + i, copy.toFile().length());
+                Assert.assertTrue("completion of each file reported", completedPaths.contains(copy));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCopyPathname_AsynchronousCopierOverwritingWithDeltaCopyEnabledLeavesCopiesInFlight() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        // The existing target is too small to update in place, so the delta engine passes the file to the asynchronous engine
+        byte[] content = new byte[2 * 1024 * 1024];
+        new Random(50L).nextBytes(content);
+        Files.write(sourceFolder.resolve("large.dat"), content);
+        Files.createDirectories(destinationFolder.resolve("source"));
+        Path largeCopy = Files.write(destinationFolder.resolve("source").resolve("large.dat"), new byte[100]);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Set<String> progressThreads = ConcurrentHashMap.newKeySet();
+        try {
+            HeadlessFileCopier copier = FileManagerFactory.getAsynchronousFileCopier(executor, 2);
+            copier.setDeltaCopyEnabled(true);
+            copier.setCopyOperationsListener(new CopyJobProgressListener() {
+                @Override
+                public void jobProgressed(CopyJob copyJob, int percentProgressed) { }
+
+                @Override
+                public void pathProgressed(CopyJob copyJob, Path pathnameBeingCopied, int percentProgressed) {
+                    if (pathnameBeingCopied.getFileName().toString().equals("large.dat") && (percentProgressed > 0) && (percentProgressed < 100)) {
+                        progressThreads.add(Thread.currentThread().getName());
+                    }
+                }
+            });
+
+            CopyJob copyJob = copier.copyPathname(sourceFolder, destinationFolder, true, true, null);
+
+            Assert.assertSame("completion future yields the job", copyJob, copyJob.getCompletion().get(30L, TimeUnit.SECONDS));
+            Assert.assertArrayEquals("existing target overwritten", content, Files.readAllBytes(largeCopy));
+            Assert.assertFalse("progress of the large file reported", progressThreads.isEmpty());
+            for (String threadName : progressThreads) {
+                Assert.assertTrue("copy left in flight on the asynchronous engine", threadName.startsWith("AsynchronousCopyProgress-"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCopyPathname_FolderOfEmptyFilesCopied() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        Path emptyFolder = Files.createDirectory(copyJobTestFolder.resolve("empty"));
+        for (int i = 0; i < 10; ++i) {
+            Files.createFile(emptyFolder.resolve("empty" + i + ".dat"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int workerLimit : new int[] { 1, 4 }) {
+                Path target = destinationFolder.resolve("limit" + workerLimit);
+                CopyJob copyJob = FileManagerFactory.getHeadlessFileCopier(executor, workerLimit).copyPathname(emptyFolder, target, true, false, null);
+
+                Assert.assertSame("completion future yields the job", copyJob, copyJob.getCompletion().get(30L, TimeUnit.SECONDS));
+                Assert.assertEquals("every empty file copied", 10, target.resolve("empty").toFile().list().length);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCopyPathname_FailureCompletesFutureExceptionally() throws IOException, InterruptedException, TimeoutException {
+        HeadlessFileCopier copier = FileManagerFactory.getHeadlessFileCopier();
+        Comparator<Path> failingComparator = new Comparator<Path>() {
+            @Override
+            public int compare(Path path1, Path path2) {
+                throw new IllegalStateException("comparison failed");
+            }
+        };
+
+        CopyJob copyJob = copier.copyPathname(sourceFolder, destinationFolder, true, false, failingComparator);
+
+        try {
+            copyJob.getCompletion().get(30L, TimeUnit.SECONDS);
+            Assert.fail("job completed normally despite failing comparisons");
+        } catch (ExecutionException e) {
+            Assert.assertTrue("failure conveyed through the completion future", e.getCause().getMessage().contains("IllegalStateException"));
+        }
+        Assert.assertFalse("cancelling a finished job has no effect", copyJob.cancel());
+    }
+
+    @Test
+    public void testCopyPathnames_CopyPlanFromEnumerationCopiesEveryFile() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        Map<Path, BasicFileAttributes> discoveredPaths = FileEnumeratorFactory.getFileEnumerator().getPathnames(sourceFolder, true);
+        CopyPlan copyPlan = new CopyPlan(discoveredPaths);
+
+        Assert.assertEquals("plan counts the discovered files", 40, copyPlan.getFileCount());
+        Assert.assertEquals("plan sizes the discovered files", 40 * 1000 + (39 * 40 / 2), copyPlan.getTotalBytes());
+
+        CopyJob copyJob = FileManagerFactory.getHeadlessFileCopier().copyPathnames(copyPlan, destinationFolder, false, null);
+
+        Assert.assertSame("completion future yields the job", copyJob, copyJob.getCompletion().get(30L, TimeUnit.SECONDS));
+        Assert.assertFalse("plans are copied without recursion", copyJob.isRecursive());
+        for (int i = 0; i < 40; ++i) {
+            Path copy = destinationFolder.resolve("source").resolve("file" + i + ".dat");
+            Assert.assertEquals("file copied into its source folder in the destination", 1000 + i, Files.size(copy));
+        }
+    }
+
+    @Test
+    public void testCopyPathname_TargetListingSkipsSimilarAndOverwritesDifferingFingerprints() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        Path targetFolder = Files.createDirectories(destinationFolder.resolve("source"));
+        byte[] ones = new byte[1000];
+        Arrays.fill(ones, (byte) 1);
+        Path unfingerprintedTarget = Files.write(targetFolder.resolve("file0.dat"), ones);
+        Path fingerprintedTarget = Files.write(targetFolder.resolve("file1.dat"), Arrays.copyOf(ones, 1001));
+
+        FingerprintStore store = FingerprintStore.open(copyJobTestFolder.resolve("fingerprints.dat"));
+        Path fingerprintedSource = sourceFolder.resolve("file1.dat").toRealPath();
+        store.put(fingerprintedSource, 1001L, Files.getLastModifiedTime(fingerprintedSource).toMillis(), 1L);
+        store.put(fingerprintedTarget.toRealPath(), 1001L, Files.getLastModifiedTime(fingerprintedTarget).toMillis(), 2L);
+
+        HeadlessFileCopier copier = FileManagerFactory.getHeadlessFileCopier();
+        copier.setFingerprintStore(store);
+        copier.setTargetListingEnabled(true);
+        CopyJob copyJob = copier.copyPathname(sourceFolder, destinationFolder, true, false, null);
+
+        Assert.assertSame("completion future yields the job", copyJob, copyJob.getCompletion().get(30L, TimeUnit.SECONDS));
+        Assert.assertArrayEquals("target of equal name and length left in place", ones, Files.readAllBytes(unfingerprintedTarget));
+        Assert.assertArrayEquals("target whose fingerprint differs overwritten", new byte[1001], Files.readAllBytes(fingerprintedTarget));
+        Assert.assertEquals("remaining files copied", 40, targetFolder.toFile().list().length);
+    }
+
+    @Test
+    public void testMovePathname_SourceRenamedWithinFileStore() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        CopyJob copyJob = FileManagerFactory.getHeadlessFileCopier().movePathnames(Collections.singleton(sourceFolder), destinationFolder, false, null);
+
+        Assert.assertSame("completion future yields the job", copyJob, copyJob.getCompletion().get(30L, TimeUnit.SECONDS));
+        Assert.assertFalse("source folder moved away", Files.exists(sourceFolder));
+        Assert.assertEquals("every file moved", 40, destinationFolder.resolve("source").toFile().list().length);
+    }
+
+    @Test
+    public void testMovePathname_ExistingTargetFolderFilledByCopiesWhoseSourcesAreRemoved() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        Path targetFolder = Files.createDirectories(destinationFolder.resolve("source"));
+        byte[] ones = new byte[1000];
+        Arrays.fill(ones, (byte) 1);
+        Path similarTarget = Files.write(targetFolder.resolve("file0.dat"), ones);
+
+        CopyJob copyJob = FileManagerFactory.getHeadlessFileCopier().movePathnames(Collections.singleton(sourceFolder), destinationFolder, false, null);
+
+        Assert.assertSame("completion future yields the job", copyJob, copyJob.getCompletion().get(30L, TimeUnit.SECONDS));
+        Assert.assertEquals("remaining files copied", 40, targetFolder.toFile().list().length);
+        Assert.assertEquals("other files copied and verified", 39, copyJob.getCopyDigests().size());
+        Assert.assertArrayEquals("source of file skipped as similar left in place", new String[] { "file0.dat" }, sourceFolder.toFile().list());
+        Assert.assertArrayEquals("similar target left in place", ones, Files.readAllBytes(similarTarget));
+    }
+
+    @Test
+    public void testArchivePathnames_ParallelCompressionWritesSameArchiveEveryTime() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        // Spans several compressed blocks, and has a name too long for a ustar header
+        byte[] largeContent = new byte[3 * ArchiveWorkDelegate.BLOCK_SIZE + 12345];
+        new Random(48L).nextBytes(largeContent);
+        Path subfolder = Files.createDirectory(sourceFolder.resolve("subfolder"));
+        char[] longName = new char[120];
+        Arrays.fill(longName, 'n');
+        Files.write(subfolder.resolve(new String(longName) + ".dat"), largeContent);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            HeadlessFileCopier copier = FileManagerFactory.getHeadlessFileCopier(executor, 4);
+            Path archive = copyJobTestFolder.resolve("archive.tar.gz");
+            Path secondArchive = copyJobTestFolder.resolve("second.tar.gz");
+
+            CopyJob copyJob = copier.archivePathnames(Collections.singleton(sourceFolder), archive, true, false);
+            Assert.assertSame("completion future yields the job", copyJob, copyJob.getCompletion().get(30L, TimeUnit.SECONDS));
+            copyJob = copier.archivePathnames(Collections.singleton(sourceFolder), secondArchive, true, false);
+            Assert.assertSame("completion future yields the second job", copyJob, copyJob.getCompletion().get(30L, TimeUnit.SECONDS));
+
+            Map<String, byte[]> entries = readTarGz(archive);
+            Assert.assertEquals("source folder, subfolder and every file archived", 43, entries.size());
+            Assert.assertTrue("folders archived", entries.containsKey("source/") && entries.containsKey("source/subfolder/"));
+            Assert.assertArrayEquals("file archived", new byte[1007], entries.get("source/file7.dat"));
+            Assert.assertArrayEquals("long-named file archived whole", largeContent, entries.get("source/subfolder/" + new String(longName) + ".dat"));
+            Assert.assertArrayEquals("same sources make the same archive", Files.readAllBytes(archive), Files.readAllBytes(secondArchive));
+
+            try {
+                copier.archivePathnames(Collections.singleton(sourceFolder), archive, true, false);
+                Assert.fail("existing archive overwritten although overwriting was not allowed");
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the entries of a gzip-compressed tar archive, taking names from extended headers where present.
+     */
+    private static Map<String, byte[]> readTarGz(Path archive) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(archive))) {
+            byte[] buffer = new byte[8192];
+            for (int read; (read = in.read(buffer)) > 0; ) {
+                tar.write(buffer, 0, read);
+            }
+        }
+
+        byte[] bytes = tar.toByteArray();
+        Assert.assertEquals("archive padded to whole tar blocks", 0, bytes.length % TarHeaders.BLOCKING_SIZE);
+        String extendedName = null;
+        int offset = 0;
+        while (bytes[offset] != 0) {
+            String name = new String(bytes, offset, 100, StandardCharsets.UTF_8).replace("\0", "");
+            int size = Integer.parseInt(new String(bytes, offset + 124, 11, StandardCharsets.US_ASCII), 8);
+            byte type = bytes[offset + 156];
+            byte[] content = Arrays.copyOfRange(bytes, offset + 512, offset + 512 + size);
+            offset += 512 + ((size + 511) / 512) * 512;
+
+            if (type == 'x') {
+                String records = new String(content, StandardCharsets.UTF_8);
+                extendedName = records.substring(records.indexOf("path=") + 5, records.indexOf('\n', records.indexOf("path=")));
+            } else {
+                entries.put((extendedName != null) ? extendedName : name, content);
+                extendedName = null;
+            }
+        }
+
+        return entries;
+    }
+
+} // class CopyJobTest
@@ -0,0 +1,146 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class CopyJournalTest {
+
+    private final SwingFileManager fileManager = FileManagerFactory.getSwingFileManager();
+    private final String userTempFolder = System.getProperty("java.io.tmpdir");
+    private final Path copyJournalTestFolder = new File(userTempFolder + "CopyJournalTestFolder").toPath();
+    private Path sourceFolder;
+    private Path destinationFolder;
+
+    @Before
+    public void setup() throws IOException {
+        Assume.assumeFalse("folder used for tests should not pre-exist", Files.exists(copyJournalTestFolder));
+
+        Files.createDirectory(copyJournalTestFolder);
+        sourceFolder = Files.createDirectory(copyJournalTestFolder.resolve("source"));
+        destinationFolder = Files.createDirectory(copyJournalTestFolder.resolve("destination"));
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Assert.assertTrue("able to delete temp folder constructed by setup() method for tests", fileManager.deletePathname(copyJournalTestFolder));
+    }
+
+    @Test
+    public void testLoad_ReadsJobAndProgressWritten() throws IOException {
+        Path partialTarget = Files.write(destinationFolder.resolve("partial.dat"), new byte[10]);
+
+        Path completedTarget = Files.write(destinationFolder.resolve("done.dat"), new byte[20]);
+        Set<Path> sources = new LinkedHashSet<>();
+        sources.add(sourceFolder);
+
+        CopyJournal journal = new CopyJournal(destinationFolder, sources, true, false, true, null);
+        journal.recordCompleted(completedTarget, 20L, 1000L);
+        journal.recordCheckpoint(partialTarget, 4L, 30L, 2000L);
+        journal.recordCheckpoint(partialTarget, 8L, 30L, 2000L);
+        journal.close();
+
+        CopyJournal.Contents contents = CopyJournal.load(destinationFolder);
+        Assert.assertEquals("source paths read back", sources, contents.getSourcePaths());
+        Assert.assertTrue("recursion option read back", contents.isRecursive());
+        Assert.assertFalse("overwrite option read back", contents.isOverwritingExistingFiles());
+        Assert.assertTrue("move option read back", contents.isMovingSources());
+
+        CopyJournal resumed = new CopyJournal(destinationFolder, contents.getSourcePaths(), true, false, true, contents);
+        Assert.assertTrue("completed file recognized", resumed.isCompleted(completedTarget, 20L, 1000L));
+        Assert.assertFalse("completed file not recognized once its source changed", resumed.isCompleted(completedTarget, 20L, 1001L));
+        Assert.assertFalse("partial file not completed", resumed.isCompleted(partialTarget, 30L, 2000L));
+        Assert.assertEquals("latest checkpoint of partial file kept", 8L, resumed.getCheckpoint(partialTarget, 30L, 2000L));
+        Assert.assertEquals("checkpoint dropped once its source changed length", 0L, resumed.getCheckpoint(partialTarget, 31L, 2000L));
+        Assert.assertEquals("checkpoint dropped once its source was modified", 0L, resumed.getCheckpoint(partialTarget, 30L, 2001L));
+
+        // A completion record is advisory: a copy whose length no longer matches its source was not completed
+        Files.write(completedTarget, new byte[5]);
+        Assert.assertFalse("truncated copy not recognized as completed", resumed.isCompleted(completedTarget, 20L, 1000L));
+
+        resumed.delete();
+        Assert.assertFalse("journal removed once its job is completed", Files.exists(destinationFolder.resolve(CopyJournal.JOURNAL_FILE_NAME)));
+    }
+
+    @Test(expected = NoSuchFileException.class)
+    public void testResumeCopyJob_NoJournal() throws IOException {
+        fileManager.resumeCopyJob(destinationFolder, null);
+    }
+
+    @Test
+    public void testResumeCopyJob_SkipsCompletedAndContinuesPartialFiles() throws IOException, InterruptedException, SwingCopyJobException {
+        byte[] content = new byte[100000];
+        new Random(35).nextBytes(content);
+        Files.write(sourceFolder.resolve("completed.dat"), content);
+        Files.write(sourceFolder.resolve("partial.dat"), content);
+        Files.write(sourceFolder.resolve("untouched.dat"), content);
+
+        // Simulate an interrupted job: one file recorded as copied, one copied up to a durable offset
+        Path sourceInDestination = Files.createDirectory(destinationFolder.resolve("source"));
+        Path completedTarget = Files.write(sourceInDestination.resolve("completed.dat"), new byte[content.length]);
+        Path partialTarget = Files.write(sourceInDestination.resolve("partial.dat"), Arrays.copyOf(content, 40000));
+        Set<Path> sources = new LinkedHashSet<>();
+        sources.add(sourceFolder.toRealPath());
+
+        CopyJournal journal = new CopyJournal(destinationFolder, sources, true, false, false, null);
+        journal.recordCompleted(completedTarget, content.length, sourceFolder.resolve("completed.dat").toFile().lastModified());
+        journal.recordCheckpoint(partialTarget, 40000L, content.length, sourceFolder.resolve("partial.dat").toFile().lastModified());
+        journal.close();
+
+        SwingCopyJob swingCopyJob = fileManager.resumeCopyJob(destinationFolder, null);
+        swingCopyJob.awaitCompletion();
+
+        Assert.assertTrue("file recorded as copied was skipped without its content being examined", Arrays.equals(new byte[content.length], Files.readAllBytes(completedTarget)));
+        Assert.assertTrue("partial file completed", Arrays.equals(content, Files.readAllBytes(partialTarget)));
+        Assert.assertTrue("file not yet copied was copied", Arrays.equals(content, Files.readAllBytes(sourceInDestination.resolve("untouched.dat"))));
+        Assert.assertFalse("journal removed once the resumed job completed", Files.exists(destinationFolder.resolve(CopyJournal.JOURNAL_FILE_NAME)));
+    }
+
+    @Test
+    public void testResumeCopyJob_RecopiesFilesChangedSinceInterruption() throws IOException, InterruptedException, SwingCopyJobException {
+        byte[] content = new byte[100000];
+        new Random(351).nextBytes(content);
+        Path completedSource = Files.write(sourceFolder.resolve("completed.dat"), content);
+        Path partialSource = Files.write(sourceFolder.resolve("partial.dat"), content);
+        Path truncatedSource = Files.write(sourceFolder.resolve("truncated.dat"), content);
+
+        // Recorded before the sources of two files changed, and before the copy of the third lost its tail
+        Path sourceInDestination = Files.createDirectory(destinationFolder.resolve("source"));
+        Path completedTarget = Files.write(sourceInDestination.resolve("completed.dat"), new byte[content.length]);
+        Path partialTarget = Files.write(sourceInDestination.resolve("partial.dat"), new byte[40000]);
+        Path truncatedTarget = Files.write(sourceInDestination.resolve("truncated.dat"), Arrays.copyOf(content, 500));
+        Set<Path> sources = new LinkedHashSet<>();
+        sources.add(sourceFolder.toRealPath());
+
+        CopyJournal journal = new CopyJournal(destinationFolder, sources, true, true, false, null);
+        journal.recordCompleted(completedTarget, content.length, completedSource.toFile().lastModified() - 5000L);
+        journal.recordCheckpoint(partialTarget, 40000L, content.length, partialSource.toFile().lastModified() - 5000L);
+        journal.recordCompleted(truncatedTarget, content.length, truncatedSource.toFile().lastModified());
+        journal.close();
+
+        SwingCopyJob swingCopyJob = fileManager.resumeCopyJob(destinationFolder, null);
+        swingCopyJob.awaitCompletion();
+
+        Assert.assertTrue("file whose source changed since it was copied was copied again", Arrays.equals(content, Files.readAllBytes(completedTarget)));
+        Assert.assertTrue("file whose source changed since its checkpoint was copied from its start", Arrays.equals(content, Files.readAllBytes(partialTarget)));
+        Assert.assertTrue("file whose copy no longer has its source's length was copied again", Arrays.equals(content, Files.readAllBytes(truncatedTarget)));
+    }
+
+    @Test
+    public void testSettings_NotJournaledByDefault() {
+        Assert.assertFalse("jobs keep no journal unless journaling is enabled", new CopyJobSettings().isJournalEnabled());
+    }
+
+} // class CopyJournalTest
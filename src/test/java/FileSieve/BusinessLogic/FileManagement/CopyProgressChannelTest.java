@@ -0,0 +1,54 @@
+package FileSieve.BusinessLogic.FileManagement;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class CopyProgressChannelTest {
+
+    private final Path first = Paths.get("first.dat");
+    private final Path second = Paths.get("second.dat");
+
+    @Test
+    public void testTakeSnapshot_CoalescesUpdatesInOrderOfFirstChange() {
+        CopyProgressChannel channel = new CopyProgressChannel();
+
+        Assert.assertNull("no snapshot before any update", channel.takeSnapshot());
+
+        for (int percent = 0; percent < 100; ++percent) {
+            channel.update(first, percent);
+            if (percent == 10) {
+                channel.update(second, 5);
+            }
+        }
+
+        CopyProgressChannel.Snapshot snapshot = channel.takeSnapshot();
+        Assert.assertEquals("one entry per path updated", 2, snapshot.size());
+        Assert.assertEquals("path changed first comes first", first, snapshot.paths[0]);
+        Assert.assertEquals("only latest percentage kept", 99, snapshot.percentages[0]);
+        Assert.assertEquals("second path follows", second, snapshot.paths[1]);
+        Assert.assertEquals("second path's percentage", 5, snapshot.percentages[1]);
+
+        Assert.assertNull("snapshot is empty once drained", channel.takeSnapshot());
+    }
+
+    @Test
+    public void testUpdate_UnchangedPercentageIsNotRedelivered() {
+        CopyProgressChannel channel = new CopyProgressChannel();
+
+        channel.update(first, 40);
+        channel.takeSnapshot();
+        channel.update(first, 40);
+        Assert.assertNull("repeated percentage not delivered again", channel.takeSnapshot());
+
+        channel.update(first, 100);
+        Assert.assertEquals("completion delivered", 100, channel.takeSnapshot().percentages[0]);
+
+        // Slot of the completed path was released, so a later update to it is delivered afresh
+        channel.update(first, 0);
+        Assert.assertEquals("update after completion delivered", 0, channel.takeSnapshot().percentages[0]);
+    }
+
+} // class CopyProgressChannelTest
@@ -481,6 +481,49 @@ public class SwingWorkerBasedFileManagerTest implements SwingCopyJobListener {
         Assert.assertEquals("tracked copy jobs have been been removed from SwingCopyJob class' internal map", 0, SwingCopyJob.swingCopyJobs.size());
     }
 
+    @Test
+    public void testCopyPathname_ManySmallFiles_ParallelWorkers() throws IOException, InterruptedException {
+        if (!deletePathnameTestsPassed) {
+            Assert.fail("testing of copyPathname method depends on deletePathname testing, one or assertions for which failed");
+        }
+
+        final int FILE_COUNT = 300;
+        Path folderToCopy = fileManagementTestFolder.resolve("manySmallFiles");
+        Path targetFolder = fileManagementTestFolder.resolve("targetFolder");
+
+        Files.createDirectory(folderToCopy);
+        for (int i = 0; i < FILE_COUNT; i++) {
+            Files.write(folderToCopy.resolve("smallFile" + i + ".dat"), ("small file number " + i).getBytes());
+        }
+
+        // Copy with a file manager whose jobs copy up to 4 files at a time
+        SwingFileManager parallelFileManager = FileManagerFactory.getSwingFileManager(4);
+        SwingCopyJob swingCopyJob = parallelFileManager.copyPathname(folderToCopy, targetFolder, true, false, null);
+        if (swingCopyJob != null) {
+            try {
+                swingCopyJob.awaitCompletion();
+
+                Path copiedFolder = targetFolder.resolve(folderToCopy.getFileName());
+                Assert.assertEquals("all small files were copied by parallel workers", FILE_COUNT + 1, getChildCount(targetFolder));
+                for (int i = 0; i < FILE_COUNT; i += 37) {
+                    Assert.assertArrayEquals("content of a copied small file matches its source", ("small file number " + i).getBytes(), Files.readAllBytes(copiedFolder.resolve("smallFile" + i + ".dat")));
+                }
+
+            } catch (SwingCopyJobException e) {
+                Assert.fail(e.getCause().getClass().getSimpleName() + " occurred during BackgroundCopyWorker execution, parallel copying of small files. Message: " + e.getCause().getMessage());
+
+            } finally {
+                if (!swingFileManager.deletePathname(targetFolder)) {
+                    Assert.fail("unable to delete \"targetFolder\" folder following parallel copy test");
+                }
+            }
+        } else {
+            Assert.fail("Unable to create or retrieve a SwingCopyJob instance");
+        }
+
+        Assert.assertEquals("tracked copy jobs have been been removed from SwingCopyJob class' internal map", 0, SwingCopyJob.swingCopyJobs.size());
+    }
+
     @Test
     public void testCopyPathnames_Cancel() throws IOException, InterruptedException {
         if (!deletePathnameTestsPassed) {
@@ -498,6 +541,10 @@ public class SwingWorkerBasedFileManagerTest implements SwingCopyJobListener {
 
         pathsCopied = 0;
 
+        /* Copy with the byte-at-a-time engine so that the job is still running when the cancel request is issued;
+           the default channel engine copies the test files faster than the cancellation below can take effect */
+        ((SwingWorkerBasedFileManager) swingFileManager).setCopyEngine(new StreamCopyEngine());
+
         // Copy a folder, with the contents of all subfolders (recursion option = true), to a non-existent target folder
         SwingCopyJob swingCopyJob = swingFileManager.copyPathnames(pathsToCopy, targetFolder, true, false, null);
         if (swingCopyJob != null) {